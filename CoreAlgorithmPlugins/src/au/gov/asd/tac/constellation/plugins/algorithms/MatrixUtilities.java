@@ -16,11 +16,18 @@
 package au.gov.asd.tac.constellation.plugins.algorithms;
 
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import java.util.Arrays;
 import org.ejml.simple.SimpleMatrix;
 
 /**
  * Utilities for converting a graph into various matrices and performing linear
  * algebra operations.
+ * <p>
+ * The {@link SimpleMatrix} methods build dense matrices, which need memory
+ * proportional to the square of the vertex count and are only suitable for
+ * small graphs. The {@link SparseMatrix} methods hold only the non-zero
+ * entries, and together with the iterative solvers below scale with the number
+ * of links instead.
  *
  * @author cygnus_x-1
  */
@@ -87,4 +94,206 @@ public class MatrixUtilities {
         final SimpleMatrix laplacian = laplacian(graph);
         return laplacian.pseudoInverse();
     }
+
+    public static SparseMatrix sparseIdentity(final GraphReadMethods graph) {
+        final double[] data = new double[graph.getVertexCount()];
+        Arrays.fill(data, 1.0);
+        return SparseMatrix.diagonal(data);
+    }
+
+    /**
+     * A sparse equivalent of {@link #adjacency}.
+     * <p>
+     * A loop is seen from both of its ends, so it contributes 2 to the
+     * diagonal rather than the 1 held by the dense matrix. This agrees with
+     * {@link #sparseDegree}, so every row of {@link #sparseLaplacian} sums to
+     * zero.
+     *
+     * @param graph The graph.
+     * @param weighted Whether to weight each link by its transaction count.
+     * @return The adjacency matrix, indexed by vertex position.
+     */
+    public static SparseMatrix sparseAdjacency(final GraphReadMethods graph, final boolean weighted) {
+        final int vertexCount = graph.getVertexCount();
+        final int[] offsets = new int[vertexCount + 1];
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            offsets[vertexPosition + 1] = offsets[vertexPosition] + graph.getVertexNeighbourCount(graph.getVertex(vertexPosition));
+        }
+
+        final int[] columns = new int[offsets[vertexCount]];
+        final double[] values = new double[offsets[vertexCount]];
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            final int vertexId = graph.getVertex(vertexPosition);
+            final int neighbourCount = graph.getVertexNeighbourCount(vertexId);
+            for (int neighbourPosition = 0; neighbourPosition < neighbourCount; neighbourPosition++) {
+                final int neighbourId = graph.getVertexNeighbour(vertexId, neighbourPosition);
+                final int vertexNeighbourLinkId = graph.getLink(vertexId, neighbourId);
+                final int entry = offsets[vertexPosition] + neighbourPosition;
+                columns[entry] = graph.getVertexPosition(neighbourId);
+                values[entry] = weighted ? graph.getLinkTransactionCount(vertexNeighbourLinkId) : 1.0;
+            }
+        }
+
+        return new SparseMatrix(vertexCount, vertexCount, offsets, columns, values);
+    }
+
+    /**
+     * A sparse equivalent of {@link #incidence}. As with
+     * {@link #sparseAdjacency}, a loop contributes twice.
+     *
+     * @param graph The graph.
+     * @param weighted Whether to weight each link by its transaction count.
+     * @return The incidence matrix, indexed by vertex position and link
+     * position.
+     */
+    public static SparseMatrix sparseIncidence(final GraphReadMethods graph, final boolean weighted) {
+        final int vertexCount = graph.getVertexCount();
+        final int[] offsets = new int[vertexCount + 1];
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            offsets[vertexPosition + 1] = offsets[vertexPosition] + graph.getVertexLinkCount(graph.getVertex(vertexPosition));
+        }
+
+        final int[] columns = new int[offsets[vertexCount]];
+        final double[] values = new double[offsets[vertexCount]];
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            final int vertexId = graph.getVertex(vertexPosition);
+            final int adjacentLinkCount = graph.getVertexLinkCount(vertexId);
+            for (int adjacentLinkPosition = 0; adjacentLinkPosition < adjacentLinkCount; adjacentLinkPosition++) {
+                final int adjacentLinkId = graph.getVertexLink(vertexId, adjacentLinkPosition);
+                final int entry = offsets[vertexPosition] + adjacentLinkPosition;
+                columns[entry] = graph.getLinkPosition(adjacentLinkId);
+                values[entry] = weighted ? graph.getLinkTransactionCount(adjacentLinkId) : 1.0;
+            }
+        }
+
+        return new SparseMatrix(vertexCount, graph.getLinkCount(), offsets, columns, values);
+    }
+
+    public static SparseMatrix sparseDegree(final GraphReadMethods graph) {
+        final int vertexCount = graph.getVertexCount();
+        final double[] data = new double[vertexCount];
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            data[vertexPosition] = graph.getVertexNeighbourCount(graph.getVertex(vertexPosition));
+        }
+
+        return SparseMatrix.diagonal(data);
+    }
+
+    public static SparseMatrix sparseLaplacian(final GraphReadMethods graph) {
+        final SparseMatrix adjacency = sparseAdjacency(graph, false);
+        final SparseMatrix degree = sparseDegree(graph);
+        return degree.minus(adjacency);
+    }
+
+    /**
+     * Solve <code>matrix * x = b</code> using the Jacobi preconditioned
+     * conjugate gradient method.
+     * <p>
+     * The matrix must be symmetric and positive semi-definite, as a Laplacian
+     * is. A Laplacian is singular, so <code>b</code> must sum to zero over
+     * each connected component for a solution to exist; the solution is then
+     * only unique up to a constant added to each component.
+     *
+     * @param matrix A symmetric positive semi-definite matrix.
+     * @param b The right hand side.
+     * @param tolerance The residual, relative to the norm of <code>b</code>,
+     * at which to stop.
+     * @param maxIterations The maximum number of iterations to perform.
+     * @return The solution <code>x</code>.
+     */
+    public static double[] conjugateGradient(final SparseMatrix matrix, final double[] b, final double tolerance, final int maxIterations) {
+        final int n = matrix.getRowCount();
+        final double[] inverseDiagonal = matrix.getDiagonal();
+        for (int i = 0; i < n; i++) {
+            inverseDiagonal[i] = inverseDiagonal[i] != 0 ? 1.0 / inverseDiagonal[i] : 1.0;
+        }
+
+        final double[] x = new double[n];
+        final double[] r = Arrays.copyOf(b, n);
+        final double[] z = new double[n];
+        final double[] p = new double[n];
+        final double[] q = new double[n];
+        for (int i = 0; i < n; i++) {
+            z[i] = inverseDiagonal[i] * r[i];
+            p[i] = z[i];
+        }
+
+        final double threshold = tolerance * Math.sqrt(dot(b, b));
+        double rz = dot(r, z);
+        for (int iteration = 0; iteration < maxIterations && Math.sqrt(dot(r, r)) > threshold; iteration++) {
+            matrix.multiply(p, q);
+            final double pq = dot(p, q);
+            if (pq <= 0) {
+                break;
+            }
+
+            final double alpha = rz / pq;
+            for (int i = 0; i < n; i++) {
+                x[i] += alpha * p[i];
+                r[i] -= alpha * q[i];
+                z[i] = inverseDiagonal[i] * r[i];
+            }
+
+            final double previousRz = rz;
+            rz = dot(r, z);
+            final double beta = rz / previousRz;
+            for (int i = 0; i < n; i++) {
+                p[i] = z[i] + beta * p[i];
+            }
+        }
+
+        return x;
+    }
+
+    /**
+     * Find the dominant eigenvector of a square matrix by power iteration.
+     * <p>
+     * Iteration stops when the L1 change in the vector is less than
+     * <code>tolerance</code>. Power iteration may not converge if the two
+     * largest eigenvalues have the same magnitude, as happens for the
+     * adjacency matrix of a bipartite graph.
+     *
+     * @param matrix A square matrix.
+     * @param tolerance The L1 change at which to stop.
+     * @param maxIterations The maximum number of iterations to perform.
+     * @return The dominant eigenvector, normalised to unit length.
+     */
+    public static double[] powerIteration(final SparseMatrix matrix, final double tolerance, final int maxIterations) {
+        final int n = matrix.getRowCount();
+        double[] vector = new double[n];
+        double[] next = new double[n];
+        Arrays.fill(vector, 1.0 / Math.sqrt(n));
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            matrix.multiply(vector, next);
+            final double norm = Math.sqrt(dot(next, next));
+            if (norm == 0) {
+                return next;
+            }
+
+            double delta = 0;
+            for (int i = 0; i < n; i++) {
+                next[i] /= norm;
+                delta += Math.abs(next[i] - vector[i]);
+            }
+
+            final double[] swap = vector;
+            vector = next;
+            next = swap;
+            if (delta < tolerance) {
+                break;
+            }
+        }
+
+        return vector;
+    }
+
+    private static double dot(final double[] a, final double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+
+        return sum;
+    }
 }
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * An immutable sparse matrix held in compressed sparse row form.
+ * <p>
+ * The non-zero entries of row <code>i</code> are held at positions
+ * <code>getRowStart(i)</code> (inclusive) to <code>getRowEnd(i)</code>
+ * (exclusive), sorted by column. Memory use is proportional to the number of
+ * non-zero entries rather than to the number of rows times the number of
+ * columns.
+ *
+ * @author cygnus_x-1
+ */
+public final class SparseMatrix {
+
+    private final int rowCount;
+    private final int columnCount;
+    private final int[] rowOffsets;
+    private final int[] columns;
+    private final double[] values;
+
+    /**
+     * Create a sparse matrix from its compressed sparse row arrays. The entries
+     * of each row need not be sorted, and entries that share a row and column
+     * are summed. The arrays are owned by the new matrix and must not be
+     * modified by the caller.
+     *
+     * @param rowCount The number of rows.
+     * @param columnCount The number of columns.
+     * @param rowOffsets The offset of the first entry of each row, followed by
+     * the total number of entries.
+     * @param columns The column of each entry.
+     * @param values The value of each entry.
+     */
+    public SparseMatrix(final int rowCount, final int columnCount, final int[] rowOffsets, final int[] columns, final double[] values) {
+        if (rowOffsets.length != rowCount + 1 || columns.length != rowOffsets[rowCount] || values.length != rowOffsets[rowCount]) {
+            throw new IllegalArgumentException("Inconsistent sparse matrix arrays");
+        }
+
+        // Sort each row and sum duplicates, shuffling the rows down over any removed entries.
+        int position = 0;
+        for (int row = 0; row < rowCount; row++) {
+            final int start = rowOffsets[row];
+            final int end = rowOffsets[row + 1];
+            sortRow(columns, values, start, end);
+            rowOffsets[row] = position;
+            for (int k = start; k < end; k++) {
+                if (position > rowOffsets[row] && columns[position - 1] == columns[k]) {
+                    values[position - 1] += values[k];
+                } else {
+                    columns[position] = columns[k];
+                    values[position++] = values[k];
+                }
+            }
+        }
+        rowOffsets[rowCount] = position;
+
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.rowOffsets = rowOffsets;
+        this.columns = position == columns.length ? columns : Arrays.copyOf(columns, position);
+        this.values = position == values.length ? values : Arrays.copyOf(values, position);
+    }
+
+    /**
+     * Create a sparse diagonal matrix.
+     *
+     * @param diagonal The values on the diagonal.
+     * @return A square sparse matrix with the given diagonal.
+     */
+    public static SparseMatrix diagonal(final double[] diagonal) {
+        final int size = diagonal.length;
+        final int[] offsets = new int[size + 1];
+        final int[] columns = new int[size];
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] = i + 1;
+            columns[i] = i;
+        }
+
+        return new SparseMatrix(size, size, offsets, columns, Arrays.copyOf(diagonal, size));
+    }
+
+    private static void sortRow(final int[] columns, final double[] values, final int start, final int end) {
+        boolean sorted = true;
+        for (int k = start + 1; k < end; k++) {
+            if (columns[k - 1] > columns[k]) {
+                sorted = false;
+                break;
+            }
+        }
+        if (sorted) {
+            return;
+        }
+
+        // Sort the column and original position together so the values can follow.
+        final long[] keys = new long[end - start];
+        for (int k = start; k < end; k++) {
+            keys[k - start] = ((long) columns[k] << 32) | (k - start);
+        }
+        Arrays.sort(keys);
+
+        final double[] rowValues = Arrays.copyOfRange(values, start, end);
+        for (int k = start; k < end; k++) {
+            final long key = keys[k - start];
+            columns[k] = (int) (key >>> 32);
+            values[k] = rowValues[(int) key];
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * The number of entries explicitly held by this matrix.
+     *
+     * @return The number of entries explicitly held by this matrix.
+     */
+    public int getNonZeroCount() {
+        return rowOffsets[rowCount];
+    }
+
+    public int getRowStart(final int row) {
+        return rowOffsets[row];
+    }
+
+    public int getRowEnd(final int row) {
+        return rowOffsets[row + 1];
+    }
+
+    public int getEntryColumn(final int entry) {
+        return columns[entry];
+    }
+
+    public double getEntryValue(final int entry) {
+        return values[entry];
+    }
+
+    /**
+     * Get the value at the given row and column.
+     *
+     * @param row The row.
+     * @param column The column.
+     * @return The value at the given row and column, or 0 if no entry is held.
+     */
+    public double get(final int row, final int column) {
+        final int entry = Arrays.binarySearch(columns, rowOffsets[row], rowOffsets[row + 1], column);
+        return entry >= 0 ? values[entry] : 0;
+    }
+
+    /**
+     * The values on the diagonal of this matrix.
+     *
+     * @return The values on the diagonal of this matrix.
+     */
+    public double[] getDiagonal() {
+        final double[] diagonal = new double[Math.min(rowCount, columnCount)];
+        for (int i = 0; i < diagonal.length; i++) {
+            diagonal[i] = get(i, i);
+        }
+
+        return diagonal;
+    }
+
+    /**
+     * Calculate <code>result = this * x</code>.
+     *
+     * @param x A vector with one value per column.
+     * @param result A vector with one value per row, which will be overwritten.
+     */
+    public void multiply(final double[] x, final double[] result) {
+        for (int row = 0; row < rowCount; row++) {
+            double sum = 0;
+            for (int k = rowOffsets[row]; k < rowOffsets[row + 1]; k++) {
+                sum += values[k] * x[columns[k]];
+            }
+            result[row] = sum;
+        }
+    }
+
+    /**
+     * Calculate <code>this * x</code>.
+     *
+     * @param x A vector with one value per column.
+     * @return A new vector with one value per row.
+     */
+    public double[] multiply(final double[] x) {
+        final double[] result = new double[rowCount];
+        multiply(x, result);
+        return result;
+    }
+
+    /**
+     * The transpose of this matrix.
+     *
+     * @return A new matrix that is the transpose of this matrix.
+     */
+    public SparseMatrix transpose() {
+        final int entryCount = getNonZeroCount();
+        final int[] offsets = new int[columnCount + 1];
+        for (int k = 0; k < entryCount; k++) {
+            offsets[columns[k] + 1]++;
+        }
+        for (int column = 0; column < columnCount; column++) {
+            offsets[column + 1] += offsets[column];
+        }
+
+        // Rows are visited in order, so each transposed row is filled already sorted.
+        final int[] next = Arrays.copyOf(offsets, columnCount);
+        final int[] transposedColumns = new int[entryCount];
+        final double[] transposedValues = new double[entryCount];
+        for (int row = 0; row < rowCount; row++) {
+            for (int k = rowOffsets[row]; k < rowOffsets[row + 1]; k++) {
+                final int position = next[columns[k]]++;
+                transposedColumns[position] = row;
+                transposedValues[position] = values[k];
+            }
+        }
+
+        return new SparseMatrix(columnCount, rowCount, offsets, transposedColumns, transposedValues);
+    }
+
+    /**
+     * Calculate <code>this - other</code>.
+     *
+     * @param other A matrix with the same dimensions as this matrix.
+     * @return A new matrix holding the difference.
+     */
+    public SparseMatrix minus(final SparseMatrix other) {
+        if (rowCount != other.rowCount || columnCount != other.columnCount) {
+            throw new IllegalArgumentException("Matrix dimensions do not match");
+        }
+
+        final int[] offsets = new int[rowCount + 1];
+        final int[] mergedColumns = new int[getNonZeroCount() + other.getNonZeroCount()];
+        final double[] mergedValues = new double[mergedColumns.length];
+        int position = 0;
+        for (int row = 0; row < rowCount; row++) {
+            int a = rowOffsets[row];
+            int b = other.rowOffsets[row];
+            final int aEnd = rowOffsets[row + 1];
+            final int bEnd = other.rowOffsets[row + 1];
+            while (a < aEnd || b < bEnd) {
+                if (b == bEnd || (a < aEnd && columns[a] < other.columns[b])) {
+                    mergedColumns[position] = columns[a];
+                    mergedValues[position++] = values[a++];
+                } else if (a == aEnd || other.columns[b] < columns[a]) {
+                    mergedColumns[position] = other.columns[b];
+                    mergedValues[position++] = -other.values[b++];
+                } else {
+                    mergedColumns[position] = columns[a];
+                    mergedValues[position++] = values[a++] - other.values[b++];
+                }
+            }
+            offsets[row + 1] = position;
+        }
+
+        return new SparseMatrix(rowCount, columnCount, offsets,
+                Arrays.copyOf(mergedColumns, position), Arrays.copyOf(mergedValues, position));
+    }
+}
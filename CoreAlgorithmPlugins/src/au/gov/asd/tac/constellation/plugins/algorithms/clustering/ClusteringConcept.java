@@ -85,6 +85,13 @@ public class ClusteringConcept extends SchemaConcept {
         public static final SchemaAttribute CHINESE_WHISPERS_COLOR = new SchemaAttribute.Builder(GraphElementType.VERTEX, ColorAttributeDescription.ATTRIBUTE_NAME, "Cluster.ChineseWhispers.Colour")
                 .setDescription("The chinese whispers cluster color")
                 .build();
+        public static final SchemaAttribute LABEL_PROPAGATION_CLUSTER = new SchemaAttribute.Builder(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "Cluster.LabelPropagation")
+                .setDescription("The label propagation cluster this node belongs to")
+                .setDefaultValue(-1)
+                .build();
+        public static final SchemaAttribute LABEL_PROPAGATION_COLOR = new SchemaAttribute.Builder(GraphElementType.VERTEX, ColorAttributeDescription.ATTRIBUTE_NAME, "Cluster.LabelPropagation.Colour")
+                .setDescription("The label propagation cluster color")
+                .build();
         public static final SchemaAttribute INFOMAP_CLUSTER = new SchemaAttribute.Builder(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "Cluster.Infomap")
                 .setDescription("The Infomap cluster this node belongs to")
                 .setDefaultValue(-1)
@@ -120,6 +127,13 @@ public class ClusteringConcept extends SchemaConcept {
         public static final SchemaAttribute CHINESE_WHISPERS_COLOR = new SchemaAttribute.Builder(GraphElementType.TRANSACTION, ColorAttributeDescription.ATTRIBUTE_NAME, "Cluster.ChineseWhispers.Colour")
                 .setDescription("The chinese whispers cluster color")
                 .build();
+        public static final SchemaAttribute LABEL_PROPAGATION_CLUSTER = new SchemaAttribute.Builder(GraphElementType.TRANSACTION, IntegerAttributeDescription.ATTRIBUTE_NAME, "Cluster.LabelPropagation")
+                .setDescription("The label propagation cluster this transaction belongs to")
+                .setDefaultValue(-1)
+                .build();
+        public static final SchemaAttribute LABEL_PROPAGATION_COLOR = new SchemaAttribute.Builder(GraphElementType.TRANSACTION, ColorAttributeDescription.ATTRIBUTE_NAME, "Cluster.LabelPropagation.Colour")
+                .setDescription("The label propagation cluster color")
+                .build();
         public static final SchemaAttribute INFOMAP_CLUSTER = new SchemaAttribute.Builder(GraphElementType.TRANSACTION, IntegerAttributeDescription.ATTRIBUTE_NAME, "Cluster.Infomap")
                 .setDescription("The Infomap cluster this node belongs to")
                 .setDefaultValue(-1)
@@ -141,6 +155,8 @@ public class ClusteringConcept extends SchemaConcept {
         schemaAttributes.add(VertexAttribute.HIERARCHICAL_COLOUR);
         schemaAttributes.add(VertexAttribute.CHINESE_WHISPERS_CLUSTER);
         schemaAttributes.add(VertexAttribute.CHINESE_WHISPERS_COLOR);
+        schemaAttributes.add(VertexAttribute.LABEL_PROPAGATION_CLUSTER);
+        schemaAttributes.add(VertexAttribute.LABEL_PROPAGATION_COLOR);
         schemaAttributes.add(VertexAttribute.INFOMAP_CLUSTER);
         schemaAttributes.add(VertexAttribute.INFOMAP_COLOR);
         schemaAttributes.add(TransactionAttribute.NAMED_CLUSTER);
@@ -150,6 +166,8 @@ public class ClusteringConcept extends SchemaConcept {
         schemaAttributes.add(TransactionAttribute.HIERARCHICAL_COLOUR);
         schemaAttributes.add(TransactionAttribute.CHINESE_WHISPERS_CLUSTER);
         schemaAttributes.add(TransactionAttribute.CHINESE_WHISPERS_COLOR);
+        schemaAttributes.add(TransactionAttribute.LABEL_PROPAGATION_CLUSTER);
+        schemaAttributes.add(TransactionAttribute.LABEL_PROPAGATION_COLOR);
         schemaAttributes.add(TransactionAttribute.INFOMAP_CLUSTER);
         schemaAttributes.add(TransactionAttribute.INFOMAP_COLOR);
         return Collections.unmodifiableCollection(schemaAttributes);
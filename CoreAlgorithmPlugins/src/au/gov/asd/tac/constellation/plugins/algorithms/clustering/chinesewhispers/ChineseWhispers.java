@@ -16,11 +16,9 @@
 package au.gov.asd.tac.constellation.plugins.algorithms.clustering.chinesewhispers;
 
 import au.gov.asd.tac.constellation.graph.Graph;
-import au.gov.asd.tac.constellation.graph.GraphElementType;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.ClusteringConcept;
-import java.security.SecureRandom;
-import java.util.ArrayList;
+import au.gov.asd.tac.constellation.plugins.algorithms.clustering.labelpropagation.LabelPropagation;
 import java.util.Arrays;
 
 /**
@@ -46,101 +44,53 @@ import java.util.Arrays;
  * handful of iterations. The number of iterations depends on the diameter of
  * the graph: the larger the distance between two nodes is, the more iterations
  * it takes to percolate information from one to another.
+ * <p>
+ * The strength of a class is the number of transactions to neighbours in that
+ * class. Vertices are processed by {@link LabelPropagation}, which updates
+ * vertices that are not neighbours in parallel.
  *
  * @author algol
  */
 public final class ChineseWhispers {
 
+    public static final int DEFAULT_MAX_ITERATIONS = 50;
+
     private final GraphWriteMethods wg;
     private final int clusterId;
 
     // Map a vxId to it's cluster number.
     private int[] vxClusters;
 
-    private final SecureRandom random = new SecureRandom();
-
     public ChineseWhispers(final GraphWriteMethods wg) {
         this.wg = wg;
         clusterId = ClusteringConcept.VertexAttribute.CHINESE_WHISPERS_CLUSTER.ensure(wg);
     }
 
-    public void cluster() {
-        final int vxCount = wg.getVertexCount();
+    public void cluster() throws InterruptedException {
+        cluster(DEFAULT_MAX_ITERATIONS, System.nanoTime());
+    }
 
-        // An array containing vertex positions in a random order.
-        final int[] positions = new int[vxCount];
+    /**
+     * Cluster the graph, stopping when no vertex changes class or after the
+     * given number of iterations.
+     *
+     * @param maxIterations The maximum number of iterations.
+     * @param seed The seed for random choices; the same seed and graph give
+     * the same clusters.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public void cluster(final int maxIterations, final long seed) throws InterruptedException {
+        final LabelPropagation propagation = new LabelPropagation(wg, true, seed);
+        propagation.run(maxIterations);
+        final int[] labels = propagation.getLabels();
 
-        // For each vertex index, the cluster that the vertex is in.
+        // Set the cluster attribute for each vertex.
         vxClusters = new int[wg.getVertexCapacity()];
         Arrays.fill(vxClusters, Graph.NOT_FOUND);
-        for (int position = 0; position < vxCount; position++) {
-            final int vxId = wg.getVertex(position);
-            positions[position] = position;
-            vxClusters[vxId] = position;
-        }
-
-        // For now we'll use a fixed number of iterations and break if there are
-        // no changes (or the number of changes increases). Figure out a better
-        // limit later if we want to. (See class comment above.)
-        int prevChanges = Integer.MAX_VALUE;
-        for (int iteration = 0; iteration < 50; iteration++) {
-            int changes = 0;
-            shuffle(random, positions);
-
-            for (int position : positions) {
-                final int vxId = wg.getVertex(position);
-
-                // Find the vertices connected to this vertex by the highest sum
-                // of link weights. Since in general we don;t do weights, we use
-                // the maximum number of transactions connected to a vertex.
-                final ArrayList<Integer> candidates = new ArrayList<>();
-                final int neighbours = wg.getVertexLinkCount(vxId);
-                int maxWeight = 0;
-                for (int npos = 0; npos < neighbours; npos++) {
-                    final int linkId = wg.getVertexLink(vxId, npos);
-
-                    final int weight = wg.getLinkTransactionCount(linkId);
-                    if (weight > maxWeight) {
-                        // This weight is a new maximum, so clear the previous
-                        // candidates.
-                        candidates.clear();
-                        maxWeight = weight;
-                    }
-
-                    if (weight == maxWeight) {
-                        // Find the vertex at the other end of the link and
-                        // remember it as a candidate.
-                        final int neighbourVxId = GraphElementType.LINK.getOtherVertex(wg, linkId, vxId);
-                        candidates.add(neighbourVxId);
-                    }
-                }
-
-                if (!candidates.isEmpty()) {
-                    // Choose a random vertex from the candidates and change the
-                    // cluster if it's different.
-                    final int rix = random.nextInt(candidates.size());
-                    final int rneighbour = candidates.get(rix);
-                    if (vxClusters[vxId] != vxClusters[rneighbour]) {
-                        vxClusters[vxId] = vxClusters[rneighbour];
-                        changes++;
-                    }
-                }
-            }
-
-            // If there were no changes of cluster in this iteration, or there
-            // were more changes than last time, we're finished.
-            if (changes == 0 || changes > prevChanges) {
-                break;
-            }
-
-            prevChanges = changes;
-        }
-
-        // Set the cluster attribute for each vertex.
-        for (int position = 0; position < vxCount; position++) {
+        for (int position = 0; position < labels.length; position++) {
             final int vxId = wg.getVertex(position);
-
-            wg.setIntValue(clusterId, vxId, vxClusters[vxId]);
+            vxClusters[vxId] = labels[position];
+            wg.setIntValue(clusterId, vxId, labels[position]);
         }
     }
 
@@ -154,19 +104,4 @@ public final class ChineseWhispers {
     public int getCluster(final int vxId) {
         return vxClusters[vxId];
     }
-
-    /**
-     * Shuffle the given integer array.
-     *
-     * @param random
-     * @param a
-     */
-    private static void shuffle(final SecureRandom random, int[] a) {
-        for (int i = a.length - 1; i > 0; i--) {
-            final int ix = random.nextInt(i + 1);
-            final int tmp = a[ix];
-            a[ix] = a[i];
-            a[i] = tmp;
-        }
-    }
 }
@@ -18,7 +18,10 @@ package au.gov.asd.tac.constellation.plugins.algorithms.clustering.chinesewhispe
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
+import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
+import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType;
+import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType.IntegerParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
 import org.openide.util.NbBundle;
 import org.openide.util.lookup.ServiceProvider;
@@ -31,9 +34,35 @@ import org.openide.util.lookup.ServiceProvider;
 @NbBundle.Messages("ChineseWhispersPlugin=Chinese Whispers")
 public class ChineseWhispersPlugin extends SimpleEditPlugin {
 
+    public static final String ITERATIONS_PARAMETER_ID = PluginParameter.buildId(ChineseWhispersPlugin.class, "iterations");
+    public static final String SEED_PARAMETER_ID = PluginParameter.buildId(ChineseWhispersPlugin.class, "seed");
+
+    @Override
+    public PluginParameters createParameters() {
+        final PluginParameters parameters = new PluginParameters();
+
+        final PluginParameter<IntegerParameterValue> iterationsParameter = IntegerParameterType.build(ITERATIONS_PARAMETER_ID);
+        iterationsParameter.setName("Iterations");
+        iterationsParameter.setDescription("The maximum number of iterations; clustering stops earlier if no node changes cluster");
+        iterationsParameter.setIntegerValue(ChineseWhispers.DEFAULT_MAX_ITERATIONS);
+        IntegerParameterType.setMinimum(iterationsParameter, 1);
+        parameters.addParameter(iterationsParameter);
+
+        final PluginParameter<IntegerParameterValue> seedParameter = IntegerParameterType.build(SEED_PARAMETER_ID);
+        seedParameter.setName("Random Seed");
+        seedParameter.setDescription("The seed for random choices; the same seed and graph give the same clusters. The default is 0, which uses a different seed each time.");
+        seedParameter.setIntegerValue(0);
+        parameters.addParameter(seedParameter);
+
+        return parameters;
+    }
+
     @Override
     public void edit(final GraphWriteMethods wg, final PluginInteraction interaction, final PluginParameters parameters) throws InterruptedException {
+        final int iterations = parameters.getIntegerValue(ITERATIONS_PARAMETER_ID);
+        final int seed = parameters.getIntegerValue(SEED_PARAMETER_ID);
+
         final ChineseWhispers cw = new ChineseWhispers(wg);
-        cw.cluster();
+        cw.cluster(iterations, seed != 0 ? seed : System.nanoTime());
     }
 }
@@ -22,24 +22,28 @@ import au.gov.asd.tac.constellation.graph.schema.analytic.concept.AnalyticConcep
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.ClusteringConcept;
 import au.gov.asd.tac.constellation.utilities.color.ConstellationColor;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.NavigableSet;
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * Execute the Fast Newman function which clusters the graph hierarchically by
  * initially placing all vertices in their own cluster and then iteratively
  * merging clusters according to a weight function until the optimal state is
  * reached.
+ * <p>
+ * Merges follow Clauset, Newman and Moore: the links between groups are kept
+ * as sorted primitive rows and the best merge is taken from a max-heap, so
+ * each merge only touches the links of the two groups being merged. Links in
+ * the initial set are always merged first.
  *
  * @author sirius
  */
 public class FastNewman {
 
+    // progress is reported once every this many merges
+    private static final int PROGRESS_INTERVAL = 1024;
+
     public static void run(final GraphWriteMethods graph, final PluginInteraction interaction, final boolean interactive) throws InterruptedException {
         run(graph, interaction, interactive, new HashSet<>(), AnalyticConcept.VertexAttribute.WEIGHT.getName());
     }
@@ -54,7 +58,6 @@ public class FastNewman {
         int nextColor = vertexCount - 1;
 
         final Group[] groups = new Group[graph.getVertexCapacity()];
-        final NavigableSet<Link> links = new TreeSet<>();
 
         int weightAttributeId = Graph.NOT_FOUND;
         if (weightAttribute != null) {
@@ -74,6 +77,7 @@ public class FastNewman {
         // and the Group isn't subsequently moved. Therefore, the index of a Group
         // is it's position. Therefore, the index of groups[i].parent can be found
         // by graph.getVertexPosition(parent.vertex);
+        final Communities communities = new Communities(vertexCount);
         for (int position = 0; position < vertexCount; position++) {
             final int vxId = graph.getVertex(position);
 
@@ -89,6 +93,7 @@ public class FastNewman {
                 }
                 groups[position].weight /= totalWeight;
             }
+            communities.weights[position] = groups[position].weight;
         }
 
         for (int p = 0; p < linkCount; p++) {
@@ -97,73 +102,59 @@ public class FastNewman {
             final int lowVertex = graph.getLinkLowVertex(linkId);
 
             if (highVertex != lowVertex) {
-                final Link link = new Link();
-
-                // Connect the link to its groups
-                link.highGroup = groups[graph.getVertexPosition(highVertex)];
-                link.lowGroup = groups[graph.getVertexPosition(lowVertex)];
-                link.highGroup.links.put(link.lowGroup, link);
-                link.lowGroup.links.put(link.highGroup, link);
-
+                float weight = 0;
                 if (weightAttributeId == Graph.NOT_FOUND) {
-                    link.weight = (float) graph.getLinkTransactionCount(linkId) / transactionCount;
+                    weight = (float) graph.getLinkTransactionCount(linkId) / transactionCount;
                 } else {
                     final int linkTransactionCount = graph.getLinkTransactionCount(linkId);
                     for (int tp = 0; tp < linkTransactionCount; tp++) {
                         final int transaction = graph.getLinkTransaction(linkId, tp);
-                        link.weight += graph.getFloatValue(weightAttributeId, transaction);
+                        weight += graph.getFloatValue(weightAttributeId, transaction);
                     }
-                    link.weight /= totalWeight;
+                    weight /= totalWeight;
                 }
-                link.deltaQ = 2f * (link.weight - link.highGroup.weight * link.lowGroup.weight);
-
-                link.initial = initialLinkIds.contains(linkId);
-                links.add(link);
+                communities.addLink(graph.getVertexPosition(highVertex), graph.getVertexPosition(lowVertex), weight, initialLinkIds.contains(linkId));
             }
         }
+        communities.prepare();
 
         int step = 0;
+        int merges = 0;
         float q = 0;
 
         int maxStep = 0;
         float maxQ = -Float.MAX_VALUE;
         boolean initialising = true;
 
-        while (!links.isEmpty()) {
+        while (communities.nextMerge()) {
 
-            interaction.setProgress(step, vertexCount - 1, "Merging groups...", true);
-
-            // Get the link with the highest deltaQ and remove it from the link set
-            final Link removedLink = links.first();
-            links.remove(removedLink);
+            if (merges++ % PROGRESS_INTERVAL == 0) {
+                interaction.setProgress(step, vertexCount - 1, "Merging groups...", true);
+            }
 
             // End initialisation and move onto the first proper step
-            if (initialising && !removedLink.initial) {
+            if (initialising && !communities.mergeInitial) {
                 initialising = false;
                 step++;
             }
 
             // Update Q
-            q += removedLink.deltaQ;
+            q += communities.mergeDeltaQ;
 
             if (q > maxQ) {
                 maxQ = q;
                 maxStep = step;
             }
 
-            // Get the parent and child groups for the link
-            Group parent = removedLink.highGroup;
-            Group child = removedLink.lowGroup;
-
             // Ensure that the parent has the greater weight
-            if (parent.weight < child.weight) {
-                final Group temp = parent;
-                parent = child;
-                child = temp;
+            int parentPosition = communities.mergeCommunity;
+            int childPosition = communities.mergeNeighbour;
+            if (communities.weights[parentPosition] < communities.weights[childPosition]) {
+                parentPosition = communities.mergeNeighbour;
+                childPosition = communities.mergeCommunity;
             }
-
-            parent.links.remove(child);
-            child.links.remove(parent);
+            final Group parent = groups[parentPosition];
+            final Group child = groups[childPosition];
 
             child.color = colors[nextColor--];
 
@@ -179,48 +170,7 @@ public class FastNewman {
             child.mergeStep = step;
             parent.weight += child.weight;
 
-            // Process each link that currently connects to the child...
-            for (final Entry<Group, Link> childLinkEntry : child.links.entrySet()) {
-
-                final Group otherGroup = childLinkEntry.getKey();
-                final Link childLink = childLinkEntry.getValue();
-                final Link parentLink = parent.links.get(otherGroup);
-
-                // If the parent has no link to the other vertex then move the child link to the parent
-                if (parentLink == null) {
-
-                    // Move the link from the child to the parent
-                    if (childLink.highGroup == child) {
-                        childLink.highGroup = parent;
-                    } else {
-                        childLink.lowGroup = parent;
-                    }
-                    parent.links.put(otherGroup, childLink);
-                    otherGroup.links.remove(child);
-                    otherGroup.links.put(parent, childLink);
-
-                    // Update the deltaQ for the link
-                    links.remove(childLink);
-                    childLink.deltaQ = 2 * (childLink.weight - childLink.highGroup.weight * childLink.lowGroup.weight);
-                    links.add(childLink);
-
-                    // If the parent also has a link to the other vertex then update the parent link and remove the child link
-                } else {
-
-                    // Update the weight and deltaQ for the parent link
-                    links.remove(parentLink);
-                    parentLink.weight += childLink.weight;
-                    parentLink.deltaQ = 2 * (parentLink.weight - parentLink.highGroup.weight * parentLink.lowGroup.weight);
-                    links.add(parentLink);
-
-                    // Remove the child link
-                    links.remove(childLink);
-                    otherGroup.links.remove(child);
-                }
-            }
-
-            // Clear the child links because they are no longer needed and are consuming memory
-            child.links = null;
+            communities.merge(parentPosition, childPosition);
 
             // Move on to the next step if we are not doing initialisation any more
             if (!initialising) {
@@ -249,7 +199,6 @@ public class FastNewman {
         private float weight = 0.0f;
         private Group parent = null;
         private int mergeStep = Integer.MAX_VALUE;
-        private Map<Group, Link> links = new HashMap<>();
         private ConstellationColor color;
         private int singleStep = Integer.MAX_VALUE;
 
@@ -294,27 +243,441 @@ public class FastNewman {
         }
     }
 
-    private static class Link implements Comparable<Link> {
+    /**
+     * The links between communities, held as sorted primitive rows, with a
+     * max-heap of communities keyed by the best change in modularity over
+     * their links, as described by Clauset, Newman and Moore.
+     * <p>
+     * Each link appears in the rows of both of its communities, but only
+     * counts towards the key of one of them, its owner, which is the community
+     * with more links when the link was last changed. Merging two communities
+     * changes the change in modularity of every link to the merged community.
+     * Those of links that were not shared only go down, so the keys of their
+     * owners are left as upper bounds, and a community is rescanned when it
+     * reaches the top of the heap to find its real best link. Links that were
+     * shared may go up, so the keys of their owners are raised as they are
+     * merged.
+     */
+    private static final class Communities {
+
+        private final float[] weights;
+        private final int[] sizes;
+        private final int[][] neighbours;
+        private final float[][] linkWeights;
+        private final boolean[][] initialLinks;
+        private final boolean[][] ownedLinks;
+
+        private final int[] heap;
+        private final int[] heapIndex;
+        private int heapSize = 0;
+        private final boolean[] keyInitial;
+        private final float[] keyDeltaQ;
+        private final int[] keyNeighbour;
+
+        // rows are merged here before being copied back to the parent
+        private int[] mergedNeighbours = new int[16];
+        private float[] mergedWeights = new float[16];
+        private boolean[] mergedInitial = new boolean[16];
+        private boolean[] mergedOwned = new boolean[16];
+
+        // the link chosen by the last call to nextMerge
+        private int mergeCommunity;
+        private int mergeNeighbour;
+        private float mergeDeltaQ;
+        private boolean mergeInitial;
+
+        private Communities(final int communityCount) {
+            weights = new float[communityCount];
+            sizes = new int[communityCount];
+            neighbours = new int[communityCount][];
+            linkWeights = new float[communityCount][];
+            initialLinks = new boolean[communityCount][];
+            ownedLinks = new boolean[communityCount][];
+            heap = new int[communityCount];
+            heapIndex = new int[communityCount];
+            Arrays.fill(heapIndex, -1);
+            keyInitial = new boolean[communityCount];
+            keyDeltaQ = new float[communityCount];
+            keyNeighbour = new int[communityCount];
+        }
 
-        private Group highGroup;
-        private Group lowGroup;
-        private float weight = 0.0f;
-        private float deltaQ;
-        private boolean initial = false;
-
-        @Override
-        public int compareTo(final Link o) {
-            if (initial && !o.initial) {
-                return -1;
-            } else if (!initial && o.initial) {
-                return 1;
-            } else if (deltaQ > o.deltaQ) {
-                return -1;
-            } else if (deltaQ < o.deltaQ) {
-                return 1;
+        private void addLink(final int first, final int second, final float weight, final boolean initial) {
+            append(first, second, weight, initial);
+            append(second, first, weight, initial);
+        }
+
+        private void append(final int community, final int neighbour, final float weight, final boolean initial) {
+            final int size = sizes[community];
+            if (neighbours[community] == null) {
+                allocate(community, 4);
+            } else if (size == neighbours[community].length) {
+                allocate(community, size + (size >> 1));
+            }
+            neighbours[community][size] = neighbour;
+            linkWeights[community][size] = weight;
+            initialLinks[community][size] = initial;
+            sizes[community]++;
+        }
+
+        private void allocate(final int community, final int capacity) {
+            if (neighbours[community] == null) {
+                neighbours[community] = new int[capacity];
+                linkWeights[community] = new float[capacity];
+                initialLinks[community] = new boolean[capacity];
+                ownedLinks[community] = new boolean[capacity];
             } else {
-                return hashCode() - o.hashCode();
+                neighbours[community] = Arrays.copyOf(neighbours[community], capacity);
+                linkWeights[community] = Arrays.copyOf(linkWeights[community], capacity);
+                initialLinks[community] = Arrays.copyOf(initialLinks[community], capacity);
+                ownedLinks[community] = Arrays.copyOf(ownedLinks[community], capacity);
+            }
+        }
+
+        /**
+         * Sort each row by neighbour, give each link to the community with more
+         * links, and build the heap.
+         */
+        private void prepare() {
+            for (int community = 0; community < sizes.length; community++) {
+                final int size = sizes[community];
+                if (size > 1) {
+                    final long[] order = new long[size];
+                    for (int i = 0; i < size; i++) {
+                        order[i] = ((long) neighbours[community][i] << 32) | i;
+                    }
+                    Arrays.sort(order);
+                    final int[] sortedNeighbours = new int[size];
+                    final float[] sortedWeights = new float[size];
+                    final boolean[] sortedInitial = new boolean[size];
+                    for (int i = 0; i < size; i++) {
+                        final int index = (int) order[i];
+                        sortedNeighbours[i] = neighbours[community][index];
+                        sortedWeights[i] = linkWeights[community][index];
+                        sortedInitial[i] = initialLinks[community][index];
+                    }
+                    neighbours[community] = sortedNeighbours;
+                    linkWeights[community] = sortedWeights;
+                    initialLinks[community] = sortedInitial;
+                    ownedLinks[community] = new boolean[size];
+                }
+            }
+
+            for (int community = 0; community < sizes.length; community++) {
+                for (int i = 0; i < sizes[community]; i++) {
+                    final int neighbour = neighbours[community][i];
+                    ownedLinks[community][i] = sizes[community] > sizes[neighbour] || (sizes[community] == sizes[neighbour] && community < neighbour);
+                }
+                if (sizes[community] > 0) {
+                    setKey(community);
+                    heap[heapSize] = community;
+                    heapIndex[community] = heapSize++;
+                }
+            }
+            for (int i = heapSize / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        private float deltaQ(final int community, final int neighbour, final float weight) {
+            return 2f * (weight - weights[community] * weights[neighbour]);
+        }
+
+        private boolean better(final int community, final boolean initial, final float deltaQ) {
+            return initial ? !keyInitial[community] || deltaQ > keyDeltaQ[community] : !keyInitial[community] && deltaQ > keyDeltaQ[community];
+        }
+
+        /**
+         * Scan the row of a community for its best owned link and make that
+         * its key.
+         */
+        private void setKey(final int community) {
+            final int[] row = neighbours[community];
+            final float[] rowWeights = linkWeights[community];
+            final boolean[] rowInitial = initialLinks[community];
+            final boolean[] rowOwned = ownedLinks[community];
+            final float weight = weights[community];
+            boolean bestInitial = false;
+            float bestDeltaQ = Float.NEGATIVE_INFINITY;
+            int bestNeighbour = -1;
+            for (int i = 0; i < sizes[community]; i++) {
+                final boolean initial = rowInitial[i];
+                if (rowOwned[i] && (initial || !bestInitial)) {
+                    final float deltaQ = 2f * (rowWeights[i] - weight * weights[row[i]]);
+                    if (bestNeighbour == -1 || initial != bestInitial || deltaQ > bestDeltaQ) {
+                        bestInitial = initial;
+                        bestDeltaQ = deltaQ;
+                        bestNeighbour = row[i];
+                    }
+                }
+            }
+            keyInitial[community] = bestInitial;
+            keyDeltaQ[community] = bestDeltaQ;
+            keyNeighbour[community] = bestNeighbour;
+        }
+
+        /**
+         * Find the best link between any two communities.
+         *
+         * @return False if there are no links left.
+         */
+        private boolean nextMerge() {
+            while (heapSize > 0) {
+                final int community = heap[0];
+                final boolean initial = keyInitial[community];
+                final float deltaQ = keyDeltaQ[community];
+                final int neighbour = keyNeighbour[community];
+                setKey(community);
+                if (keyInitial[community] != initial || Float.compare(keyDeltaQ[community], deltaQ) != 0 || keyNeighbour[community] != neighbour) {
+                    siftDown(0);
+                    if (heap[0] != community) {
+                        continue;
+                    }
+                }
+
+                // the key is exact, and every other key is an upper bound
+                if (keyNeighbour[community] == -1) {
+                    return false;
+                }
+                mergeCommunity = community;
+                mergeNeighbour = keyNeighbour[community];
+                mergeDeltaQ = keyDeltaQ[community];
+                mergeInitial = keyInitial[community];
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Merge the child community into the parent community.
+         * <p>
+         * The key of the parent is left as an upper bound, raised by any link
+         * it takes from the child, and is only rescanned when it reaches the
+         * top of the heap.
+         */
+        private void merge(final int parent, final int child) {
+            weights[parent] += weights[child];
+            removeFromHeap(child);
+
+            if (sizes[child] * 8 < sizes[parent]) {
+                mergeInPlace(parent, child);
+            } else {
+                mergeRows(parent, child);
+            }
+            neighbours[child] = null;
+            linkWeights[child] = null;
+            initialLinks[child] = null;
+            ownedLinks[child] = null;
+            sizes[child] = 0;
+
+            if (sizes[parent] == 0) {
+                removeFromHeap(parent);
+            } else {
+                siftUp(heapIndex[parent]);
+            }
+        }
+
+        /**
+         * Merge a small child into the parent's row by searching for and
+         * inserting each of the child's links.
+         */
+        private void mergeInPlace(final int parent, final int child) {
+            final int combinedSize = sizes[parent] + sizes[child];
+            final int[] childRow = neighbours[child];
+            for (int j = 0; j < sizes[child]; j++) {
+                final int neighbour = childRow[j];
+                if (neighbour != parent) {
+                    final boolean owned = combinedSize >= sizes[neighbour];
+                    int index = Arrays.binarySearch(neighbours[parent], 0, sizes[parent], neighbour);
+                    if (index >= 0) {
+                        linkWeights[parent][index] += linkWeights[child][j];
+                    } else {
+                        index = -index - 1;
+                        insert(parent, index, neighbour, linkWeights[child][j], initialLinks[child][j]);
+                    }
+                    ownedLinks[parent][index] = owned;
+                    moveLink(parent, child, neighbour, linkWeights[parent][index], initialLinks[parent][index], owned);
+                }
+            }
+
+            final int childIndex = Arrays.binarySearch(neighbours[parent], 0, sizes[parent], child);
+            if (childIndex >= 0) {
+                remove(parent, childIndex);
+            }
+        }
+
+        /**
+         * Merge the rows of the parent and child in a single pass.
+         */
+        private void mergeRows(final int parent, final int child) {
+            final int parentSize = sizes[parent];
+            final int childSize = sizes[child];
+            if (mergedNeighbours.length < parentSize + childSize) {
+                final int capacity = Math.max(parentSize + childSize, mergedNeighbours.length * 2);
+                mergedNeighbours = new int[capacity];
+                mergedWeights = new float[capacity];
+                mergedInitial = new boolean[capacity];
+                mergedOwned = new boolean[capacity];
+            }
+            final int[] parentRow = neighbours[parent];
+            final int[] childRow = neighbours[child];
+            int size = 0;
+
+            int i = 0;
+            int j = 0;
+            while (i < parentSize || j < childSize) {
+                final int parentNeighbour = i < parentSize ? parentRow[i] : Integer.MAX_VALUE;
+                final int childNeighbour = j < childSize ? childRow[j] : Integer.MAX_VALUE;
+                if (parentNeighbour == child) {
+                    i++;
+                } else if (childNeighbour == parent) {
+                    j++;
+                } else if (parentNeighbour < childNeighbour) {
+                    mergedNeighbours[size] = parentNeighbour;
+                    mergedWeights[size] = linkWeights[parent][i];
+                    mergedInitial[size] = initialLinks[parent][i];
+                    mergedOwned[size++] = ownedLinks[parent][i++];
+                } else {
+                    // the link from the child moves to the parent, or adds to the parent's link
+                    final boolean shared = parentNeighbour == childNeighbour;
+                    final float weight = shared ? linkWeights[parent][i] + linkWeights[child][j] : linkWeights[child][j];
+                    final boolean initial = shared ? initialLinks[parent][i] : initialLinks[child][j];
+                    final boolean owned = parentSize + childSize >= sizes[childNeighbour];
+                    mergedNeighbours[size] = childNeighbour;
+                    mergedWeights[size] = weight;
+                    mergedInitial[size] = initial;
+                    mergedOwned[size++] = owned;
+                    moveLink(parent, child, childNeighbour, weight, initial, owned);
+                    j++;
+                    if (shared) {
+                        i++;
+                    }
+                }
+            }
+
+            if (parentRow.length < size) {
+                allocate(parent, size);
+            }
+            System.arraycopy(mergedNeighbours, 0, neighbours[parent], 0, size);
+            System.arraycopy(mergedWeights, 0, linkWeights[parent], 0, size);
+            System.arraycopy(mergedInitial, 0, initialLinks[parent], 0, size);
+            System.arraycopy(mergedOwned, 0, ownedLinks[parent], 0, size);
+            sizes[parent] = size;
+        }
+
+        /**
+         * Replace the link from a neighbour to the child with its link to the
+         * parent, and raise the key of whichever of them owns the new link.
+         */
+        private void moveLink(final int parent, final int child, final int neighbour, final float weight, final boolean initial, final boolean ownedByParent) {
+            remove(neighbour, Arrays.binarySearch(neighbours[neighbour], 0, sizes[neighbour], child));
+            int index = Arrays.binarySearch(neighbours[neighbour], 0, sizes[neighbour], parent);
+            if (index < 0) {
+                index = -index - 1;
+                insert(neighbour, index, parent, weight, initial);
+            }
+            linkWeights[neighbour][index] = weight;
+            initialLinks[neighbour][index] = initial;
+            ownedLinks[neighbour][index] = !ownedByParent;
+
+            final float deltaQ = deltaQ(parent, neighbour, weight);
+            if (ownedByParent) {
+                // the parent is sifted once it has all of its links
+                raiseKey(parent, neighbour, initial, deltaQ);
+            } else if (raiseKey(neighbour, parent, initial, deltaQ)) {
+                siftUp(heapIndex[neighbour]);
+            }
+        }
+
+        private boolean raiseKey(final int community, final int neighbour, final boolean initial, final float deltaQ) {
+            if (keyNeighbour[community] == -1 || better(community, initial, deltaQ)) {
+                keyInitial[community] = initial;
+                keyDeltaQ[community] = deltaQ;
+                keyNeighbour[community] = neighbour;
+                return true;
+            }
+            return false;
+        }
+
+        private void insert(final int community, final int index, final int neighbour, final float weight, final boolean initial) {
+            final int size = sizes[community];
+            if (size == neighbours[community].length) {
+                allocate(community, size + (size >> 1) + 1);
+            }
+            System.arraycopy(neighbours[community], index, neighbours[community], index + 1, size - index);
+            System.arraycopy(linkWeights[community], index, linkWeights[community], index + 1, size - index);
+            System.arraycopy(initialLinks[community], index, initialLinks[community], index + 1, size - index);
+            System.arraycopy(ownedLinks[community], index, ownedLinks[community], index + 1, size - index);
+            neighbours[community][index] = neighbour;
+            linkWeights[community][index] = weight;
+            initialLinks[community][index] = initial;
+            sizes[community]++;
+        }
+
+        private void remove(final int community, final int index) {
+            final int size = --sizes[community];
+            System.arraycopy(neighbours[community], index + 1, neighbours[community], index, size - index);
+            System.arraycopy(linkWeights[community], index + 1, linkWeights[community], index, size - index);
+            System.arraycopy(initialLinks[community], index + 1, initialLinks[community], index, size - index);
+            System.arraycopy(ownedLinks[community], index + 1, ownedLinks[community], index, size - index);
+        }
+
+        private boolean before(final int first, final int second) {
+            if (keyInitial[first] != keyInitial[second]) {
+                return keyInitial[first];
+            }
+            final int comparison = Float.compare(keyDeltaQ[first], keyDeltaQ[second]);
+            return comparison != 0 ? comparison > 0 : first < second;
+        }
+
+        private void removeFromHeap(final int community) {
+            final int index = heapIndex[community];
+            if (index == -1) {
+                return;
+            }
+            heapIndex[community] = -1;
+            final int last = heap[--heapSize];
+            if (index < heapSize) {
+                heap[index] = last;
+                heapIndex[last] = index;
+                siftUp(index);
+                siftDown(heapIndex[last]);
+            }
+        }
+
+        private void siftUp(int index) {
+            final int community = heap[index];
+            while (index > 0) {
+                final int parentIndex = (index - 1) / 2;
+                if (!before(community, heap[parentIndex])) {
+                    break;
+                }
+                heap[index] = heap[parentIndex];
+                heapIndex[heap[index]] = index;
+                index = parentIndex;
+            }
+            heap[index] = community;
+            heapIndex[community] = index;
+        }
+
+        private void siftDown(int index) {
+            final int community = heap[index];
+            while (true) {
+                int childIndex = 2 * index + 1;
+                if (childIndex >= heapSize) {
+                    break;
+                }
+                if (childIndex + 1 < heapSize && before(heap[childIndex + 1], heap[childIndex])) {
+                    childIndex++;
+                }
+                if (!before(heap[childIndex], community)) {
+                    break;
+                }
+                heap[index] = heap[childIndex];
+                heapIndex[heap[index]] = index;
+                index = childIndex;
             }
+            heap[index] = community;
+            heapIndex[community] = index;
         }
     }
 }
@@ -25,12 +25,14 @@ public class Edge<Node extends NodeBase> {
 
     private final Node source;
     private final Node target;
-    private final EdgeData data;
+    private final double weight;
+    private final double flow;
 
     public Edge(final Node source, final Node target, final double weight, final double flow) {
         this.source = source;
         this.target = target;
-        this.data = new EdgeData(weight, flow);
+        this.weight = weight;
+        this.flow = flow;
     }
 
     public Node other(final Node node) {
@@ -49,12 +51,16 @@ public class Edge<Node extends NodeBase> {
         return target;
     }
 
-    public EdgeData getData() {
-        return data;
+    public double getWeight() {
+        return weight;
+    }
+
+    public double getFlow() {
+        return flow;
     }
 
     @Override
     public String toString() {
-        return String.format("[Edge: %s -> %s, flow=%f]", source, target, data.flow);
+        return String.format("[Edge: %s -> %s, flow=%f]", source, target, flow);
     }
 }
@@ -1,36 +0,0 @@
-/*
- * Copyright 2010-2020 Australian Signals Directorate
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap;
-
-/**
- *
- * @author algol
- */
-public class EdgeData {
-
-    public final double weight;
-    public final double flow;
-
-    public EdgeData(final double weight) {
-        this.weight = weight;
-        this.flow = weight;
-    }
-
-    public EdgeData(final double weight, final double flow) {
-        this.weight = weight;
-        this.flow = flow;
-    }
-}
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * NodeBase
@@ -30,7 +31,7 @@ import java.util.NoSuchElementException;
  */
 public class NodeBase {
 
-    private static int uid = 0;
+    private static final AtomicInteger UID = new AtomicInteger();
 
     private final int id;
     private final String name;
@@ -56,7 +57,7 @@ public class NodeBase {
     }
 
     public NodeBase(final String name) {
-        this.id = uid++;
+        this.id = UID.getAndIncrement();
         this.name = name;
         index = 0;
         codelength = 0;
@@ -71,7 +72,7 @@ public class NodeBase {
     }
 
     public static int uid() {
-        return uid;
+        return UID.get();
     }
 
     public int getId() {
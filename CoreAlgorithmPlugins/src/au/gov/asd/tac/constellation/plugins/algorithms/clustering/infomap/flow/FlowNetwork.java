@@ -19,11 +19,12 @@ import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.io.Con
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.util.Logf;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Map;
-import java.util.TreeMap;
 
 /**
  * Flow Network
+ * <p>
+ * The connections of the network are held in parallel arrays indexed by
+ * connection, in the (source, target) order of the {@link Network}.
  *
  * @author algol
  */
@@ -34,7 +35,11 @@ public class FlowNetwork {
 
     private double[] nodeFlow;
     private double[] nodeTeleportRates;
-    private Connection[] flowConns;
+    private int numConns;
+    private int[] sources;
+    private int[] targets;
+    private double[] weights;
+    private double[] flows;
 
     public void calculateFlow(final Network network, final Config config) {
         Logf.printf("Calculating global flow... ");
@@ -46,37 +51,36 @@ public class FlowNetwork {
         nodeFlow = new double[numNodes];
         nodeTeleportRates = new double[numNodes];
 
-        final TreeMap<NodePair, Double> connMap = network.getMap();
-        final int numConns = connMap.size();
-        flowConns = new Connection[numConns];
+        numConns = network.getNumConnections();
+        sources = network.getSources();
+        targets = network.getTargets();
+        weights = network.getWeights();
+        flows = Arrays.copyOf(weights, numConns);
         final double totalConnWeight = network.getTotalWeight();
         final double sumUndirConnWeight = (config.isUndirected() ? 1 : 2) * totalConnWeight;
 
-        int connIndex = 0;
-        for (final Map.Entry<NodePair, Double> entry : connMap.entrySet()) {
-            final NodePair ends = entry.getKey();
-            nodeOutDegree[ends.end1]++;
-            final double weight = entry.getValue();
-            sumLinkOutWeight[ends.end1] += weight;
+        for (int i = 0; i < numConns; ++i) {
+            final int end1 = sources[i];
+            final int end2 = targets[i];
+            nodeOutDegree[end1]++;
+            final double weight = weights[i];
+            sumLinkOutWeight[end1] += weight;
             if (config.isUndirected()) {
-                sumLinkOutWeight[ends.end2] += weight;
+                sumLinkOutWeight[end2] += weight;
             }
-            nodeFlow[ends.end1] += weight / sumUndirConnWeight;
+            nodeFlow[end1] += weight / sumUndirConnWeight;
             if (!config.isOutdirdir()) {
-                nodeFlow[ends.end2] += weight / sumUndirConnWeight;
+                nodeFlow[end2] += weight / sumUndirConnWeight;
             }
-            flowConns[connIndex] = new Connection(ends.end1, ends.end2, weight);
-
-            connIndex++;
         }
 
         if (config.isRawdir()) {
             // Treat the link weights as flow (after global normalization) and
             // do one power iteration to set the node flow.
             Arrays.fill(nodeFlow, 0);
-            for (final Connection conn : flowConns) {
-                conn.setFlow(conn.getFlow() / totalConnWeight);
-                nodeFlow[conn.getTarget()] += conn.getFlow();
+            for (int i = 0; i < numConns; ++i) {
+                flows[i] /= totalConnWeight;
+                nodeFlow[targets[i]] += flows[i];
             }
 
             // Normalize node flow.
@@ -102,8 +106,8 @@ public class FlowNetwork {
                 //Take one last power iteration.
                 final double[] nodeFlowSteadyState = Arrays.copyOf(nodeFlow, numNodes);
                 Arrays.fill(nodeFlow, 0);
-                for (final Connection conn : flowConns) {
-                    nodeFlow[conn.getTarget()] += nodeFlowSteadyState[conn.getSource()] * conn.getFlow() / sumLinkOutWeight[conn.getSource()];
+                for (int i = 0; i < numConns; ++i) {
+                    nodeFlow[targets[i]] += nodeFlowSteadyState[sources[i]] * flows[i] / sumLinkOutWeight[sources[i]];
                 }
 
                 //Normalize node flow.
@@ -118,14 +122,14 @@ public class FlowNetwork {
                     }
 
                     // Update link data to represent flow instead of weight.
-                    for (final Connection conn : flowConns) {
-                        conn.setFlow(conn.getFlow() * (nodeFlowSteadyState[conn.getSource()] / sumLinkOutWeight[conn.getSource()] / sumNodeRank));
+                    for (int i = 0; i < numConns; ++i) {
+                        flows[i] *= nodeFlowSteadyState[sources[i]] / sumLinkOutWeight[sources[i]] / sumNodeRank;
                     }
                 }
 
             } else { // undirected
                 for (int i = 0; i < numConns; ++i) {
-                    flowConns[i].setFlow(flowConns[i].getFlow() / sumUndirConnWeight);
+                    flows[i] /= sumUndirConnWeight;
                 }
             }
 
@@ -150,15 +154,15 @@ public class FlowNetwork {
             }
         } else {
             // Teleport proportionally to out-degree, or in-degree if recorded teleportation.
-            for (final Connection conn : flowConns) {
-                final int toNode = config.isRecordedTeleportation() ? conn.getTarget() : conn.getSource();
-                nodeTeleportRates[toNode] += conn.getFlow() / totalConnWeight;
+            for (int i = 0; i < numConns; ++i) {
+                final int toNode = config.isRecordedTeleportation() ? targets[i] : sources[i];
+                nodeTeleportRates[toNode] += flows[i] / totalConnWeight;
             }
         }
 
         // Normalize link weights with respect to its source nodes total out-link weight.
-        for (final Connection conn : flowConns) {
-            conn.setFlow(conn.getFlow() / sumLinkOutWeight[conn.getSource()]);
+        for (int i = 0; i < numConns; ++i) {
+            flows[i] /= sumLinkOutWeight[sources[i]];
         }
 
         // Collect dangling nodes.
@@ -190,8 +194,8 @@ public class FlowNetwork {
             }
 
             // Flow from links.
-            for (final Connection conn : flowConns) {
-                nodeFlowTmp[conn.getTarget()] += beta * conn.getFlow() * nodeFlow[conn.getSource()];
+            for (int i = 0; i < numConns; ++i) {
+                nodeFlowTmp[targets[i]] += beta * flows[i] * nodeFlow[sources[i]];
             }
 
             // Update node flow from the power iteration above and check if converged.
@@ -227,16 +231,16 @@ public class FlowNetwork {
             //Take one last power iteration excluding the teleportation (and normalize node flow to sum 1.0).
             sumNodeRank = 1.0 - danglingRank;
             Arrays.fill(nodeFlow, 0);
-            for (final Connection conn : flowConns) {
-                nodeFlow[conn.getTarget()] += conn.getFlow() * nodeFlowTmp[conn.getSource()] / sumNodeRank;
+            for (int i = 0; i < numConns; ++i) {
+                nodeFlow[targets[i]] += flows[i] * nodeFlowTmp[sources[i]] / sumNodeRank;
             }
 
             beta = 1.0;
         }
 
         // Update the links with their global flow from the PageRank values. (Note: beta is set to 1 if unrec).
-        for (final Connection conn : flowConns) {
-            conn.setFlow(conn.getFlow() * (beta * nodeFlowTmp[conn.getSource()] / sumNodeRank));
+        for (int i = 0; i < numConns; ++i) {
+            flows[i] *= beta * nodeFlowTmp[sources[i]] / sumNodeRank;
         }
 
         System.out.printf("done in %d iterations!%n", numIterations);
@@ -250,7 +254,23 @@ public class FlowNetwork {
         return nodeTeleportRates;
     }
 
-    public Connection[] getFlowConnections() {
-        return flowConns;
+    public int getNumConnections() {
+        return numConns;
+    }
+
+    public int[] getSources() {
+        return sources;
+    }
+
+    public int[] getTargets() {
+        return targets;
+    }
+
+    public double[] getWeights() {
+        return weights;
+    }
+
+    public double[] getFlows() {
+        return flows;
     }
 }
@@ -21,11 +21,14 @@ import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.io.Config;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.io.Config.ConnectionType;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.util.Logf;
+import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.util.PairSort;
 import java.util.Arrays;
-import java.util.TreeMap;
 
 /**
- * Parse graph connections into a map ordered by (end1, end2).
+ * Parse graph connections into arrays ordered by (end1, end2).
+ * <p>
+ * Connections between the same pair of nodes are aggregated, so each pair
+ * appears once with the sum of the weights of its connections.
  *
  * @author algol
  */
@@ -34,8 +37,12 @@ public class Network {
     private final Config config;
     private final GraphReadMethods rg;
     private final Iterable<Connection> graphConnections;
+    private final int expectedConnections;
 
-    private final TreeMap<NodePair, Double> connectionMap;
+    private int numConnections;
+    private int[] sources;
+    private int[] targets;
+    private double[] weights;
 
     private final int vxNameId;
 
@@ -50,13 +57,24 @@ public class Network {
 
         vxNameId = rg.getAttribute(GraphElementType.VERTEX, "Name");
 
-        connectionMap = new TreeMap<>();
+        numConnections = 0;
+        sources = new int[0];
+        targets = new int[0];
+        weights = new double[0];
 
         // We assume that all vertices have weight 1.
         nodeWeights = new double[rg.getVertexCount()];
         Arrays.fill(nodeWeights, 1);
         sumNodeWeights = rg.getVertexCount();
 
+        if (config.getConnectionType() == ConnectionType.LINKS) {
+            expectedConnections = rg.getLinkCount();
+        } else if (config.getConnectionType() == ConnectionType.EDGES) {
+            expectedConnections = rg.getEdgeCount();
+        } else {
+            expectedConnections = rg.getTransactionCount();
+        }
+
         graphConnections = () -> {
             if (config.getConnectionType() == ConnectionType.LINKS) {
                 return new LinkIterator(rg);
@@ -71,12 +89,16 @@ public class Network {
     }
 
     public void read() {
-        connectionMap.clear();
         numSelfLinks = 0;
 
         int numDoubleLinks = 0;
         totalWeight = 0;
 
+        int size = 0;
+        int[] ends1 = new int[expectedConnections];
+        int[] ends2 = new int[expectedConnections];
+        double[] connWeights = new double[expectedConnections];
+
         // Iterate over connections (transactions, edges, or links, depending on the config).
         // Note that connection ends are StoreGraph positions, not vertex ids.
         // This gives us a nice 0..n-1 numbering which the algorithm pretty much relies on.
@@ -101,26 +123,51 @@ public class Network {
                 totalWeight += conn.getWeight();
             }
 
-            // Aggregate link weights if they are defined more than once.
-            final NodePair nodePair = new NodePair(conn.getSource(), conn.getTarget());
-            final Double d = connectionMap.get(nodePair);
-            if (d == null) {
-                connectionMap.put(nodePair, conn.getWeight());
-            } else {
-                connectionMap.put(nodePair, d + conn.getWeight());
+            if (size == ends1.length) {
+                final int capacity = Math.max(16, size * 2);
+                ends1 = Arrays.copyOf(ends1, capacity);
+                ends2 = Arrays.copyOf(ends2, capacity);
+                connWeights = Arrays.copyOf(connWeights, capacity);
+            }
+            ends1[size] = conn.getSource();
+            ends2[size] = conn.getTarget();
+            connWeights[size] = conn.getWeight();
+            size++;
+        }
+
+        // Order the connections by (end1, end2) and aggregate link weights if they are defined more than once.
+        final int[] order = PairSort.order(ends1, ends2, size, getNumNodes());
+        sources = new int[size];
+        targets = new int[size];
+        weights = new double[size];
+        numConnections = 0;
+        for (final int i : order) {
+            if (numConnections > 0 && sources[numConnections - 1] == ends1[i] && targets[numConnections - 1] == ends2[i]) {
+                weights[numConnections - 1] += connWeights[i];
                 numDoubleLinks++;
-                if (conn.getTarget() == conn.getSource()) {
+                if (ends1[i] == ends2[i]) {
                     numSelfLinks--;
                 }
+            } else {
+                sources[numConnections] = ends1[i];
+                targets[numConnections] = ends2[i];
+                weights[numConnections] = connWeights[i];
+                numConnections++;
             }
         }
 
-        Logf.printf("done! Found %d nodes and %d connections. ", rg.getVertexCount(), connectionMap.size());
+        if (numConnections < size) {
+            sources = Arrays.copyOf(sources, numConnections);
+            targets = Arrays.copyOf(targets, numConnections);
+            weights = Arrays.copyOf(weights, numConnections);
+        }
+
+        Logf.printf("done! Found %d nodes and %d connections. ", rg.getVertexCount(), numConnections);
         if (numDoubleLinks > 0) {
             Logf.printf("%d connections was aggregated to existing connections. ", numDoubleLinks);
         }
         if (numSelfLinks > 0 && !config.isIncludeSelfLinks()) {
-            Logf.printf("%d self-connections was ignored. ");
+            Logf.printf("%d self-connections was ignored. ", numSelfLinks);
         }
 
         System.out.printf("%n");
@@ -134,8 +181,40 @@ public class Network {
         return totalWeight;
     }
 
-    public TreeMap<NodePair, Double> getMap() {
-        return connectionMap;
+    /**
+     * The number of distinct connections read from the graph.
+     *
+     * @return the number of connections.
+     */
+    public int getNumConnections() {
+        return numConnections;
+    }
+
+    /**
+     * The source node of each connection, in (source, target) order.
+     *
+     * @return an array of node positions indexed by connection.
+     */
+    public int[] getSources() {
+        return sources;
+    }
+
+    /**
+     * The target node of each connection, in (source, target) order.
+     *
+     * @return an array of node positions indexed by connection.
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * The aggregated weight of each connection.
+     *
+     * @return an array of weights indexed by connection.
+     */
+    public double[] getWeights() {
+        return weights;
     }
 
     public double[] getNodeTeleportRates() {
@@ -19,7 +19,6 @@ import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.NodeBase;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.NodeFactoryBase;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.PartitionQueue;
-import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.flow.Connection;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.flow.FlowNetwork;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.flow.Network;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.io.Config;
@@ -34,6 +33,12 @@ import java.io.FileNotFoundException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.openide.util.Exceptions;
 
 /**
@@ -71,6 +76,10 @@ public abstract class InfomapBase {
 
     private final ArrayList<NodeBase> nonLeafActiveNetwork;
 
+    // The trial this instance ran when trials are run in parallel.
+    private int trial;
+    private boolean parallelTrial;
+
     private static final String NINE_FORMAT1 = "%.9f, ";
     private static final String NINE_FORMAT2 = "%.9f]";
     private static final String NINE_FORMAT3 = " (sum: %.9f)%n";
@@ -111,35 +120,30 @@ public abstract class InfomapBase {
         return treeData;
     }
 
-    public void run() {
-        if (!initNetwork()) {
-            return;
-        }
+    public void run() throws InterruptedException {
+        final Network network = new Network(config, rg);
+        network.read();
 
-        indexCodelength = calcCodelengthFromFlowWithinOrExit(getRoot());
-        getRoot().setCodelength(indexCodelength);
-        Logf.printf("One-level codelength: %.6f\n", indexCodelength);
-        oneLevelCodelength = indexCodelength;
+        final FlowNetwork flowNetwork = new FlowNetwork();
+        flowNetwork.calculateFlow(network, config);
 
         final double[] codelengths = new double[config.getNumTrials()];
         final StringBuilder bestSolutionStatistics = new StringBuilder();
 
-        for (int iTrial = 0; iTrial < config.getNumTrials(); iTrial++) {
-            Logf.printf("\nAttempt %d/%d\n", iTrial + 1, config.getNumTrials());
-            iterationCount = 0;
+        if (config.getNumTrials() > 1 && config.isParallelTrials()) {
+            runParallelTrials(network, flowNetwork, codelengths, bestSolutionStatistics);
+            printTrialStatistics(codelengths, bestSolutionStatistics);
+            return;
+        }
 
-            // First clear existing modular structure.
-            while (treeData.getFirstLeaf().getParent() != getRoot()) {
-                getRoot().replaceChildrenWithGrandChildren();
-            }
+        if (!initNetwork(network, flowNetwork)) {
+            return;
+        }
 
-            if (config.getClusterDataFile() != null) {
-                throw new UnsupportedOperationException("Not supported.");
-            }
+        initOneLevelCodelength();
 
-            if (!config.isNoInfomap()) {
-                runPartition();
-            }
+        for (int iTrial = 0; iTrial < config.getNumTrials(); iTrial++) {
+            runTrial(iTrial);
 
             codelengths[iTrial] = hierarchicalCodelength;
 
@@ -151,6 +155,135 @@ public abstract class InfomapBase {
             }
         }
 
+        printTrialStatistics(codelengths, bestSolutionStatistics);
+    }
+
+    /**
+     * Run each trial on a new instance of this algorithm seeded with the seed
+     * from the config plus the trial number, spreading the trials over the
+     * available processors, and adopt the tree of the trial with the shortest
+     * codelength.
+     * <p>
+     * Each instance builds its own tree from the shared flow network, so at
+     * most two trees per worker are alive at once: the best so far and the
+     * current one.
+     */
+    private void runParallelTrials(final Network network, final FlowNetwork flowNetwork,
+            final double[] codelengths, final StringBuilder bestSolutionStatistics) throws InterruptedException {
+        final int numTrials = config.getNumTrials();
+        final int workerCount = Math.min(Runtime.getRuntime().availableProcessors(), numTrials);
+        final AtomicInteger nextTrial = new AtomicInteger();
+
+        InfomapBase best = null;
+        if (workerCount <= 1) {
+            best = runTrials(network, flowNetwork, nextTrial, codelengths);
+        } else {
+            final ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+            try {
+                final List<Future<InfomapBase>> futures = new ArrayList<>(workerCount);
+                for (int worker = 0; worker < workerCount; worker++) {
+                    futures.add(workers.submit(() -> runTrials(network, flowNetwork, nextTrial, codelengths)));
+                }
+
+                for (final Future<InfomapBase> future : futures) {
+                    final InfomapBase workerBest = future.get();
+                    if (workerBest != null && isBetterTrial(workerBest, best)) {
+                        best = workerBest;
+                    }
+                }
+            } catch (final ExecutionException ex) {
+                if (ex.getCause() instanceof InterruptedException) {
+                    throw (InterruptedException) ex.getCause();
+                }
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new IllegalStateException(ex.getCause());
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+
+        if (best == null) {
+            return;
+        }
+
+        best.printNetworkData(false);
+        best.printPerLevelCodelength(bestSolutionStatistics);
+
+        treeData = best.treeData;
+        oneLevelCodelength = best.oneLevelCodelength;
+        codelength = best.codelength;
+        indexCodelength = best.indexCodelength;
+        moduleCodelength = best.moduleCodelength;
+        hierarchicalCodelength = best.hierarchicalCodelength;
+        bestHierarchicalCodelength = best.hierarchicalCodelength;
+        bestIntermediateCodelength = best.bestIntermediateCodelength;
+        bestIntermediateStatistics = best.bestIntermediateStatistics;
+        numNonTrivialTopModules = best.numNonTrivialTopModules;
+        setActiveNetworkFromLeafs();
+    }
+
+    private InfomapBase runTrials(final Network network, final FlowNetwork flowNetwork,
+            final AtomicInteger nextTrial, final double[] codelengths) throws InterruptedException {
+        InfomapBase best = null;
+        for (int iTrial = nextTrial.getAndIncrement(); iTrial < codelengths.length; iTrial = nextTrial.getAndIncrement()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            final InfomapBase infomap = getNewInfomapInstance(config, rg);
+            infomap.trial = iTrial;
+            infomap.parallelTrial = true;
+            infomap.reseed(config.getSeedToRandomNumberGenerator() + iTrial);
+            if (!infomap.initNetwork(network, flowNetwork)) {
+                continue;
+            }
+
+            infomap.initOneLevelCodelength();
+            infomap.runTrial(iTrial);
+            codelengths[iTrial] = infomap.hierarchicalCodelength;
+
+            if (isBetterTrial(infomap, best)) {
+                best = infomap;
+            }
+        }
+
+        return best;
+    }
+
+    private static boolean isBetterTrial(final InfomapBase infomap, final InfomapBase best) {
+        return best == null
+                || infomap.hierarchicalCodelength < best.hierarchicalCodelength
+                || (infomap.hierarchicalCodelength == best.hierarchicalCodelength && infomap.trial < best.trial);
+    }
+
+    private void initOneLevelCodelength() {
+        indexCodelength = calcCodelengthFromFlowWithinOrExit(getRoot());
+        getRoot().setCodelength(indexCodelength);
+        Logf.printf("One-level codelength: %.6f\n", indexCodelength);
+        oneLevelCodelength = indexCodelength;
+    }
+
+    private void runTrial(final int iTrial) {
+        Logf.printf("\nAttempt %d/%d\n", iTrial + 1, config.getNumTrials());
+        iterationCount = 0;
+
+        // First clear existing modular structure.
+        while (treeData.getFirstLeaf().getParent() != getRoot()) {
+            getRoot().replaceChildrenWithGrandChildren();
+        }
+
+        if (config.getClusterDataFile() != null) {
+            throw new UnsupportedOperationException("Not supported.");
+        }
+
+        if (!config.isNoInfomap()) {
+            runPartition();
+        }
+    }
+
+    private void printTrialStatistics(final double[] codelengths, final StringBuilder bestSolutionStatistics) {
         if (Logf.DEBUGF) {
             Logf.printf("\n\n");
             if (config.getNumTrials() > 1) {
@@ -348,9 +481,9 @@ public abstract class InfomapBase {
                 }
             }
 
-            final InfomapBase superInfomap = getNewInfomapInstance(config, rg);
+            final InfomapBase superInfomap = getNewSubInfomapInstance();
 //            superInfomap.reseed(getSeedFromCodelength(minHierarchicalCodelength));
-            superInfomap.reseed(NodeBase.uid());
+            superInfomap.reseed(nextSubSeed());
             superInfomap.subLevel = subLevel + TOP_LEVEL_ADDITION;
             superInfomap.initSuperNetwork(getRoot());
             superInfomap.partition();
@@ -603,7 +736,7 @@ public abstract class InfomapBase {
             final PartitionQueue subQueue = subQueues[moduleIndex];
             subQueue.setLevel(queue.getLevel() + 1);
 
-            final InfomapBase subInfomap = getNewInfomapInstance(config, rg);
+            final InfomapBase subInfomap = getNewSubInfomapInstance();
             subInfomap.subLevel = subLevel + 1;
 
             subInfomap.initSubNetwork(module, false);
@@ -976,10 +1109,10 @@ public abstract class InfomapBase {
                 System.out.printf(">>>>>>>>>>>>>>>>>> RUN SUB_INFOMAP on node n%d with childDegree: %d >>>>>>>>>>>>\n", module.getId(), module.getChildDegree());
             }
 
-            final InfomapBase subInfomap = getNewInfomapInstance(config, rg);
+            final InfomapBase subInfomap = getNewSubInfomapInstance();
 
             // To not happen to get back the same network with the same seed.
-            subInfomap.reseed(NodeBase.uid());
+            subInfomap.reseed(nextSubSeed());
             subInfomap.subLevel = subLevel + 1;
             subInfomap.initSubNetwork(module, false);
             subInfomap.partition(recursiveCount, fast);
@@ -1055,15 +1188,22 @@ public abstract class InfomapBase {
         final FlowNetwork flowNetwork = new FlowNetwork();
         flowNetwork.calculateFlow(network, config);
 
+        return initNetwork(network, flowNetwork);
+    }
+
+    private boolean initNetwork(final Network network, final FlowNetwork flowNetwork) {
         final double[] nodeFlow = flowNetwork.getNodeFlow();
         final double[] nodeTeleportWeights = flowNetwork.getNodeTeleportRates();
         for (int position = 0; position < network.getNumNodes(); position++) {
             treeData.addNewNode(position, network.getNodeName(position), nodeFlow[position], nodeTeleportWeights[position]);
         }
 
-        final Connection[] connections = flowNetwork.getFlowConnections();
-        for (final Connection c : connections) {
-            treeData.addEdge(c.getSource(), c.getTarget(), c.getWeight(), c.getFlow());
+        final int[] sources = flowNetwork.getSources();
+        final int[] targets = flowNetwork.getTargets();
+        final double[] weights = flowNetwork.getWeights();
+        final double[] flows = flowNetwork.getFlows();
+        for (int i = 0; i < flowNetwork.getNumConnections(); i++) {
+            treeData.addEdge(sources[i], targets[i], weights[i], flows[i]);
         }
 
         initEnterExitFlow();
@@ -1348,6 +1488,25 @@ public abstract class InfomapBase {
         rand.seed(seed);
     }
 
+    private InfomapBase getNewSubInfomapInstance() {
+        final InfomapBase infomap = getNewInfomapInstance(config, rg);
+        infomap.parallelTrial = parallelTrial;
+
+        return infomap;
+    }
+
+    /**
+     * The seed for a sub-network or super-network instance.
+     * <p>
+     * Like the C++ code, this is the number of nodes created so far. That
+     * number includes the nodes created by other trials running at the same
+     * time, so a parallel trial draws the seed from its own generator instead
+     * to give the same result however the trials are scheduled.
+     */
+    private long nextSubSeed() {
+        return parallelTrial ? rand.nextInt() : NodeBase.uid();
+    }
+
     /**
      * Take the non-empty dynamic modules from the optimization of the active
      * network and create module nodes to insert above the active network in the
@@ -25,15 +25,12 @@ import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.traits
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.util.InfoMath;
 import static au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.util.InfoMath.plogp;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.util.Logf;
-import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.util.MultiMap;
+import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.util.PairSort;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.util.Resizer;
-import au.gov.asd.tac.constellation.utilities.datastructure.Tuple;
 import au.gov.asd.tac.constellation.utilities.text.SeparatorConstants;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Map;
-import java.util.TreeMap;
 
 /**
  *
@@ -75,8 +72,8 @@ public abstract class InfomapGreedy extends InfomapBase {
                     // For undirected links, this automatically adds to both direction (as enterFlow = &exitFlow).
                     final double sourceExitFlow = getNode(edge.getSource()).getData().getExitFlow();
                     final double targetEnterFlow = getNode(edge.getTarget()).getData().getEnterFlow();
-                    getNode(edge.getSource()).getData().setExitFlow(sourceExitFlow + edge.getData().flow);
-                    getNode(edge.getTarget()).getData().setEnterFlow(targetEnterFlow + edge.getData().flow);
+                    getNode(edge.getSource()).getData().setExitFlow(sourceExitFlow + edge.getFlow());
+                    getNode(edge.getTarget()).getData().setEnterFlow(targetEnterFlow + edge.getFlow());
                 }
             }
         }
@@ -367,7 +364,7 @@ public abstract class InfomapGreedy extends InfomapBase {
             for (final Edge<NodeBase> edge : node.getOutEdges()) {
                 // If neighbour node is within the same module, add the link to this subnetwork.
                 if (edge.getTarget().getParent() == parentPtr) {
-                    treeData.addEdge(node.getIndex(), edge.getTarget().getIndex(), edge.getData().weight, edge.getData().flow);
+                    treeData.addEdge(node.getIndex(), edge.getTarget().getIndex(), edge.getWeight(), edge.getFlow());
                 }
             }
         }
@@ -429,9 +426,9 @@ public abstract class InfomapGreedy extends InfomapBase {
 
                     final int otherModule = edge.getTarget().getIndex();
                     if (otherModule == oldM) {
-                        oldModuleDelta.setDeltaExit(oldModuleDelta.getDeltaExit() + edge.getData().flow);
+                        oldModuleDelta.setDeltaExit(oldModuleDelta.getDeltaExit() + edge.getFlow());
                     } else if (otherModule == newM) {
-                        newModuleDelta.setDeltaExit(newModuleDelta.getDeltaExit() + edge.getData().flow);
+                        newModuleDelta.setDeltaExit(newModuleDelta.getDeltaExit() + edge.getFlow());
                     }
                 }
 
@@ -443,9 +440,9 @@ public abstract class InfomapGreedy extends InfomapBase {
 
                     final int otherModule = edge.getSource().getIndex();
                     if (otherModule == oldM) {
-                        oldModuleDelta.setDeltaEnter(oldModuleDelta.getDeltaEnter() + edge.getData().flow);
+                        oldModuleDelta.setDeltaEnter(oldModuleDelta.getDeltaEnter() + edge.getFlow());
                     } else if (otherModule == newM) {
-                        newModuleDelta.setDeltaEnter(newModuleDelta.getDeltaEnter() + edge.getData().flow);
+                        newModuleDelta.setDeltaEnter(newModuleDelta.getDeltaEnter() + edge.getFlow());
                     }
                 }
 
@@ -553,11 +550,11 @@ public abstract class InfomapGreedy extends InfomapBase {
 
                     if (redirect[neighbour.getIndex()] >= offset) {
                         moduleDeltaEnterExit[redirect[neighbour.getIndex()] - offset].setDeltaExit(
-                                moduleDeltaEnterExit[redirect[neighbour.getIndex()] - offset].getDeltaExit() + edge.getData().flow);
+                                moduleDeltaEnterExit[redirect[neighbour.getIndex()] - offset].getDeltaExit() + edge.getFlow());
                     } else {
                         redirect[neighbour.getIndex()] = offset + numModuleLinks;
                         moduleDeltaEnterExit[numModuleLinks].setModule(neighbour.getIndex());
-                        moduleDeltaEnterExit[numModuleLinks].setDeltaExit(edge.getData().flow);
+                        moduleDeltaEnterExit[numModuleLinks].setDeltaExit(edge.getFlow());
                         moduleDeltaEnterExit[numModuleLinks].setDeltaEnter(0);
                         numModuleLinks++;
                     }
@@ -574,12 +571,12 @@ public abstract class InfomapGreedy extends InfomapBase {
 
                 if (redirect[neighbour.getIndex()] >= offset) {
                     moduleDeltaEnterExit[redirect[neighbour.getIndex()] - offset].setDeltaEnter(
-                            moduleDeltaEnterExit[redirect[neighbour.getIndex()] - offset].getDeltaEnter() + edge.getData().flow);
+                            moduleDeltaEnterExit[redirect[neighbour.getIndex()] - offset].getDeltaEnter() + edge.getFlow());
                 } else {
                     redirect[neighbour.getIndex()] = offset + numModuleLinks;
                     moduleDeltaEnterExit[numModuleLinks].setModule(neighbour.getIndex());
                     moduleDeltaEnterExit[numModuleLinks].setDeltaExit(0);
-                    moduleDeltaEnterExit[numModuleLinks].setDeltaEnter(edge.getData().flow);
+                    moduleDeltaEnterExit[numModuleLinks].setDeltaEnter(edge.getFlow());
                     numModuleLinks++;
                 }
             }
@@ -675,6 +672,11 @@ public abstract class InfomapGreedy extends InfomapBase {
         final int numNodes = activeNetwork.size();
         final NodeBase[] modules = new NodeBase[numNodes];
 
+        // The modules in order of creation, which is also the order of their ids.
+        final int[] moduleRanks = new int[numNodes];
+        final NodeBase[] rankedModules = new NodeBase[numNodes];
+        int numModules = 0;
+
         final boolean activeNetworkAlreadyHaveModuleLevel = activeNetwork.get(0).getParent() != getRoot();
         final boolean activeNetworkIsLeafNetwork = activeNetwork.get(0).isLeaf();
 
@@ -707,6 +709,9 @@ public abstract class InfomapGreedy extends InfomapBase {
                 modules[moduleIndex] = treeData.getNodeFactory().createNode(moduleFlowData[moduleIndex]);
                 node.getParent().addChild(modules[moduleIndex]);
                 modules[moduleIndex].setIndex(moduleIndex);
+                moduleRanks[moduleIndex] = numModules;
+                rankedModules[numModules] = modules[moduleIndex];
+                numModules++;
             }
 
             modules[moduleIndex].addChild(node);
@@ -733,62 +738,57 @@ public abstract class InfomapGreedy extends InfomapBase {
             }
         }
 
-        // Aggregate links from lower level to the new modular level
-        /*
-         typedef std::pair<NodeBase*, NodeBase*> NodePair;
-         typedef std::map<NodePair, double> EdgeMap;
-         EdgeMap moduleLinks;
-         */
-        final TreeMap<Tuple<NodeBase, NodeBase>, Double> moduleLinks = new TreeMap<>((lhs, rhs) -> {
-            if (lhs.getFirst().getId() < rhs.getFirst().getId()) {
-                return -1;
-            }
-            if (lhs.getFirst().getId() > rhs.getFirst().getId()) {
-                return 1;
-            }
-            if (lhs.getSecond().getId() < rhs.getSecond().getId()) {
-                return -1;
-            }
-            if (lhs.getSecond().getId() > rhs.getSecond().getId()) {
-                return 1;
-            }
-            return 0;
-        });
+        // Aggregate links from lower level to the new modular level.
+        // The C++ code aggregates them in a map ordered by module pair: here
+        // the pairs of module ranks are sorted and equal pairs are merged.
+        int numLinks = 0;
+        int[] linkSources = new int[numNodes];
+        int[] linkTargets = new int[numNodes];
+        double[] linkFlows = new double[numNodes];
         for (final NodeBase node : activeNetwork) {
             final NodeBase parent = node.getParent();
 
-            for (Edge<NodeBase> edge : node.getOutEdges()) {
+            for (final Edge<NodeBase> edge : node.getOutEdges()) {
                 final NodeBase otherParent = edge.getTarget().getParent();
 
                 if (otherParent != parent) {
-                    NodeBase m1 = parent;
-                    NodeBase m2 = otherParent;
+                    int m1 = moduleRanks[node.getIndex()];
+                    int m2 = moduleRanks[edge.getTarget().getIndex()];
                     // If undirected, the order may be swapped to aggregate the edge on an opposite one.
-                    if (config.isUndirected() && m1.getIndex() > m2.getIndex()) {
-                        NodeBase t = m1;
+                    if (config.isUndirected() && parent.getIndex() > otherParent.getIndex()) {
+                        final int t = m1;
                         m1 = m2;
                         m2 = t;
                     }
 
-                    // Insert the node pair in the edge map.
-                    // If not inserted, add the flow value to existing node pair.
-                    final Tuple<NodeBase, NodeBase> key = Tuple.create(m1, m2);
-                    if (moduleLinks.containsKey(key)) {
-                        final double d = moduleLinks.get(key);
-                        moduleLinks.put(key, d + edge.getData().flow);
-                    } else {
-                        moduleLinks.put(key, edge.getData().flow);
+                    if (numLinks == linkSources.length) {
+                        final int capacity = Math.max(16, numLinks * 2);
+                        linkSources = Arrays.copyOf(linkSources, capacity);
+                        linkTargets = Arrays.copyOf(linkTargets, capacity);
+                        linkFlows = Arrays.copyOf(linkFlows, capacity);
                     }
+                    linkSources[numLinks] = m1;
+                    linkTargets[numLinks] = m2;
+                    linkFlows[numLinks] = edge.getFlow();
+                    numLinks++;
                 }
             }
         }
 
         // Add the aggregated edge flow structure to the new modules.
-        for (final Map.Entry<Tuple<NodeBase, NodeBase>, Double> entry : moduleLinks.entrySet()) {
-            final Tuple<NodeBase, NodeBase> nodePair = entry.getKey();
-            final double value = entry.getValue();
+        final int[] linkOrder = PairSort.order(linkSources, linkTargets, numLinks, numModules);
+        int k = 0;
+        while (k < numLinks) {
+            final int m1 = linkSources[linkOrder[k]];
+            final int m2 = linkTargets[linkOrder[k]];
+            double value = linkFlows[linkOrder[k]];
+            k++;
+            while (k < numLinks && linkSources[linkOrder[k]] == m1 && linkTargets[linkOrder[k]] == m2) {
+                value += linkFlows[linkOrder[k]];
+                k++;
+            }
 
-            nodePair.getFirst().addOutEdge(nodePair.getSecond(), 0, value);
+            rankedModules[m1].addOutEdge(rankedModules[m2], 0, value);
         }
 
         // Replace active network with its children if not at leaf level.
@@ -822,10 +822,10 @@ public abstract class InfomapGreedy extends InfomapBase {
         for (final NodeBase node : treeData.getLeaves()) {
             out.printf("%d (%s)\n", node.getOriginalIndex(), getNode(node).getData());
             for (final Edge<NodeBase> edge : node.getOutEdges()) {
-                out.printf("  --> %d (%.9f)\n", edge.getTarget().getOriginalIndex(), edge.getData().flow);
+                out.printf("  --> %d (%.9f)\n", edge.getTarget().getOriginalIndex(), edge.getFlow());
             }
             for (final Edge<NodeBase> edge : node.getInEdges()) {
-                out.printf("  <-- %d (%.9f)\n", edge.getSource().getOriginalIndex(), edge.getData().flow);
+                out.printf("  <-- %d (%.9f)\n", edge.getSource().getOriginalIndex(), edge.getFlow());
             }
         }
     }
@@ -836,7 +836,7 @@ public abstract class InfomapGreedy extends InfomapBase {
             parent.getSubInfomap().sortTree();
         }
 
-        final MultiMap<Double, NodeBase> sortedModules = new MultiMap<>((d1, d2) -> (int) Math.signum(d2 - d1));
+        final ArrayList<NodeBase> sortedModules = new ArrayList<>(parent.getChildDegree());
 
         if (Logf.DEBUGF && parent.getChildDegree() > 0) {
             for (final NodeBase child : parent.getChildren()) {
@@ -847,16 +847,18 @@ public abstract class InfomapGreedy extends InfomapBase {
 
         for (final NodeBase child : parent.getChildren()) {
             sortTree(child);
-            final double rank = getNode(child).getData().getFlow();
-            sortedModules.put(rank, child);
+            sortedModules.add(child);
         }
 
+        // The sort is stable, so modules with equal flow keep their order.
+        sortedModules.sort((child1, child2) -> (int) Math.signum(getNode(child2).getData().getFlow() - getNode(child1).getData().getFlow()));
+
         parent.releaseChildren();
 
         int sortedIndex = 0;
-        for (final Map.Entry<Double, NodeBase> entry : sortedModules.entrySet()) {
-            parent.addChild(entry.getValue());
-            entry.getValue().setIndex(sortedIndex);
+        for (final NodeBase module : sortedModules) {
+            parent.addChild(module);
+            module.setIndex(sortedIndex);
 
             sortedIndex++;
         }
@@ -35,6 +35,7 @@ public final class Config {
         selfTeleportationProbability = -1;
         seedToRandomNumberGenerator = 123;
         numTrials = 1;
+        parallelTrials = true;
         minimumCodelengthImprovement = 1e-10;
         minimumRelativeTuneIterationImprovement = 1e-5;
         coarseTuneLevel = 1;
@@ -134,6 +135,7 @@ public final class Config {
 
     // Performance and accuracy
     private int numTrials;
+    private boolean parallelTrials;
     private double minimumCodelengthImprovement;
     private boolean randomizeCoreLoopLimit;
     private int coreLoopLimit;
@@ -284,6 +286,23 @@ public final class Config {
         this.numTrials = numTrials;
     }
 
+    /**
+     * Whether multiple trials run as independent restarts on separate cores.
+     * <p>
+     * Trial <i>i</i> is seeded with the configured seed plus <i>i</i>, and the
+     * trial with the shortest codelength wins. When false, the trials run one
+     * after another on a single random number sequence, as the C++ code does.
+     *
+     * @return true if trials are run in parallel.
+     */
+    public boolean isParallelTrials() {
+        return parallelTrials;
+    }
+
+    public void setParallelTrials(final boolean parallelTrials) {
+        this.parallelTrials = parallelTrials;
+    }
+
     public double getMinimumCodelengthImprovement() {
         return minimumCodelengthImprovement;
     }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.util;
+
+import java.util.Arrays;
+
+/**
+ * Order pairs of small non-negative integers held in parallel arrays.
+ * <p>
+ * This replaces the ordered maps keyed on node pairs that the C++ code uses to
+ * aggregate connections: sorting the pairs and merging runs of equal pairs
+ * gives the same order and the same sums without an object per pair.
+ *
+ * @author algol
+ */
+public class PairSort {
+
+    /**
+     * Get the order of the pairs <code>(first[i], second[i])</code> sorted by
+     * first and then second value.
+     * <p>
+     * The sort is a stable two pass counting sort, so equal pairs keep their
+     * original relative order.
+     *
+     * @param first the first value of each pair, in the range 0..range-1.
+     * @param second the second value of each pair, in the range 0..range-1.
+     * @param size the number of pairs.
+     * @param range one more than the largest value.
+     *
+     * @return the indices of the pairs in sorted order.
+     */
+    public static int[] order(final int[] first, final int[] second, final int size, final int range) {
+        final int[] bySecond = new int[size];
+        final int[] counts = new int[range + 1];
+
+        for (int i = 0; i < size; i++) {
+            counts[second[i] + 1]++;
+        }
+        for (int value = 0; value < range; value++) {
+            counts[value + 1] += counts[value];
+        }
+        for (int i = 0; i < size; i++) {
+            bySecond[counts[second[i]]++] = i;
+        }
+
+        final int[] order = new int[size];
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < size; i++) {
+            counts[first[i] + 1]++;
+        }
+        for (int value = 0; value < range; value++) {
+            counts[value + 1] += counts[value];
+        }
+        for (final int i : bySecond) {
+            order[counts[first[i]]++] = i;
+        }
+
+        return order;
+    }
+}
@@ -15,9 +15,11 @@
  */
 package au.gov.asd.tac.constellation.plugins.algorithms.clustering.ktruss;
 
-import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.plugins.algorithms.clustering.ClusteringConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.triangles.TriangleUtilities;
+import au.gov.asd.tac.constellation.plugins.algorithms.triangles.TriangleUtilities.LinkAdjacency;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -25,7 +27,6 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
 
 /**
  * Execute a k-truss action
@@ -58,12 +59,17 @@ public class KTruss {
         // That is those values of k for which the graph contained k-1 trusses that were not k-trusses.
         private final List<Integer> significantClusters = new ArrayList<>();
 
-        // These data structures are used to keep track of the nesting of connected components as the value of k increases.
+        // These arrays are used to keep track of the nesting of connected components as the value of k increases.
         // This information is used to display nested k-trusses in the KTrussControllerTopComponent
-        private final Map<Integer, Integer> nodeToComponent = new HashMap<>();
-        private final Map<Integer, Integer> linkToComponent = new HashMap<>();
-        private final Map<Integer, Integer> componentTree = new HashMap<>();
-        private final Map<Integer, Integer> componentSizes = new HashMap<>();
+        // The smallest component each node and link lies in, by position
+        private final int[] nodeComponents;
+        private final int[] linkComponents;
+        // The parent of each component (or the component itself if it is not nested), and the number of nodes in it
+        private int[] componentParents = new int[16];
+        private int[] componentSizes = new int[16];
+        // Scratch space for finding the components of each k-truss
+        private final int[] unionFind;
+        private final int[] rootComponents;
 
         // Records the total number of vertices in the graph which lie in a k-truss for some k >= 3.
         private int totalVertsInTrusses = 0;
@@ -73,11 +79,17 @@ public class KTruss {
             this.interactive = interactive;
             vertexKTrussAttribute = ClusteringConcept.VertexAttribute.K_TRUSS_CLUSTER.ensure(graph);
             transactionKTrussAttribute = ClusteringConcept.TransactionAttribute.K_TRUSS_CLUSTER.ensure(graph);
+            nodeComponents = new int[graph.getVertexCount()];
+            Arrays.fill(nodeComponents, -1);
+            linkComponents = new int[graph.getLinkCount()];
+            Arrays.fill(linkComponents, -1);
+            unionFind = new int[graph.getVertexCount()];
+            rootComponents = new int[graph.getVertexCount()];
         }
 
         @Override
         public void initialise(final BitSet currentLinksCopy) {
-            currentComponentNum = getComponents(graph, currentLinksCopy, nodeToComponent, linkToComponent, componentTree, componentSizes, 0);
+            currentComponentNum = getComponents(currentLinksCopy, 0);
         }
 
         @Override
@@ -96,7 +108,7 @@ public class KTruss {
         @Override
         public boolean nextK(final int lastK, final boolean clusterModified, final BitSet currentLinksCopy) {
             if (clusterModified) {
-                currentComponentNum = getComponents(graph, currentLinksCopy, nodeToComponent, linkToComponent, componentTree, componentSizes, currentComponentNum);
+                currentComponentNum = getComponents(currentLinksCopy, currentComponentNum);
                 significantClusters.add(lastK);
             }
             return true;
@@ -128,196 +140,300 @@ public class KTruss {
 
             // Set the information about the connected components of the k-trusses in the KTrussState
             // to facilitate nested k-truss visulisation.
-            state.setComponentInformation(nodeToComponent, linkToComponent, componentTree, componentSizes, currentComponentNum, graph.getVertexCount(), totalVertsInTrusses);
+            final Map<Integer, Integer> nodeToComponent = new HashMap<>();
+            for (int vertexPosition = 0; vertexPosition < nodeComponents.length; vertexPosition++) {
+                if (nodeComponents[vertexPosition] != -1) {
+                    nodeToComponent.put(graph.getVertex(vertexPosition), nodeComponents[vertexPosition]);
+                }
+            }
+            final Map<Integer, Integer> linkToComponent = new HashMap<>();
+            for (int linkPosition = 0; linkPosition < linkComponents.length; linkPosition++) {
+                if (linkComponents[linkPosition] != -1) {
+                    linkToComponent.put(graph.getLink(linkPosition), linkComponents[linkPosition]);
+                }
+            }
+            final Map<Integer, Integer> componentTree = new HashMap<>();
+            final Map<Integer, Integer> componentSizeMap = new HashMap<>();
+            for (int component = 0; component < currentComponentNum; component++) {
+                componentTree.put(component, componentParents[component]);
+                componentSizeMap.put(component, componentSizes[component]);
+            }
+            state.setComponentInformation(nodeToComponent, linkToComponent, componentTree, componentSizeMap, currentComponentNum, graph.getVertexCount(), totalVertsInTrusses);
             state.strucModificationCount = graph.getStructureModificationCounter();
             state.setInteractive(interactive);
             graph.setObjectValue(kTrussStateAttr, 0, state);
 
         }
 
-    }
+        // Calculates the connected components of the links remaining in the graph, numbering them from firstComponentNum
+        // in order of their first link, and records each as nested inside the component its links were in before.
+        // Returns the next unused component number.
+        private int getComponents(final BitSet links, final int firstComponentNum) {
+            for (int linkPosition = links.nextSetBit(0); linkPosition >= 0; linkPosition = links.nextSetBit(linkPosition + 1)) {
+                final int link = graph.getLink(linkPosition);
+                final int low = graph.getVertexPosition(graph.getLinkLowVertex(link));
+                final int high = graph.getVertexPosition(graph.getLinkHighVertex(link));
+                unionFind[low] = low;
+                unionFind[high] = high;
+                rootComponents[low] = -1;
+                rootComponents[high] = -1;
+            }
+            for (int linkPosition = links.nextSetBit(0); linkPosition >= 0; linkPosition = links.nextSetBit(linkPosition + 1)) {
+                final int link = graph.getLink(linkPosition);
+                final int lowRoot = find(graph.getVertexPosition(graph.getLinkLowVertex(link)));
+                final int highRoot = find(graph.getVertexPosition(graph.getLinkHighVertex(link)));
+                if (lowRoot != highRoot) {
+                    unionFind[lowRoot] = highRoot;
+                }
+            }
+
+            int nextComponentNum = firstComponentNum;
+            for (int linkPosition = links.nextSetBit(0); linkPosition >= 0; linkPosition = links.nextSetBit(linkPosition + 1)) {
+                final int link = graph.getLink(linkPosition);
+                final int low = graph.getVertexPosition(graph.getLinkLowVertex(link));
+                final int high = graph.getVertexPosition(graph.getLinkHighVertex(link));
+                final int root = find(low);
+                int component = rootComponents[root];
+                if (component == -1) {
+                    component = nextComponentNum++;
+                    rootComponents[root] = component;
+                    if (component == componentParents.length) {
+                        componentParents = Arrays.copyOf(componentParents, component * 2);
+                        componentSizes = Arrays.copyOf(componentSizes, component * 2);
+                    }
+                    // All the links of a component were in the same component for the previous value of k
+                    componentParents[component] = linkComponents[linkPosition] == -1 ? component : linkComponents[linkPosition];
+                    componentSizes[component] = 0;
+                }
+                linkComponents[linkPosition] = component;
+                if (nodeComponents[low] != component) {
+                    nodeComponents[low] = component;
+                    componentSizes[component]++;
+                }
+                if (nodeComponents[high] != component) {
+                    nodeComponents[high] = component;
+                    componentSizes[component]++;
+                }
+            }
+            return nextComponentNum;
+        }
 
-    public static void run(final GraphWriteMethods graph, final KTrussResultHandler resultHandler) {
+        private int find(int vertex) {
+            while (unionFind[vertex] != vertex) {
+                unionFind[vertex] = unionFind[unionFind[vertex]];
+                vertex = unionFind[vertex];
+            }
+            return vertex;
+        }
+    }
 
-        final BitSet vertices = new BitSet();
-        vertices.set(0, graph.getVertexCount());
+    /**
+     * Find the k-trusses of a graph, reporting each value of k to a result
+     * handler.
+     * <p>
+     * The trussness of every link is calculated up front by
+     * {@link #calculateTrussness(GraphReadMethods)}, so each value of k only
+     * has to report the vertices and links that leave the truss at that k.
+     *
+     * @param graph The graph.
+     * @param resultHandler Receives the k-truss of each vertex and
+     * transaction, and the links that remain at each value of k.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public static void run(final GraphWriteMethods graph, final KTrussResultHandler resultHandler) throws InterruptedException {
+        final int vertexCount = graph.getVertexCount();
+        final int linkCount = graph.getLinkCount();
+        final int[] linkTrussness = calculateTrussness(graph);
+
+        // A vertex is in a k-truss if any of its links are
+        final int[] vertexTrussness = new int[vertexCount];
         final BitSet links = new BitSet();
-        links.set(0, graph.getLinkCount());
-
-        // Exclude all links that are loops
-        for (int linkPosition = 0; linkPosition < graph.getLinkCount(); linkPosition++) {
+        for (int linkPosition = 0; linkPosition < linkCount; linkPosition++) {
             final int link = graph.getLink(linkPosition);
-            if (graph.getLinkLowVertex(link) == graph.getLinkHighVertex(link)) {
-                links.clear(linkPosition);
+            if (linkTrussness[linkPosition] > 0) {
+                links.set(linkPosition);
+                final int low = graph.getVertexPosition(graph.getLinkLowVertex(link));
+                final int high = graph.getVertexPosition(graph.getLinkHighVertex(link));
+                vertexTrussness[low] = Math.max(vertexTrussness[low], linkTrussness[linkPosition]);
+                vertexTrussness[high] = Math.max(vertexTrussness[high], linkTrussness[linkPosition]);
             }
         }
 
-        // Records whether or not there are graph elements that are present in a k-truss that are not present in a k+1-truss.
-        boolean modifiedThisK = false;
-        int lastK = 0;
-        int currentK = 3;
+        // Group the vertices and links by the value of k at which they leave the k-truss,
+        // which is 3 for anything that is not in a triangle.
+        int highestTrussness = 2;
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            highestTrussness = Math.max(highestTrussness, vertexTrussness[vertexPosition]);
+        }
+        final int[] vertexOffsets = new int[highestTrussness + 3];
+        final int[] vertexOrder = sortByRemovalK(vertexTrussness, null, vertexOffsets);
+        final int[] linkOffsets = new int[highestTrussness + 3];
+        final int[] linkOrder = sortByRemovalK(linkTrussness, links, linkOffsets);
+
         resultHandler.initialise((BitSet) links.clone());
 
+        int remainingVertices = vertexCount;
+        int lastK = 0;
+        int currentK = 3;
         while (true) {
-            boolean modified = false;
-
-            // Cull all vertices that do not have enough links
-            for (int vertexPosition = vertices.nextSetBit(0); vertexPosition >= 0; vertexPosition = vertices.nextSetBit(vertexPosition + 1)) {
-                final int vxID = graph.getVertex(vertexPosition);
-
-                // Count the number of surviving links connected to this vertex
-                int survivingLinkCount = 0;
-                final int vertexLinkCount = graph.getVertexLinkCount(vxID);
-                for (int vertexLinkPosition = 0; vertexLinkPosition < vertexLinkCount; vertexLinkPosition++) {
-                    int link = graph.getVertexLink(vxID, vertexLinkPosition);
-                    if (links.get(graph.getLinkPosition(link))) {
-                        survivingLinkCount++;
-                    }
-                }
-
-                // If the vertex does not have enough surviving links then cull the vertex and all its links
-                if (survivingLinkCount < currentK - 1) {
+            // Records whether or not there are graph elements that are present in a k-truss that are not present in a k+1-truss.
+            boolean modifiedThisK = false;
 
-                    vertices.clear(vertexPosition);
-                    modified = true;
-                    resultHandler.recordVertexCluster(vxID, lastK);
-
-                    for (int vertexLinkPosition = 0; vertexLinkPosition < vertexLinkCount; vertexLinkPosition++) {
-                        final int link = graph.getVertexLink(vxID, vertexLinkPosition);
-                        final int linkPosition = graph.getLinkPosition(link);
-
-                        // If this link was still alive then cull it and record its k-truss cluster.
-                        if (links.get(linkPosition)) {
-                            links.clear(linkPosition);
-
-                            final int transactionCount = graph.getLinkTransactionCount(link);
-                            for (int transactionPosition = 0; transactionPosition < transactionCount; transactionPosition++) {
-                                final int txID = graph.getLinkTransaction(link, transactionPosition);
-                                resultHandler.recordTransactionCluster(txID, lastK);
-                            }
-                        }
-                    }
-                }
+            for (int i = vertexOffsets[currentK - 1]; i < vertexOffsets[currentK]; i++) {
+                resultHandler.recordVertexCluster(graph.getVertex(vertexOrder[i]), lastK);
+                remainingVertices--;
+                modifiedThisK = true;
             }
 
-            // Cull all surviving links that do not have enough support
-            for (int linkPosition = links.nextSetBit(0); linkPosition >= 0; linkPosition = links.nextSetBit(linkPosition + 1)) {
-                final int link = graph.getLink(linkPosition);
-                final int lowVertex = graph.getLinkLowVertex(link);
-                final int highVertex = graph.getLinkHighVertex(link);
-
-                // Support is determined by counting the number of triangles that the link lies in
-                // This is determined by iterating through the neighbours of the lowVertex for the link
-                // (ensuring that the link joining the neighbours is still alive)
-                // and seeing how many are also neighbours of the highVertex for the link
-                int support = 0;
-                for (int neighbourPosition = 0; neighbourPosition < graph.getVertexNeighbourCount(lowVertex); neighbourPosition++) {
-                    final int lowNeighbour = graph.getVertexNeighbour(lowVertex, neighbourPosition);
-                    final int lowNeighbourLink = graph.getLink(lowVertex, lowNeighbour);
-                    final int triangleLink = graph.getLink(lowNeighbour, highVertex);
-                    if (triangleLink != Graph.NOT_FOUND && links.get(graph.getLinkPosition(triangleLink)) && links.get(graph.getLinkPosition(lowNeighbourLink))) {
-                        support++;
-                    }
-                }
-
-                // If the link lies in less than k - 2 triangles, then cull it and record the k-truss cluster for all of its transactions.
-                if (support < currentK - 2) {
-                    links.clear(linkPosition);
-                    modified = true;
+            for (int i = linkOffsets[currentK - 1]; i < linkOffsets[currentK]; i++) {
+                final int linkPosition = linkOrder[i];
+                links.clear(linkPosition);
+                modifiedThisK = true;
 
-                    final int transactionCount = graph.getLinkTransactionCount(link);
-                    for (int transactionPosition = 0; transactionPosition < transactionCount; transactionPosition++) {
-                        final int txID = graph.getLinkTransaction(link, transactionPosition);
-                        resultHandler.recordTransactionCluster(txID, lastK);
-                    }
+                final int link = graph.getLink(linkPosition);
+                final int transactionCount = graph.getLinkTransactionCount(link);
+                for (int transactionPosition = 0; transactionPosition < transactionCount; transactionPosition++) {
+                    final int txID = graph.getLinkTransaction(link, transactionPosition);
+                    resultHandler.recordTransactionCluster(txID, lastK);
                 }
             }
 
-            modifiedThisK |= modified;
-
-            // If the graph has not been modified (no links or vertices culled) then increase the value of k.
-            if (!modified) {
-                if (vertices.isEmpty() || !resultHandler.nextK(currentK, modifiedThisK, (BitSet) links.clone())) {
-                    resultHandler.finalise(lastK, (BitSet) links.clone());
-                    break;
-                }
-                modifiedThisK = false;
-                lastK = currentK++;
+            if (remainingVertices == 0 || !resultHandler.nextK(currentK, modifiedThisK, (BitSet) links.clone())) {
+                resultHandler.finalise(lastK, (BitSet) links.clone());
+                break;
             }
+            lastK = currentK++;
         }
     }
 
-    // Calculates the connected components of the k-trusses in the graph as k increases.
-    // Apart from links which is a clone of the links remaining in the graph that serves only as an in parameter,
-    // all parameters are in/out parameters which need to be managed by the KTruss method itself.
-    // nodeToComponent and linkToComponent record the smallest components that each node and link lies in
-    // componentTree records the heirarchy of nested components
-    // componentSizes records the number of nodes in each componenent
-    // currentComponentNum keeps track of the total number of components
-    private static int getComponents(final GraphWriteMethods graph, final BitSet links, final Map<Integer, Integer> nodeToComponent, final Map<Integer, Integer> linkToComponent, final Map<Integer, Integer> componentTree, final Map<Integer, Integer> componentSizes, int currentComponentNum) {
-        // For each link remaining in the graph find all links connected to it, record them and their end vertices as belonging to the same component, and clear them.
-        for (int linkPosition = links.nextSetBit(0); linkPosition >= 0; linkPosition = links.nextSetBit(linkPosition + 1)) {
-            getComponentsHopper(graph, links, nodeToComponent, linkToComponent, componentTree, currentComponentNum, linkPosition);
-            int componentCounter = 0;
-            for (final Map.Entry<Integer, Integer> entry : nodeToComponent.entrySet()) {
-                if (entry.getValue() == currentComponentNum) {
-                    componentCounter++;
-                }
+    /**
+     * Counting sort the elements by the value of k at which they leave the
+     * k-truss, which is one more than their trussness, and at least 3. The
+     * elements leaving at k are at offsets[k - 1] until offsets[k].
+     */
+    private static int[] sortByRemovalK(final int[] trussness, final BitSet included, final int[] offsets) {
+        for (int i = 0; i < trussness.length; i++) {
+            if (included == null || included.get(i)) {
+                offsets[Math.max(3, trussness[i] + 1)]++;
+            }
+        }
+        for (int k = 1; k < offsets.length; k++) {
+            offsets[k] += offsets[k - 1];
+        }
+        final int[] order = new int[offsets[offsets.length - 1]];
+        final int[] next = Arrays.copyOf(offsets, offsets.length);
+        for (int i = 0; i < trussness.length; i++) {
+            if (included == null || included.get(i)) {
+                order[next[Math.max(3, trussness[i] + 1) - 1]++] = i;
             }
-            componentSizes.put(currentComponentNum, componentCounter);
-            currentComponentNum++;
         }
-        return currentComponentNum;
+        return order;
     }
 
-    // Helper method for getComponents which uses recursion to 'hop out one'.
-    // Iterates through the links adjacent of a given link, adding them to the same componenent, clearing them, and then calling itself recursively,
-    // until it reaches a link with no adjacent links that haven't already been cleared.
-    private static void getComponentsHopper(final GraphWriteMethods graph, final BitSet links, final Map<Integer, Integer> nodeToComponent, final Map<Integer, Integer> linkToComponent, final Map<Integer, Integer> componentTree, final int currentComponentNum, final int initialLinkPosition) {
-
-        final Stack<Integer> linksToHopFrom = new Stack<>();
-        linksToHopFrom.add(initialLinkPosition);
-        links.clear(initialLinkPosition);
+    /**
+     * Calculate the trussness of every link, which is the highest k for which
+     * the link is in a k-truss.
+     * <p>
+     * The support of each link, the number of triangles it is in, is counted
+     * once by {@link TriangleUtilities#countLinkTriangles}. Links are then
+     * removed in order of support using a bucket queue, as described by Wang
+     * and Cheng, and each removal lowers the support of the other two links
+     * of each of its remaining triangles. A link's trussness is two more than
+     * its support when it is removed.
+     *
+     * @param graph The graph.
+     * @return The trussness of each link, by link position. Links that are
+     * not in any triangle have a trussness of 2, and loops have 0.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public static int[] calculateTrussness(final GraphReadMethods graph) throws InterruptedException {
+        final LinkAdjacency adjacency = new LinkAdjacency(graph);
+        final int linkCount = adjacency.getLinkCount();
+        final int[] support = TriangleUtilities.countLinkTriangles(adjacency);
+        final int[] offsets = adjacency.getOffsets();
+        final int[] neighbours = adjacency.getNeighbours();
+        final int[] rowLinks = adjacency.getLinks();
+
+        // Bucket the links by support, keeping the start of each bucket and where each link is
+        int maxSupport = 0;
+        for (int link = 0; link < linkCount; link++) {
+            maxSupport = Math.max(maxSupport, support[link]);
+        }
+        final int[] bucketStarts = new int[maxSupport + 2];
+        for (int link = 0; link < linkCount; link++) {
+            if (adjacency.getLinkLowVertex(link) != -1) {
+                bucketStarts[support[link] + 1]++;
+            }
+        }
+        for (int s = 1; s < bucketStarts.length; s++) {
+            bucketStarts[s] += bucketStarts[s - 1];
+        }
+        final int orderedCount = bucketStarts[maxSupport + 1];
+        final int[] order = new int[orderedCount];
+        final int[] orderIndex = new int[linkCount];
+        final int[] next = Arrays.copyOf(bucketStarts, maxSupport + 1);
+        for (int link = 0; link < linkCount; link++) {
+            if (adjacency.getLinkLowVertex(link) != -1) {
+                orderIndex[link] = next[support[link]]++;
+                order[orderIndex[link]] = link;
+            }
+        }
 
-        while (!linksToHopFrom.empty()) {
+        final int[] trussness = new int[linkCount];
+        final boolean[] removed = new boolean[linkCount];
+        for (int link = 0; link < linkCount; link++) {
+            removed[link] = adjacency.getLinkLowVertex(link) == -1;
+        }
 
-            final int linkPosition = linksToHopFrom.pop();
-            final int link = graph.getLink(linkPosition);
-            final int lowVertex = graph.getLinkLowVertex(link);
-            final int highVertex = graph.getLinkHighVertex(link);
+        for (int i = 0; i < orderedCount; i++) {
+            if ((i & 4095) == 0 && Thread.interrupted()) {
+                throw new InterruptedException();
+            }
 
-            // If the current link is already in a component, record the current component as being nested inside the link's previous component.
-            if (linkToComponent.get(link) != null) {
-                componentTree.put(currentComponentNum, linkToComponent.get(link));
-                // If the current link is not in a component, record the current component as being it's own parent (ie. not nested inside any other components)
-            } else {
-                componentTree.put(currentComponentNum, currentComponentNum);
+            final int link = order[i];
+            final int linkSupport = support[link];
+            trussness[link] = linkSupport + 2;
+            removed[link] = true;
+
+            // Find the remaining triangles from the end with fewer neighbours
+            int vertex = adjacency.getLinkLowVertex(link);
+            int other = adjacency.getLinkHighVertex(link);
+            if (adjacency.getDegree(vertex) > adjacency.getDegree(other)) {
+                vertex = other;
+                other = adjacency.getLinkLowVertex(link);
             }
-            // Record the current link and its two end nodes as belonging to the current component, then clear the link
-            linkToComponent.put(link, currentComponentNum);
-            nodeToComponent.put(lowVertex, currentComponentNum);
-            nodeToComponent.put(highVertex, currentComponentNum);
-
-            // Iterate through the links adjacent to this link's low vertex, adding them to the stack if they haven't already been
-            for (int i = 0; i < graph.getVertexLinkCount(lowVertex); i++) {
-                final int neighbourLink = graph.getVertexLink(lowVertex, i);
-                final int neighbourLinkPosition = graph.getLinkPosition(neighbourLink);
-                if (links.get(neighbourLinkPosition)) {
-
-                    links.clear(neighbourLinkPosition);
-                    linksToHopFrom.push(neighbourLinkPosition);
+            for (int j = offsets[vertex]; j < offsets[vertex + 1]; j++) {
+                final int vertexLink = rowLinks[j];
+                if (!removed[vertexLink]) {
+                    final int otherLink = adjacency.findLink(other, neighbours[j]);
+                    if (otherLink != -1 && !removed[otherLink]) {
+                        lowerSupport(vertexLink, linkSupport, support, bucketStarts, order, orderIndex);
+                        lowerSupport(otherLink, linkSupport, support, bucketStarts, order, orderIndex);
+                    }
                 }
             }
-            // Iterate through the links adjacent to this link's high vertex, calling this method recursively to record the component for and hop out from these links
-            for (int i = 0; i < graph.getVertexLinkCount(highVertex); i++) {
-                final int neighbourLink = graph.getVertexLink(highVertex, i);
-                final int neighbourLinkPosition = graph.getLinkPosition(neighbourLink);
-                if (links.get(neighbourLinkPosition)) {
-                    links.clear(neighbourLinkPosition);
-                    linksToHopFrom.push(neighbourLinkPosition);
+        }
 
-                }
-            }
+        return trussness;
+    }
+
+    /**
+     * Lower the support of a link by one, unless it is already no more than
+     * the support of the link being removed, by swapping it to the start of
+     * its bucket and moving the start of the bucket past it.
+     */
+    private static void lowerSupport(final int link, final int floor, final int[] support, final int[] bucketStarts, final int[] order, final int[] orderIndex) {
+        final int linkSupport = support[link];
+        if (linkSupport > floor) {
+            final int index = orderIndex[link];
+            final int first = bucketStarts[linkSupport];
+            final int firstLink = order[first];
+            order[index] = firstLink;
+            orderIndex[firstLink] = index;
+            order[first] = link;
+            orderIndex[link] = first;
+            bucketStarts[linkSupport]++;
+            support[link]--;
         }
     }
 }
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.clustering.labelpropagation;
+
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.utilities.AdjacencySnapshot;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Label propagation clustering over primitive adjacency arrays.
+ * <p>
+ * Every vertex starts with its own label, and repeatedly takes the label with
+ * the highest weight among its neighbours, keeping its current label if it is
+ * one of the best so that the labels settle. Labels are updated as soon as
+ * they are chosen, as described by Raghavan, Albert and Kumara and by Biemann
+ * for Chinese Whispers.
+ * <p>
+ * To update labels immediately while still using every processor, the
+ * vertices are greedily coloured so that no two neighbours share a colour.
+ * Each iteration visits the colours in a random order, and the vertices of a
+ * colour are updated in parallel, since none of them reads the label of
+ * another. Ties are broken by hashing the seed, iteration and vertex, so for a
+ * given seed the clusters do not depend on the number of threads.
+ *
+ * @author algol
+ */
+public final class LabelPropagation {
+
+    // colours with fewer vertices than this are updated on the calling thread
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final int[] colourOffsets;
+    private final int[] colourVertices;
+    private final int[] labels;
+    private final boolean weighted;
+    private final long seed;
+    private int iterations = 0;
+
+    /**
+     * Prepare to cluster a graph.
+     *
+     * @param graph The graph to cluster. Transactions are treated as
+     * undirected, and loops are ignored.
+     * @param weighted If true, each neighbour is weighted by the number of
+     * transactions to it, otherwise every neighbour has the same weight.
+     * @param seed The seed for the order in which colours are visited and for
+     * breaking ties.
+     */
+    public LabelPropagation(final GraphReadMethods graph, final boolean weighted, final long seed) {
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.get(graph, false);
+        this.vertexCount = snapshot.getVertexCount();
+        this.offsets = snapshot.getOutOffsets();
+        this.neighbours = snapshot.getOutTargets();
+        this.weighted = weighted;
+        this.seed = seed;
+
+        labels = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            labels[vertex] = vertex;
+        }
+
+        // greedily colour the vertices, then group the vertices of each colour
+        final int[] colours = new int[vertexCount];
+        final int[] usedBy = new int[vertexCount + 1];
+        Arrays.fill(usedBy, -1);
+        int colourCount = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int k = offsets[vertex]; k < offsets[vertex + 1]; k++) {
+                final int neighbour = neighbours[k];
+                if (neighbour < vertex) {
+                    usedBy[colours[neighbour]] = vertex;
+                }
+            }
+            int colour = 0;
+            while (usedBy[colour] == vertex) {
+                colour++;
+            }
+            colours[vertex] = colour;
+            colourCount = Math.max(colourCount, colour + 1);
+        }
+
+        colourOffsets = new int[colourCount + 1];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            colourOffsets[colours[vertex] + 1]++;
+        }
+        for (int colour = 0; colour < colourCount; colour++) {
+            colourOffsets[colour + 1] += colourOffsets[colour];
+        }
+        final int[] next = Arrays.copyOf(colourOffsets, colourCount);
+        colourVertices = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            colourVertices[next[colours[vertex]]++] = vertex;
+        }
+    }
+
+    /**
+     * Propagate labels until no label changes, or the maximum number of
+     * iterations is reached.
+     *
+     * @param maxIterations The maximum number of iterations.
+     * @return True if the labels settled within the maximum number of
+     * iterations.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public boolean run(final int maxIterations) throws InterruptedException {
+        final int colourCount = colourOffsets.length - 1;
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final ExecutorService workers = processors > 1 && vertexCount >= PARALLEL_THRESHOLD ? Executors.newFixedThreadPool(processors) : null;
+        try {
+            final int[][] scratch = new int[Math.max(1, processors)][];
+            final int[] colourOrder = new int[colourCount];
+            for (int colour = 0; colour < colourCount; colour++) {
+                colourOrder[colour] = colour;
+            }
+            final SplittableRandom random = new SplittableRandom(seed);
+
+            while (iterations < maxIterations) {
+                final int iteration = iterations++;
+                shuffle(random, colourOrder);
+
+                int changes = 0;
+                for (final int colour : colourOrder) {
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+
+                    final int start = colourOffsets[colour];
+                    final int end = colourOffsets[colour + 1];
+                    if (workers == null || end - start < PARALLEL_THRESHOLD) {
+                        changes += update(start, end, iteration, scratch, 0);
+                    } else {
+                        changes += updateInParallel(workers, start, end, iteration, scratch, processors);
+                    }
+                }
+
+                if (changes == 0) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            if (workers != null) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private int updateInParallel(final ExecutorService workers, final int start, final int end, final int iteration, final int[][] scratch, final int chunkCount) throws InterruptedException {
+        final List<Future<Integer>> futures = new ArrayList<>(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            final int chunkStart = start + (int) ((long) (end - start) * chunk / chunkCount);
+            final int chunkEnd = start + (int) ((long) (end - start) * (chunk + 1) / chunkCount);
+            final int scratchIndex = chunk;
+            futures.add(workers.submit(() -> update(chunkStart, chunkEnd, iteration, scratch, scratchIndex)));
+        }
+
+        int changes = 0;
+        try {
+            for (final Future<Integer> future : futures) {
+                changes += future.get();
+            }
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+        return changes;
+    }
+
+    /**
+     * Update the labels of a range of the vertices of a colour, returning the
+     * number of labels that changed.
+     */
+    private int update(final int start, final int end, final int iteration, final int[][] scratch, final int scratchIndex) {
+        int changes = 0;
+        for (int i = start; i < end; i++) {
+            final int vertex = colourVertices[i];
+            final int degree = offsets[vertex + 1] - offsets[vertex];
+            if (scratch[scratchIndex] == null || scratch[scratchIndex].length < degree) {
+                scratch[scratchIndex] = new int[Math.max(degree, 16)];
+            }
+            final int label = chooseLabel(vertex, iteration, scratch[scratchIndex]);
+            if (label != labels[vertex]) {
+                labels[vertex] = label;
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Choose the label with the highest weight among the neighbours of a
+     * vertex, keeping the current label if it is one of the best.
+     */
+    private int chooseLabel(final int vertex, final int iteration, final int[] neighbourLabels) {
+        // rows are sorted, so repeated neighbours are adjacent
+        int labelCount = 0;
+        int previous = -1;
+        for (int k = offsets[vertex]; k < offsets[vertex + 1]; k++) {
+            final int neighbour = neighbours[k];
+            if (neighbour != vertex && (weighted || neighbour != previous)) {
+                neighbourLabels[labelCount++] = labels[neighbour];
+            }
+            previous = neighbour;
+        }
+        if (labelCount == 0) {
+            return labels[vertex];
+        }
+        Arrays.sort(neighbourLabels, 0, labelCount);
+
+        // find the highest weight, and how many labels have it
+        int bestWeight = 0;
+        int bestCount = 0;
+        boolean currentIsBest = false;
+        for (int runStart = 0; runStart < labelCount;) {
+            int runEnd = runStart + 1;
+            while (runEnd < labelCount && neighbourLabels[runEnd] == neighbourLabels[runStart]) {
+                runEnd++;
+            }
+            final int weight = runEnd - runStart;
+            if (weight > bestWeight) {
+                bestWeight = weight;
+                bestCount = 0;
+                currentIsBest = false;
+            }
+            if (weight == bestWeight) {
+                bestCount++;
+                currentIsBest |= neighbourLabels[runStart] == labels[vertex];
+            }
+            runStart = runEnd;
+        }
+        if (currentIsBest) {
+            return labels[vertex];
+        }
+
+        // break ties with a hash of the seed, iteration and vertex
+        int choice = (int) ((mix(seed ^ mix(((long) iteration << 32) | vertex)) >>> 1) % bestCount);
+        for (int runStart = 0; runStart < labelCount;) {
+            int runEnd = runStart + 1;
+            while (runEnd < labelCount && neighbourLabels[runEnd] == neighbourLabels[runStart]) {
+                runEnd++;
+            }
+            if (runEnd - runStart == bestWeight && choice-- == 0) {
+                return neighbourLabels[runStart];
+            }
+            runStart = runEnd;
+        }
+        throw new IllegalStateException("No label chosen");
+    }
+
+    private static void shuffle(final SplittableRandom random, final int[] a) {
+        for (int i = a.length - 1; i > 0; i--) {
+            final int ix = random.nextInt(i + 1);
+            final int tmp = a[ix];
+            a[ix] = a[i];
+            a[i] = tmp;
+        }
+    }
+
+    /**
+     * The finalisation step of the MurmurHash3 64 bit hash, which mixes the
+     * bits of a value thoroughly.
+     */
+    private static long mix(final long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9f53a1a2fe3L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * The number of iterations run so far.
+     *
+     * @return The number of iterations run so far.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * The number of colours used to schedule the updates.
+     *
+     * @return The number of colours.
+     */
+    public int getColourCount() {
+        return colourOffsets.length - 1;
+    }
+
+    /**
+     * The label of each vertex, by position. Each label is the position of
+     * the vertex whose label spread to the cluster.
+     *
+     * @return The label of each vertex.
+     */
+    public int[] getLabels() {
+        return labels;
+    }
+}
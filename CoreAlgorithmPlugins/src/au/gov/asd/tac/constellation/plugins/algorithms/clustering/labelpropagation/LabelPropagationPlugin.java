@@ -0,0 +1,87 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.clustering.labelpropagation;
+
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.plugins.Plugin;
+import au.gov.asd.tac.constellation.plugins.PluginInteraction;
+import au.gov.asd.tac.constellation.plugins.algorithms.clustering.ClusteringConcept;
+import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
+import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
+import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
+import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType.BooleanParameterValue;
+import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType;
+import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType.IntegerParameterValue;
+import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
+import org.openide.util.NbBundle;
+import org.openide.util.lookup.ServiceProvider;
+
+/**
+ * Cluster a graph by label propagation, where each node repeatedly joins the
+ * cluster most common among its neighbours.
+ *
+ * @author algol
+ */
+@ServiceProvider(service = Plugin.class)
+@NbBundle.Messages("LabelPropagationPlugin=Label Propagation")
+public class LabelPropagationPlugin extends SimpleEditPlugin {
+
+    public static final String ITERATIONS_PARAMETER_ID = PluginParameter.buildId(LabelPropagationPlugin.class, "iterations");
+    public static final String WEIGHTED_PARAMETER_ID = PluginParameter.buildId(LabelPropagationPlugin.class, "weighted");
+    public static final String SEED_PARAMETER_ID = PluginParameter.buildId(LabelPropagationPlugin.class, "seed");
+
+    @Override
+    public PluginParameters createParameters() {
+        final PluginParameters parameters = new PluginParameters();
+
+        final PluginParameter<IntegerParameterValue> iterationsParameter = IntegerParameterType.build(ITERATIONS_PARAMETER_ID);
+        iterationsParameter.setName("Iterations");
+        iterationsParameter.setDescription("The maximum number of iterations; clustering stops earlier if no node changes cluster");
+        iterationsParameter.setIntegerValue(100);
+        IntegerParameterType.setMinimum(iterationsParameter, 1);
+        parameters.addParameter(iterationsParameter);
+
+        final PluginParameter<BooleanParameterValue> weightedParameter = BooleanParameterType.build(WEIGHTED_PARAMETER_ID);
+        weightedParameter.setName("Weight By Transactions");
+        weightedParameter.setDescription("Weight each neighbour by the number of transactions to it, rather than counting each neighbour once");
+        weightedParameter.setBooleanValue(false);
+        parameters.addParameter(weightedParameter);
+
+        final PluginParameter<IntegerParameterValue> seedParameter = IntegerParameterType.build(SEED_PARAMETER_ID);
+        seedParameter.setName("Random Seed");
+        seedParameter.setDescription("The seed for random choices; the same seed and graph give the same clusters. The default is 0, which uses a different seed each time.");
+        seedParameter.setIntegerValue(0);
+        parameters.addParameter(seedParameter);
+
+        return parameters;
+    }
+
+    @Override
+    public void edit(final GraphWriteMethods graph, final PluginInteraction interaction, final PluginParameters parameters) throws InterruptedException {
+        final int iterations = parameters.getIntegerValue(ITERATIONS_PARAMETER_ID);
+        final boolean weighted = parameters.getBooleanValue(WEIGHTED_PARAMETER_ID);
+        final int seed = parameters.getIntegerValue(SEED_PARAMETER_ID);
+
+        final LabelPropagation propagation = new LabelPropagation(graph, weighted, seed != 0 ? seed : System.nanoTime());
+        propagation.run(iterations);
+
+        final int clusterAttribute = ClusteringConcept.VertexAttribute.LABEL_PROPAGATION_CLUSTER.ensure(graph);
+        final int[] labels = propagation.getLabels();
+        for (int position = 0; position < labels.length; position++) {
+            graph.setIntValue(clusterAttribute, graph.getVertex(position), labels[position]);
+        }
+    }
+}
@@ -0,0 +1,543 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.paths;
+
+import au.gov.asd.tac.constellation.graph.utilities.AdjacencySnapshot;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds every shortest path between vertices of an
+ * {@link AdjacencySnapshot} using Dijkstra's algorithm.
+ * <p>
+ * Each search keeps its distances, predecessors and an indexed binary heap in
+ * primitive arrays over the vertex indices of the snapshot, and only resets
+ * the vertices it touched, so a search that finds its targets early does not
+ * pay for the rest of the graph. A single pair of vertices is searched from
+ * both ends at once. Searches from many sources are shared between worker
+ * threads, each taking the next source as it finishes the last, so a worker
+ * with short searches takes on more sources.
+ * <p>
+ * Rather than listing paths, which grow exponentially in number when there
+ * are many ties, the vertices and transactions on any shortest path are
+ * marked by walking back over the arcs that are tight, that is for which the
+ * distance to the head is the distance to the tail plus the weight of the
+ * arc.
+ *
+ * @author procyon
+ */
+public final class DijkstraSearch {
+
+    // the number of vertices settled between checks for interruption
+    private static final int INTERRUPT_INTERVAL = 1024;
+
+    private final AdjacencySnapshot adjacency;
+    private final BitSet vertices = new BitSet();
+    private final BitSet transactions = new BitSet();
+
+    /**
+     * Prepare to search a snapshot.
+     *
+     * @param adjacency The snapshot to search. In a directed snapshot, paths
+     * follow the direction of transactions.
+     */
+    public DijkstraSearch(final AdjacencySnapshot adjacency) {
+        this.adjacency = adjacency;
+    }
+
+    /**
+     * The vertices found on a shortest path so far.
+     *
+     * @return The indices of the vertices in the snapshot.
+     */
+    public BitSet getVertices() {
+        return vertices;
+    }
+
+    /**
+     * The transactions found on a shortest path so far.
+     *
+     * @return The ids of the transactions in the graph.
+     */
+    public BitSet getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Mark every shortest path from one vertex to another, searching from both
+     * vertices at once.
+     *
+     * @param source The index of the vertex to start from.
+     * @param target The index of the vertex to finish at.
+     * @return The length of the shortest path, or
+     * {@link Double#POSITIVE_INFINITY} if there is no path.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public double markPaths(final int source, final int target) throws InterruptedException {
+        final Search forward = new Search(adjacency, true);
+        final Search backward = new Search(adjacency, false);
+        final double distance = searchBothWays(forward, backward, source, target);
+        if (distance == Double.POSITIVE_INFINITY) {
+            return distance;
+        }
+
+        // Every shortest path leaves the vertices settled by the forward search
+        // along an arc into the vertices settled by the backward search, unless
+        // one search has settled the whole path by itself.
+        if (forward.isSettled(target) && forward.distances[target] == distance) {
+            forward.markTight(target, vertices, transactions);
+        }
+        if (backward.isSettled(source) && backward.distances[source] == distance) {
+            backward.markTight(source, vertices, transactions);
+        }
+        final int[] offsets = adjacency.getOutOffsets();
+        final int[] targets = adjacency.getOutTargets();
+        final double[] weights = adjacency.getOutWeights();
+        final int[] arcTransactions = adjacency.getOutTransactions();
+        for (int i = 0; i < forward.touchedCount; i++) {
+            final int vertex = forward.touched[i];
+            if (forward.isSettled(vertex)) {
+                for (int arc = offsets[vertex]; arc < offsets[vertex + 1]; arc++) {
+                    final int next = targets[arc];
+                    if (backward.isSettled(next) && forward.distances[vertex] + weights[arc] + backward.distances[next] == distance) {
+                        transactions.set(arcTransactions[arc]);
+                        forward.markTight(vertex, vertices, transactions);
+                        backward.markTight(next, vertices, transactions);
+                    }
+                }
+            }
+        }
+
+        return distance;
+    }
+
+    /**
+     * Mark every shortest path from each source to each of its targets,
+     * sharing the sources between worker threads.
+     *
+     * @param sources The indices of the vertices to start from.
+     * @param targets For each source, the indices of the vertices to find
+     * paths to.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public void markPaths(final int[] sources, final int[][] targets) throws InterruptedException {
+        final int workerCount = Math.min(Runtime.getRuntime().availableProcessors(), sources.length);
+        final AtomicInteger nextSource = new AtomicInteger();
+        if (workerCount <= 1) {
+            markPaths(sources, targets, nextSource, vertices, transactions);
+            return;
+        }
+
+        final ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        try {
+            final List<Future<BitSet[]>> futures = new ArrayList<>(workerCount);
+            for (int worker = 0; worker < workerCount; worker++) {
+                futures.add(workers.submit(() -> {
+                    final BitSet workerVertices = new BitSet();
+                    final BitSet workerTransactions = new BitSet();
+                    markPaths(sources, targets, nextSource, workerVertices, workerTransactions);
+                    return new BitSet[]{workerVertices, workerTransactions};
+                }));
+            }
+
+            for (final Future<BitSet[]> future : futures) {
+                final BitSet[] marked = future.get();
+                vertices.or(marked[0]);
+                transactions.or(marked[1]);
+            }
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof InterruptedException) {
+                throw (InterruptedException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void markPaths(final int[] sources, final int[][] targets, final AtomicInteger nextSource, final BitSet markedVertices, final BitSet markedTransactions) throws InterruptedException {
+        final Search search = new Search(adjacency, true);
+        for (int i = nextSource.getAndIncrement(); i < sources.length; i = nextSource.getAndIncrement()) {
+            search.run(sources[i], targets[i]);
+            for (final int target : targets[i]) {
+                if (search.isSettled(target)) {
+                    search.markTight(target, markedVertices, markedTransactions);
+                }
+            }
+            search.reset();
+        }
+    }
+
+    /**
+     * Search forwards from the source and backwards from the target, settling
+     * a vertex from whichever side has the closer one, until no path through a
+     * vertex yet to be settled could be as short as the shortest path found.
+     */
+    private static double searchBothWays(final Search forward, final Search backward, final int source, final int target) throws InterruptedException {
+        forward.start(source);
+        backward.start(target);
+        if (source == target) {
+            return 0;
+        }
+
+        double best = Double.POSITIVE_INFINITY;
+        int settledCount = 0;
+        while (!forward.heap.isEmpty() && !backward.heap.isEmpty()
+                && forward.heap.peekKey() + backward.heap.peekKey() <= best) {
+            if (++settledCount % INTERRUPT_INTERVAL == 0 && Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            final Search side = forward.heap.peekKey() <= backward.heap.peekKey() ? forward : backward;
+            final Search other = side == forward ? backward : forward;
+            final int vertex = side.settleNext();
+            for (int arc = side.offsets[vertex]; arc < side.offsets[vertex + 1]; arc++) {
+                final int next = side.targets[arc];
+                if (other.isReached(next)) {
+                    best = Math.min(best, side.distances[vertex] + side.weights[arc] + other.distances[next]);
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * A single source search, following arcs either forwards or backwards,
+     * with working arrays that can be reused for another source.
+     */
+    private static final class Search {
+
+        private final int[] offsets;
+        private final int[] targets;
+        private final double[] weights;
+        private final int[] reverseOffsets;
+        private final int[] reverseTargets;
+        private final double[] reverseWeights;
+        private final int[] reverseTransactions;
+
+        private final double[] distances;
+        private final int[] predecessors;
+        private final boolean[] settled;
+        private final boolean[] marked;
+        private final int[] touched;
+        private int touchedCount = 0;
+        private final IndexedHeap heap;
+        private final int[] stack;
+
+        Search(final AdjacencySnapshot adjacency, final boolean forwards) {
+            final int vertexCount = adjacency.getVertexCount();
+            if (forwards) {
+                offsets = adjacency.getOutOffsets();
+                targets = adjacency.getOutTargets();
+                weights = adjacency.getOutWeights();
+                reverseOffsets = adjacency.getInOffsets();
+                reverseTargets = adjacency.getInSources();
+                reverseWeights = adjacency.getInWeights();
+                reverseTransactions = adjacency.getInTransactions();
+            } else {
+                offsets = adjacency.getInOffsets();
+                targets = adjacency.getInSources();
+                weights = adjacency.getInWeights();
+                reverseOffsets = adjacency.getOutOffsets();
+                reverseTargets = adjacency.getOutTargets();
+                reverseWeights = adjacency.getOutWeights();
+                reverseTransactions = adjacency.getOutTransactions();
+            }
+
+            distances = new double[vertexCount];
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            predecessors = new int[vertexCount];
+            Arrays.fill(predecessors, -1);
+            settled = new boolean[vertexCount];
+            marked = new boolean[vertexCount];
+            touched = new int[vertexCount];
+            heap = new IndexedHeap(vertexCount);
+            stack = new int[vertexCount];
+        }
+
+        boolean isReached(final int vertex) {
+            return distances[vertex] != Double.POSITIVE_INFINITY;
+        }
+
+        boolean isSettled(final int vertex) {
+            return settled[vertex];
+        }
+
+        void start(final int source) {
+            touched[touchedCount++] = source;
+            distances[source] = 0;
+            heap.insert(source, 0);
+        }
+
+        /**
+         * Settle the closest vertex in the heap and relax its arcs.
+         */
+        int settleNext() {
+            final int vertex = heap.poll();
+            settled[vertex] = true;
+            final double distance = distances[vertex];
+            for (int arc = offsets[vertex]; arc < offsets[vertex + 1]; arc++) {
+                final int next = targets[arc];
+                final double nextDistance = distance + weights[arc];
+                if (nextDistance < distances[next]) {
+                    if (distances[next] == Double.POSITIVE_INFINITY) {
+                        touched[touchedCount++] = next;
+                        heap.insert(next, nextDistance);
+                    } else {
+                        heap.decreaseKey(next, nextDistance);
+                    }
+                    distances[next] = nextDistance;
+                    predecessors[next] = vertex;
+                }
+            }
+            return vertex;
+        }
+
+        /**
+         * Search from the source until every target is settled, or there is
+         * nothing left to settle.
+         */
+        void run(final int source, final int[] sourceTargets) throws InterruptedException {
+            int remaining = 0;
+            for (final int target : sourceTargets) {
+                if (!marked[target]) {
+                    marked[target] = true;
+                    remaining++;
+                }
+            }
+
+            start(source);
+            int settledCount = 0;
+            while (remaining > 0 && !heap.isEmpty()) {
+                if (++settledCount % INTERRUPT_INTERVAL == 0 && Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if (marked[settleNext()]) {
+                    remaining--;
+                }
+            }
+
+            for (final int target : sourceTargets) {
+                marked[target] = false;
+            }
+        }
+
+        /**
+         * Mark every vertex and transaction on a shortest path from the start
+         * of this search to a settled vertex by walking back over tight arcs.
+         * Vertices already marked by this search are not walked again.
+         */
+        void markTight(final int vertex, final BitSet markedVertices, final BitSet markedTransactions) {
+            if (marked[vertex]) {
+                return;
+            }
+            marked[vertex] = true;
+            int stackSize = 0;
+            stack[stackSize++] = vertex;
+            while (stackSize > 0) {
+                final int current = stack[--stackSize];
+                markedVertices.set(current);
+                for (int arc = reverseOffsets[current]; arc < reverseOffsets[current + 1]; arc++) {
+                    final int previous = reverseTargets[arc];
+                    if (settled[previous] && distances[previous] + reverseWeights[arc] == distances[current] && previous != current) {
+                        markedTransactions.set(reverseTransactions[arc]);
+                        if (!marked[previous]) {
+                            marked[previous] = true;
+                            stack[stackSize++] = previous;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Follow the predecessors of a reached vertex back to the start of
+         * this search.
+         */
+        int[] getPath(final int vertex) {
+            int length = 0;
+            for (int current = vertex; current != -1; current = predecessors[current]) {
+                length++;
+            }
+            final int[] path = new int[length];
+            for (int current = vertex; current != -1; current = predecessors[current]) {
+                path[--length] = current;
+            }
+            return path;
+        }
+
+        /**
+         * Clear every vertex touched by the last search.
+         */
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                final int vertex = touched[i];
+                distances[vertex] = Double.POSITIVE_INFINITY;
+                predecessors[vertex] = -1;
+                settled[vertex] = false;
+                marked[vertex] = false;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+
+    /**
+     * Find one shortest path from one vertex to another.
+     *
+     * @param adjacency The snapshot to search.
+     * @param source The index of the vertex to start from.
+     * @param target The index of the vertex to finish at.
+     * @return The indices of the vertices on the path, from the source to the
+     * target, or an empty array if there is no path.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public static int[] getPath(final AdjacencySnapshot adjacency, final int source, final int target) throws InterruptedException {
+        final Search forward = new Search(adjacency, true);
+        final Search backward = new Search(adjacency, false);
+        final double distance = searchBothWays(forward, backward, source, target);
+        if (distance == Double.POSITIVE_INFINITY) {
+            return new int[0];
+        }
+
+        // find the vertex where the two halves of a shortest path meet
+        for (int i = 0; i < forward.touchedCount; i++) {
+            final int vertex = forward.touched[i];
+            if (backward.isReached(vertex) && forward.distances[vertex] + backward.distances[vertex] == distance) {
+                final int[] head = forward.getPath(vertex);
+                final int[] tail = backward.getPath(vertex);
+                final int[] path = Arrays.copyOf(head, head.length + tail.length - 1);
+                for (int j = 1; j < tail.length; j++) {
+                    path[head.length + j - 1] = tail[tail.length - 1 - j];
+                }
+                return path;
+            }
+        }
+        throw new IllegalStateException("The two halves of the shortest path do not meet.");
+    }
+
+    /**
+     * A binary min-heap of vertex indices keyed by distance, which records
+     * where each vertex is so that its key can be decreased.
+     */
+    private static final class IndexedHeap {
+
+        private final int[] items;
+        private final double[] keys;
+        private final int[] indices;
+        private int size = 0;
+
+        IndexedHeap(final int capacity) {
+            items = new int[capacity];
+            keys = new double[capacity];
+            indices = new int[capacity];
+            Arrays.fill(indices, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        void insert(final int item, final double key) {
+            items[size] = item;
+            keys[size] = key;
+            indices[item] = size;
+            siftUp(size++);
+        }
+
+        void decreaseKey(final int item, final double key) {
+            final int index = indices[item];
+            keys[index] = key;
+            siftUp(index);
+        }
+
+        int poll() {
+            final int item = items[0];
+            indices[item] = -1;
+            if (--size > 0) {
+                items[0] = items[size];
+                keys[0] = keys[size];
+                indices[items[0]] = 0;
+                siftDown(0);
+            }
+            return item;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                indices[items[i]] = -1;
+            }
+            size = 0;
+        }
+
+        private void siftUp(int index) {
+            final int item = items[index];
+            final double key = keys[index];
+            while (index > 0) {
+                final int parent = (index - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                items[index] = items[parent];
+                keys[index] = keys[parent];
+                indices[items[index]] = index;
+                index = parent;
+            }
+            items[index] = item;
+            keys[index] = key;
+            indices[item] = index;
+        }
+
+        private void siftDown(int index) {
+            final int item = items[index];
+            final double key = keys[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                items[index] = items[child];
+                keys[index] = keys[child];
+                indices[items[index]] = index;
+                index = child;
+            }
+            items[index] = item;
+            keys[index] = key;
+            indices[item] = index;
+        }
+    }
+}
@@ -21,15 +21,15 @@ import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.BrandesPathScoring.PathScores;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PathScoringUtilities.ScoreType;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType.BooleanParameterValue;
+import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType;
+import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType.IntegerParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
-import au.gov.asd.tac.constellation.utilities.datastructure.Tuple;
-import java.util.BitSet;
-import java.util.HashMap;
 import org.openide.util.NbBundle.Messages;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -56,6 +56,8 @@ public class BetweennessCentralityPlugin extends SimpleEditPlugin {
     public static final String NORMALISE_AVAILABLE_PARAMETER_ID = PluginParameter.buildId(BetweennessCentralityPlugin.class, "normalise_available");
     public static final String NORMALISE_CONNECTED_COMPONENTS_PARAMETER_ID = PluginParameter.buildId(BetweennessCentralityPlugin.class, "normalise_connected_components");
     public static final String SELECTED_ONLY_PARAMETER_ID = PluginParameter.buildId(BetweennessCentralityPlugin.class, "selected_only");
+    public static final String SAMPLE_SIZE_PARAMETER_ID = PluginParameter.buildId(BetweennessCentralityPlugin.class, "sample_size");
+    public static final String SEED_PARAMETER_ID = PluginParameter.buildId(BetweennessCentralityPlugin.class, "seed");
 
     @Override
     public PluginParameters createParameters() {
@@ -103,6 +105,19 @@ public class BetweennessCentralityPlugin extends SimpleEditPlugin {
         selectedOnlyParameter.setBooleanValue(false);
         parameters.addParameter(selectedOnlyParameter);
 
+        final PluginParameter<IntegerParameterValue> sampleSizeParameter = IntegerParameterType.build(SAMPLE_SIZE_PARAMETER_ID);
+        sampleSizeParameter.setName("Sample Size");
+        sampleSizeParameter.setDescription("Approximate scores using paths from this many randomly chosen vertices, or 0 to use every vertex");
+        sampleSizeParameter.setIntegerValue(0);
+        IntegerParameterType.setMinimum(sampleSizeParameter, 0);
+        parameters.addParameter(sampleSizeParameter);
+
+        final PluginParameter<IntegerParameterValue> seedParameter = IntegerParameterType.build(SEED_PARAMETER_ID);
+        seedParameter.setName("Random Seed");
+        seedParameter.setDescription("The seed for choosing the sampled vertices; the same seed and graph give the same scores. The default is 0, which uses a different sample each time.");
+        seedParameter.setIntegerValue(0);
+        parameters.addParameter(seedParameter);
+
         return parameters;
     }
 
@@ -115,26 +130,25 @@ public class BetweennessCentralityPlugin extends SimpleEditPlugin {
         final boolean normaliseByAvailable = parameters.getBooleanValue(NORMALISE_AVAILABLE_PARAMETER_ID);
         final boolean normaliseConnectedComponents = parameters.getBooleanValue(NORMALISE_CONNECTED_COMPONENTS_PARAMETER_ID);
         final boolean selectedOnly = parameters.getBooleanValue(SELECTED_ONLY_PARAMETER_ID);
+        final int sampleSize = parameters.getIntegerValue(SAMPLE_SIZE_PARAMETER_ID);
+        final int seed = parameters.getIntegerValue(SEED_PARAMETER_ID);
 
         assert !normaliseByPossible || !normaliseByAvailable : "You should only select one method of normalisation";
 
         // calculate betweenness scores
-        final Tuple<BitSet[], float[]> scoreResult = PathScoringUtilities.calculateScores(graph, ScoreType.BETWEENNESS, includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional, selectedOnly);
-        final BitSet[] subgraphs = scoreResult.getFirst();
-        final float[] betweennesses = scoreResult.getSecond();
+        final PathScores scoreResult = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional, selectedOnly, sampleSize, seed != 0 ? seed : System.nanoTime());
+        final int[] components = scoreResult.getComponents();
+        final float[] betweennesses = scoreResult.getScores();
+        final int[] reachableCounts = normaliseByPossible && normaliseConnectedComponents ? scoreResult.getReachableCounts() : null;
 
         // calculate the maximum betweenness
         float maxBetweenness = 0;
-        final HashMap<BitSet, Float> maxBetweennessConnectedComponents = new HashMap<>();
         final int vertexCount = graph.getVertexCount();
+        final float[] maxBetweennessConnectedComponents = new float[vertexCount];
         for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
             final float betweenness = betweennesses[vertexPosition];
-            final BitSet subgraph = subgraphs[vertexPosition];
-            if (!maxBetweennessConnectedComponents.containsKey(subgraph)) {
-                maxBetweennessConnectedComponents.put(subgraph, betweenness);
-            } else {
-                maxBetweennessConnectedComponents.put(subgraph, Math.max(betweenness, maxBetweennessConnectedComponents.get(subgraph)));
-            }
+            final int component = components[vertexPosition];
+            maxBetweennessConnectedComponents[component] = Math.max(betweenness, maxBetweennessConnectedComponents[component]);
             maxBetweenness = Math.max(betweenness, maxBetweenness);
         }
 
@@ -156,14 +170,14 @@ public class BetweennessCentralityPlugin extends SimpleEditPlugin {
             final float betweennessAttributeValue;
             if (normaliseByPossible) {
                 if (normaliseConnectedComponents) {
-                    final float subgraphVertexCount = subgraphs[vertexPosition].cardinality();
+                    final float subgraphVertexCount = reachableCounts[vertexPosition];
                     betweennessAttributeValue = betweennesses[vertexPosition] / (((subgraphVertexCount - 1) * (subgraphVertexCount - 2)) / 2);
                 } else {
                     betweennessAttributeValue = betweennesses[vertexPosition] / (((vertexCount - 1) * (vertexCount - 2)) / 2f);
                 }
             } else if (normaliseByAvailable && maxBetweenness > 0) {
                 if (normaliseConnectedComponents) {
-                    final float maxBetweennessConnectedComponent = maxBetweennessConnectedComponents.get(subgraphs[vertexPosition]);
+                    final float maxBetweennessConnectedComponent = maxBetweennessConnectedComponents[components[vertexPosition]];
                     betweennessAttributeValue = betweennesses[vertexPosition] / maxBetweennessConnectedComponent;
                 } else {
                     betweennessAttributeValue = betweennesses[vertexPosition] / maxBetweenness;
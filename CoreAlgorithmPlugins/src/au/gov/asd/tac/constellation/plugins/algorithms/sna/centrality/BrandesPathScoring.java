@@ -0,0 +1,534 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality;
+
+import au.gov.asd.tac.constellation.graph.GraphConstants;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PathScoringUtilities.ScoreType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Calculates shortest path scores (betweenness, closeness and farness) using
+ * the algorithm of Brandes.
+ * <p>
+ * The graph is first copied into flat arrays of arcs between vertex positions.
+ * The sources are then split into contiguous chunks, one per worker thread,
+ * and each worker runs a breadth first search from each of its sources using
+ * its own O(n) working arrays and score accumulator. The accumulators are
+ * merged in chunk order once every worker has finished, so memory use is
+ * O(n + m) per thread rather than the O(n<sup>2</sup>) bits needed by the
+ * parallel breadth first search in {@link PathScoringUtilities}.
+ * <p>
+ * Betweenness counts ordered pairs of vertices, so in the undirected case each
+ * path is counted from both of its ends. Loops are ignored.
+ *
+ * @author cygnus_x-1
+ */
+public class BrandesPathScoring {
+
+    private static final String SCORETYPE_ERROR_FORMAT = "The requested ScoreType, %s, is not supported.";
+    private static final String OUT_OF_BOUNDS_EXCEPTION_STRING = "The 'selected' attribute does not exist on the given graph.";
+
+    private BrandesPathScoring() {
+    }
+
+    /**
+     * Calculate a shortest path score for every vertex.
+     * <p>
+     * In the directed case, closeness and farness are measured along the
+     * requested direction from each vertex, so out-closeness is based on the
+     * distances from a vertex and in-closeness on the distances to it.
+     *
+     * @param graph The graph to score.
+     * @param scoreType The score to calculate; this must be a type that
+     * requires shortest paths.
+     * @param includeConnectionsIn Follow transactions against their direction.
+     * @param includeConnectionsOut Follow transactions along their direction.
+     * @param treatUndirectedBidirectional Follow undirected transactions in
+     * both directions when only one of the above is requested.
+     * @param selectedOnly Only count paths between selected vertices.
+     * @param sampleSize For betweenness, the number of randomly chosen sources
+     * to use to approximate the score, or zero to use every source. The
+     * approximate scores are scaled up to estimate the exact scores.
+     * @param seed The seed used to choose the sampled sources; the same seed
+     * and graph give the same sample.
+     * @return The scores, together with the component of each vertex and the
+     * number of vertices reachable from it.
+     * @throws InterruptedException if the calculation is interrupted.
+     */
+    public static PathScores calculateScores(final GraphReadMethods graph, final ScoreType scoreType,
+            final boolean includeConnectionsIn, final boolean includeConnectionsOut, final boolean treatUndirectedBidirectional,
+            final boolean selectedOnly, final int sampleSize, final long seed) throws InterruptedException {
+        if (!scoreType.requiresShortestPaths()) {
+            throw new IllegalArgumentException(String.format(SCORETYPE_ERROR_FORMAT, scoreType));
+        }
+
+        final int selectedAttribute = VisualConcept.VertexAttribute.SELECTED.get(graph);
+        if (selectedOnly && selectedAttribute == GraphConstants.NOT_FOUND) {
+            throw new ArrayIndexOutOfBoundsException(OUT_OF_BOUNDS_EXCEPTION_STRING);
+        }
+
+        final int vertexCount = graph.getVertexCount();
+        final boolean[] targets = new boolean[vertexCount];
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            targets[vertexPosition] = !selectedOnly || graph.getBooleanValue(selectedAttribute, graph.getVertex(vertexPosition));
+        }
+
+        final Arcs arcs = new Arcs(graph, includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional);
+        final int[] reachableCounts = new int[vertexCount];
+        Arrays.fill(reachableCounts, -1);
+
+        final float[] scores;
+        if (scoreType == ScoreType.BETWEENNESS) {
+            scores = betweenness(arcs, targets, reachableCounts, sampleSize, seed);
+        } else {
+            scores = farness(arcs, targets, reachableCounts, scoreType, includeConnectionsIn && includeConnectionsOut);
+        }
+
+        return new PathScores(arcs, targets, reachableCounts, scores);
+    }
+
+    private static float[] betweenness(final Arcs arcs, final boolean[] targets, final int[] reachableCounts, final int sampleSize, final long seed) throws InterruptedException {
+        final int vertexCount = arcs.vertexCount;
+
+        // betweenness only counts paths between targets, so only targets need be sources
+        int[] sources = new int[vertexCount];
+        int sourceCount = 0;
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            if (targets[vertexPosition]) {
+                sources[sourceCount++] = vertexPosition;
+            }
+        }
+
+        double scale = 1;
+        if (sampleSize > 0 && sampleSize < sourceCount) {
+            final SplittableRandom random = new SplittableRandom(seed);
+            for (int i = 0; i < sampleSize; i++) {
+                final int j = i + random.nextInt(sourceCount - i);
+                final int swap = sources[i];
+                sources[i] = sources[j];
+                sources[j] = swap;
+            }
+            scale = (double) sourceCount / sampleSize;
+            sourceCount = sampleSize;
+            Arrays.sort(sources, 0, sourceCount);
+        }
+        sources = Arrays.copyOf(sources, sourceCount);
+
+        final int[] sourceList = sources;
+        final double[][] accumulators = forEachChunk(sourceCount, (start, end) -> {
+            final Search search = new Search(arcs);
+            final double[] betweenness = new double[vertexCount];
+            for (int i = start; i < end && !Thread.currentThread().isInterrupted(); i++) {
+                search.run(sourceList[i]);
+                reachableCounts[sourceList[i]] = search.reachableCount(targets);
+                search.accumulateBetweenness(targets, betweenness);
+                search.reset();
+            }
+            return betweenness;
+        });
+
+        final float[] scores = new float[vertexCount];
+        final double[] total = new double[vertexCount];
+        for (final double[] accumulator : accumulators) {
+            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+                total[vertexPosition] += accumulator[vertexPosition];
+            }
+        }
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            scores[vertexPosition] = (float) (total[vertexPosition] * scale);
+        }
+
+        return scores;
+    }
+
+    private static float[] farness(final Arcs arcs, final boolean[] targets, final int[] reachableCounts, final ScoreType scoreType, final boolean undirected) throws InterruptedException {
+        final int vertexCount = arcs.vertexCount;
+        final boolean harmonic = scoreType == ScoreType.HARMONIC_CLOSENESS || scoreType == ScoreType.HARMONIC_FARNESS;
+
+        // each source writes only its own score, so the workers can share the result
+        final float[] scores = new float[vertexCount];
+        forEachChunk(vertexCount, (start, end) -> {
+            final Search search = new Search(arcs);
+            for (int source = start; source < end && !Thread.currentThread().isInterrupted(); source++) {
+                search.run(source);
+                reachableCounts[source] = search.reachableCount(targets);
+                scores[source] = harmonic ? search.harmonicFarness(targets, undirected) : search.farness(targets);
+                search.reset();
+            }
+            return null;
+        });
+
+        // convert farness to closeness by taking the inverse of each score
+        if (scoreType == ScoreType.CLOSENESS) {
+            for (int index = 0; index < scores.length; index++) {
+                scores[index] = scores[index] == 0 ? 0 : 1 / scores[index];
+            }
+        }
+
+        // convert harmonic farness to harmonic closeness by normalising each
+        // score by the number of vertices on the graph
+        if (scoreType == ScoreType.HARMONIC_CLOSENESS) {
+            for (int index = 0; index < scores.length; index++) {
+                scores[index] = scores[index] == 0 ? 0 : scores[index] / scores.length;
+            }
+        }
+
+        return scores;
+    }
+
+    /**
+     * The result of {@link BrandesPathScoring#calculateScores}, indexed by
+     * vertex position.
+     */
+    public static final class PathScores {
+
+        private final Arcs arcs;
+        private final boolean[] targets;
+        private final int[] reachableCounts;
+        private final float[] scores;
+        private int[] components = null;
+
+        private PathScores(final Arcs arcs, final boolean[] targets, final int[] reachableCounts, final float[] scores) {
+            this.arcs = arcs;
+            this.targets = targets;
+            this.reachableCounts = reachableCounts;
+            this.scores = scores;
+        }
+
+        /**
+         * Get the score of each vertex.
+         *
+         * @return The score of each vertex.
+         */
+        public float[] getScores() {
+            return scores;
+        }
+
+        /**
+         * Get the weakly connected component of each vertex, numbered from 0.
+         *
+         * @return The component of each vertex.
+         */
+        public int[] getComponents() {
+            if (components == null) {
+                components = arcs.components();
+            }
+            return components;
+        }
+
+        /**
+         * Get the number of vertices reachable from each vertex along the
+         * followed transactions, including the vertex itself. When only
+         * selected vertices are scored, only selected vertices are counted.
+         * <p>
+         * Each source that was searched while scoring already knows its count.
+         * Any other vertex, such as a vertex left out of a betweenness sample,
+         * is searched again here, so this is only worth calling when the
+         * counts are needed.
+         *
+         * @return The number of vertices reachable from each vertex.
+         * @throws InterruptedException if the calculation is interrupted.
+         */
+        public int[] getReachableCounts() throws InterruptedException {
+            forEachChunk(arcs.vertexCount, (start, end) -> {
+                final Search search = new Search(arcs);
+                for (int source = start; source < end && !Thread.currentThread().isInterrupted(); source++) {
+                    if (reachableCounts[source] < 0) {
+                        search.run(source);
+                        reachableCounts[source] = search.reachableCount(targets);
+                        search.reset();
+                    }
+                }
+                return null;
+            });
+            return reachableCounts;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+
+        double[] run(final int start, final int end);
+    }
+
+    /**
+     * Run a task over contiguous chunks of the range [0, count), one chunk per
+     * available processor, and return the result of each chunk in order.
+     */
+    private static double[][] forEachChunk(final int count, final ChunkTask task) throws InterruptedException {
+        final int chunkCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), count));
+        if (chunkCount == 1) {
+            final double[][] results = {task.run(0, count)};
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            return results;
+        }
+
+        final ExecutorService workers = Executors.newFixedThreadPool(chunkCount);
+        try {
+            final List<Future<double[]>> futures = new ArrayList<>(chunkCount);
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                final int start = (int) ((long) count * chunk / chunkCount);
+                final int end = (int) ((long) count * (chunk + 1) / chunkCount);
+                futures.add(workers.submit(() -> task.run(start, end)));
+            }
+
+            final double[][] results = new double[chunkCount][];
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                results[chunk] = futures.get(chunk).get();
+            }
+            return results;
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * The arcs of the graph that may be followed, between vertex positions,
+     * with at most one arc from one vertex to another.
+     */
+    private static final class Arcs {
+
+        private final int vertexCount;
+        private final int[] offsets;
+        private final int[] targets;
+
+        Arcs(final GraphReadMethods graph, final boolean includeConnectionsIn, final boolean includeConnectionsOut, final boolean treatUndirectedBidirectional) {
+            vertexCount = graph.getVertexCount();
+            final boolean undirected = includeConnectionsIn && includeConnectionsOut;
+
+            // work out which directions each link can be followed in
+            final int linkCount = graph.getLinkCount();
+            final int[] lows = new int[linkCount];
+            final int[] highs = new int[linkCount];
+            final boolean[] upwards = new boolean[linkCount];
+            final boolean[] downwards = new boolean[linkCount];
+            offsets = new int[vertexCount + 1];
+            for (int linkPosition = 0; linkPosition < linkCount; linkPosition++) {
+                final int linkId = graph.getLink(linkPosition);
+                final int lowId = graph.getLinkLowVertex(linkId);
+                final int highId = graph.getLinkHighVertex(linkId);
+                if (lowId == highId) {
+                    continue;
+                }
+
+                lows[linkPosition] = graph.getVertexPosition(lowId);
+                highs[linkPosition] = graph.getVertexPosition(highId);
+                final int edgeCount = graph.getLinkEdgeCount(linkId);
+                for (int edgePosition = 0; edgePosition < edgeCount; edgePosition++) {
+                    final int edgeId = graph.getLinkEdge(linkId, edgePosition);
+                    if (undirected || (treatUndirectedBidirectional && graph.getEdgeDirection(edgeId) == GraphConstants.UNDIRECTED)) {
+                        upwards[linkPosition] = true;
+                        downwards[linkPosition] = true;
+                    } else if (graph.getEdgeDirection(edgeId) != GraphConstants.UNDIRECTED) {
+                        final boolean fromLow = graph.getEdgeSourceVertex(edgeId) == lowId;
+                        upwards[linkPosition] |= fromLow ? includeConnectionsOut : includeConnectionsIn;
+                        downwards[linkPosition] |= fromLow ? includeConnectionsIn : includeConnectionsOut;
+                    }
+                }
+
+                if (upwards[linkPosition]) {
+                    offsets[lows[linkPosition] + 1]++;
+                }
+                if (downwards[linkPosition]) {
+                    offsets[highs[linkPosition] + 1]++;
+                }
+            }
+
+            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+                offsets[vertexPosition + 1] += offsets[vertexPosition];
+            }
+
+            final int[] next = Arrays.copyOf(offsets, vertexCount);
+            targets = new int[offsets[vertexCount]];
+            for (int linkPosition = 0; linkPosition < linkCount; linkPosition++) {
+                if (upwards[linkPosition]) {
+                    targets[next[lows[linkPosition]]++] = highs[linkPosition];
+                }
+                if (downwards[linkPosition]) {
+                    targets[next[highs[linkPosition]]++] = lows[linkPosition];
+                }
+            }
+        }
+
+        /**
+         * Label the weakly connected components of the arcs.
+         */
+        int[] components() {
+            final int[] parents = new int[vertexCount];
+            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+                parents[vertexPosition] = vertexPosition;
+            }
+            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+                for (int arc = offsets[vertexPosition]; arc < offsets[vertexPosition + 1]; arc++) {
+                    final int a = find(parents, vertexPosition);
+                    final int b = find(parents, targets[arc]);
+                    if (a != b) {
+                        parents[Math.max(a, b)] = Math.min(a, b);
+                    }
+                }
+            }
+
+            // number the components in order of their lowest vertex position
+            final int[] components = new int[vertexCount];
+            int componentCount = 0;
+            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+                final int root = find(parents, vertexPosition);
+                components[vertexPosition] = root == vertexPosition ? componentCount++ : components[root];
+            }
+
+            return components;
+        }
+
+        private static int find(final int[] parents, int vertex) {
+            while (parents[vertex] != vertex) {
+                parents[vertex] = parents[parents[vertex]];
+                vertex = parents[vertex];
+            }
+            return vertex;
+        }
+    }
+
+    /**
+     * The working state of a single source breadth first search. Each worker
+     * thread has its own search, which is reset between sources.
+     */
+    private static final class Search {
+
+        private final Arcs arcs;
+        private final int[] distances;
+        private final double[] pathCounts;
+        private final double[] dependencies;
+        private final int[] order;
+        private int visitedCount;
+
+        Search(final Arcs arcs) {
+            this.arcs = arcs;
+            distances = new int[arcs.vertexCount];
+            pathCounts = new double[arcs.vertexCount];
+            dependencies = new double[arcs.vertexCount];
+            order = new int[arcs.vertexCount];
+            Arrays.fill(distances, -1);
+        }
+
+        /**
+         * Find the distance and the number of shortest paths from the source
+         * to every reachable vertex. The visited vertices are held in order of
+         * non-decreasing distance.
+         */
+        void run(final int source) {
+            distances[source] = 0;
+            pathCounts[source] = 1;
+            order[0] = source;
+            visitedCount = 1;
+            for (int head = 0; head < visitedCount; head++) {
+                final int vertex = order[head];
+                final int nextDistance = distances[vertex] + 1;
+                for (int arc = arcs.offsets[vertex]; arc < arcs.offsets[vertex + 1]; arc++) {
+                    final int neighbour = arcs.targets[arc];
+                    if (distances[neighbour] < 0) {
+                        distances[neighbour] = nextDistance;
+                        order[visitedCount++] = neighbour;
+                    }
+                    if (distances[neighbour] == nextDistance) {
+                        pathCounts[neighbour] += pathCounts[vertex];
+                    }
+                }
+            }
+        }
+
+        /**
+         * Add the dependency of the source on each vertex to the betweenness
+         * of that vertex, visiting vertices from furthest to nearest.
+         */
+        void accumulateBetweenness(final boolean[] targets, final double[] betweenness) {
+            for (int i = visitedCount - 1; i >= 0; i--) {
+                final int vertex = order[i];
+                final int nextDistance = distances[vertex] + 1;
+                double dependency = 0;
+                for (int arc = arcs.offsets[vertex]; arc < arcs.offsets[vertex + 1]; arc++) {
+                    final int successor = arcs.targets[arc];
+                    if (distances[successor] == nextDistance) {
+                        dependency += pathCounts[vertex] / pathCounts[successor] * ((targets[successor] ? 1 : 0) + dependencies[successor]);
+                    }
+                }
+                dependencies[vertex] = dependency;
+                if (i > 0) {
+                    betweenness[vertex] += dependency;
+                }
+            }
+        }
+
+        int reachableCount(final boolean[] targets) {
+            int count = 0;
+            for (int i = 0; i < visitedCount; i++) {
+                if (targets[order[i]]) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        float farness(final boolean[] targets) {
+            float farness = 0;
+            for (int i = 1; i < visitedCount; i++) {
+                if (targets[order[i]]) {
+                    farness += distances[order[i]];
+                }
+            }
+            return farness;
+        }
+
+        float harmonicFarness(final boolean[] targets, final boolean undirected) {
+            // in the undirected case each pair has always been counted from both ends
+            float farness = 0;
+            for (int i = 1; i < visitedCount; i++) {
+                if (targets[order[i]]) {
+                    farness += 1.0 / distances[order[i]];
+                    if (undirected) {
+                        farness += 1.0 / distances[order[i]];
+                    }
+                }
+            }
+            return farness;
+        }
+
+        void reset() {
+            for (int i = 0; i < visitedCount; i++) {
+                final int vertex = order[i];
+                distances[vertex] = -1;
+                pathCounts[vertex] = 0;
+                dependencies[vertex] = 0;
+            }
+            visitedCount = 0;
+        }
+    }
+}
@@ -22,15 +22,13 @@ import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.BrandesPathScoring.PathScores;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PathScoringUtilities.ScoreType;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType.BooleanParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
-import au.gov.asd.tac.constellation.utilities.datastructure.Tuple;
-import java.util.BitSet;
-import java.util.HashMap;
-import java.util.Map;
 import org.openide.util.NbBundle;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -132,32 +130,20 @@ public class ClosenessCentralityPlugin extends SimpleEditPlugin {
         assert !normaliseByPossible || !normaliseByAvailable : "You should only select one method of normalisation";
 
         // calculate closeness scores
-        final BitSet[] subgraphs;
-        final float[] closenesses;
-        if (harmonic) {
-            final Tuple<BitSet[], float[]> scoreResult = PathScoringUtilities.calculateScores(graph, PathScoringUtilities.ScoreType.HARMONIC_CLOSENESS, includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional, selectedOnly);
-            subgraphs = scoreResult.getFirst();
-            closenesses = scoreResult.getSecond();
-        } else {
-            final Tuple<BitSet[], float[]> scoreResult = PathScoringUtilities.calculateScores(graph, PathScoringUtilities.ScoreType.CLOSENESS, includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional, selectedOnly);
-            subgraphs = scoreResult.getFirst();
-            closenesses = scoreResult.getSecond();
-        }
+        final ScoreType scoreType = harmonic ? ScoreType.HARMONIC_CLOSENESS : ScoreType.CLOSENESS;
+        final PathScores scoreResult = BrandesPathScoring.calculateScores(graph, scoreType, includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional, selectedOnly, 0, 0);
+        final int[] components = scoreResult.getComponents();
+        final float[] closenesses = scoreResult.getScores();
+        final int[] reachableCounts = normaliseByPossible ? scoreResult.getReachableCounts() : null;
 
         // calculate the maximum closeness
         float maxCloseness = 0f;
-        final Map<BitSet, Float> maxClosenessConnectedComponents = new HashMap<>();
-        final Map<BitSet, Integer> connectedComponentSize = new HashMap<>();
         final int vertexCount = graph.getVertexCount();
+        final float[] maxClosenessConnectedComponents = new float[vertexCount];
         for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
             final float closeness = closenesses[vertexPosition];
-            final BitSet subgraph = subgraphs[vertexPosition];
-            if (!maxClosenessConnectedComponents.containsKey(subgraph)) {
-                maxClosenessConnectedComponents.put(subgraph, closeness);
-                connectedComponentSize.put(subgraph, PathScoringUtilities.subgraphSize(graph, subgraph, selectedOnly));
-            } else {
-                maxClosenessConnectedComponents.put(subgraph, Math.max(closeness, maxClosenessConnectedComponents.get(subgraph)));
-            }
+            final int component = components[vertexPosition];
+            maxClosenessConnectedComponents[component] = Math.max(closeness, maxClosenessConnectedComponents[component]);
             maxCloseness = Math.max(closeness, maxCloseness);
         }
 
@@ -190,7 +176,7 @@ public class ClosenessCentralityPlugin extends SimpleEditPlugin {
         for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
             final int vertexId = graph.getVertex(vertexPosition);
             if (normaliseByPossible) {
-                int subgraphSize = connectedComponentSize.get(subgraphs[vertexPosition]);
+                int subgraphSize = reachableCounts[vertexPosition];
                 final boolean vertexSelected = graph.getBooleanValue(selectedAttributeId, vertexId);
                 if (!selectedOnly || vertexSelected) {
                     subgraphSize -= 1;
@@ -204,7 +190,7 @@ public class ClosenessCentralityPlugin extends SimpleEditPlugin {
                 }
             } else if (normaliseByAvailable && maxCloseness > 0) {
                 if (normaliseConnectedComponents) {
-                    final float maxClosenessConnectedComponent = maxClosenessConnectedComponents.get(subgraphs[vertexPosition]);
+                    final float maxClosenessConnectedComponent = maxClosenessConnectedComponents[components[vertexPosition]];
                     graph.setFloatValue(closenessAttribute, vertexId, closenesses[vertexPosition] / maxClosenessConnectedComponent);
                 } else {
                     graph.setFloatValue(closenessAttribute, vertexId, closenesses[vertexPosition] / maxCloseness);
@@ -21,6 +21,7 @@ import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PowerIteration.Normalisation;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
@@ -59,7 +60,7 @@ public class EigenvectorCentralityPlugin extends SimpleEditPlugin {
 
         final PluginParameter<IntegerParameterValue> iterationsParameter = IntegerParameterType.build(ITERATIONS_PARAMETER_ID);
         iterationsParameter.setName("Iterations");
-        iterationsParameter.setDescription("The number of iterations to run before returning a result");
+        iterationsParameter.setDescription("The maximum number of iterations to run before returning a result");
         iterationsParameter.setIntegerValue(100);
         parameters.addParameter(iterationsParameter);
 
@@ -95,47 +96,20 @@ public class EigenvectorCentralityPlugin extends SimpleEditPlugin {
 
         // initialise eigenvector values
         final int vertexCount = graph.getVertexCount();
-        final double[] tempEigenvectors = new double[graph.getVertexCapacity()];
-        final double[] eigenvectors = new double[graph.getVertexCapacity()];
+        final double[] eigenvectors = new double[vertexCount];
         Arrays.fill(eigenvectors, (double) 1 / vertexCount);
 
         // calculate eigenvector for each vertex
-        for (int iteration = 0; iteration < iterations; iteration++) {
-            Arrays.fill(tempEigenvectors, 0);
-
-            double sumEigenvector = 0;
-            double maxEigenvector = 0;
-            double delta = 0;
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                final int vertexId = graph.getVertex(vertexPosition);
-
-                final int neighbourCount = graph.getVertexNeighbourCount(vertexId);
-                for (int vertexNeighbourPosition = 0; vertexNeighbourPosition < neighbourCount; vertexNeighbourPosition++) {
-                    final int neighbourId = graph.getVertexNeighbour(vertexId, vertexNeighbourPosition);
-                    final int neighbourPosition = graph.getVertexPosition(neighbourId);
-                    if (vertexId != neighbourId) {
-                        tempEigenvectors[vertexPosition] += eigenvectors[neighbourPosition];
-                    }
-                }
-
-                sumEigenvector += tempEigenvectors[vertexPosition];
-                maxEigenvector = Math.max(tempEigenvectors[vertexPosition], maxEigenvector);
-                delta += Math.abs(eigenvectors[vertexPosition] - tempEigenvectors[vertexPosition]);
-            }
-
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                if (normaliseByPossible) {
-                    eigenvectors[vertexPosition] = tempEigenvectors[vertexPosition] / sumEigenvector;
-                } else if (normaliseByAvailable && maxEigenvector > 0) {
-                    eigenvectors[vertexPosition] = tempEigenvectors[vertexPosition] / maxEigenvector;
-                } else {
-                    eigenvectors[vertexPosition] = tempEigenvectors[vertexPosition];
-                }
-            }
-
-            if (delta < epsilon) {
-                break;
-            }
+        final Normalisation normalisation;
+        if (normaliseByPossible) {
+            normalisation = Normalisation.SUM;
+        } else if (normaliseByAvailable) {
+            normalisation = Normalisation.MAX;
+        } else {
+            normalisation = Normalisation.NONE;
+        }
+        try (final PowerIteration engine = new PowerIteration(vertexCount)) {
+            engine.iterate(PowerIteration.neighbourLinks(graph), null, eigenvectors, neighbourSum -> neighbourSum, normalisation, epsilon, iterations);
         }
 
         // update the graph with eigenvector values
@@ -15,13 +15,14 @@
  */
 package au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality;
 
-import au.gov.asd.tac.constellation.graph.GraphConstants;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.schema.attribute.SchemaAttribute;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
+import au.gov.asd.tac.constellation.plugins.algorithms.SparseMatrix;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PowerIteration.Normalisation;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
@@ -59,7 +60,7 @@ public class HitsCentralityPlugin extends SimpleEditPlugin {
 
         final PluginParameter<IntegerParameterValue> iterationsParameter = IntegerParameterType.build(ITERATIONS_PARAMETER_ID);
         iterationsParameter.setName("Iterations");
-        iterationsParameter.setDescription("The number of iterations to run before returning a result");
+        iterationsParameter.setDescription("The maximum number of iterations to run before returning a result");
         iterationsParameter.setIntegerValue(100);
         parameters.addParameter(iterationsParameter);
 
@@ -84,73 +85,23 @@ public class HitsCentralityPlugin extends SimpleEditPlugin {
         final float epsilon = parameters.getFloatValue(EPSILON_PARAMETER_ID);
         final boolean normaliseByAvailable = parameters.getBooleanValue(NORMALISE_AVAILABLE_PARAMETER_ID);
 
-        final double[] authorities = new double[graph.getVertexCapacity()];
-        Arrays.fill(authorities, 1);
-        final double[] hubs = new double[graph.getVertexCapacity()];
-        Arrays.fill(hubs, 1);
-
+        // authorities are scored by their incoming transactions, hubs by their outgoing transactions
         final int vertexCount = graph.getVertexCount();
-        for (int iteration = 0; iteration < iterations; iteration++) {
-            double authorityNorm = 0;
-            double authorityDelta = 0;
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                final int vertexId = graph.getVertex(vertexPosition);
-                final double previousAuthority = authorities[vertexPosition];
-                authorities[vertexPosition] = 0;
-
-                final int transactionCount = graph.getVertexTransactionCount(vertexId);
-                for (int transactionPosition = 0; transactionPosition < transactionCount; transactionPosition++) {
-                    final int transactionId = graph.getVertexTransaction(vertexId, transactionPosition);
-                    final int sourceVertexId = graph.getTransactionSourceVertex(transactionId);
-                    final int destinationVertexId = graph.getTransactionDestinationVertex(transactionId);
-                    if (sourceVertexId != destinationVertexId) {
-                        final int otherVertexId = vertexId == sourceVertexId ? destinationVertexId : sourceVertexId;
-                        if ((vertexId < otherVertexId && graph.getTransactionDirection(transactionId) == GraphConstants.DOWNHILL)
-                                || (vertexId > otherVertexId && graph.getTransactionDirection(transactionId) == GraphConstants.UPHILL)) {
-                            authorities[vertexPosition] += hubs[otherVertexId];
-                        }
-                    }
-                    authorityDelta += Math.abs(previousAuthority - authorities[vertexPosition]);
-                }
-                authorityNorm += Math.pow(authorities[vertexPosition], 2);
-            }
-            authorityNorm = Math.sqrt(authorityNorm);
+        final SparseMatrix authorityLinks = PowerIteration.inLinks(graph, false);
+        final SparseMatrix hubLinks = authorityLinks.transpose();
 
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                authorities[vertexPosition] /= authorityNorm;
-            }
+        final double[] authorities = new double[vertexCount];
+        Arrays.fill(authorities, 1);
+        final double[] hubs = new double[vertexCount];
+        Arrays.fill(hubs, 1);
 
-            double hubNorm = 0;
-            double hubDelta = 0;
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                final int vertexId = graph.getVertex(vertexPosition);
-                final double previousHub = hubs[vertexPosition];
-                hubs[vertexPosition] = 0;
-
-                final int transactionCount = graph.getVertexTransactionCount(vertexId);
-                for (int transactionPosition = 0; transactionPosition < transactionCount; transactionPosition++) {
-                    final int transactionId = graph.getVertexTransaction(vertexId, transactionPosition);
-                    final int sourceVertexId = graph.getTransactionSourceVertex(transactionId);
-                    final int destinationVertexId = graph.getTransactionDestinationVertex(transactionId);
-                    if (sourceVertexId != destinationVertexId) {
-                        final int otherVertexId = vertexId == sourceVertexId ? destinationVertexId : sourceVertexId;
-                        if ((vertexId < otherVertexId && graph.getTransactionDirection(transactionId) == GraphConstants.UPHILL)
-                                || (vertexId > otherVertexId && graph.getTransactionDirection(transactionId) == GraphConstants.DOWNHILL)) {
-                            hubs[vertexPosition] += authorities[otherVertexId];
-                        }
-                    }
-                    hubDelta += Math.abs(previousHub - hubs[vertexPosition]);
+        try (final PowerIteration engine = new PowerIteration(vertexCount)) {
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                final double authorityDelta = engine.step(authorityLinks, null, hubs, authorities, hubSum -> hubSum, Normalisation.EUCLIDEAN);
+                final double hubDelta = engine.step(hubLinks, null, authorities, hubs, authoritySum -> authoritySum, Normalisation.EUCLIDEAN);
+                if (authorityDelta < epsilon || hubDelta < epsilon) {
+                    break;
                 }
-                hubNorm += Math.pow(hubs[vertexPosition], 2);
-            }
-            hubNorm = Math.sqrt(hubNorm);
-
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                hubs[vertexPosition] /= hubNorm;
-            }
-
-            if (authorityDelta < epsilon || hubDelta < epsilon) {
-                break;
             }
         }
 
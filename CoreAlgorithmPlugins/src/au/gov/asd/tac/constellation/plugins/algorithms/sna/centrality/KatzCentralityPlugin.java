@@ -21,6 +21,7 @@ import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PowerIteration.Normalisation;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
@@ -72,7 +73,7 @@ public class KatzCentralityPlugin extends SimpleEditPlugin {
 
         final PluginParameter<IntegerParameterValue> iterationsParameter = IntegerParameterType.build(ITERATIONS_PARAMETER_ID);
         iterationsParameter.setName("Iterations");
-        iterationsParameter.setDescription("The number of iterations to run before returning a result");
+        iterationsParameter.setDescription("The maximum number of iterations to run before returning a result");
         iterationsParameter.setIntegerValue(100);
         parameters.addParameter(iterationsParameter);
 
@@ -110,50 +111,20 @@ public class KatzCentralityPlugin extends SimpleEditPlugin {
 
         // initialise katz values
         final int vertexCount = graph.getVertexCount();
-        final double[] tempKatz = new double[graph.getVertexCapacity()];
-        final double[] katz = new double[graph.getVertexCapacity()];
+        final double[] katz = new double[vertexCount];
         Arrays.fill(katz, 1.0 / vertexCount);
 
         // calculate katz for each vertex
-        for (int iteration = 0; iteration < iterations; iteration++) {
-            Arrays.fill(tempKatz, 0);
-
-            double sumSquaredKatz = 0;
-            double maxKatz = 0;
-            double delta = 0;
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                final int vertexId = graph.getVertex(vertexPosition);
-
-                final int neighbourCount = graph.getVertexNeighbourCount(vertexId);
-                for (int vertexNeighbourPosition = 0; vertexNeighbourPosition < neighbourCount; vertexNeighbourPosition++) {
-                    final int neighbourId = graph.getVertexNeighbour(vertexId, vertexNeighbourPosition);
-                    final int neighbourPosition = graph.getVertexPosition(neighbourId);
-                    if (vertexId != neighbourId) {
-                        tempKatz[neighbourPosition] += katz[vertexPosition];
-                    }
-                }
-            }
-
-            for (int vertexPosition = 0; vertexPosition < graph.getVertexCount(); vertexPosition++) {
-                tempKatz[vertexPosition] = (alpha * tempKatz[vertexPosition]) + beta;
-                sumSquaredKatz += Math.pow(tempKatz[vertexPosition], 2);
-                maxKatz = Math.max(tempKatz[vertexPosition], maxKatz);
-                delta += Math.abs(katz[vertexPosition] - tempKatz[vertexPosition]);
-            }
-
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                if (normaliseByPossible) {
-                    katz[vertexPosition] = tempKatz[vertexPosition] / Math.sqrt(sumSquaredKatz);
-                } else if (normaliseByAvailable && maxKatz > 0) {
-                    katz[vertexPosition] = tempKatz[vertexPosition] / maxKatz;
-                } else {
-                    katz[vertexPosition] = tempKatz[vertexPosition];
-                }
-            }
-
-            if (delta < epsilon) {
-                break;
-            }
+        final Normalisation normalisation;
+        if (normaliseByPossible) {
+            normalisation = Normalisation.EUCLIDEAN;
+        } else if (normaliseByAvailable) {
+            normalisation = Normalisation.MAX;
+        } else {
+            normalisation = Normalisation.NONE;
+        }
+        try (final PowerIteration engine = new PowerIteration(vertexCount)) {
+            engine.iterate(PowerIteration.neighbourLinks(graph), null, katz, neighbourSum -> (alpha * neighbourSum) + beta, normalisation, epsilon, iterations);
         }
 
         // update the graph with katz values
@@ -15,13 +15,14 @@
  */
 package au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality;
 
-import au.gov.asd.tac.constellation.graph.GraphConstants;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.schema.attribute.SchemaAttribute;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
+import au.gov.asd.tac.constellation.plugins.algorithms.SparseMatrix;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PowerIteration.Normalisation;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
@@ -31,12 +32,7 @@ import au.gov.asd.tac.constellation.plugins.parameters.types.FloatParameterType.
 import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType;
 import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType.IntegerParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
-import au.gov.asd.tac.constellation.utilities.datastructure.Tuple;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
 import org.openide.util.NbBundle;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -77,7 +73,7 @@ public class PagerankCentralityPlugin extends SimpleEditPlugin {
 
         final PluginParameter<IntegerParameterValue> iterationsParameter = IntegerParameterType.build(ITERATIONS_PARAMETER_ID);
         iterationsParameter.setName("Iterations");
-        iterationsParameter.setDescription("The number of iterations to run before returning a result");
+        iterationsParameter.setDescription("The maximum number of iterations to run before returning a result");
         iterationsParameter.setIntegerValue(100);
         parameters.addParameter(iterationsParameter);
 
@@ -104,102 +100,43 @@ public class PagerankCentralityPlugin extends SimpleEditPlugin {
         final float epsilon = parameters.getFloatValue(EPSILON_PARAMETER_ID);
         final boolean normaliseByAvailable = parameters.getBooleanValue(NORMALISE_AVAILABLE_PARAMETER_ID);
 
-        // identify incoming connections and store connected vertices and their outgoing connection count
-        final Set<Integer> verticesWithZeroOutLinks = new HashSet<>();
-        final Map<Integer, Set<Tuple<Integer, Integer>>> vertexInLinks = new HashMap<>();
+        // identify incoming connections, weighted by the share of each neighbour's outgoing transactions
         final int vertexCount = graph.getVertexCount();
-        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-            final int vertexId = graph.getVertex(vertexPosition);
-            vertexInLinks.put(vertexId, new HashSet<>());
-
-            if (graph.getVertexEdgeCount(vertexId, GraphConstants.OUTGOING) == 0) {
-                verticesWithZeroOutLinks.add(vertexId);
-            }
+        final SparseMatrix inLinks = PowerIteration.inLinks(graph, treatUndirectedBidirectional);
+        final double[] outCounts = new double[vertexCount];
+        for (int entry = 0; entry < inLinks.getNonZeroCount(); entry++) {
+            outCounts[inLinks.getEntryColumn(entry)] += inLinks.getEntryValue(entry);
+        }
 
-            final int linkCount = graph.getVertexLinkCount(vertexId);
-            for (int linkPosition = 0; linkPosition < linkCount; linkPosition++) {
-                final int linkId = graph.getVertexLink(vertexId, linkPosition);
-                final int linkLowId = graph.getLinkLowVertex(linkId);
-                final int linkHighId = graph.getLinkHighVertex(linkId);
-                if (linkLowId != linkHighId) {
-                    final int neighbourId = vertexId == linkLowId ? linkHighId : linkLowId;
-                    final int edgeCount = graph.getLinkEdgeCount(linkId);
-                    for (int edgePosition = 0; edgePosition < edgeCount; edgePosition++) {
-                        final int edgeId = graph.getLinkEdge(linkId, edgePosition);
-                        final int edgeDirection = graph.getEdgeDirection(edgeId);
-                        if ((treatUndirectedBidirectional && edgeDirection == GraphConstants.FLAT)
-                                || (vertexId < neighbourId && edgeDirection == GraphConstants.DOWNHILL)
-                                || (vertexId > neighbourId && edgeDirection == GraphConstants.UPHILL)) {
-                            int neighbourOutCount = 0;
-                            final int transactionCount = graph.getVertexTransactionCount(neighbourId);
-                            for (int transactionPosition = 0; transactionPosition < transactionCount; transactionPosition++) {
-                                final int transactionId = graph.getVertexTransaction(neighbourId, transactionPosition);
-                                final int transactionDirection = graph.getTransactionDirection(transactionId);
-                                final int transactionSourceId = graph.getTransactionSourceVertex(transactionId);
-                                final int transactionDestinationId = graph.getTransactionDestinationVertex(transactionId);
-                                if (transactionSourceId != transactionDestinationId) {
-                                    final int otherId = neighbourId == transactionSourceId ? transactionDestinationId : transactionSourceId;
-                                    if ((treatUndirectedBidirectional && transactionDirection == GraphConstants.FLAT)
-                                            || (neighbourId < otherId && transactionDirection == GraphConstants.UPHILL)
-                                            || (neighbourId > otherId && transactionDirection == GraphConstants.DOWNHILL)) {
-                                        neighbourOutCount++;
-                                    }
-                                }
-                            }
-
-                            vertexInLinks.get(vertexId).add(Tuple.create(neighbourId, neighbourOutCount));
-                        }
-                    }
-                }
+        final int[] rowOffsets = new int[vertexCount + 1];
+        final int[] columns = new int[inLinks.getNonZeroCount()];
+        final double[] shares = new double[inLinks.getNonZeroCount()];
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            rowOffsets[vertexPosition + 1] = inLinks.getRowEnd(vertexPosition);
+            for (int entry = inLinks.getRowStart(vertexPosition); entry < inLinks.getRowEnd(vertexPosition); entry++) {
+                columns[entry] = inLinks.getEntryColumn(entry);
+                shares[entry] = inLinks.getEntryValue(entry) / outCounts[columns[entry]];
             }
         }
+        final SparseMatrix transitions = new SparseMatrix(vertexCount, vertexCount, rowOffsets, columns, shares);
 
-        // handle dangling vertices by linking them to all pages
-        for (final int neighbourId : verticesWithZeroOutLinks) {
-            final int updatedCount = vertexInLinks.size();
-            for (final int vertexId : vertexInLinks.keySet()) {
-                vertexInLinks.get(vertexId).add(Tuple.create(neighbourId, updatedCount));
+        // handle dangling vertices by spreading their pagerank over all vertices
+        final double[] danglingWeights = new double[vertexCount];
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            if (outCounts[vertexPosition] == 0) {
+                danglingWeights[vertexPosition] = 1.0 / vertexCount;
             }
         }
 
         // initialise pagerank values
-        final double[] tempPageranks = new double[graph.getVertexCapacity()];
-        final double[] pageranks = new double[graph.getVertexCapacity()];
-        Arrays.fill(pageranks, (double) 1 / vertexInLinks.size());
+        final double[] pageranks = new double[vertexCount];
+        Arrays.fill(pageranks, (double) 1 / vertexCount);
 
         // calculate pagerank for each vertex
-        for (int iteration = 0; iteration < iterations; iteration++) {
-            Arrays.fill(tempPageranks, 0);
-
-            double maxPagerank = 0;
-            double delta = 0;
-            for (final int vertexId : vertexInLinks.keySet()) {
-                double neighbourContribution = 0.0;
-                final Set<Tuple<Integer, Integer>> neighbours = vertexInLinks.get(vertexId);
-                for (final Tuple<Integer, Integer> neighbour : neighbours) {
-                    final int neighbourId = neighbour.getFirst();
-                    final int neighbourOutCount = neighbour.getSecond();
-                    final int neighbourPosition = graph.getVertexPosition(neighbourId);
-                    neighbourContribution += (pageranks[neighbourPosition] / neighbourOutCount);
-                }
-
-                final int vertexPosition = graph.getVertexPosition(vertexId);
-                tempPageranks[vertexPosition] = ((1 - dampingFactor) / vertexInLinks.size()) + (dampingFactor * neighbourContribution);
-                maxPagerank = Math.max(tempPageranks[vertexPosition], maxPagerank);
-                delta += Math.abs(pageranks[vertexPosition] - tempPageranks[vertexPosition]);
-            }
-
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                if (normaliseByAvailable && maxPagerank > 0) {
-                    pageranks[vertexPosition] = tempPageranks[vertexPosition] / maxPagerank;
-                } else {
-                    pageranks[vertexPosition] = tempPageranks[vertexPosition];
-                }
-            }
-
-            if (delta < epsilon) {
-                break;
-            }
+        final double teleport = (1 - dampingFactor) / vertexCount;
+        try (final PowerIteration engine = new PowerIteration(vertexCount)) {
+            engine.iterate(transitions, danglingWeights, pageranks, neighbourContribution -> teleport + (dampingFactor * neighbourContribution),
+                    normaliseByAvailable ? Normalisation.MAX : Normalisation.NONE, epsilon, iterations);
         }
 
         // update the graph with pagerank values
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality;
+
+import au.gov.asd.tac.constellation.graph.GraphConstants;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.utilities.AdjacencySnapshot;
+import au.gov.asd.tac.constellation.plugins.algorithms.SparseMatrix;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A power iteration engine shared by the spectral centrality measures
+ * (pagerank, eigenvector, katz and HITS).
+ * <p>
+ * Each step calculates <code>y = update(A * x + d)</code> for an in-link
+ * matrix <code>A</code>, whose rows are the vertices being scored and whose
+ * columns are the vertices contributing to them, where <code>d</code> is the
+ * mass held by dangling vertices, which is collected in a single pass over the
+ * vector rather than by linking every dangling vertex to every other vertex.
+ * The result is then normalised, and the L1 distance between the previous and
+ * new vectors is returned so that iteration can stop once it falls below a
+ * tolerance.
+ * <p>
+ * Rows are split into contiguous chunks holding similar numbers of entries,
+ * which are processed in parallel. Partial sums are combined in chunk order,
+ * so results do not depend on thread scheduling. Small graphs are processed in
+ * a single chunk on the calling thread.
+ *
+ * @author cygnus_x-1
+ */
+public final class PowerIteration implements AutoCloseable {
+
+    private static final int MIN_CHUNK_SIZE = 4096;
+
+    /**
+     * How the vector is scaled after each step.
+     */
+    public enum Normalisation {
+        /**
+         * Leave the vector as calculated.
+         */
+        NONE,
+        /**
+         * Scale the vector so its values sum to 1.
+         */
+        SUM,
+        /**
+         * Scale the vector so its Euclidean length is 1.
+         */
+        EUCLIDEAN,
+        /**
+         * Scale the vector so its largest value is 1.
+         */
+        MAX
+    }
+
+    /**
+     * The function applied to each row of <code>A * x + d</code>.
+     */
+    @FunctionalInterface
+    public interface Update {
+
+        double apply(final double product);
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+
+        double[] run(final int start, final int end);
+    }
+
+    private final int vertexCount;
+    private final int chunkCount;
+    private final ExecutorService workers;
+    private final double[] scratch;
+
+    /**
+     * Create an engine for vectors of the given size. The engine holds a pool
+     * of worker threads for large graphs, so should be closed when finished
+     * with.
+     *
+     * @param vertexCount The number of values in each vector.
+     */
+    public PowerIteration(final int vertexCount) {
+        this.vertexCount = vertexCount;
+        this.chunkCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), vertexCount / MIN_CHUNK_SIZE));
+        this.workers = chunkCount > 1 ? Executors.newFixedThreadPool(chunkCount) : null;
+        this.scratch = new double[vertexCount];
+    }
+
+    /**
+     * The undirected adjacency of a graph by vertex position, with one entry
+     * of 1 for each pair of neighbouring vertices. Loops are not included.
+     *
+     * @param graph The graph.
+     * @return A symmetric matrix with one row and column per vertex position.
+     */
+    public static SparseMatrix neighbourLinks(final GraphReadMethods graph) {
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.get(graph, false);
+        final int[] offsets = snapshot.getOutOffsets();
+        final int[] targets = snapshot.getOutTargets();
+        final int size = snapshot.getVertexCount();
+
+        final int[] rowOffsets = new int[size + 1];
+        final int[] columns = new int[snapshot.getEntryCount()];
+        int position = 0;
+        for (int row = 0; row < size; row++) {
+            rowOffsets[row] = position;
+            for (int k = offsets[row]; k < offsets[row + 1]; k++) {
+                // rows are sorted, so parallel transactions are adjacent
+                if (targets[k] != row && (position == rowOffsets[row] || columns[position - 1] != targets[k])) {
+                    columns[position++] = targets[k];
+                }
+            }
+        }
+        rowOffsets[size] = position;
+
+        final double[] values = new double[position];
+        Arrays.fill(values, 1);
+        return new SparseMatrix(size, size, rowOffsets, Arrays.copyOf(columns, position), values);
+    }
+
+    /**
+     * The incoming transactions of a graph by vertex position. The entry at
+     * row <code>i</code> and column <code>j</code> is the number of
+     * transactions from vertex <code>j</code> to vertex <code>i</code>. Loops
+     * are not included.
+     *
+     * @param graph The graph.
+     * @param includeUndirected True if undirected transactions should count in
+     * both directions, false to ignore them.
+     * @return A matrix with one row and column per vertex position.
+     */
+    public static SparseMatrix inLinks(final GraphReadMethods graph, final boolean includeUndirected) {
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.get(graph, true);
+        final int[] offsets = snapshot.getInOffsets();
+        final int[] sources = snapshot.getInSources();
+        final int[] transactions = snapshot.getInTransactions();
+        final int size = snapshot.getVertexCount();
+
+        final int[] rowOffsets = new int[size + 1];
+        final int[] columns = new int[snapshot.getEntryCount()];
+        int position = 0;
+        for (int row = 0; row < size; row++) {
+            rowOffsets[row] = position;
+            for (int k = offsets[row]; k < offsets[row + 1]; k++) {
+                if (sources[k] != row && (includeUndirected || graph.getTransactionDirection(transactions[k]) != GraphConstants.FLAT)) {
+                    columns[position++] = sources[k];
+                }
+            }
+        }
+        rowOffsets[size] = position;
+
+        // parallel transactions are summed by the matrix
+        final double[] values = new double[position];
+        Arrays.fill(values, 1);
+        return new SparseMatrix(size, size, rowOffsets, Arrays.copyOf(columns, position), values);
+    }
+
+    /**
+     * Iterate <code>values = update(links * values + d)</code> until the L1
+     * distance between successive vectors falls below the tolerance.
+     *
+     * @param links The in-link matrix, with one row and column per value.
+     * @param danglingWeights The weight with which each value is spread over
+     * every row, or null if there are no dangling vertices.
+     * @param values The initial vector, which will be overwritten with the
+     * result.
+     * @param update The function applied to each row.
+     * @param normalisation How to scale the vector after each step.
+     * @param tolerance The L1 distance at which the vector is considered
+     * stable.
+     * @param maxIterations The maximum number of steps to take.
+     * @return The number of steps taken.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public int iterate(final SparseMatrix links, final double[] danglingWeights, final double[] values,
+            final Update update, final Normalisation normalisation, final double tolerance, final int maxIterations) throws InterruptedException {
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            if (step(links, danglingWeights, values, values, update, normalisation) < tolerance) {
+                return iteration + 1;
+            }
+        }
+
+        return maxIterations;
+    }
+
+    /**
+     * Calculate <code>output = update(links * input + d)</code> once. The input
+     * and output may be the same vector.
+     *
+     * @param links The in-link matrix, with one row and column per value.
+     * @param danglingWeights The weight with which each input value is spread
+     * over every row, or null if there are no dangling vertices.
+     * @param input The vector to multiply.
+     * @param output The vector to overwrite with the result.
+     * @param update The function applied to each row.
+     * @param normalisation How to scale the result.
+     * @return The L1 distance between the previous and new output.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public double step(final SparseMatrix links, final double[] danglingWeights, final double[] input, final double[] output,
+            final Update update, final Normalisation normalisation) throws InterruptedException {
+        if (links.getRowCount() != vertexCount || links.getColumnCount() != vertexCount) {
+            throw new IllegalArgumentException("Matrix dimensions do not match the engine");
+        }
+
+        final int[] boundaries = chunkBoundaries(links);
+
+        double danglingMass = 0;
+        if (danglingWeights != null) {
+            for (final double[] partial : runChunks(boundaries, (start, end) -> {
+                double mass = 0;
+                for (int i = start; i < end; i++) {
+                    mass += danglingWeights[i] * input[i];
+                }
+                return new double[]{mass};
+            })) {
+                danglingMass += partial[0];
+            }
+        }
+
+        final double dangling = danglingMass;
+        double sum = 0;
+        double sumSquares = 0;
+        double max = 0;
+        for (final double[] partial : runChunks(boundaries, (start, end) -> {
+            double chunkSum = 0;
+            double chunkSumSquares = 0;
+            double chunkMax = 0;
+            for (int row = start; row < end; row++) {
+                double product = 0;
+                for (int k = links.getRowStart(row); k < links.getRowEnd(row); k++) {
+                    product += links.getEntryValue(k) * input[links.getEntryColumn(k)];
+                }
+                final double value = update.apply(product + dangling);
+                scratch[row] = value;
+                chunkSum += value;
+                chunkSumSquares += value * value;
+                chunkMax = Math.max(value, chunkMax);
+            }
+            return new double[]{chunkSum, chunkSumSquares, chunkMax};
+        })) {
+            sum += partial[0];
+            sumSquares += partial[1];
+            max = Math.max(partial[2], max);
+        }
+
+        final double factor;
+        switch (normalisation) {
+            case SUM:
+                factor = sum != 0 ? sum : 1;
+                break;
+            case EUCLIDEAN:
+                factor = sumSquares > 0 ? Math.sqrt(sumSquares) : 1;
+                break;
+            case MAX:
+                factor = max > 0 ? max : 1;
+                break;
+            default:
+                factor = 1;
+                break;
+        }
+
+        double residual = 0;
+        for (final double[] partial : runChunks(boundaries, (start, end) -> {
+            double chunkResidual = 0;
+            for (int row = start; row < end; row++) {
+                final double value = scratch[row] / factor;
+                chunkResidual += Math.abs(output[row] - value);
+                output[row] = value;
+            }
+            return new double[]{chunkResidual};
+        })) {
+            residual += partial[0];
+        }
+
+        return residual;
+    }
+
+    /**
+     * Split the rows of a matrix into contiguous chunks holding similar
+     * numbers of entries.
+     */
+    private int[] chunkBoundaries(final SparseMatrix links) {
+        final int[] boundaries = new int[chunkCount + 1];
+        final long entryCount = links.getNonZeroCount();
+        for (int chunk = 1; chunk < chunkCount; chunk++) {
+            // the first row starting at or after this chunk's share of the entries
+            final long target = entryCount * chunk / chunkCount;
+            int low = boundaries[chunk - 1];
+            int high = vertexCount;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (links.getRowStart(middle) < target) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            boundaries[chunk] = low;
+        }
+        boundaries[chunkCount] = vertexCount;
+        return boundaries;
+    }
+
+    /**
+     * Run a task over each chunk and return the result of each chunk in
+     * order.
+     */
+    private double[][] runChunks(final int[] boundaries, final ChunkTask task) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        if (workers == null) {
+            final double[][] results = {task.run(0, vertexCount)};
+            return results;
+        }
+
+        final List<Future<double[]>> futures = new ArrayList<>(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            final int start = boundaries[chunk];
+            final int end = boundaries[chunk + 1];
+            futures.add(workers.submit(() -> task.run(start, end)));
+        }
+
+        try {
+            final double[][] results = new double[chunkCount][];
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                results[chunk] = futures.get(chunk).get();
+            }
+            return results;
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            for (final Future<double[]> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+}
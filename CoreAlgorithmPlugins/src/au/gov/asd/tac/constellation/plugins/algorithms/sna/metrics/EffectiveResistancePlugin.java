@@ -21,13 +21,14 @@ import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.algorithms.MatrixUtilities;
+import au.gov.asd.tac.constellation.plugins.algorithms.SparseMatrix;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType.BooleanParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
-import org.ejml.simple.SimpleMatrix;
+import java.util.Arrays;
 import org.openide.util.NbBundle;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -43,6 +44,8 @@ import org.openide.util.lookup.ServiceProvider;
 public class EffectiveResistancePlugin extends SimpleEditPlugin {
 
     private static final SchemaAttribute EFFECTIVE_RESISTANCE_ATTRIBUTE = SnaConcept.TransactionAttribute.EFFECTIVE_RESISTANCE;
+    private static final double TOLERANCE = 1E-10;
+    private static final int MIN_ITERATIONS = 100;
 
     public static final String WEIGHTED_PARAMETER_ID = PluginParameter.buildId(EffectiveResistancePlugin.class, "weighted");
     public static final String NORMALISE_AVAILABLE_PARAMETER_ID = PluginParameter.buildId(EffectiveResistancePlugin.class, "normalise_available");
@@ -71,28 +74,15 @@ public class EffectiveResistancePlugin extends SimpleEditPlugin {
         final boolean weighted = parameters.getBooleanValue(WEIGHTED_PARAMETER_ID);
         final boolean normaliseByAvailable = parameters.getBooleanValue(NORMALISE_AVAILABLE_PARAMETER_ID);
 
-        final SimpleMatrix iL = MatrixUtilities.inverseLaplacian(graph);
-
         final int linkCount = graph.getLinkCount();
-        final double[] resistances = new double[linkCount];
+        final double[] resistances = effectiveResistances(graph);
         double maxResistance = 0;
         for (int linkPosition = 0; linkPosition < linkCount; linkPosition++) {
-            final int linkId = graph.getLink(linkPosition);
-            final int lowVertexId = graph.getLinkLowVertex(linkId);
-            final int highVertexId = graph.getLinkHighVertex(linkId);
-
-            final int i = graph.getVertexPosition(lowVertexId);
-            final int j = graph.getVertexPosition(highVertexId);
-            final double resistance;
             if (weighted) {
-                final int linkTransactionCount = graph.getLinkTransactionCount(linkId);
-                resistance = linkTransactionCount * (iL.get(i, i) + iL.get(j, j) - iL.get(i, j) - iL.get(j, i));
-            } else {
-                resistance = iL.get(i, i) + iL.get(j, j) - iL.get(i, j) - iL.get(j, i);
+                final int linkId = graph.getLink(linkPosition);
+                resistances[linkPosition] *= graph.getLinkTransactionCount(linkId);
             }
-
-            resistances[linkPosition] = resistance;
-            maxResistance = Math.max(resistance, maxResistance);
+            maxResistance = Math.max(resistances[linkPosition], maxResistance);
         }
 
         final int effectiveResistanceAttributeId = EFFECTIVE_RESISTANCE_ATTRIBUTE.ensure(graph);
@@ -106,4 +96,102 @@ public class EffectiveResistancePlugin extends SimpleEditPlugin {
             }
         }
     }
+
+    /**
+     * Calculate the effective resistance of each link, indexed by link
+     * position.
+     * <p>
+     * The resistance between i and j is
+     * <code>L+[i,i] - L+[i,j] + L+[j,j] - L+[j,i]</code>, where L+ is the
+     * pseudo-inverse of the Laplacian. Rather than invert the Laplacian, each
+     * vertex solves <code>L * x = e[i] - 1/|C|</code> (where C is the
+     * component of i) by conjugate gradient, which yields the i'th column of L+
+     * up to a constant, and contributes <code>x[i] - x[j]</code> to each of its
+     * links. This needs memory proportional to the number of links rather than
+     * to the square of the number of vertices.
+     */
+    private static double[] effectiveResistances(final GraphWriteMethods graph) throws InterruptedException {
+        final int vertexCount = graph.getVertexCount();
+        final int linkCount = graph.getLinkCount();
+        final SparseMatrix laplacian = MatrixUtilities.sparseLaplacian(graph);
+        final SparseMatrix incidence = MatrixUtilities.sparseIncidence(graph, false);
+
+        final int[] lowVertices = new int[linkCount];
+        final int[] highVertices = new int[linkCount];
+        for (int linkPosition = 0; linkPosition < linkCount; linkPosition++) {
+            final int linkId = graph.getLink(linkPosition);
+            lowVertices[linkPosition] = graph.getVertexPosition(graph.getLinkLowVertex(linkId));
+            highVertices[linkPosition] = graph.getVertexPosition(graph.getLinkHighVertex(linkId));
+        }
+
+        final int[] components = new int[vertexCount];
+        final int[] componentSizes = components(laplacian, components);
+
+        final double[] resistances = new double[linkCount];
+        final double[] b = new double[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (incidence.getRowStart(i) == incidence.getRowEnd(i)) {
+                continue;
+            }
+
+            final int component = components[i];
+            final double share = 1.0 / componentSizes[component];
+            for (int k = 0; k < vertexCount; k++) {
+                b[k] = components[k] == component ? -share : 0;
+            }
+            b[i] += 1;
+
+            final double[] x = MatrixUtilities.conjugateGradient(laplacian, b, TOLERANCE, Math.max(MIN_ITERATIONS, vertexCount));
+            for (int entry = incidence.getRowStart(i); entry < incidence.getRowEnd(i); entry++) {
+                final int linkPosition = incidence.getEntryColumn(entry);
+                final int j = lowVertices[linkPosition] == i ? highVertices[linkPosition] : lowVertices[linkPosition];
+                resistances[linkPosition] += x[i] - x[j];
+            }
+        }
+
+        return resistances;
+    }
+
+    /**
+     * Label the connected components of a Laplacian.
+     *
+     * @param laplacian The Laplacian.
+     * @param components Filled with the component of each vertex.
+     * @return The size of each component.
+     */
+    private static int[] components(final SparseMatrix laplacian, final int[] components) {
+        final int vertexCount = laplacian.getRowCount();
+        final int[] sizes = new int[vertexCount];
+        final int[] stack = new int[vertexCount];
+        Arrays.fill(components, -1);
+
+        int componentCount = 0;
+        for (int root = 0; root < vertexCount; root++) {
+            if (components[root] != -1) {
+                continue;
+            }
+
+            int stackSize = 0;
+            stack[stackSize++] = root;
+            components[root] = componentCount;
+            while (stackSize > 0) {
+                final int vertex = stack[--stackSize];
+                sizes[componentCount]++;
+                for (int entry = laplacian.getRowStart(vertex); entry < laplacian.getRowEnd(vertex); entry++) {
+                    final int neighbour = laplacian.getEntryColumn(entry);
+                    if (components[neighbour] == -1 && laplacian.getEntryValue(entry) != 0) {
+                        components[neighbour] = componentCount;
+                        stack[stackSize++] = neighbour;
+                    }
+                }
+            }
+            componentCount++;
+        }
+
+        return Arrays.copyOf(sizes, componentCount);
+    }
 }
@@ -0,0 +1,726 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.similarity;
+
+import au.gov.asd.tac.constellation.graph.GraphConstants;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.utilities.datastructure.Tuple;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Calculates neighbourhood similarity scores between pairs of vertices.
+ * <p>
+ * Rather than testing every pair of vertices, only pairs which share at least
+ * one feature (neighbour) are considered. These are found by a two-hop
+ * expansion from each vertex through an inverted index of features, so the
+ * cost is proportional to the number of two-hop paths rather than the square
+ * of the number of vertices. Vertices are processed in parallel.
+ * <p>
+ * The number of pairs added to the graph can be limited by keeping only the
+ * highest scoring pairs for each vertex, and by requiring a minimum score. For
+ * very dense graphs, candidate pairs can instead be found approximately using
+ * MinHash signatures and locality sensitive hashing, which finds pairs with a
+ * high Jaccard similarity of their features with high probability.
+ *
+ * @author cygnus_x-1
+ */
+public class SimilarityScoring {
+
+    private static final int TASKS_PER_PROCESSOR = 4;
+
+    // locality sensitive hashing uses BANDS bands of ROWS_PER_BAND MinHash values
+    private static final int BANDS = 16;
+    private static final int ROWS_PER_BAND = 4;
+    private static final int SIGNATURE_SIZE = BANDS * ROWS_PER_BAND;
+
+    private SimilarityScoring() {
+    }
+
+    /**
+     * The contribution of a single common feature to the sum accumulated for
+     * a pair of vertices.
+     */
+    @FunctionalInterface
+    public interface Contribution {
+
+        double apply(final int feature, final double weightOne, final double weightTwo);
+    }
+
+    /**
+     * Calculates the score for a pair of vertices from the number of features
+     * they share and the sum of the contributions of those features. Scorers
+     * are called from worker threads, so must not read the graph.
+     */
+    @FunctionalInterface
+    public interface Scorer {
+
+        /**
+         * Score a pair of vertices.
+         *
+         * @param positionOne The position of the first vertex, which is lower
+         * than the position of the second vertex.
+         * @param positionTwo The position of the second vertex.
+         * @param commonFeatures The number of features the vertices share.
+         * @param sum The sum of the contributions of the shared features.
+         * @return The score, or {@link Float#NaN} if the pair should not be
+         * scored.
+         */
+        float score(final int positionOne, final int positionTwo, final int commonFeatures, final float sum);
+    }
+
+    /**
+     * The features (neighbours) of each vertex, by vertex position, along with
+     * an inverted index from each feature to the vertices that have it.
+     */
+    public static final class Features {
+
+        private final int vertexCount;
+        private final int[] offsets;
+        private final int[] features;
+        private final double[] weights;
+        private final int[] invertedOffsets;
+        private final int[] invertedVertices;
+        private final double[] invertedWeights;
+
+        private Features(final int vertexCount, final int[] offsets, final int[] features, final double[] weights) {
+            this.vertexCount = vertexCount;
+            this.offsets = offsets;
+            this.features = features;
+            this.weights = weights;
+
+            // vertices are visited in order, so each inverted row is filled already sorted
+            final int entryCount = offsets[vertexCount];
+            invertedOffsets = new int[vertexCount + 1];
+            for (int k = 0; k < entryCount; k++) {
+                invertedOffsets[features[k] + 1]++;
+            }
+            for (int feature = 0; feature < vertexCount; feature++) {
+                invertedOffsets[feature + 1] += invertedOffsets[feature];
+            }
+            final int[] next = Arrays.copyOf(invertedOffsets, vertexCount);
+            invertedVertices = new int[entryCount];
+            invertedWeights = new double[entryCount];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                for (int k = offsets[vertex]; k < offsets[vertex + 1]; k++) {
+                    final int position = next[features[k]]++;
+                    invertedVertices[position] = vertex;
+                    invertedWeights[position] = weights[k];
+                }
+            }
+        }
+
+        /**
+         * Collect the features of each vertex of a graph. A neighbour is a
+         * feature of a vertex if they are connected by an edge in a requested
+         * direction. Loops are not included.
+         *
+         * @param graph The graph.
+         * @param includeConnectionsIn Include incoming connections.
+         * @param includeConnectionsOut Include outgoing connections.
+         * @param treatUndirectedBidirectional Include undirected connections.
+         * @param weighted If true, the weight of each feature is the number of
+         * non-similarity transactions on its edges, and neighbours connected
+         * only by similarity transactions are features of weight 0. If false,
+         * every feature has weight 1, and neighbours connected only by
+         * similarity transactions are not features.
+         * @return The features of each vertex.
+         */
+        public static Features build(final GraphWriteMethods graph, final boolean includeConnectionsIn, final boolean includeConnectionsOut,
+                final boolean treatUndirectedBidirectional, final boolean weighted) {
+            final int vertexCount = graph.getVertexCount();
+            final int[] offsets = new int[vertexCount + 1];
+            final List<int[]> rows = new ArrayList<>(vertexCount);
+            final List<double[]> rowWeights = new ArrayList<>(vertexCount);
+            int[] rowFeatures = new int[16];
+            double[] rowFeatureWeights = new double[16];
+            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+                final int vertexId = graph.getVertex(vertexPosition);
+                final int neighbourCount = graph.getVertexNeighbourCount(vertexId);
+                if (rowFeatures.length < neighbourCount) {
+                    rowFeatures = new int[neighbourCount];
+                    rowFeatureWeights = new double[neighbourCount];
+                }
+
+                int featureCount = 0;
+                for (int vertexNeighbourPosition = 0; vertexNeighbourPosition < neighbourCount; vertexNeighbourPosition++) {
+                    final int neighbourId = graph.getVertexNeighbour(vertexId, vertexNeighbourPosition);
+                    final int neighbourPosition = graph.getVertexPosition(neighbourId);
+                    if (vertexPosition == neighbourPosition) {
+                        continue;
+                    }
+
+                    boolean isFeature = false;
+                    double weight = 0;
+                    final int linkId = graph.getLink(vertexId, neighbourId);
+                    for (int linkEdgePosition = 0; linkEdgePosition < graph.getLinkEdgeCount(linkId); linkEdgePosition++) {
+                        final int edgeId = graph.getLinkEdge(linkId, linkEdgePosition);
+                        final int edgeDirection = graph.getEdgeDirection(edgeId);
+                        final boolean isRequestedDirection = (treatUndirectedBidirectional && edgeDirection == GraphConstants.UNDIRECTED
+                                || includeConnectionsIn && graph.getEdgeDestinationVertex(edgeId) == neighbourId
+                                || includeConnectionsOut && graph.getEdgeSourceVertex(edgeId) == neighbourId);
+                        if (isRequestedDirection) {
+                            if (weighted) {
+                                weight += graph.getEdgeTransactionCount(edgeId) - SimilarityUtilities.countEdgeSimilarityTransactions(graph, edgeId);
+                                isFeature = true;
+                            } else if (SimilarityUtilities.checkEdgeTypes(graph, edgeId)) {
+                                weight = 1;
+                                isFeature = true;
+                            }
+                        }
+                    }
+
+                    if (isFeature) {
+                        rowFeatures[featureCount] = neighbourPosition;
+                        rowFeatureWeights[featureCount++] = weight;
+                    }
+                }
+
+                final int[] row = Arrays.copyOf(rowFeatures, featureCount);
+                final double[] weightRow = Arrays.copyOf(rowFeatureWeights, featureCount);
+                sortRow(row, weightRow);
+                rows.add(row);
+                rowWeights.add(weightRow);
+                offsets[vertexPosition + 1] = offsets[vertexPosition] + featureCount;
+            }
+
+            final int[] features = new int[offsets[vertexCount]];
+            final double[] weights = new double[offsets[vertexCount]];
+            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+                System.arraycopy(rows.get(vertexPosition), 0, features, offsets[vertexPosition], rows.get(vertexPosition).length);
+                System.arraycopy(rowWeights.get(vertexPosition), 0, weights, offsets[vertexPosition], rowWeights.get(vertexPosition).length);
+            }
+
+            return new Features(vertexCount, offsets, features, weights);
+        }
+
+        private static void sortRow(final int[] row, final double[] weights) {
+            // insertion sort, as neighbour lists are usually short and nearly sorted
+            for (int i = 1; i < row.length; i++) {
+                final int feature = row[i];
+                final double weight = weights[i];
+                int j = i - 1;
+                while (j >= 0 && row[j] > feature) {
+                    row[j + 1] = row[j];
+                    weights[j + 1] = weights[j];
+                    j--;
+                }
+                row[j + 1] = feature;
+                weights[j + 1] = weight;
+            }
+        }
+
+        public int getVertexCount() {
+            return vertexCount;
+        }
+
+        /**
+         * The number of features of a vertex.
+         *
+         * @param vertexPosition The position of the vertex.
+         * @return The number of features of the vertex.
+         */
+        public int getFeatureCount(final int vertexPosition) {
+            return offsets[vertexPosition + 1] - offsets[vertexPosition];
+        }
+
+        /**
+         * Whether a vertex has a feature.
+         *
+         * @param vertexPosition The position of the vertex.
+         * @param feature The position of the neighbour.
+         * @return True if the neighbour is a feature of the vertex.
+         */
+        public boolean hasFeature(final int vertexPosition, final int feature) {
+            return Arrays.binarySearch(features, offsets[vertexPosition], offsets[vertexPosition + 1], feature) >= 0;
+        }
+
+        /**
+         * The weights of the features of a vertex, in the order of the
+         * positions of the features.
+         *
+         * @param vertexPosition The position of the vertex.
+         * @return A new array holding the weights of the features.
+         */
+        public double[] getFeatureWeights(final int vertexPosition) {
+            return Arrays.copyOfRange(weights, offsets[vertexPosition], offsets[vertexPosition + 1]);
+        }
+    }
+
+    /**
+     * The vertices of a graph which are selected, by position.
+     *
+     * @param graph The graph.
+     * @return The positions of the selected vertices.
+     */
+    public static BitSet getSelectedVertices(final GraphReadMethods graph) {
+        final int vertexCount = graph.getVertexCount();
+        final BitSet selected = new BitSet(vertexCount);
+        final int vertexSelectedAttributeId = VisualConcept.VertexAttribute.SELECTED.get(graph);
+        if (vertexSelectedAttributeId != GraphConstants.NOT_FOUND) {
+            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+                selected.set(vertexPosition, graph.getBooleanValue(vertexSelectedAttributeId, graph.getVertex(vertexPosition)));
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * Score each pair of vertices which share features.
+     * <p>
+     * For each pair, the contributions of their common features are summed, in
+     * the order of the positions of the features, as a float. The pair is then
+     * scored if they share at least the minimum number of features.
+     *
+     * @param graph The graph, used to map vertex positions to ids.
+     * @param features The features of each vertex.
+     * @param contribution The contribution of each common feature to the sum
+     * passed to the scorer, or null if the sum is not needed.
+     * @param scorer Calculates the score of each pair.
+     * @param minCommonFeatures The minimum number of features a pair must
+     * share to be scored.
+     * @param selected If not null, only pairs including at least one of these
+     * vertex positions are scored.
+     * @param resultsPerVertex If greater than 0, only the highest scoring
+     * pairs for each vertex are kept. A pair is kept if it is among the best
+     * for either of its vertices.
+     * @param minimumScore Pairs scoring less than this are not kept.
+     * @param approximate If true, candidate pairs are found using MinHash
+     * locality sensitive hashing, which may miss pairs with a low Jaccard
+     * similarity of their features. The scores of the pairs found are exact.
+     * @return The score of each pair kept, keyed by the ids of the vertices in
+     * order of position.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public static Map<Tuple<Integer, Integer>, Float> calculateScores(final GraphReadMethods graph, final Features features,
+            final Contribution contribution, final Scorer scorer, final int minCommonFeatures, final BitSet selected,
+            final int resultsPerVertex, final float minimumScore, final boolean approximate) throws InterruptedException {
+        final int vertexCount = features.getVertexCount();
+        final int[] sources;
+        if (selected == null) {
+            sources = new int[vertexCount];
+            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+                sources[vertexPosition] = vertexPosition;
+            }
+        } else {
+            sources = selected.stream().filter(vertexPosition -> vertexPosition < vertexCount).toArray();
+        }
+
+        final Buckets buckets = approximate ? new Buckets(features) : null;
+
+        final List<PairList> chunkResults = forEachChunk(sources.length, (start, end) -> {
+            final Expansion expansion = new Expansion(features, contribution, buckets);
+            final PairList pairs = new PairList();
+            for (int i = start; i < end && !Thread.currentThread().isInterrupted(); i++) {
+                final int source = sources[i];
+                final int candidateCount = expansion.run(source);
+                if (resultsPerVertex > 0) {
+                    // visit candidates in order of position, so ties are kept deterministically
+                    Arrays.sort(expansion.candidates, 0, candidateCount);
+                }
+                final PairList best = resultsPerVertex > 0 ? new PairList() : pairs;
+                for (int c = 0; c < candidateCount; c++) {
+                    final int target = expansion.candidates[c];
+                    final int commonFeatures = expansion.common[target];
+
+                    // without a limit per vertex, each pair only needs to be scored from one end
+                    final boolean scoredFromTarget = target < source && (selected == null || selected.get(target));
+                    if (commonFeatures < minCommonFeatures || (resultsPerVertex <= 0 && scoredFromTarget)) {
+                        continue;
+                    }
+
+                    final int low = Math.min(source, target);
+                    final int high = Math.max(source, target);
+                    final float score = scorer.score(low, high, commonFeatures, expansion.sums[target]);
+                    if (!Float.isNaN(score) && score >= minimumScore) {
+                        best.add(low, high, score, target);
+                    }
+                }
+                expansion.reset(candidateCount);
+
+                if (resultsPerVertex > 0) {
+                    best.keepBest(resultsPerVertex);
+                    pairs.addAll(best);
+                }
+            }
+            return pairs;
+        });
+
+        // gather the pairs in order of position, dropping pairs kept by both of their vertices
+        int pairCount = 0;
+        for (final PairList chunk : chunkResults) {
+            pairCount += chunk.size;
+        }
+        final long[] keys = new long[pairCount];
+        final float[] scores = new float[pairCount];
+        int index = 0;
+        for (final PairList chunk : chunkResults) {
+            for (int p = 0; p < chunk.size; p++) {
+                keys[index] = ((long) chunk.lows[p] << 32) | chunk.highs[p];
+                scores[index++] = chunk.scores[p];
+            }
+        }
+        final int[] order = sortedOrder(keys);
+
+        final Map<Tuple<Integer, Integer>, Float> result = new HashMap<>();
+        for (int i = 0; i < order.length; i++) {
+            final long key = keys[order[i]];
+            if (i > 0 && key == keys[order[i - 1]]) {
+                continue;
+            }
+            final int vertexOneId = graph.getVertex((int) (key >>> 32));
+            final int vertexTwoId = graph.getVertex((int) key);
+            result.put(Tuple.create(vertexOneId, vertexTwoId), scores[order[i]]);
+        }
+
+        return result;
+    }
+
+    /**
+     * The indices of an array of non-negative keys in ascending order of key.
+     */
+    private static int[] sortedOrder(final long[] keys) {
+        final Integer[] boxed = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        final int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+
+        T run(final int start, final int end);
+    }
+
+    /**
+     * Run a task over contiguous chunks of the range [0, count), several
+     * chunks per available processor so that vertices with many two-hop
+     * neighbours are shared out, and return the result of each chunk in order.
+     */
+    private static <T> List<T> forEachChunk(final int count, final ChunkTask<T> task) throws InterruptedException {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int chunkCount = Math.max(1, Math.min(processors * TASKS_PER_PROCESSOR, count));
+        if (processors == 1 || chunkCount == 1) {
+            final List<T> results = new ArrayList<>();
+            results.add(task.run(0, count));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            return results;
+        }
+
+        final ExecutorService workers = Executors.newFixedThreadPool(processors);
+        try {
+            final List<Future<T>> futures = new ArrayList<>(chunkCount);
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                final int start = (int) ((long) count * chunk / chunkCount);
+                final int end = (int) ((long) count * (chunk + 1) / chunkCount);
+                futures.add(workers.submit(() -> task.run(start, end)));
+            }
+
+            final List<T> results = new ArrayList<>(chunkCount);
+            for (final Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * A growable list of scored pairs.
+     */
+    private static final class PairList {
+
+        private int size = 0;
+        private int[] lows = new int[16];
+        private int[] highs = new int[16];
+        private float[] scores = new float[16];
+        private int[] targets = new int[16];
+
+        private void add(final int low, final int high, final float score, final int target) {
+            if (size == lows.length) {
+                final int capacity = size * 2;
+                lows = Arrays.copyOf(lows, capacity);
+                highs = Arrays.copyOf(highs, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+            }
+            lows[size] = low;
+            highs[size] = high;
+            scores[size] = score;
+            targets[size++] = target;
+        }
+
+        private void addAll(final PairList other) {
+            for (int p = 0; p < other.size; p++) {
+                add(other.lows[p], other.highs[p], other.scores[p], other.targets[p]);
+            }
+        }
+
+        /**
+         * Keep only the highest scoring pairs, breaking ties by the order in
+         * which they were added.
+         */
+        private void keepBest(final int count) {
+            if (size <= count) {
+                return;
+            }
+
+            final long[] keys = new long[size];
+            for (int p = 0; p < size; p++) {
+                // flip the score bits so that higher scores sort first
+                final int bits = Float.floatToIntBits(scores[p]);
+                final int sortable = bits ^ ((bits >> 31) & 0x7fffffff);
+                keys[p] = ((long) ~sortable << 32) | p;
+            }
+            Arrays.sort(keys);
+
+            final PairList kept = new PairList();
+            for (int k = 0; k < count; k++) {
+                final int p = (int) keys[k];
+                kept.add(lows[p], highs[p], scores[p], targets[p]);
+            }
+            size = kept.size;
+            lows = kept.lows;
+            highs = kept.highs;
+            scores = kept.scores;
+            targets = kept.targets;
+        }
+    }
+
+    /**
+     * Finds the vertices sharing features with a source vertex, along with
+     * the number of features they share and the sum of their contributions.
+     * Each worker thread uses its own expansion.
+     */
+    private static final class Expansion {
+
+        private final Features features;
+        private final Contribution contribution;
+        private final Buckets buckets;
+        private final int[] common;
+        private final float[] sums;
+        private final int[] candidates;
+        private final int[] visited;
+        private int stamp = 0;
+
+        private Expansion(final Features features, final Contribution contribution, final Buckets buckets) {
+            this.features = features;
+            this.contribution = contribution;
+            this.buckets = buckets;
+            this.common = new int[features.vertexCount];
+            this.sums = new float[features.vertexCount];
+            this.candidates = new int[features.vertexCount];
+            this.visited = buckets != null ? new int[features.vertexCount] : null;
+        }
+
+        /**
+         * Expand from a source vertex, returning the number of candidates.
+         * Candidates are held in {@link #candidates}, but only those with at
+         * least one common feature have an entry in {@link #common} above 0.
+         */
+        private int run(final int source) {
+            return buckets == null ? expandTwoHops(source) : expandBuckets(source);
+        }
+
+        private int expandTwoHops(final int source) {
+            int candidateCount = 0;
+            for (int k = features.offsets[source]; k < features.offsets[source + 1]; k++) {
+                final int feature = features.features[k];
+                for (int j = features.invertedOffsets[feature]; j < features.invertedOffsets[feature + 1]; j++) {
+                    final int target = features.invertedVertices[j];
+                    if (target == source) {
+                        continue;
+                    }
+                    if (common[target]++ == 0) {
+                        candidates[candidateCount++] = target;
+                    }
+                    if (contribution != null) {
+                        sums[target] += contribution.apply(feature, features.weights[k], features.invertedWeights[j]);
+                    }
+                }
+            }
+            return candidateCount;
+        }
+
+        private int expandBuckets(final int source) {
+            stamp++;
+            int candidateCount = 0;
+            for (int band = 0; band < BANDS; band++) {
+                final int start = buckets.starts[band][source];
+                final int end = buckets.ends[band][source];
+                for (int i = start; i < end; i++) {
+                    final int target = buckets.members[band][i];
+                    if (target != source && visited[target] != stamp) {
+                        visited[target] = stamp;
+                        candidates[candidateCount++] = target;
+                        merge(source, target);
+                    }
+                }
+            }
+            return candidateCount;
+        }
+
+        /**
+         * Count the common features of two vertices by merging their sorted
+         * feature lists.
+         */
+        private void merge(final int source, final int target) {
+            int a = features.offsets[source];
+            int b = features.offsets[target];
+            final int aEnd = features.offsets[source + 1];
+            final int bEnd = features.offsets[target + 1];
+            while (a < aEnd && b < bEnd) {
+                if (features.features[a] < features.features[b]) {
+                    a++;
+                } else if (features.features[a] > features.features[b]) {
+                    b++;
+                } else {
+                    common[target]++;
+                    if (contribution != null) {
+                        sums[target] += contribution.apply(features.features[a], features.weights[a], features.weights[b]);
+                    }
+                    a++;
+                    b++;
+                }
+            }
+        }
+
+        private void reset(final int candidateCount) {
+            for (int c = 0; c < candidateCount; c++) {
+                common[candidates[c]] = 0;
+                sums[candidates[c]] = 0;
+            }
+        }
+    }
+
+    /**
+     * Groups vertices whose MinHash signatures agree on every row of a band,
+     * for each band. Two vertices with a Jaccard similarity of features s
+     * share at least one bucket with probability 1 - (1 - s^r)^b, for b bands
+     * of r rows.
+     */
+    private static final class Buckets {
+
+        private final int[][] members = new int[BANDS][];
+        private final int[][] starts = new int[BANDS][];
+        private final int[][] ends = new int[BANDS][];
+
+        private Buckets(final Features features) throws InterruptedException {
+            final int vertexCount = features.vertexCount;
+            final long[] seeds = new long[SIGNATURE_SIZE];
+            for (int h = 0; h < SIGNATURE_SIZE; h++) {
+                seeds[h] = mix(h + 1L);
+            }
+
+            // calculate the MinHash signature of each vertex, and hash each band of the signature
+            final long[][] bandHashes = new long[BANDS][vertexCount];
+            forEachChunk(vertexCount, (start, end) -> {
+                final int[] signature = new int[SIGNATURE_SIZE];
+                for (int vertex = start; vertex < end; vertex++) {
+                    Arrays.fill(signature, Integer.MAX_VALUE);
+                    for (int k = features.offsets[vertex]; k < features.offsets[vertex + 1]; k++) {
+                        final int feature = features.features[k];
+                        for (int h = 0; h < SIGNATURE_SIZE; h++) {
+                            signature[h] = Math.min(signature[h], (int) (mix(feature ^ seeds[h]) >>> 33));
+                        }
+                    }
+                    for (int band = 0; band < BANDS; band++) {
+                        long hash = band;
+                        for (int row = 0; row < ROWS_PER_BAND; row++) {
+                            hash = mix(hash ^ signature[band * ROWS_PER_BAND + row]);
+                        }
+                        bandHashes[band][vertex] = hash;
+                    }
+                }
+                return null;
+            });
+
+            int withFeatures = 0;
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                if (features.getFeatureCount(vertex) > 0) {
+                    withFeatures++;
+                }
+            }
+
+            // sort the vertices with features by the hash of each band, so each bucket is contiguous
+            for (int band = 0; band < BANDS; band++) {
+                final long[] keys = new long[withFeatures];
+                int index = 0;
+                for (int vertex = 0; vertex < vertexCount; vertex++) {
+                    if (features.getFeatureCount(vertex) > 0) {
+                        keys[index++] = (bandHashes[band][vertex] & 0xffffffff00000000L) | vertex;
+                    }
+                }
+                Arrays.sort(keys);
+
+                members[band] = new int[withFeatures];
+                starts[band] = new int[vertexCount];
+                ends[band] = new int[vertexCount];
+                int groupStart = 0;
+                for (int i = 0; i < withFeatures; i++) {
+                    members[band][i] = (int) keys[i];
+                    if (i + 1 == withFeatures || (keys[i + 1] >>> 32) != (keys[i] >>> 32)) {
+                        for (int j = groupStart; j <= i; j++) {
+                            starts[band][(int) keys[j]] = groupStart;
+                            ends[band][(int) keys[j]] = i + 1;
+                        }
+                        groupStart = i + 1;
+                    }
+                }
+            }
+        }
+
+        /**
+         * The finalisation step of the MurmurHash3 64 bit hash, which mixes
+         * the bits of a value thoroughly.
+         */
+        private static long mix(final long value) {
+            long h = value;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9f53a1a2fe3L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
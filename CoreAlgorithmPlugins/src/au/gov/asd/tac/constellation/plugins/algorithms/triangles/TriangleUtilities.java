@@ -17,7 +17,15 @@ package au.gov.asd.tac.constellation.plugins.algorithms.triangles;
 
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.utilities.datastructure.Tuple;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  *
@@ -25,6 +33,304 @@ import java.util.BitSet;
  */
 public class TriangleUtilities {
 
+    // graphs with fewer links than this are enumerated on the calling thread
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * Receives the triangles found by
+     * {@link #forEachTriangle(LinkAdjacency, TriangleConsumer)}.
+     */
+    @FunctionalInterface
+    public interface TriangleConsumer {
+
+        /**
+         * Accept a triangle. Vertices are given by position, and links by
+         * link position.
+         *
+         * @param vertexOne The first vertex of the triangle.
+         * @param vertexTwo The second vertex of the triangle.
+         * @param vertexThree The third vertex of the triangle.
+         * @param linkOneTwo The link between the first and second vertices.
+         * @param linkOneThree The link between the first and third vertices.
+         * @param linkTwoThree The link between the second and third vertices.
+         */
+        void accept(final int vertexOne, final int vertexTwo, final int vertexThree, final int linkOneTwo, final int linkOneThree, final int linkTwoThree);
+    }
+
+    /**
+     * The links of a graph as an undirected simple graph over vertex
+     * positions, ignoring loops. Each vertex has a row of its neighbours,
+     * sorted by position, together with the position of the link to each.
+     */
+    public static final class LinkAdjacency {
+
+        private final int vertexCount;
+        private final int[] offsets;
+        private final int[] neighbours;
+        private final int[] links;
+        private final int[] linkLowVertices;
+        private final int[] linkHighVertices;
+
+        public LinkAdjacency(final GraphReadMethods graph) {
+            vertexCount = graph.getVertexCount();
+            final int linkCount = graph.getLinkCount();
+            linkLowVertices = new int[linkCount];
+            linkHighVertices = new int[linkCount];
+            offsets = new int[vertexCount + 1];
+            for (int linkPosition = 0; linkPosition < linkCount; linkPosition++) {
+                final int linkId = graph.getLink(linkPosition);
+                final int low = graph.getVertexPosition(graph.getLinkLowVertex(linkId));
+                final int high = graph.getVertexPosition(graph.getLinkHighVertex(linkId));
+                if (low == high) {
+                    linkLowVertices[linkPosition] = -1;
+                    linkHighVertices[linkPosition] = -1;
+                } else {
+                    linkLowVertices[linkPosition] = low;
+                    linkHighVertices[linkPosition] = high;
+                    offsets[low + 1]++;
+                    offsets[high + 1]++;
+                }
+            }
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                offsets[vertex + 1] += offsets[vertex];
+            }
+
+            // fill each row as neighbour and link packed together, so sorting orders by neighbour
+            final long[] entries = new long[offsets[vertexCount]];
+            final int[] next = Arrays.copyOf(offsets, vertexCount);
+            for (int linkPosition = 0; linkPosition < linkCount; linkPosition++) {
+                final int low = linkLowVertices[linkPosition];
+                final int high = linkHighVertices[linkPosition];
+                if (low != -1) {
+                    entries[next[low]++] = ((long) high << 32) | linkPosition;
+                    entries[next[high]++] = ((long) low << 32) | linkPosition;
+                }
+            }
+            neighbours = new int[entries.length];
+            links = new int[entries.length];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                Arrays.sort(entries, offsets[vertex], offsets[vertex + 1]);
+                for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+                    neighbours[i] = (int) (entries[i] >>> 32);
+                    links[i] = (int) entries[i];
+                }
+            }
+        }
+
+        public int getVertexCount() {
+            return vertexCount;
+        }
+
+        public int getLinkCount() {
+            return linkLowVertices.length;
+        }
+
+        /**
+         * The offset of each vertex's row in the neighbour and link arrays,
+         * with one extra entry holding the total length.
+         *
+         * @return The row offsets, by vertex position.
+         */
+        public int[] getOffsets() {
+            return offsets;
+        }
+
+        public int[] getNeighbours() {
+            return neighbours;
+        }
+
+        public int[] getLinks() {
+            return links;
+        }
+
+        public int getDegree(final int vertex) {
+            return offsets[vertex + 1] - offsets[vertex];
+        }
+
+        /**
+         * The position of the lower of the two vertices of a link, or -1 if
+         * the link is a loop.
+         *
+         * @param link The position of the link.
+         * @return The position of the vertex.
+         */
+        public int getLinkLowVertex(final int link) {
+            return linkLowVertices[link];
+        }
+
+        /**
+         * The position of the higher of the two vertices of a link, or -1 if
+         * the link is a loop.
+         *
+         * @param link The position of the link.
+         * @return The position of the vertex.
+         */
+        public int getLinkHighVertex(final int link) {
+            return linkHighVertices[link];
+        }
+
+        /**
+         * Find the link between two vertices.
+         *
+         * @param vertex The position of one vertex.
+         * @param neighbour The position of the other vertex.
+         * @return The position of the link, or -1 if they are not linked.
+         */
+        public int findLink(final int vertex, final int neighbour) {
+            final int index = Arrays.binarySearch(neighbours, offsets[vertex], offsets[vertex + 1], neighbour);
+            return index < 0 ? -1 : links[index];
+        }
+    }
+
+    /**
+     * Enumerate every triangle of a graph exactly once.
+     * <p>
+     * Each link is oriented from the vertex with the lower degree to the
+     * vertex with the higher degree, and the triangles of each vertex are
+     * found by intersecting its outgoing row with the outgoing rows of its
+     * outgoing neighbours. No vertex has more than the square root of twice
+     * the number of links going out, so this takes O(m^1.5) time. Large
+     * graphs are split between threads by vertex, so the consumer must be
+     * safe to call from several threads at once.
+     *
+     * @param adjacency The links of the graph.
+     * @param consumer Receives each triangle, with the vertices in the order
+     * of the orientation.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public static void forEachTriangle(final LinkAdjacency adjacency, final TriangleConsumer consumer) throws InterruptedException {
+        final int vertexCount = adjacency.getVertexCount();
+        final int[] offsets = adjacency.getOffsets();
+        final int[] neighbours = adjacency.getNeighbours();
+        final int[] links = adjacency.getLinks();
+
+        // keep the outgoing part of each row, which stays sorted by position
+        final int[] outOffsets = new int[vertexCount + 1];
+        final int[] outNeighbours = new int[neighbours.length / 2];
+        final int[] outLinks = new int[neighbours.length / 2];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int size = outOffsets[vertex];
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+                if (isOutgoing(adjacency, vertex, neighbours[i])) {
+                    outNeighbours[size] = neighbours[i];
+                    outLinks[size++] = links[i];
+                }
+            }
+            outOffsets[vertex + 1] = size;
+        }
+
+        final int processors = Runtime.getRuntime().availableProcessors();
+        if (processors < 2 || outNeighbours.length < PARALLEL_THRESHOLD) {
+            enumerate(0, vertexCount, outOffsets, outNeighbours, outLinks, consumer);
+            return;
+        }
+
+        // split the vertices so each thread has about the same number of row entries to intersect
+        final long[] work = new long[vertexCount + 1];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            long vertexWork = 0;
+            for (int i = outOffsets[vertex]; i < outOffsets[vertex + 1]; i++) {
+                final int neighbour = outNeighbours[i];
+                vertexWork += (outOffsets[vertex + 1] - outOffsets[vertex]) + (outOffsets[neighbour + 1] - outOffsets[neighbour]);
+            }
+            work[vertex + 1] = work[vertex] + vertexWork;
+        }
+
+        final ExecutorService workers = Executors.newFixedThreadPool(processors);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(processors);
+            int start = 0;
+            for (int chunk = 0; chunk < processors; chunk++) {
+                final long target = work[vertexCount] * (chunk + 1) / processors;
+                int end = start;
+                while (end < vertexCount && (work[end + 1] <= target || chunk == processors - 1)) {
+                    end++;
+                }
+                final int chunkStart = start;
+                final int chunkEnd = end;
+                futures.add(workers.submit(() -> {
+                    enumerate(chunkStart, chunkEnd, outOffsets, outNeighbours, outLinks, consumer);
+                    return null;
+                }));
+                start = end;
+            }
+
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof InterruptedException) {
+                throw (InterruptedException) ex.getCause();
+            } else if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Whether a link goes out from a vertex, which is when the vertex has
+     * the lower degree, or the lower position if the degrees are equal.
+     */
+    private static boolean isOutgoing(final LinkAdjacency adjacency, final int vertex, final int neighbour) {
+        final int degree = adjacency.getDegree(vertex);
+        final int neighbourDegree = adjacency.getDegree(neighbour);
+        return degree < neighbourDegree || (degree == neighbourDegree && vertex < neighbour);
+    }
+
+    private static void enumerate(final int start, final int end, final int[] outOffsets, final int[] outNeighbours, final int[] outLinks, final TriangleConsumer consumer) throws InterruptedException {
+        for (int vertex = start; vertex < end; vertex++) {
+            if ((vertex & 1023) == 0 && Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            final int vertexEnd = outOffsets[vertex + 1];
+            for (int i = outOffsets[vertex]; i < vertexEnd; i++) {
+                final int neighbour = outNeighbours[i];
+                final int neighbourEnd = outOffsets[neighbour + 1];
+
+                // intersect the two sorted rows
+                int a = outOffsets[vertex];
+                int b = outOffsets[neighbour];
+                while (a < vertexEnd && b < neighbourEnd) {
+                    if (outNeighbours[a] < outNeighbours[b]) {
+                        a++;
+                    } else if (outNeighbours[a] > outNeighbours[b]) {
+                        b++;
+                    } else {
+                        consumer.accept(vertex, neighbour, outNeighbours[a], outLinks[i], outLinks[a], outLinks[b]);
+                        a++;
+                        b++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Count the triangles that each link is part of.
+     *
+     * @param adjacency The links of the graph.
+     * @return The number of triangles each link is part of, by link
+     * position. Loops are in no triangles.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    public static int[] countLinkTriangles(final LinkAdjacency adjacency) throws InterruptedException {
+        final AtomicIntegerArray counts = new AtomicIntegerArray(adjacency.getLinkCount());
+        forEachTriangle(adjacency, (vertexOne, vertexTwo, vertexThree, linkOneTwo, linkOneThree, linkTwoThree) -> {
+            counts.incrementAndGet(linkOneTwo);
+            counts.incrementAndGet(linkOneThree);
+            counts.incrementAndGet(linkTwoThree);
+        });
+
+        final int[] triangles = new int[counts.length()];
+        for (int link = 0; link < triangles.length; link++) {
+            triangles[link] = counts.get(link);
+        }
+        return triangles;
+    }
+
     /*
      This method counts the number of triangles each vertex is in
      Returning a tuple where the first entry is a list of neighbours each node
@@ -20,6 +20,7 @@ import au.gov.asd.tac.constellation.graph.schema.Schema;
 import au.gov.asd.tac.constellation.graph.schema.SchemaFactoryUtilities;
 import au.gov.asd.tac.constellation.graph.schema.analytic.AnalyticSchemaFactory;
 import org.ejml.simple.SimpleMatrix;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
@@ -201,6 +202,95 @@ public class MatrixUtilitiesNGTest {
         assertTrue(isEqual(result, expResult, 1E-3));
     }
 
+    /**
+     * Test of the sparse matrix methods of class MatrixUtilities, which should
+     * agree with their dense equivalents.
+     */
+    @Test
+    public void testSparseMatrices() {
+        assertTrue(isEqual(toDense(MatrixUtilities.sparseIdentity(graph)), MatrixUtilities.identity(graph), 1E-9));
+        assertTrue(isEqual(toDense(MatrixUtilities.sparseAdjacency(graph, false)), MatrixUtilities.adjacency(graph, false), 1E-9));
+        assertTrue(isEqual(toDense(MatrixUtilities.sparseIncidence(graph, false)), MatrixUtilities.incidence(graph, false), 1E-9));
+        assertTrue(isEqual(toDense(MatrixUtilities.sparseDegree(graph)), MatrixUtilities.degree(graph), 1E-9));
+
+        final SparseMatrix laplacian = MatrixUtilities.sparseLaplacian(graph);
+        assertTrue(isEqual(toDense(laplacian), MatrixUtilities.laplacian(graph), 1E-9));
+        assertEquals(laplacian.getNonZeroCount(), 15);
+        assertEquals(laplacian.get(1, 3), -1.0);
+        assertEquals(laplacian.get(0, 4), 0.0);
+        assertTrue(isEqual(toDense(laplacian.transpose()), toDense(laplacian), 1E-9));
+    }
+
+    /**
+     * Test that loops are counted at both ends in the sparse matrices.
+     */
+    @Test
+    public void testSparseLoops() {
+        graph.addTransaction(vxId4, vxId4, false);
+        assertEquals(MatrixUtilities.sparseAdjacency(graph, false).get(4, 4), 2.0);
+        assertEquals(MatrixUtilities.sparseDegree(graph).get(4, 4), 3.0);
+
+        final SparseMatrix laplacian = MatrixUtilities.sparseLaplacian(graph);
+        final double[] ones = {1, 1, 1, 1, 1};
+        for (final double rowSum : laplacian.multiply(ones)) {
+            assertEquals(rowSum, 0.0);
+        }
+    }
+
+    /**
+     * Test of conjugateGradient method, of class MatrixUtilities.
+     */
+    @Test
+    public void testConjugateGradient() {
+        final SparseMatrix laplacian = MatrixUtilities.sparseLaplacian(graph);
+        final SimpleMatrix inverseLaplacian = MatrixUtilities.inverseLaplacian(graph);
+
+        // The resistance between vertices 1 and 3 is the potential difference for a unit current.
+        final double[] b = new double[5];
+        b[1] = 1;
+        b[3] = -1;
+        final double[] x = MatrixUtilities.conjugateGradient(laplacian, b, 1E-12, 100);
+        final double expected = inverseLaplacian.get(1, 1) + inverseLaplacian.get(3, 3) - inverseLaplacian.get(1, 3) - inverseLaplacian.get(3, 1);
+        assertEquals(x[1] - x[3], expected, 1E-9);
+        assertEquals(x[1] - x[3], 2.0 / 3.0, 1E-9);
+
+        final double[] residual = laplacian.multiply(x);
+        for (int i = 0; i < b.length; i++) {
+            assertEquals(residual[i], b[i], 1E-9);
+        }
+    }
+
+    /**
+     * Test of powerIteration method, of class MatrixUtilities.
+     */
+    @Test
+    public void testPowerIteration() {
+        // a triangle with a pendant vertex is not bipartite, so power iteration converges
+        graph.addTransaction(vxId0, vxId4, false);
+        final SparseMatrix adjacency = MatrixUtilities.sparseAdjacency(graph, false);
+        final double[] eigenvector = MatrixUtilities.powerIteration(adjacency, 1E-12, 1000);
+
+        final double[] product = adjacency.multiply(eigenvector);
+        final double eigenvalue = product[1] / eigenvector[1];
+        double norm = 0;
+        for (int i = 0; i < eigenvector.length; i++) {
+            assertEquals(product[i], eigenvalue * eigenvector[i], 1E-6);
+            assertTrue(eigenvector[i] > 0);
+            norm += eigenvector[i] * eigenvector[i];
+        }
+        assertEquals(norm, 1.0, 1E-9);
+    }
+
+    private SimpleMatrix toDense(final SparseMatrix sparse) {
+        final SimpleMatrix dense = new SimpleMatrix(sparse.getRowCount(), sparse.getColumnCount());
+        for (int row = 0; row < sparse.getRowCount(); row++) {
+            for (int entry = sparse.getRowStart(row); entry < sparse.getRowEnd(row); entry++) {
+                dense.set(row, sparse.getEntryColumn(entry), sparse.getEntryValue(entry));
+            }
+        }
+        return dense;
+    }
+
     private boolean isEqual(final SimpleMatrix one, final SimpleMatrix two, final double tolerance) {
         if (one.getNumElements() != two.getNumElements()
                 || one.getMatrix().getNumRows() != two.getMatrix().getNumRows()
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.clustering.hierarchical;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.plugins.algorithms.clustering.ClusteringConcept;
+import au.gov.asd.tac.constellation.plugins.text.TextPluginInteraction;
+import java.util.HashSet;
+import java.util.Set;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Fast Newman Test.
+ *
+ * @author sirius
+ */
+public class FastNewmanNGTest {
+
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        graph = new StoreGraph();
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        graph = null;
+    }
+
+    private int[] addClique(final int size) {
+        final int[] vertices = new int[size];
+        for (int i = 0; i < size; i++) {
+            vertices[i] = graph.addVertex();
+            for (int j = 0; j < i; j++) {
+                graph.addTransaction(vertices[j], vertices[i], false);
+            }
+        }
+        return vertices;
+    }
+
+    private HierarchicalState run(final Set<Integer> initialLinkIds) throws InterruptedException {
+        FastNewman.run(graph, new TextPluginInteraction(), false, initialLinkIds, null);
+        return (HierarchicalState) graph.getObjectValue(ClusteringConcept.MetaAttribute.HIERARCHICAL_CLUSTERING_STATE.get(graph), 0);
+    }
+
+    private FastNewman.Group clusterOf(final HierarchicalState state, final int vertex) {
+        FastNewman.Group group = state.groups[graph.getVertexPosition(vertex)];
+        while (group.getMergeStep() <= state.currentStep) {
+            group = group.getParent();
+        }
+        return group;
+    }
+
+    @Test
+    public void testCliques() throws Exception {
+        final int[] cliqueOne = addClique(5);
+        final int[] cliqueTwo = addClique(5);
+        graph.addTransaction(cliqueOne[0], cliqueTwo[0], true);
+
+        final HierarchicalState state = run(new HashSet<>());
+        assertEquals(state.steps, 9);
+        assertEquals(state.getCurrentNumOfClusters(), 2);
+        for (int i = 1; i < 5; i++) {
+            assertEquals(clusterOf(state, cliqueOne[i]), clusterOf(state, cliqueOne[0]));
+            assertEquals(clusterOf(state, cliqueTwo[i]), clusterOf(state, cliqueTwo[0]));
+        }
+        assertNotEquals(clusterOf(state, cliqueOne[0]), clusterOf(state, cliqueTwo[0]));
+
+        // every group but the last is merged, and every group has a color
+        int roots = 0;
+        for (int position = 0; position < graph.getVertexCount(); position++) {
+            final FastNewman.Group group = state.groups[position];
+            assertNotEquals(group.getColor(), null);
+            if (group.getParent() == null) {
+                roots++;
+            } else {
+                assertTrue(group.getMergeStep() <= state.steps);
+                assertTrue(group.getParent().getMergeStep() > group.getMergeStep());
+            }
+        }
+        assertEquals(roots, 1);
+    }
+
+    @Test
+    public void testInitialLinks() throws Exception {
+        final int[] clique = addClique(4);
+        final int pendant = graph.addVertex();
+        graph.addTransaction(clique[0], pendant, true);
+        final int isolated = graph.addVertex();
+
+        final Set<Integer> initialLinkIds = new HashSet<>();
+        initialLinkIds.add(graph.getLink(clique[0], pendant));
+        final HierarchicalState state = run(initialLinkIds);
+
+        // the initial link is merged before the first step, and isolated vertices are never merged
+        assertEquals(state.groups[graph.getVertexPosition(pendant)].getMergeStep(), 0);
+        assertEquals(state.groups[graph.getVertexPosition(pendant)].getParent(), state.groups[graph.getVertexPosition(clique[0])]);
+        assertEquals(state.groups[graph.getVertexPosition(clique[1])].getMergeStep() > 0, true);
+        assertNull(state.groups[graph.getVertexPosition(isolated)].getParent());
+        assertEquals(state.groups[graph.getVertexPosition(isolated)].getMergeStep(), Integer.MAX_VALUE);
+        assertEquals(state.steps, 3);
+    }
+}
@@ -58,7 +58,7 @@ public class InfoMapMainNGTest {
     public void tearDownMethod() throws Exception {
     }
 
-    private static void runInfoMap(final Config config, final GraphReadMethods rg) throws FileNotFoundException {
+    private static void runInfoMap(final Config config, final GraphReadMethods rg) throws FileNotFoundException, InterruptedException {
         final InfoMapContext context = new InfoMapContext(config, rg);
         context.getInfoMap().run();
 
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.flow;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.io.Config;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Network Test.
+ *
+ * @author algol
+ */
+public class NetworkNGTest {
+
+    private static StoreGraph createGraph() {
+        final StoreGraph graph = new StoreGraph();
+        final Random random = new Random(7);
+        final int vertexCount = 30;
+        for (int i = 0; i < vertexCount; i++) {
+            graph.addVertex();
+        }
+        for (int i = 0; i < 250; i++) {
+            graph.addTransaction(graph.getVertex(random.nextInt(vertexCount)), graph.getVertex(random.nextInt(vertexCount)), random.nextBoolean());
+        }
+
+        return graph;
+    }
+
+    private static void assertConnections(final Config config) {
+        final StoreGraph graph = createGraph();
+        final Network network = new Network(config, graph);
+        network.read();
+
+        // The connections aggregated by (end1, end2) in the way the map used to.
+        final TreeMap<Long, Double> expected = new TreeMap<>();
+        for (int position = 0; position < graph.getTransactionCount(); position++) {
+            final int transaction = graph.getTransaction(position);
+            int end1 = graph.getVertexPosition(graph.getTransactionSourceVertex(transaction));
+            int end2 = graph.getVertexPosition(graph.getTransactionDestinationVertex(transaction));
+            if (end1 == end2 && !config.isIncludeSelfLinks()) {
+                continue;
+            }
+            if (config.isUndirected() && end2 < end1) {
+                final int tmp = end1;
+                end1 = end2;
+                end2 = tmp;
+            }
+            expected.merge(((long) end1 << 32) | end2, 1.0, Double::sum);
+        }
+
+        assertEquals(network.getNumConnections(), expected.size());
+        int connection = 0;
+        for (final Map.Entry<Long, Double> entry : expected.entrySet()) {
+            assertEquals(network.getSources()[connection], (int) (entry.getKey() >> 32));
+            assertEquals(network.getTargets()[connection], (int) (long) entry.getKey());
+            assertEquals(network.getWeights()[connection], entry.getValue());
+            connection++;
+        }
+    }
+
+    @Test
+    public void testReadUndirected() {
+        final Config config = new Config();
+        config.setConnectionType(Config.ConnectionType.TRANSACTIONS);
+        assertConnections(config);
+    }
+
+    @Test
+    public void testReadDirected() {
+        final Config config = new Config();
+        config.setConnectionType(Config.ConnectionType.TRANSACTIONS);
+        config.setDirected(true);
+        config.setIncludeSelfLinks(true);
+        assertConnections(config);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.infomap;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.InfoMapContext;
+import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.NodeBase;
+import au.gov.asd.tac.constellation.plugins.algorithms.clustering.infomap.io.Config;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Infomap Base Test.
+ *
+ * @author algol
+ */
+public class InfomapBaseNGTest {
+
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        graph = new StoreGraph();
+        final Random random = new Random(3);
+        final int vertexCount = 120;
+        for (int i = 0; i < vertexCount; i++) {
+            graph.addVertex();
+        }
+        for (int i = 0; i < 4 * vertexCount; i++) {
+            final int source = random.nextInt(vertexCount);
+            final int target = random.nextDouble() < 0.8 ? Math.min(vertexCount - 1, source - source % 8 + random.nextInt(8)) : random.nextInt(vertexCount);
+            graph.addTransaction(graph.getVertex(source), graph.getVertex(target), random.nextBoolean());
+        }
+    }
+
+    private InfomapBase runParallelTrials(final int numTrials) throws InterruptedException {
+        final Config config = new Config();
+        config.setNumTrials(numTrials);
+        config.setParallelTrials(true);
+
+        final InfomapBase infomap = new InfoMapContext(config, graph).getInfoMap();
+        infomap.run();
+
+        return infomap;
+    }
+
+    /**
+     * The modules of the leaves, numbered in order of first appearance.
+     */
+    private static int[] getModules(final InfomapBase infomap) {
+        final Map<NodeBase, Integer> moduleNumbers = new HashMap<>();
+        final int[] modules = new int[infomap.getTreeData().getNumLeafNodes()];
+        for (final NodeBase leaf : infomap.getTreeData().getLeaves()) {
+            modules[leaf.getOriginalIndex()] = moduleNumbers.computeIfAbsent(leaf.getParent(), module -> moduleNumbers.size());
+        }
+
+        return modules;
+    }
+
+    /**
+     * Test that parallel trials keep the best of the trials, so more trials
+     * never give a longer codelength.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testParallelTrialsKeepBest() throws InterruptedException {
+        double previous = Double.MAX_VALUE;
+        for (int numTrials = 2; numTrials <= 6; numTrials++) {
+            final InfomapBase infomap = runParallelTrials(numTrials);
+            assertTrue(infomap.hierarchicalCodelength <= previous);
+            assertEquals(infomap.bestHierarchicalCodelength, infomap.hierarchicalCodelength);
+            assertEquals(infomap.getTreeData().getNumLeafNodes(), graph.getVertexCount());
+            previous = infomap.hierarchicalCodelength;
+        }
+    }
+
+    /**
+     * Test that parallel trials give the same result each time.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testParallelTrialsRepeatable() throws InterruptedException {
+        final InfomapBase first = runParallelTrials(4);
+        final InfomapBase second = runParallelTrials(4);
+        assertEquals(second.hierarchicalCodelength, first.hierarchicalCodelength);
+        assertEquals(getModules(second), getModules(first));
+    }
+}
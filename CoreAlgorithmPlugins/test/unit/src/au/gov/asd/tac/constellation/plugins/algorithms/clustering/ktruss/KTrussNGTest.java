@@ -0,0 +1,120 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.clustering.ktruss;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.plugins.algorithms.clustering.ClusteringConcept;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * K-Truss Test.
+ *
+ * @author sirius
+ */
+public class KTrussNGTest {
+
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        graph = new StoreGraph();
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        graph = null;
+    }
+
+    private int[] addClique(final int size) {
+        final int[] vertices = new int[size];
+        for (int i = 0; i < size; i++) {
+            vertices[i] = graph.addVertex();
+            for (int j = 0; j < i; j++) {
+                graph.addTransaction(vertices[j], vertices[i], false);
+            }
+        }
+        return vertices;
+    }
+
+    @Test
+    public void testCalculateTrussness() throws Exception {
+        final int[] clique = addClique(5);
+        final int pendant = graph.addVertex();
+        graph.addTransaction(clique[0], pendant, true);
+        final int apex = graph.addVertex();
+        graph.addTransaction(clique[1], apex, true);
+        graph.addTransaction(clique[2], apex, true);
+        graph.addTransaction(apex, apex, true);
+
+        final int[] trussness = KTruss.calculateTrussness(graph);
+        for (int i = 0; i < clique.length; i++) {
+            for (int j = 0; j < i; j++) {
+                assertEquals(trussness[graph.getLinkPosition(graph.getLink(clique[i], clique[j]))], 5);
+            }
+        }
+        assertEquals(trussness[graph.getLinkPosition(graph.getLink(clique[0], pendant))], 2);
+        assertEquals(trussness[graph.getLinkPosition(graph.getLink(clique[1], apex))], 3);
+        assertEquals(trussness[graph.getLinkPosition(graph.getLink(clique[2], apex))], 3);
+        assertEquals(trussness[graph.getLinkPosition(graph.getLink(apex, apex))], 0);
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        final int[] cliqueOne = addClique(4);
+        final int[] cliqueTwo = addClique(6);
+        graph.addTransaction(cliqueOne[0], cliqueTwo[0], true);
+        final int isolated = graph.addVertex();
+
+        KTruss.run(graph, new KTruss.KTrussPluginResultHandler(graph, false));
+
+        final int vertexKTrussAttribute = ClusteringConcept.VertexAttribute.K_TRUSS_CLUSTER.get(graph);
+        final int transactionKTrussAttribute = ClusteringConcept.TransactionAttribute.K_TRUSS_CLUSTER.get(graph);
+        for (int i = 0; i < cliqueOne.length; i++) {
+            assertEquals(graph.getIntValue(vertexKTrussAttribute, cliqueOne[i]), 4);
+        }
+        for (int i = 0; i < cliqueTwo.length; i++) {
+            assertEquals(graph.getIntValue(vertexKTrussAttribute, cliqueTwo[i]), 6);
+        }
+        assertEquals(graph.getIntValue(vertexKTrussAttribute, isolated), 0);
+        assertEquals(graph.getIntValue(transactionKTrussAttribute, graph.getLinkTransaction(graph.getLink(cliqueOne[0], cliqueTwo[0]), 0)), 0);
+        assertEquals(graph.getIntValue(transactionKTrussAttribute, graph.getLinkTransaction(graph.getLink(cliqueOne[1], cliqueOne[2]), 0)), 4);
+
+        // the bridge leaves at k = 3 and the smaller clique at k = 5
+        final KTrussState state = (KTrussState) graph.getObjectValue(ClusteringConcept.MetaAttribute.K_TRUSS_CLUSTERING_STATE.get(graph), 0);
+        assertEquals(state.getHighestK(), 7);
+        assertTrue(state.isKTrussExtant(3));
+        assertFalse(state.isKTrussExtant(4));
+        assertTrue(state.isKTrussExtant(5));
+
+        // the two cliques are nested in the component joined by the bridge, and the larger clique is nested in itself
+        assertEquals(state.getNumComponents(), 4);
+        assertEquals(state.getComponentParent(0), 0);
+        assertEquals(state.getComponentParent(1), 0);
+        assertEquals(state.getComponentParent(2), 0);
+        assertEquals(state.getComponentParent(3), 2);
+        assertEquals(state.getComponentSize(0), 10);
+        assertEquals(state.getComponentSize(1), 4);
+        assertEquals(state.getComponentSize(2), 6);
+        assertEquals(state.getComponentSize(3), 6);
+        assertTrue(state.isNodeInComponent(cliqueTwo[0], 3));
+        assertFalse(state.isNodeInComponent(cliqueOne[0], 2));
+    }
+}
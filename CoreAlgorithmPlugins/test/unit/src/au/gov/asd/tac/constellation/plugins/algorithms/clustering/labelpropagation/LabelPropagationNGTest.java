@@ -0,0 +1,143 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.clustering.labelpropagation;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.utilities.AdjacencySnapshot;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Label Propagation Test.
+ *
+ * @author algol
+ */
+public class LabelPropagationNGTest {
+
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        AdjacencySnapshot.clearCache();
+        graph = new StoreGraph();
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        AdjacencySnapshot.clearCache();
+        graph = null;
+    }
+
+    private int[] addClique(final int size) {
+        final int[] vertices = new int[size];
+        for (int i = 0; i < size; i++) {
+            vertices[i] = graph.addVertex();
+            for (int j = 0; j < i; j++) {
+                graph.addTransaction(vertices[j], vertices[i], false);
+            }
+        }
+        return vertices;
+    }
+
+    private int labelOf(final LabelPropagation propagation, final int vertex) {
+        return propagation.getLabels()[graph.getVertexPosition(vertex)];
+    }
+
+    @Test
+    public void testCliques() throws Exception {
+        final int[] cliqueOne = addClique(5);
+        final int[] cliqueTwo = addClique(5);
+        graph.addTransaction(cliqueOne[0], cliqueTwo[0], true);
+
+        for (long seed = 1; seed <= 10; seed++) {
+            final LabelPropagation propagation = new LabelPropagation(graph, false, seed);
+            assertTrue(propagation.run(100));
+
+            for (int i = 1; i < 5; i++) {
+                assertEquals(labelOf(propagation, cliqueOne[i]), labelOf(propagation, cliqueOne[0]));
+                assertEquals(labelOf(propagation, cliqueTwo[i]), labelOf(propagation, cliqueTwo[0]));
+            }
+            assertNotEquals(labelOf(propagation, cliqueOne[0]), labelOf(propagation, cliqueTwo[0]));
+        }
+    }
+
+    @Test
+    public void testWeighted() throws Exception {
+        final int[] cliqueOne = addClique(5);
+        final int[] cliqueTwo = addClique(5);
+        final int vxId = graph.addVertex();
+        for (int i = 0; i < 3; i++) {
+            graph.addTransaction(vxId, cliqueOne[0], true);
+        }
+        graph.addTransaction(vxId, cliqueTwo[0], true);
+        graph.addTransaction(vxId, cliqueTwo[1], true);
+
+        // the three transactions to the first clique outweigh the two neighbours in the second
+        final LabelPropagation weighted = new LabelPropagation(graph, true, 1);
+        assertTrue(weighted.run(100));
+        assertEquals(labelOf(weighted, vxId), labelOf(weighted, cliqueOne[1]));
+
+        final LabelPropagation unweighted = new LabelPropagation(graph, false, 1);
+        assertTrue(unweighted.run(100));
+        assertEquals(labelOf(unweighted, vxId), labelOf(unweighted, cliqueTwo[2]));
+    }
+
+    @Test
+    public void testIsolated() throws Exception {
+        final int isolated = graph.addVertex();
+        final int looped = graph.addVertex();
+        graph.addTransaction(looped, looped, true);
+
+        final LabelPropagation propagation = new LabelPropagation(graph, true, 1);
+        assertTrue(propagation.run(100));
+        assertEquals(propagation.getIterations(), 1);
+        assertEquals(labelOf(propagation, isolated), graph.getVertexPosition(isolated));
+        assertEquals(labelOf(propagation, looped), graph.getVertexPosition(looped));
+    }
+
+    @Test
+    public void testColours() throws Exception {
+        // a triangle needs three colours, and its neighbours can reuse them
+        final int[] triangle = addClique(3);
+        for (final int vertex : triangle) {
+            graph.addTransaction(vertex, graph.addVertex(), true);
+        }
+        assertEquals(new LabelPropagation(graph, false, 1).getColourCount(), 3);
+    }
+
+    @Test
+    public void testSeed() throws Exception {
+        final Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            graph.addVertex();
+        }
+        for (int i = 0; i < 600; i++) {
+            graph.addTransaction(graph.getVertex(random.nextInt(200)), graph.getVertex(random.nextInt(200)), random.nextBoolean());
+        }
+
+        final LabelPropagation first = new LabelPropagation(graph, true, 42);
+        first.run(100);
+        final LabelPropagation second = new LabelPropagation(graph, true, 42);
+        second.run(100);
+        assertEquals(second.getLabels(), first.getLabels());
+        assertEquals(second.getIterations(), first.getIterations());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.paths;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.utilities.AdjacencySnapshot;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Dijkstra Search Test.
+ *
+ * @author procyon
+ */
+public class DijkstraSearchNGTest {
+
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        graph = new StoreGraph();
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        graph = null;
+    }
+
+    private void addRandomGraph(final long seed, final int vertexCount, final int transactionCount) {
+        final Random random = new Random(seed);
+        final int[] vertices = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i] = graph.addVertex();
+        }
+        for (int i = 0; i < transactionCount; i++) {
+            graph.addTransaction(vertices[random.nextInt(vertexCount)], vertices[random.nextInt(vertexCount)], random.nextBoolean());
+        }
+    }
+
+    /**
+     * The number of hops from a vertex to every other, following the out arcs
+     * of the snapshot, or backwards along the in arcs.
+     */
+    private static int[] hops(final AdjacencySnapshot adjacency, final int start, final boolean forwards) {
+        final int[] offsets = forwards ? adjacency.getOutOffsets() : adjacency.getInOffsets();
+        final int[] targets = forwards ? adjacency.getOutTargets() : adjacency.getInSources();
+        final int[] hops = new int[adjacency.getVertexCount()];
+        Arrays.fill(hops, Integer.MAX_VALUE);
+        hops[start] = 0;
+        final Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            final int vertex = queue.remove();
+            for (int arc = offsets[vertex]; arc < offsets[vertex + 1]; arc++) {
+                if (hops[targets[arc]] == Integer.MAX_VALUE) {
+                    hops[targets[arc]] = hops[vertex] + 1;
+                    queue.add(targets[arc]);
+                }
+            }
+        }
+        return hops;
+    }
+
+    /**
+     * The vertices on any shortest path from the source to the target.
+     */
+    private static BitSet onShortestPaths(final AdjacencySnapshot adjacency, final int source, final int target) {
+        final int[] from = hops(adjacency, source, true);
+        final int[] to = hops(adjacency, target, false);
+        final BitSet vertices = new BitSet();
+        if (source != target && from[target] != Integer.MAX_VALUE) {
+            for (int vertex = 0; vertex < adjacency.getVertexCount(); vertex++) {
+                if (from[vertex] != Integer.MAX_VALUE && to[vertex] != Integer.MAX_VALUE && from[vertex] + to[vertex] == from[target]) {
+                    vertices.set(vertex);
+                }
+            }
+        }
+        return vertices;
+    }
+
+    @Test
+    public void testMarkPair() throws Exception {
+        for (int seed = 0; seed < 20; seed++) {
+            setUpMethod();
+            addRandomGraph(seed, 60, 90);
+            for (final boolean directed : new boolean[]{false, true}) {
+                final AdjacencySnapshot adjacency = AdjacencySnapshot.build(graph, directed, StoreGraph.NOT_FOUND, StoreGraph.NOT_FOUND);
+                for (int target = 1; target < 60; target += 7) {
+                    final DijkstraSearch search = new DijkstraSearch(adjacency);
+                    final double distance = search.markPaths(0, target);
+                    final int hops = hops(adjacency, 0, true)[target];
+                    assertEquals(distance, hops == Integer.MAX_VALUE ? Double.POSITIVE_INFINITY : hops);
+                    assertEquals(search.getVertices(), onShortestPaths(adjacency, 0, target));
+
+                    final int[] path = DijkstraSearch.getPath(adjacency, 0, target);
+                    assertEquals(path.length, hops == Integer.MAX_VALUE ? 0 : hops + 1);
+                    for (int i = 0; i + 1 < path.length; i++) {
+                        assertTrue(graph.getLink(adjacency.getVertex(path[i]), adjacency.getVertex(path[i + 1])) != StoreGraph.NOT_FOUND);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMarkManySources() throws Exception {
+        addRandomGraph(42, 200, 300);
+        final AdjacencySnapshot adjacency = AdjacencySnapshot.build(graph, false, StoreGraph.NOT_FOUND, StoreGraph.NOT_FOUND);
+        final int[] sources = {3, 17, 40, 99};
+        final int[][] targets = {{17, 40, 99, 150}, {40, 99, 150}, {99, 150}, {150}};
+
+        final DijkstraSearch search = new DijkstraSearch(adjacency);
+        search.markPaths(sources, targets);
+
+        final BitSet expected = new BitSet();
+        for (int i = 0; i < sources.length; i++) {
+            for (final int target : targets[i]) {
+                expected.or(onShortestPaths(adjacency, sources[i], target));
+            }
+        }
+        assertEquals(search.getVertices(), expected);
+
+        // every marked transaction joins two marked vertices
+        final BitSet transactions = search.getTransactions();
+        for (int tx = transactions.nextSetBit(0); tx >= 0; tx = transactions.nextSetBit(tx + 1)) {
+            assertTrue(expected.get(adjacency.getIndex(graph.getTransactionSourceVertex(tx))));
+            assertTrue(expected.get(adjacency.getIndex(graph.getTransactionDestinationVertex(tx))));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.Schema;
+import au.gov.asd.tac.constellation.graph.schema.SchemaFactoryUtilities;
+import au.gov.asd.tac.constellation.graph.schema.analytic.AnalyticSchemaFactory;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.BrandesPathScoring.PathScores;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PathScoringUtilities.ScoreType;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Brandes Path Scoring Test.
+ *
+ * @author cygnus_x-1
+ */
+public class BrandesPathScoringNGTest {
+
+    private int vxId0, vxId1, vxId2, vxId3, vxId4, vxId5, vxId6;
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        // create an analytic graph
+        final Schema schema = SchemaFactoryUtilities.getSchemaFactory(AnalyticSchemaFactory.ANALYTIC_SCHEMA_ID).createSchema();
+        graph = new StoreGraph(schema);
+        VisualConcept.VertexAttribute.SELECTED.ensure(graph);
+
+        // add vertices
+        vxId0 = graph.addVertex();
+        vxId1 = graph.addVertex();
+        vxId2 = graph.addVertex();
+        vxId3 = graph.addVertex();
+        vxId4 = graph.addVertex();
+        vxId5 = graph.addVertex();
+        vxId6 = graph.addVertex();
+
+        // add transactions, including a square with two shortest paths across it
+        graph.addTransaction(vxId0, vxId1, true);
+        graph.addTransaction(vxId0, vxId2, true);
+        graph.addTransaction(vxId1, vxId3, true);
+        graph.addTransaction(vxId2, vxId3, true);
+        graph.addTransaction(vxId3, vxId4, true);
+        graph.addTransaction(vxId4, vxId4, true);
+        graph.addTransaction(vxId5, vxId6, false);
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        graph = null;
+    }
+
+    @Test
+    public void testUndirectedBetweenness() throws Exception {
+        final PathScores result = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, false, 0, 1);
+        final float[] scores = result.getScores();
+
+        // ordered pairs are counted, and shortest paths are shared equally
+        assertEquals(scores[graph.getVertexPosition(vxId0)], 1f);
+        assertEquals(scores[graph.getVertexPosition(vxId1)], 2f);
+        assertEquals(scores[graph.getVertexPosition(vxId2)], 2f);
+        assertEquals(scores[graph.getVertexPosition(vxId3)], 7f);
+        assertEquals(scores[graph.getVertexPosition(vxId4)], 0f);
+        assertEquals(scores[graph.getVertexPosition(vxId5)], 0f);
+
+        final int[] components = result.getComponents();
+        assertEquals(components[graph.getVertexPosition(vxId0)], 0);
+        assertEquals(components[graph.getVertexPosition(vxId4)], 0);
+        assertEquals(components[graph.getVertexPosition(vxId5)], 1);
+        assertEquals(components[graph.getVertexPosition(vxId6)], 1);
+    }
+
+    @Test
+    public void testDirectedBetweenness() throws Exception {
+        final float[] scores = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, false, true, true, false, 0, 1).getScores();
+
+        assertEquals(scores[graph.getVertexPosition(vxId1)], 1f);
+        assertEquals(scores[graph.getVertexPosition(vxId2)], 1f);
+        assertEquals(scores[graph.getVertexPosition(vxId3)], 3f);
+
+        // the same scores come from following transactions backwards
+        final float[] inScores = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, false, true, false, 0, 1).getScores();
+        assertEquals(inScores[graph.getVertexPosition(vxId3)], 3f);
+    }
+
+    @Test
+    public void testSelectedBetweenness() throws Exception {
+        final int selectedAttribute = VisualConcept.VertexAttribute.SELECTED.get(graph);
+        graph.setBooleanValue(selectedAttribute, vxId0, true);
+        graph.setBooleanValue(selectedAttribute, vxId4, true);
+
+        final float[] scores = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, true, 0, 1).getScores();
+        assertEquals(scores[graph.getVertexPosition(vxId1)], 1f);
+        assertEquals(scores[graph.getVertexPosition(vxId3)], 2f);
+        assertEquals(scores[graph.getVertexPosition(vxId0)], 0f);
+    }
+
+    @Test
+    public void testSampledBetweenness() throws Exception {
+        // a sample at least as large as the graph is exact
+        final float[] scores = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, false, 100, 1).getScores();
+        assertEquals(scores[graph.getVertexPosition(vxId3)], 7f);
+
+        // a partial sample is scaled up from 3 sources to 7, and each source contributes multiples of a half
+        final float[] sampled = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, false, 3, 1).getScores();
+        for (final float score : sampled) {
+            final double halves = score * 3.0 / 7.0 * 2.0;
+            assertEquals(halves, Math.rint(halves), 1E-5);
+        }
+    }
+
+    @Test
+    public void testCloseness() throws Exception {
+        final float[] scores = BrandesPathScoring.calculateScores(graph, ScoreType.CLOSENESS, false, true, true, false, 0, 1).getScores();
+        assertEquals(scores[graph.getVertexPosition(vxId0)], 1f / 7f);
+        assertEquals(scores[graph.getVertexPosition(vxId3)], 1f);
+        assertEquals(scores[graph.getVertexPosition(vxId4)], 0f);
+        assertEquals(scores[graph.getVertexPosition(vxId5)], 1f);
+
+        // undirected transactions are ignored when they are not bidirectional
+        final float[] directedScores = BrandesPathScoring.calculateScores(graph, ScoreType.CLOSENESS, false, true, false, false, 0, 1).getScores();
+        assertEquals(directedScores[graph.getVertexPosition(vxId5)], 0f);
+
+        final float[] harmonicScores = BrandesPathScoring.calculateScores(graph, ScoreType.HARMONIC_FARNESS, true, true, true, false, 0, 1).getScores();
+        assertEquals(harmonicScores[graph.getVertexPosition(vxId5)], 2f);
+    }
+
+    @Test
+    public void testSampledBetweennessIsSeeded() throws Exception {
+        final float[] first = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, false, 3, 42).getScores();
+        final float[] second = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, false, 3, 42).getScores();
+        assertEquals(second, first);
+    }
+
+    @Test
+    public void testReachableCounts() throws Exception {
+        // directed, so the count depends on where the search starts within a component
+        final PathScores result = BrandesPathScoring.calculateScores(graph, ScoreType.CLOSENESS, false, true, false, false, 0, 0);
+        final int[] counts = result.getReachableCounts();
+        assertEquals(counts[graph.getVertexPosition(vxId0)], 5);
+        assertEquals(counts[graph.getVertexPosition(vxId3)], 2);
+        assertEquals(counts[graph.getVertexPosition(vxId4)], 1);
+        assertEquals(counts[graph.getVertexPosition(vxId5)], 1);
+
+        // vertices left out of a sample are searched when their counts are requested
+        final int[] sampledCounts = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, false, true, true, false, 1, 1).getReachableCounts();
+        assertEquals(sampledCounts[graph.getVertexPosition(vxId0)], 5);
+        assertEquals(sampledCounts[graph.getVertexPosition(vxId2)], 3);
+        assertEquals(sampledCounts[graph.getVertexPosition(vxId5)], 2);
+
+        // only selected vertices are counted when scoring selected vertices
+        final int selectedAttribute = VisualConcept.VertexAttribute.SELECTED.get(graph);
+        graph.setBooleanValue(selectedAttribute, vxId0, true);
+        graph.setBooleanValue(selectedAttribute, vxId4, true);
+        final int[] selectedCounts = BrandesPathScoring.calculateScores(graph, ScoreType.CLOSENESS, true, true, true, true, 0, 0).getReachableCounts();
+        assertEquals(selectedCounts[graph.getVertexPosition(vxId1)], 2);
+        assertEquals(selectedCounts[graph.getVertexPosition(vxId6)], 0);
+    }
+}
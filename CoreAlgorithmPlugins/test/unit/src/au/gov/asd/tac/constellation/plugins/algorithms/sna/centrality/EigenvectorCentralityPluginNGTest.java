@@ -106,9 +106,9 @@ public class EigenvectorCentralityPluginNGTest {
         PluginExecution.withPlugin(instance).withParameters(parameters).executeNow(graph);
 
         assertEquals(graph.getFloatValue(vertexEigenvectorAttribute, vxId0), 0.11620406f);
-        assertEquals(graph.getFloatValue(vertexEigenvectorAttribute, vxId1), 0.2675919f);
+        assertEquals(graph.getFloatValue(vertexEigenvectorAttribute, vxId1), 0.26759186f);
         assertEquals(graph.getFloatValue(vertexEigenvectorAttribute, vxId2), 0.23240812f);
-        assertEquals(graph.getFloatValue(vertexEigenvectorAttribute, vxId3), 0.2675919f);
+        assertEquals(graph.getFloatValue(vertexEigenvectorAttribute, vxId3), 0.26759186f);
         assertEquals(graph.getFloatValue(vertexEigenvectorAttribute, vxId4), 0.11620406f);
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.utilities.AdjacencySnapshot;
+import au.gov.asd.tac.constellation.plugins.algorithms.SparseMatrix;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PowerIteration.Normalisation;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Power Iteration Test.
+ *
+ * @author cygnus_x-1
+ */
+public class PowerIterationNGTest {
+
+    private int vxId0, vxId1, vxId2, vxId3;
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        AdjacencySnapshot.clearCache();
+        graph = new StoreGraph();
+
+        // add vertices
+        vxId0 = graph.addVertex();
+        vxId1 = graph.addVertex();
+        vxId2 = graph.addVertex();
+        vxId3 = graph.addVertex();
+
+        // add transactions, including parallel transactions, an undirected transaction and a loop
+        graph.addTransaction(vxId0, vxId1, true);
+        graph.addTransaction(vxId0, vxId1, true);
+        graph.addTransaction(vxId1, vxId2, true);
+        graph.addTransaction(vxId2, vxId0, false);
+        graph.addTransaction(vxId3, vxId3, true);
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        AdjacencySnapshot.clearCache();
+        graph = null;
+    }
+
+    @Test
+    public void testNeighbourLinks() {
+        final SparseMatrix links = PowerIteration.neighbourLinks(graph);
+        final int p0 = graph.getVertexPosition(vxId0);
+        final int p1 = graph.getVertexPosition(vxId1);
+        final int p2 = graph.getVertexPosition(vxId2);
+        final int p3 = graph.getVertexPosition(vxId3);
+
+        // each pair of neighbours is counted once, and loops are ignored
+        assertEquals(links.getNonZeroCount(), 6);
+        assertEquals(links.get(p0, p1), 1.0);
+        assertEquals(links.get(p1, p0), 1.0);
+        assertEquals(links.get(p0, p2), 1.0);
+        assertEquals(links.get(p3, p3), 0.0);
+    }
+
+    @Test
+    public void testInLinks() {
+        final int p0 = graph.getVertexPosition(vxId0);
+        final int p1 = graph.getVertexPosition(vxId1);
+        final int p2 = graph.getVertexPosition(vxId2);
+
+        final SparseMatrix directed = PowerIteration.inLinks(graph, false);
+        assertEquals(directed.getNonZeroCount(), 2);
+        assertEquals(directed.get(p1, p0), 2.0);
+        assertEquals(directed.get(p2, p1), 1.0);
+        assertEquals(directed.get(p0, p2), 0.0);
+
+        final SparseMatrix undirected = PowerIteration.inLinks(graph, true);
+        assertEquals(undirected.getNonZeroCount(), 4);
+        assertEquals(undirected.get(p0, p2), 1.0);
+        assertEquals(undirected.get(p2, p0), 1.0);
+    }
+
+    @Test
+    public void testIterate() throws Exception {
+        // a directed cycle is stable once every vertex has the same value
+        final SparseMatrix cycle = new SparseMatrix(3, 3, new int[]{0, 1, 2, 3}, new int[]{2, 0, 1}, new double[]{1, 1, 1});
+        final double[] values = {0.5, 0.3, 0.2};
+        try (final PowerIteration engine = new PowerIteration(3)) {
+            final int iterations = engine.iterate(cycle, null, values, product -> 0.5 * product + 0.5 / 3, Normalisation.NONE, 1E-10, 1000);
+            assertTrue(iterations < 1000);
+        }
+
+        for (final double value : values) {
+            assertEquals(value, 1.0 / 3, 1E-10);
+        }
+    }
+
+    @Test
+    public void testDangling() throws Exception {
+        // vertex 1 has no outgoing links, so its value is spread over every vertex
+        final SparseMatrix links = new SparseMatrix(2, 2, new int[]{0, 0, 1}, new int[]{0}, new double[]{1});
+        final double[] values = {0.5, 0.5};
+        try (final PowerIteration engine = new PowerIteration(2)) {
+            engine.iterate(links, new double[]{0, 0.5}, values, product -> product, Normalisation.NONE, 1E-12, 1000);
+        }
+
+        assertEquals(values[0] + values[1], 1.0, 1E-12);
+        assertEquals(values[0], 1.0 / 3, 1E-10);
+        assertEquals(values[1], 2.0 / 3, 1E-10);
+    }
+
+    @Test
+    public void testStep() throws Exception {
+        final SparseMatrix links = new SparseMatrix(2, 2, new int[]{0, 1, 3}, new int[]{1, 0, 1}, new double[]{3, 1, 3});
+        final double[] input = {1, 1};
+        final double[] output = {0, 0};
+        try (final PowerIteration engine = new PowerIteration(2)) {
+            final double residual = engine.step(links, null, input, output, product -> product, Normalisation.EUCLIDEAN);
+            assertEquals(output[0], 0.6, 1E-12);
+            assertEquals(output[1], 0.8, 1E-12);
+            assertEquals(residual, 1.4, 1E-12);
+
+            engine.step(links, null, input, output, product -> product, Normalisation.MAX);
+            assertEquals(output[0], 0.75, 1E-12);
+            assertEquals(output[1], 1.0, 1E-12);
+
+            engine.step(links, null, input, output, product -> product, Normalisation.SUM);
+            assertEquals(output[0], 3.0 / 7, 1E-12);
+            assertEquals(output[1], 4.0 / 7, 1E-12);
+        }
+
+        // the input is not modified
+        assertEquals(input[0], 1.0);
+        assertEquals(input[1], 1.0);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.similarity;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.Schema;
+import au.gov.asd.tac.constellation.graph.schema.SchemaFactoryUtilities;
+import au.gov.asd.tac.constellation.graph.schema.analytic.AnalyticSchemaFactory;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.similarity.SimilarityScoring.Features;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.similarity.SimilarityScoring.Scorer;
+import au.gov.asd.tac.constellation.utilities.datastructure.Tuple;
+import java.util.Map;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Similarity Scoring Test.
+ *
+ * @author cygnus_x-1
+ */
+public class SimilarityScoringNGTest {
+
+    private static final Scorer COMMON_FEATURES = (positionOne, positionTwo, commonFeatures, sum) -> commonFeatures;
+
+    private int vxId0, vxId1, vxId2, vxId3, vxId4, vxId5;
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        // create an analytic graph
+        final Schema schema = SchemaFactoryUtilities.getSchemaFactory(AnalyticSchemaFactory.ANALYTIC_SCHEMA_ID).createSchema();
+        graph = new StoreGraph(schema);
+        VisualConcept.VertexAttribute.SELECTED.ensure(graph);
+
+        // add vertices
+        vxId0 = graph.addVertex();
+        vxId1 = graph.addVertex();
+        vxId2 = graph.addVertex();
+        vxId3 = graph.addVertex();
+        vxId4 = graph.addVertex();
+        vxId5 = graph.addVertex();
+
+        // add transactions, where vertices 0 and 1 have the same neighbours
+        graph.addTransaction(vxId0, vxId2, true);
+        graph.addTransaction(vxId0, vxId3, true);
+        graph.addTransaction(vxId1, vxId2, true);
+        graph.addTransaction(vxId1, vxId3, true);
+        graph.addTransaction(vxId4, vxId2, true);
+        graph.addTransaction(vxId5, vxId5, true);
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        graph = null;
+    }
+
+    @Test
+    public void testFeatures() {
+        final Features undirected = Features.build(graph, true, true, true, false);
+        assertEquals(undirected.getFeatureCount(graph.getVertexPosition(vxId0)), 2);
+        assertEquals(undirected.getFeatureCount(graph.getVertexPosition(vxId2)), 3);
+        assertTrue(undirected.hasFeature(graph.getVertexPosition(vxId2), graph.getVertexPosition(vxId4)));
+
+        // loops are not features
+        assertEquals(undirected.getFeatureCount(graph.getVertexPosition(vxId5)), 0);
+
+        // directed transactions only make features in one direction
+        final Features outgoing = Features.build(graph, false, true, false, false);
+        assertEquals(outgoing.getFeatureCount(graph.getVertexPosition(vxId0)), 0);
+        assertTrue(outgoing.hasFeature(graph.getVertexPosition(vxId2), graph.getVertexPosition(vxId0)));
+        assertFalse(outgoing.hasFeature(graph.getVertexPosition(vxId0), graph.getVertexPosition(vxId2)));
+    }
+
+    @Test
+    public void testCalculateScores() throws Exception {
+        final Features features = Features.build(graph, true, true, true, false);
+
+        final Map<Tuple<Integer, Integer>, Float> scores = SimilarityScoring.calculateScores(graph, features, null, COMMON_FEATURES, 1, null, 0, 0f, false);
+        assertEquals(scores.size(), 4);
+        assertEquals(scores.get(Tuple.create(vxId0, vxId1)), 2f);
+        assertEquals(scores.get(Tuple.create(vxId0, vxId4)), 1f);
+        assertEquals(scores.get(Tuple.create(vxId1, vxId4)), 1f);
+        assertEquals(scores.get(Tuple.create(vxId2, vxId3)), 2f);
+
+        // common features are summed in order of position
+        final Map<Tuple<Integer, Integer>, Float> sums = SimilarityScoring.calculateScores(graph, features,
+                (feature, weightOne, weightTwo) -> feature, (positionOne, positionTwo, commonFeatures, sum) -> sum, 1, null, 0, 0f, false);
+        assertEquals(sums.get(Tuple.create(vxId0, vxId1)), (float) (graph.getVertexPosition(vxId2) + graph.getVertexPosition(vxId3)));
+        assertEquals(sums.get(Tuple.create(vxId2, vxId3)), (float) (graph.getVertexPosition(vxId0) + graph.getVertexPosition(vxId1)));
+    }
+
+    @Test
+    public void testCutoffs() throws Exception {
+        final Features features = Features.build(graph, true, true, true, false);
+
+        final Map<Tuple<Integer, Integer>, Float> minimumCommon = SimilarityScoring.calculateScores(graph, features, null, COMMON_FEATURES, 2, null, 0, 0f, false);
+        assertEquals(minimumCommon.size(), 2);
+
+        final Map<Tuple<Integer, Integer>, Float> minimumScore = SimilarityScoring.calculateScores(graph, features, null, COMMON_FEATURES, 1, null, 0, 1.5f, false);
+        assertEquals(minimumScore.keySet(), minimumCommon.keySet());
+
+        // pairs are skipped when the scorer returns NaN
+        final Map<Tuple<Integer, Integer>, Float> skipped = SimilarityScoring.calculateScores(graph, features, null,
+                (positionOne, positionTwo, commonFeatures, sum) -> commonFeatures == 1 ? Float.NaN : commonFeatures, 1, null, 0, 0f, false);
+        assertEquals(skipped.keySet(), minimumCommon.keySet());
+    }
+
+    @Test
+    public void testResultsPerVertex() throws Exception {
+        final Features features = Features.build(graph, true, true, true, false);
+
+        // vertex 4 scores the same with vertices 0 and 1, so keeps the first of them
+        final Map<Tuple<Integer, Integer>, Float> scores = SimilarityScoring.calculateScores(graph, features, null, COMMON_FEATURES, 1, null, 1, 0f, false);
+        assertEquals(scores.size(), 3);
+        assertTrue(scores.containsKey(Tuple.create(vxId0, vxId1)));
+        assertTrue(scores.containsKey(Tuple.create(vxId2, vxId3)));
+        assertTrue(scores.containsKey(Tuple.create(vxId0, vxId4)));
+    }
+
+    @Test
+    public void testSelected() throws Exception {
+        final int selectedAttribute = VisualConcept.VertexAttribute.SELECTED.get(graph);
+        graph.setBooleanValue(selectedAttribute, vxId4, true);
+        final Features features = Features.build(graph, true, true, true, false);
+
+        final Map<Tuple<Integer, Integer>, Float> scores = SimilarityScoring.calculateScores(graph, features, null, COMMON_FEATURES, 1,
+                SimilarityScoring.getSelectedVertices(graph), 0, 0f, false);
+        assertEquals(scores.size(), 2);
+        assertTrue(scores.containsKey(Tuple.create(vxId0, vxId4)));
+        assertTrue(scores.containsKey(Tuple.create(vxId1, vxId4)));
+    }
+
+    @Test
+    public void testApproximate() throws Exception {
+        final Features features = Features.build(graph, true, true, true, false);
+        final Map<Tuple<Integer, Integer>, Float> exact = SimilarityScoring.calculateScores(graph, features, null, COMMON_FEATURES, 1, null, 0, 0f, false);
+        final Map<Tuple<Integer, Integer>, Float> approximate = SimilarityScoring.calculateScores(graph, features, null, COMMON_FEATURES, 1, null, 0, 0f, true);
+
+        // vertices with the same neighbours always share a bucket, and every pair found is scored exactly
+        assertEquals(approximate.get(Tuple.create(vxId0, vxId1)), 2f);
+        for (final Map.Entry<Tuple<Integer, Integer>, Float> entry : approximate.entrySet()) {
+            assertEquals(entry.getValue(), exact.get(entry.getKey()));
+        }
+    }
+}
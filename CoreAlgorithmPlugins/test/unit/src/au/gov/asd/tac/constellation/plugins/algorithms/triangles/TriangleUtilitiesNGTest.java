@@ -0,0 +1,126 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.triangles;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.plugins.algorithms.triangles.TriangleUtilities.LinkAdjacency;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Triangle Utilities Test.
+ *
+ * @author canis_majoris
+ */
+public class TriangleUtilitiesNGTest {
+
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        graph = new StoreGraph();
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        graph = null;
+    }
+
+    private int[] addRandomGraph(final int vertexCount, final int transactionCount) {
+        final Random random = new Random(42);
+        final int[] vertices = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i] = graph.addVertex();
+        }
+        for (int i = 0; i < transactionCount; i++) {
+            graph.addTransaction(vertices[random.nextInt(vertexCount)], vertices[random.nextInt(vertexCount)], random.nextBoolean());
+        }
+        return vertices;
+    }
+
+    @Test
+    public void testLinkAdjacency() {
+        final int[] vertices = addRandomGraph(30, 200);
+        final LinkAdjacency adjacency = new LinkAdjacency(graph);
+        for (int i = 0; i < vertices.length; i++) {
+            for (int j = 0; j < vertices.length; j++) {
+                final int link = graph.getLink(vertices[i], vertices[j]);
+                final int expected = i == j || link == StoreGraph.NOT_FOUND ? -1 : graph.getLinkPosition(link);
+                assertEquals(adjacency.findLink(graph.getVertexPosition(vertices[i]), graph.getVertexPosition(vertices[j])), expected);
+            }
+        }
+    }
+
+    @Test
+    public void testCountLinkTriangles() throws Exception {
+        final int[] vertices = addRandomGraph(40, 300);
+        final int[] counts = TriangleUtilities.countLinkTriangles(new LinkAdjacency(graph));
+
+        final int[] expected = new int[graph.getLinkCount()];
+        for (int i = 0; i < vertices.length; i++) {
+            for (int j = i + 1; j < vertices.length; j++) {
+                final int linkOneTwo = graph.getLink(vertices[i], vertices[j]);
+                if (linkOneTwo == StoreGraph.NOT_FOUND) {
+                    continue;
+                }
+                for (int k = j + 1; k < vertices.length; k++) {
+                    final int linkOneThree = graph.getLink(vertices[i], vertices[k]);
+                    final int linkTwoThree = graph.getLink(vertices[j], vertices[k]);
+                    if (linkOneThree != StoreGraph.NOT_FOUND && linkTwoThree != StoreGraph.NOT_FOUND) {
+                        expected[graph.getLinkPosition(linkOneTwo)]++;
+                        expected[graph.getLinkPosition(linkOneThree)]++;
+                        expected[graph.getLinkPosition(linkTwoThree)]++;
+                    }
+                }
+            }
+        }
+        assertEquals(counts, expected);
+    }
+
+    @Test
+    public void testForEachTriangle() throws Exception {
+        addRandomGraph(40, 300);
+        final LinkAdjacency adjacency = new LinkAdjacency(graph);
+        final Set<Set<Integer>> triangles = new HashSet<>();
+        final int[] triangleCount = new int[1];
+        TriangleUtilities.forEachTriangle(adjacency, (vertexOne, vertexTwo, vertexThree, linkOneTwo, linkOneThree, linkTwoThree) -> {
+            assertEquals(adjacency.findLink(vertexOne, vertexTwo), linkOneTwo);
+            assertEquals(adjacency.findLink(vertexOne, vertexThree), linkOneThree);
+            assertEquals(adjacency.findLink(vertexTwo, vertexThree), linkTwoThree);
+            final Set<Integer> triangle = new HashSet<>();
+            triangle.add(vertexOne);
+            triangle.add(vertexTwo);
+            triangle.add(vertexThree);
+            assertEquals(triangle.size(), 3);
+            synchronized (triangles) {
+                assertTrue(triangles.add(triangle));
+                triangleCount[0]++;
+            }
+        });
+
+        int totalCount = 0;
+        for (final int count : TriangleUtilities.countLinkTriangles(adjacency)) {
+            totalCount += count;
+        }
+        assertEquals(triangleCount[0] * 3, totalCount);
+    }
+}
@@ -18,9 +18,15 @@ package au.gov.asd.tac.constellation.plugins.arrangements.proximity;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
-import au.gov.asd.tac.constellation.plugins.arrangements.Arranger;
 import au.gov.asd.tac.constellation.plugins.arrangements.SelectedInclusionGraph;
+import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
+import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
+import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType.BooleanParameterValue;
+import au.gov.asd.tac.constellation.plugins.parameters.types.FloatParameterType;
+import au.gov.asd.tac.constellation.plugins.parameters.types.FloatParameterType.FloatParameterValue;
+import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType;
+import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType.IntegerParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
 import org.openide.util.NbBundle.Messages;
 import org.openide.util.lookup.ServiceProvider;
@@ -34,9 +40,57 @@ import org.openide.util.lookup.ServiceProvider;
 @Messages("ArrangeByProximity3DPlugin=Arrange by Proximity 3D")
 public class ArrangeByProximity3DPlugin extends SimpleEditPlugin {
 
+    public static final String BARNES_HUT_PARAMETER_ID = PluginParameter.buildId(ArrangeByProximity3DPlugin.class, "barnes_hut");
+    public static final String THETA_PARAMETER_ID = PluginParameter.buildId(ArrangeByProximity3DPlugin.class, "theta");
+    public static final String THREADS_PARAMETER_ID = PluginParameter.buildId(ArrangeByProximity3DPlugin.class, "threads");
+    public static final String SEED_PARAMETER_ID = PluginParameter.buildId(ArrangeByProximity3DPlugin.class, "seed");
+
+    @Override
+    public PluginParameters createParameters() {
+        final PluginParameters parameters = new PluginParameters();
+
+        final PluginParameter<BooleanParameterValue> barnesHutParam = BooleanParameterType.build(BARNES_HUT_PARAMETER_ID);
+        barnesHutParam.setName("Approximate Repulsion");
+        barnesHutParam.setDescription("If True, approximate repulsion between nodes using an octree (Barnes-Hut), which is much faster on large graphs. The default is True.");
+        barnesHutParam.setBooleanValue(true);
+        parameters.addParameter(barnesHutParam);
+
+        final PluginParameter<FloatParameterValue> thetaParam = FloatParameterType.build(THETA_PARAMETER_ID);
+        thetaParam.setName("Theta");
+        thetaParam.setDescription("The Barnes-Hut accuracy; smaller values are more accurate but slower. The default is 0.8.");
+        thetaParam.setFloatValue(FR3DArranger.DEFAULT_THETA);
+        FloatParameterType.setMinimum(thetaParam, 0);
+        parameters.addParameter(thetaParam);
+
+        final PluginParameter<IntegerParameterValue> threadsParam = IntegerParameterType.build(THREADS_PARAMETER_ID);
+        threadsParam.setName("Threads");
+        threadsParam.setDescription("The number of threads used to calculate forces. The default is the number of available processors.");
+        threadsParam.setIntegerValue(Runtime.getRuntime().availableProcessors());
+        IntegerParameterType.setMinimum(threadsParam, 1);
+        parameters.addParameter(threadsParam);
+
+        final PluginParameter<IntegerParameterValue> seedParam = IntegerParameterType.build(SEED_PARAMETER_ID);
+        seedParam.setName("Random Seed");
+        seedParam.setDescription("The seed for the initial random positions; the same seed, graph and number of threads give the same layout. The default is 0, which uses a different layout each time.");
+        seedParam.setIntegerValue(0);
+        parameters.addParameter(seedParam);
+
+        return parameters;
+    }
+
     @Override
     public void edit(final GraphWriteMethods wg, final PluginInteraction interaction, final PluginParameters parameters) throws InterruptedException {
-        final Arranger arranger = new FR3DArranger(interaction);
+        final boolean barnesHut = parameters.getBooleanValue(BARNES_HUT_PARAMETER_ID);
+        final float theta = parameters.getFloatValue(THETA_PARAMETER_ID);
+        final int threads = parameters.getIntegerValue(THREADS_PARAMETER_ID);
+        final int seed = parameters.getIntegerValue(SEED_PARAMETER_ID);
+
+        final FR3DArranger arranger = new FR3DArranger(interaction);
+        arranger.setBarnesHut(barnesHut, theta);
+        arranger.setThreads(threads);
+        if (seed != 0) {
+            arranger.setSeed(seed);
+        }
         final SelectedInclusionGraph selectedGraph = new SelectedInclusionGraph(wg, SelectedInclusionGraph.Connections.LINKS);
         arranger.setMaintainMean(!selectedGraph.isArrangingAll());
         arranger.arrange(selectedGraph.getInclusionGraph());
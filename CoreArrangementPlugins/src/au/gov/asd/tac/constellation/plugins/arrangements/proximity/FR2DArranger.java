@@ -22,20 +22,34 @@ import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
 import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.arrangements.Arranger;
+import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d2.BoundingBox2D.Box2D;
+import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d2.Orb2D;
+import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d2.QuadTree;
 import au.gov.asd.tac.constellation.plugins.arrangements.utilities.ArrangementUtilities;
-import java.awt.geom.Point2D;
 import java.security.SecureRandom;
-import java.util.ArrayList;
+import java.util.Random;
 
 /**
  * main module to arrange a graph using the FR2D algorithm
+ * <p>
+ * Positions and offsets are held in primitive arrays indexed by vertex
+ * position. By default every vertex is repulsed from every other vertex, which
+ * is O(n^2) per iteration; when Barnes-Hut is enabled, repulsion is
+ * approximated using a {@link QuadTree}, which is O(n log n) per iteration.
+ * <p>
+ * The repulsion, attraction and position passes can be split across several
+ * threads. Attraction is calculated once per link and then gathered by each
+ * vertex in link order, so given a seed the same graph always gives the same
+ * layout, whatever the number of threads.
  *
  * @author algol
  */
 class FR2DArranger implements Arranger {
 
     public static final int MAX_ITERATIONS = 10;
+    public static final float DEFAULT_THETA = 0.8f;
     private static final int BORDER = 1;
+    private static final int MAX_TREE_LEVELS = 16;
 
     private double forceConstant;
     private double temperature;
@@ -50,13 +64,18 @@ class FR2DArranger implements Arranger {
     private GraphWriteMethods graph;
     private int vxCount;
 //    private final int radiusAttr;
-    private ArrayList<Point2D.Float> points;
-    private ArrayList<Point2D.Float> offsets;
+    private float[] xs;
+    private float[] ys;
+    private double[] xOffsets;
+    private double[] yOffsets;
     private boolean maintainMean;
+    private boolean barnesHut;
+    private float theta = DEFAULT_THETA;
+    private int threads = 1;
 
     private final PluginInteraction interaction;
 
-    private final SecureRandom r = new SecureRandom();
+    private Random r = new SecureRandom();
 
     /**
      *
@@ -68,6 +87,38 @@ class FR2DArranger implements Arranger {
         this.interaction = interaction;
     }
 
+    /**
+     * Use the Barnes-Hut approximation for repulsion.
+     *
+     * @param barnesHut True to approximate repulsion using a quadtree, false
+     * to calculate it exactly.
+     * @param theta The Barnes-Hut opening criterion; smaller values are more
+     * accurate and slower.
+     */
+    public void setBarnesHut(final boolean barnesHut, final float theta) {
+        this.barnesHut = barnesHut;
+        this.theta = theta;
+    }
+
+    /**
+     * Split the force calculations across several threads.
+     *
+     * @param threads The number of threads to use.
+     */
+    public void setThreads(final int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Use a fixed seed for the initial random positions so that the layout is
+     * repeatable.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(final long seed) {
+        r = new Random(seed);
+    }
+
     @Override
     public void arrange(final GraphWriteMethods wg) throws InterruptedException {
         this.graph = wg;
@@ -94,54 +145,135 @@ class FR2DArranger implements Arranger {
         attractionConstant = attraction_multiplier * forceConstant;
         repulsionConstant = repulsionMultiplier * forceConstant;
 
-        // Create an array of points to match the array of nodes.
-        // This means we have to allow for gaps in the array where nodes have been removed.
-        // Pre-fill the ArrayLists so we can treat them like arrays.
-        final int capacity = graph.getVertexCapacity();
-        points = new ArrayList<>(capacity);
-        offsets = new ArrayList<>(capacity);
-        for (int i = 0; i < capacity; i++) {
-            points.add(null);
-            offsets.add(null);
-        }
+        // Create arrays of points to match the vertex positions.
+        xs = new float[vxCount];
+        ys = new float[vxCount];
+        xOffsets = new double[vxCount];
+        yOffsets = new double[vxCount];
 
         for (int position = 0; position < vxCount; position++) {
-            final int vxId = graph.getVertex(position);
-
             // Start each point at a random position.
-            final Point2D.Float p = new Point2D.Float(
-                    BORDER + (float) r.nextInt(width - BORDER * 2),
-                    BORDER + (float) r.nextInt(height - BORDER * 2));
-            points.set(vxId, p);
-            offsets.set(vxId, new Point2D.Float(0, 0));
+            xs[position] = BORDER + (float) r.nextInt(width - BORDER * 2);
+            ys[position] = BORDER + (float) r.nextInt(height - BORDER * 2);
         }
     }
 
     public void layout() throws InterruptedException {
-        for (int i = 0; i < MAX_ITERATIONS; i++) {
-            interaction.setProgress(i + 1, MAX_ITERATIONS, "Arranging...", true);
-
+        final Orb2D[] orbs = barnesHut ? new Orb2D[vxCount] : null;
+        if (barnesHut) {
             for (int position = 0; position < vxCount; position++) {
-                final int vxId = graph.getVertex(position);
-
-                repulse(vxId);
+                orbs[position] = new Orb2D(xs[position], ys[position], 0);
             }
+        }
 
-            for (int position = 0; position < graph.getLinkCount(); position++) {
-                final int linkId = graph.getLink(position);
-                final int vxlId = graph.getLinkLowVertex(linkId);
-                final int vxhId = graph.getLinkHighVertex(linkId);
-                attract(vxlId, vxhId);
-            }
+        // Record the link ends by position so the attraction pass doesn't need to touch the graph.
+        final int linkCount = graph.getLinkCount();
+        final int[] linkLows = new int[linkCount];
+        final int[] linkHighs = new int[linkCount];
+        for (int position = 0; position < linkCount; position++) {
+            final int linkId = graph.getLink(position);
+            linkLows[position] = graph.getVertexPosition(graph.getLinkLowVertex(linkId));
+            linkHighs[position] = graph.getVertexPosition(graph.getLinkHighVertex(linkId));
+        }
 
-            for (int position = 0; position < vxCount; position++) {
-                final int vxId = graph.getVertex(position);
+        try (final ForceWorkers workers = new ForceWorkers(threads)) {
+            // The attraction along each link is gathered by its vertices in link order.
+            final int[][] linkEnds = ForceWorkers.groupLinkEnds(vxCount, linkLows, linkHighs);
+            final int[] endOffsets = linkEnds[0];
+            final int[] ends = linkEnds[1];
+            final double[] linkXs = new double[linkCount];
+            final double[] linkYs = new double[linkCount];
+
+            for (int i = 0; i < MAX_ITERATIONS; i++) {
+                interaction.setProgress(i + 1, MAX_ITERATIONS, "Arranging...", true);
+
+                if (barnesHut) {
+                    final QuadTree qt = buildTree(orbs);
+                    workers.forEachChunk(vxCount, (chunk, start, end) -> {
+                        for (int position = start; position < end; position++) {
+                            repulse(qt, orbs, position);
+                        }
+                    });
+                } else {
+                    workers.forEachChunk(vxCount, (chunk, start, end) -> {
+                        for (int position = start; position < end; position++) {
+                            repulse(position);
+                        }
+                    });
+                }
+
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+
+                workers.forEachChunk(linkCount, (chunk, start, end) -> {
+                    for (int position = start; position < end; position++) {
+                        attract(position, linkLows[position], linkHighs[position], linkXs, linkYs);
+                    }
+                });
+                workers.forEachChunk(vxCount, (chunk, start, end) -> {
+                    for (int position = start; position < end; position++) {
+                        for (int e = endOffsets[position]; e < endOffsets[position + 1]; e++) {
+                            final int link = ends[e] >>> 1;
+                            if ((ends[e] & 1) == 0) {
+                                xOffsets[position] -= linkXs[link];
+                                yOffsets[position] -= linkYs[link];
+                            } else {
+                                xOffsets[position] += linkXs[link];
+                                yOffsets[position] += linkYs[link];
+                            }
+                        }
+                    }
+                });
+
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+
+                workers.forEachChunk(vxCount, (chunk, start, end) -> {
+                    for (int position = start; position < end; position++) {
+                        position(position);
+                    }
+                });
 
-                position(vxId);
+                cool(i);
             }
+        }
+    }
+
+    /**
+     * Build a quadtree over the current positions and calculate the centre of
+     * mass of each of its nodes.
+     *
+     * @param orbs The orbs representing the vertices; their coordinates are
+     * updated from the current positions.
+     * @return the quadtree.
+     */
+    private QuadTree buildTree(final Orb2D[] orbs) {
+        float minx = Float.MAX_VALUE;
+        float miny = Float.MAX_VALUE;
+        float maxx = -Float.MAX_VALUE;
+        float maxy = -Float.MAX_VALUE;
+        for (int position = 0; position < vxCount; position++) {
+            final float x = xs[position];
+            final float y = ys[position];
+            orbs[position].setX(x);
+            orbs[position].setY(y);
+            minx = Math.min(minx, x);
+            miny = Math.min(miny, y);
+            maxx = Math.max(maxx, x);
+            maxy = Math.max(maxy, y);
+        }
 
-            cool(i);
+        // Keep the cells square so the opening criterion behaves the same in both directions.
+        final float side = Math.max(maxx - minx, maxy - miny);
+        final QuadTree qt = new QuadTree(0, MAX_TREE_LEVELS, new Box2D(minx, miny, minx + side, miny + side));
+        for (final Orb2D orb : orbs) {
+            qt.insert(orb);
         }
+        qt.computeMass();
+
+        return qt;
     }
 
     public void writeBackXYZ() {
@@ -163,14 +295,13 @@ class FR2DArranger implements Arranger {
 
         for (int position = 0; position < vxCount; position++) {
             final int vxId = graph.getVertex(position);
-            final Point2D.Float point = points.get(vxId);
 
             graph.setFloatValue(x2Attr, vxId, graph.getFloatValue(xAttr, vxId));
             graph.setFloatValue(y2Attr, vxId, graph.getFloatValue(yAttr, vxId));
             graph.setFloatValue(z2Attr, vxId, graph.getFloatValue(zAttr, vxId));
 
-            graph.setFloatValue(xAttr, vxId, point.x);
-            graph.setFloatValue(yAttr, vxId, point.y);
+            graph.setFloatValue(xAttr, vxId, xs[position]);
+            graph.setFloatValue(yAttr, vxId, ys[position]);
             graph.setFloatValue(zAttr, vxId, 0);
         }
     }
@@ -178,70 +309,86 @@ class FR2DArranger implements Arranger {
     /**
      * Repulse a node from the other nodes.
      *
-     * @param vxOrigin The vertex to repulse from.
+     * @param origin The position of the vertex to repulse from.
      */
-    private void repulse(final int vxOrigin) {
-        final Point2D.Float p1 = points.get(vxOrigin);
-        final Point2D.Float offset = new Point2D.Float(0, 0);
+    private void repulse(final int origin) {
+        final double x1 = xs[origin];
+        final double y1 = ys[origin];
+        final double k2 = repulsionConstant * repulsionConstant;
+        double xOffset = 0;
+        double yOffset = 0;
 
         for (int position = 0; position < vxCount; position++) {
-            final int vxId = graph.getVertex(position);
-
-            if (vxId != vxOrigin) {
-                final Point2D p2 = points.get(vxId);
+            if (position != origin) {
 //                final float radius2 = radiusAttr!=Graph.NOT_FOUND ? graph.getFloatValue(radiusAttr, node) : 1;
-                final double xDelta = p1.getX() - p2.getX();// + radius1 + radius2;
-                final double yDelta = p1.getY() - p2.getY();// + radius1 + radius2;
+                final double xDelta = x1 - xs[position];// + radius1 + radius2;
+                final double yDelta = y1 - ys[position];// + radius1 + radius2;
                 final double lenDelta = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta));
-                final double force = (repulsionConstant * repulsionConstant) / lenDelta;
+                final double force = k2 / lenDelta;
                 if (Double.isNaN(force)) {
                     throw new IllegalArgumentException("Bad value: isNaN(force)");
                 }
 
-                offset.setLocation(
-                        offset.getX() + (xDelta / lenDelta) * force,
-                        offset.getY() + (yDelta / lenDelta) * force);
+                xOffset += (xDelta / lenDelta) * force;
+                yOffset += (yDelta / lenDelta) * force;
             }
         }
 
-        offsets.set(vxOrigin, offset);
+        xOffsets[origin] = xOffset;
+        yOffsets[origin] = yOffset;
+    }
+
+    /**
+     * Repulse a node from the other nodes using the Barnes-Hut approximation.
+     *
+     * @param qt The quadtree containing every vertex.
+     * @param orbs The orbs in the quadtree, indexed by vertex position.
+     * @param origin The position of the vertex to repulse from.
+     */
+    private void repulse(final QuadTree qt, final Orb2D[] orbs, final int origin) {
+        final double[] force = new double[2];
+        qt.repulse(orbs[origin], theta, repulsionConstant * repulsionConstant, EPSILON, force);
+        if (Double.isNaN(force[0]) || Double.isNaN(force[1])) {
+            throw new IllegalArgumentException("Bad value: isNaN(force)");
+        }
+
+        xOffsets[origin] = force[0];
+        yOffsets[origin] = force[1];
     }
 
     /**
      * Attract nodes along their edges.
      *
-     * @param txId
+     * @param link The position of the link.
+     * @param p0 The position of the first vertex.
+     * @param p1 The position of the second vertex.
+     * @param linkXs The x attraction of each link, which is taken from the
+     * first vertex and added to the second.
+     * @param linkYs The y attraction of each link.
      */
-    private void attract(final int vx0Id, final int vx1Id) {
-        final Point2D point1 = points.get(vx0Id);
-        final Point2D point2 = points.get(vx1Id);
+    private void attract(final int link, final int p0, final int p1, final double[] linkXs, final double[] linkYs) {
 //        final float radius1 = radiusAttr!=Graph.NOT_FOUND ? graph.getFloatValue(radiusAttr, node1) : 1;
 //        final float radius2 = radiusAttr!=Graph.NOT_FOUND ? graph.getFloatValue(radiusAttr, node2) : 1;
-        final double xDelta = point1.getX() - point2.getX();// + radius1 + radius2;
-        final double yDelta = point1.getY() - point2.getY();// + radius1 + radius2;
+        final double xDelta = (double) xs[p0] - xs[p1];// + radius1 + radius2;
+        final double yDelta = (double) ys[p0] - ys[p1];// + radius1 + radius2;
         final double lenDelta = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta));
         final double force = (lenDelta * lenDelta) / attractionConstant;
         if (Double.isNaN(force)) {
             throw new IllegalArgumentException(String.format("Bad value: force %f %f isNan(force)", lenDelta, attractionConstant));
         }
 
-        final double dx = (xDelta / lenDelta) * force;
-        final double dy = (yDelta / lenDelta) * force;
-        final Point2D.Float offset1 = offsets.get(vx0Id);
-        final Point2D.Float offset2 = offsets.get(vx1Id);
-        offset1.setLocation(offset1.getX() - dx, offset1.getY() - dy);
-        offset2.setLocation(offset2.getX() + dx, offset2.getY() + dy);
+        linkXs[link] = (xDelta / lenDelta) * force;
+        linkYs[link] = (yDelta / lenDelta) * force;
     }
 
-    private void position(final int vxId) {
-        final Point2D.Float p = offsets.get(vxId);
-        final Point2D.Float xyDelta = points.get(vxId);
-        final double lenDelta = Math.max(EPSILON, Math.sqrt(p.getX() * p.getX() + p.getY() * p.getY()));
-        final double xDelta = p.getX() / lenDelta * Math.min(lenDelta, temperature);
-        final double yDelta = p.getY() / lenDelta * Math.min(lenDelta, temperature);
-        final double newX = xyDelta.getX() + xDelta;
-        final double newY = xyDelta.getY() + yDelta;
-        xyDelta.setLocation(newX, newY);
+    private void position(final int position) {
+        final double xOffset = xOffsets[position];
+        final double yOffset = yOffsets[position];
+        final double lenDelta = Math.max(EPSILON, Math.sqrt(xOffset * xOffset + yOffset * yOffset));
+        final double xDelta = xOffset / lenDelta * Math.min(lenDelta, temperature);
+        final double yDelta = yOffset / lenDelta * Math.min(lenDelta, temperature);
+        xs[position] += xDelta;
+        ys[position] += yDelta;
     }
 
     private void cool(final int i) {
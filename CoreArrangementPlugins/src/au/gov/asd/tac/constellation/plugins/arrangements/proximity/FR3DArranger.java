@@ -22,10 +22,12 @@ import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
 import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.arrangements.Arranger;
+import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d3.BoundingBox3D.Box3D;
+import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d3.Octree;
+import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d3.Orb3D;
 import au.gov.asd.tac.constellation.plugins.arrangements.utilities.ArrangementUtilities;
-import au.gov.asd.tac.constellation.plugins.arrangements.utilities.Point3D;
 import java.security.SecureRandom;
-import java.util.ArrayList;
+import java.util.Random;
 
 /**
  * Implements a 3D version of the Fruchterman-Reingold force-directed algorithm
@@ -43,6 +45,16 @@ import java.util.ArrayList;
  * Each of the first two defaults to 0.75; the maximum number of iterations
  * defaults to 700.
  * <p>
+ * Positions and offsets are held in primitive arrays indexed by vertex
+ * position. By default every vertex is repulsed from every other vertex, which
+ * is O(n^2) per iteration; when Barnes-Hut is enabled, repulsion is
+ * approximated using an {@link Octree}, which is O(n log n) per iteration.
+ * <p>
+ * The repulsion, attraction and position passes can be split across several
+ * threads. Attraction is calculated once per link and then gathered by each
+ * vertex in link order, so given a seed the same graph always gives the same
+ * layout, whatever the number of threads.
+ * <p>
  *
  * "Fruchterman and Reingold, 'Graph Drawing by Force-directed Placement'"
  * "http://i11www.ilkd.uni-karlsruhe.de/teaching/SS_04/visualisierung/papers/fruchterman91graph.pdf"
@@ -63,7 +75,9 @@ public class FR3DArranger implements Arranger {
 
     private static final int MAX_PSEUDO_SIZE = 100;
     public static final int MAX_ITERATIONS = 10;
+    public static final float DEFAULT_THETA = 0.8f;
     private static final int BORDER = 1;
+    private static final int MAX_TREE_LEVELS = 12;
     private double forceConstant;
     private double temperature;
     //    private int currentIteration;
@@ -74,16 +88,24 @@ public class FR3DArranger implements Arranger {
     //    private double max_dimension;
     private final double EPSILON = 0.000001;
 //    private final GraphWriteMethods graph;
-    private ArrayList<Point3D.Float> points;
-    private ArrayList<Point3D.Float> offsets;
+    private int vxCount;
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private double[] xOffsets;
+    private double[] yOffsets;
+    private double[] zOffsets;
     private volatile boolean stopWork;
+    private boolean barnesHut;
+    private float theta = DEFAULT_THETA;
+    private int threads = 1;
 
     private final PluginInteraction interaction;
 
     private GraphWriteMethods wg;
     boolean maintainMean = false;
 
-    private final SecureRandom r = new SecureRandom();
+    private Random r = new SecureRandom();
 
     /**
      * Creates a new arranger using the specified {@link PluginInteraction}.
@@ -96,6 +118,38 @@ public class FR3DArranger implements Arranger {
         this.interaction = interaction;
     }
 
+    /**
+     * Use the Barnes-Hut approximation for repulsion.
+     *
+     * @param barnesHut True to approximate repulsion using an octree, false to
+     * calculate it exactly.
+     * @param theta The Barnes-Hut opening criterion; smaller values are more
+     * accurate and slower.
+     */
+    public void setBarnesHut(final boolean barnesHut, final float theta) {
+        this.barnesHut = barnesHut;
+        this.theta = theta;
+    }
+
+    /**
+     * Split the force calculations across several threads.
+     *
+     * @param threads The number of threads to use.
+     */
+    public void setThreads(final int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Use a fixed seed for the initial random positions so that the layout is
+     * repeatable.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(final long seed) {
+        r = new Random(seed);
+    }
+
     @Override
     public void arrange(final GraphWriteMethods wg) throws InterruptedException {
         this.wg = wg;
@@ -150,69 +204,148 @@ public class FR3DArranger implements Arranger {
         repulsionConstant = repulsionMultiplier * forceConstant;
 //            System.out.printf("@FR force=%f att=%f rep=%f temp=%f\n", forceConstant, attractionConstant, repulsionConstant, temperature);
 
-        // Create an array of points to match the array of nodes.
-        // This means we have to allow for gaps in the array where nodes have been removed.
-        // Pre-fill the ArrayLists so we can treat them like arrays.
-        final int capacity = wg.getVertexCapacity();
-        points = new ArrayList<>(capacity);
-        offsets = new ArrayList<>(capacity);
-        for (int i = 0; i < capacity; i++) {
-            points.add(null);
-            offsets.add(null);
-        }
+        // Create arrays of points to match the vertex positions.
+        vxCount = wg.getVertexCount();
+        xs = new float[vxCount];
+        ys = new float[vxCount];
+        zs = new float[vxCount];
+        xOffsets = new double[vxCount];
+        yOffsets = new double[vxCount];
+        zOffsets = new double[vxCount];
 
-        wg.vertexStream().parallel().forEach(node -> {
+        for (int position = 0; position < vxCount; position++) {
             // Start each point at a random position.
-            final Point3D.Float p = new Point3D.Float(
-                    BORDER + r.nextInt(width - BORDER * 2),
-                    BORDER + r.nextInt(height - BORDER * 2),
-                    BORDER + r.nextInt(depth - BORDER * 2));
-            points.set(node, p);
-            offsets.set(node, new Point3D.Float(0.0f, 0.0f, 0.0f));
-        });
+            xs[position] = BORDER + r.nextInt(width - BORDER * 2);
+            ys[position] = BORDER + r.nextInt(height - BORDER * 2);
+            zs[position] = BORDER + r.nextInt(depth - BORDER * 2);
+        }
     }
 
     public void layout() throws InterruptedException {
-        for (int i = 0; i < MAX_ITERATIONS; i++) {
-            interaction.setProgress(i + 1, MAX_ITERATIONS, ARRANGING_INTERACTION, true);
+        final Orb3D[] orbs = barnesHut ? new Orb3D[vxCount] : null;
+        if (barnesHut) {
+            for (int position = 0; position < vxCount; position++) {
+                orbs[position] = new Orb3D(xs[position], ys[position], zs[position], 0);
+            }
+        }
 
-            wg.vertexStream().parallel().forEach(vertexId -> {
-                repulse(vertexId);
+        // Record the link ends by position so the attraction pass doesn't need to touch the graph.
+        final int linkCount = wg.getLinkCount();
+        final int[] linkLows = new int[linkCount];
+        final int[] linkHighs = new int[linkCount];
+        for (int position = 0; position < linkCount; position++) {
+            final int edge = wg.getLink(position);
+            linkLows[position] = wg.getVertexPosition(wg.getLinkLowVertex(edge));
+            linkHighs[position] = wg.getVertexPosition(wg.getLinkHighVertex(edge));
+        }
 
-//                if(Thread.interrupted())
-//                {
-//                    throw new InterruptedException();
-//                }
-            });
+        try (final ForceWorkers workers = new ForceWorkers(threads)) {
+            // The attraction along each link is gathered by its vertices in link order.
+            final int[][] linkEnds = ForceWorkers.groupLinkEnds(vxCount, linkLows, linkHighs);
+            final int[] endOffsets = linkEnds[0];
+            final int[] ends = linkEnds[1];
+            final double[] linkXs = new double[linkCount];
+            final double[] linkYs = new double[linkCount];
+            final double[] linkZs = new double[linkCount];
+
+            for (int i = 0; i < MAX_ITERATIONS; i++) {
+                interaction.setProgress(i + 1, MAX_ITERATIONS, ARRANGING_INTERACTION, true);
+
+                if (barnesHut) {
+                    final Octree ot = buildTree(orbs);
+                    workers.forEachChunk(vxCount, (chunk, start, end) -> {
+                        for (int position = start; position < end; position++) {
+                            repulse(ot, orbs, position);
+                        }
+                    });
+                } else {
+                    workers.forEachChunk(vxCount, (chunk, start, end) -> {
+                        for (int position = start; position < end; position++) {
+                            repulse(position);
+                        }
+                    });
+                }
 
-            if (Thread.interrupted()) {
-                throw new InterruptedException();
-            }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
 
-            wg.linkStream().parallel().forEach(txId -> {
-                attract(txId);
+                workers.forEachChunk(linkCount, (chunk, start, end) -> {
+                    for (int position = start; position < end; position++) {
+                        attract(position, linkLows[position], linkHighs[position], linkXs, linkYs, linkZs);
+                    }
+                });
+                workers.forEachChunk(vxCount, (chunk, start, end) -> {
+                    for (int position = start; position < end; position++) {
+                        for (int e = endOffsets[position]; e < endOffsets[position + 1]; e++) {
+                            final int link = ends[e] >>> 1;
+                            if ((ends[e] & 1) == 0) {
+                                xOffsets[position] -= linkXs[link];
+                                yOffsets[position] -= linkYs[link];
+                                zOffsets[position] -= linkZs[link];
+                            } else {
+                                xOffsets[position] += linkXs[link];
+                                yOffsets[position] += linkYs[link];
+                                zOffsets[position] += linkZs[link];
+                            }
+                        }
+                    }
+                });
+
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
 
-//                if(Thread.interrupted())
-//                {
-//                    throw new InterruptedException();
-//                }
-            });
+                workers.forEachChunk(vxCount, (chunk, start, end) -> {
+                    for (int position = start; position < end; position++) {
+                        position(position);
+                    }
+                });
 
-            if (Thread.interrupted()) {
-                throw new InterruptedException();
+                cool(i);
             }
+        }
+    }
 
-            wg.vertexStream().parallel().forEach(vertexId -> {
-                position(vertexId);
-
-//                if(Thread.interrupted())
-//                {
-//                    throw new InterruptedException();
-//                }
-            });
+    /**
+     * Build an octree over the current positions and calculate the centre of
+     * mass of each of its nodes.
+     *
+     * @param orbs The orbs representing the vertices; their coordinates are
+     * updated from the current positions.
+     * @return the octree.
+     */
+    private Octree buildTree(final Orb3D[] orbs) {
+        float minx = Float.MAX_VALUE;
+        float miny = Float.MAX_VALUE;
+        float minz = Float.MAX_VALUE;
+        float maxx = -Float.MAX_VALUE;
+        float maxy = -Float.MAX_VALUE;
+        float maxz = -Float.MAX_VALUE;
+        for (int position = 0; position < vxCount; position++) {
+            final float x = xs[position];
+            final float y = ys[position];
+            final float z = zs[position];
+            orbs[position].setX(x);
+            orbs[position].setY(y);
+            orbs[position].setZ(z);
+            minx = Math.min(minx, x);
+            miny = Math.min(miny, y);
+            minz = Math.min(minz, z);
+            maxx = Math.max(maxx, x);
+            maxy = Math.max(maxy, y);
+            maxz = Math.max(maxz, z);
+        }
 
-            cool(i);
+        // Keep the cells cubic so the opening criterion behaves the same in every direction.
+        final float side = Math.max(maxx - minx, Math.max(maxy - miny, maxz - minz));
+        final Octree ot = new Octree(0, MAX_TREE_LEVELS, new Box3D(minx, miny, minz, minx + side, miny + side, minz + side));
+        for (final Orb3D orb : orbs) {
+            ot.insert(orb);
         }
+        ot.computeMass();
+
+        return ot;
     }
 
     public void writeBackXYZ() {
@@ -232,95 +365,111 @@ public class FR3DArranger implements Arranger {
         final int y2Attr = wg.getAttribute(GraphElementType.VERTEX, VisualConcept.VertexAttribute.Y2.getName());
         final int z2Attr = wg.getAttribute(GraphElementType.VERTEX, VisualConcept.VertexAttribute.Z2.getName());
 
-        for (int position = 0; position < wg.getVertexCount(); position++) {
+        for (int position = 0; position < vxCount; position++) {
             final int nodeId = wg.getVertex(position);
-            final Point3D.Float point = points.get(nodeId);
 
             wg.setFloatValue(x2Attr, nodeId, wg.getFloatValue(xAttr, nodeId));
             wg.setFloatValue(y2Attr, nodeId, wg.getFloatValue(yAttr, nodeId));
             wg.setFloatValue(z2Attr, nodeId, wg.getFloatValue(zAttr, nodeId));
 
-            wg.setFloatValue(xAttr, nodeId, point.getFloatX());
-            wg.setFloatValue(yAttr, nodeId, point.getFloatY());
-            wg.setFloatValue(zAttr, nodeId, point.getFloatZ());
+            wg.setFloatValue(xAttr, nodeId, xs[position]);
+            wg.setFloatValue(yAttr, nodeId, ys[position]);
+            wg.setFloatValue(zAttr, nodeId, zs[position]);
         }
     }
 
     /**
      * Repulse a node from the other nodes.
      *
-     * @param nodeOrigin The node that other nodes will be repulsed from.
+     * @param origin The position of the node that other nodes will be
+     * repulsed from.
      */
-    private void repulse(final int nodeOrigin) {
-        final Point3D.Float p1 = points.get(nodeOrigin);
-        final Point3D.Float offset = new Point3D.Float(0, 0, 0);
-
-        for (int position = 0; position < wg.getVertexCount(); position++) {
-            final int node = wg.getVertex(position);
-            if (node != nodeOrigin) {
-                final Point3D p2 = points.get(node);
-                final double xDelta = p1.getX() - p2.getX();
-                final double yDelta = p1.getY() - p2.getY();
-                final double zDelta = p1.getZ() - p2.getZ();
+    private void repulse(final int origin) {
+        final double x1 = xs[origin];
+        final double y1 = ys[origin];
+        final double z1 = zs[origin];
+        final double k2 = repulsionConstant * repulsionConstant;
+        double xOffset = 0;
+        double yOffset = 0;
+        double zOffset = 0;
+
+        for (int position = 0; position < vxCount; position++) {
+            if (position != origin) {
+                final double xDelta = x1 - xs[position];
+                final double yDelta = y1 - ys[position];
+                final double zDelta = z1 - zs[position];
                 final double lenDelta = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta + zDelta * zDelta));
-                final double force = (repulsionConstant * repulsionConstant) / lenDelta;
+                final double force = k2 / lenDelta;
                 if (Double.isNaN(force)) {
                     throw new IllegalArgumentException("Bad value: isNaN(force)");
                 }
 
-                offset.setLocation(
-                        offset.getX() + (xDelta / lenDelta) * force,
-                        offset.getY() + (yDelta / lenDelta) * force,
-                        offset.getZ() + (zDelta / lenDelta) * force);
+                xOffset += (xDelta / lenDelta) * force;
+                yOffset += (yDelta / lenDelta) * force;
+                zOffset += (zDelta / lenDelta) * force;
             }
         }
 
-        offsets.set(nodeOrigin, offset);
+        xOffsets[origin] = xOffset;
+        yOffsets[origin] = yOffset;
+        zOffsets[origin] = zOffset;
+    }
+
+    /**
+     * Repulse a node from the other nodes using the Barnes-Hut approximation.
+     *
+     * @param ot The octree containing every node.
+     * @param orbs The orbs in the octree, indexed by vertex position.
+     * @param origin The position of the node that other nodes will be
+     * repulsed from.
+     */
+    private void repulse(final Octree ot, final Orb3D[] orbs, final int origin) {
+        final double[] force = new double[3];
+        ot.repulse(orbs[origin], theta, repulsionConstant * repulsionConstant, EPSILON, force);
+        if (Double.isNaN(force[0]) || Double.isNaN(force[1]) || Double.isNaN(force[2])) {
+            throw new IllegalArgumentException("Bad value: isNaN(force)");
+        }
+
+        xOffsets[origin] = force[0];
+        yOffsets[origin] = force[1];
+        zOffsets[origin] = force[2];
     }
 
     /**
      * Attract nodes along their edges.
      *
-     * @param edge
+     * @param link The position of the link.
+     * @param p1 The position of the first node.
+     * @param p2 The position of the second node.
+     * @param linkXs The x attraction of each link, which is taken from the
+     * first node and added to the second.
+     * @param linkYs The y attraction of each link.
+     * @param linkZs The z attraction of each link.
      */
-    private void attract(final int edge) {
-        //        final int[] endNodes = new int[] {graph.getTransactionSourceVertex(edge), graph.getTransactionDestinationVertex(edge)};
-        final int[] endNodes = new int[]{
-            wg.getLinkLowVertex(edge), wg.getLinkHighVertex(edge)
-        };
-        final int node1 = endNodes[0];
-        final int node2 = endNodes[1];
-        final Point3D point1 = points.get(node1);
-        final Point3D point2 = points.get(node2);
-        final double xDelta = point1.getX() - point2.getX();
-        final double yDelta = point1.getY() - point2.getY();
-        final double zDelta = point1.getZ() - point2.getZ();
+    private void attract(final int link, final int p1, final int p2, final double[] linkXs, final double[] linkYs, final double[] linkZs) {
+        final double xDelta = (double) xs[p1] - xs[p2];
+        final double yDelta = (double) ys[p1] - ys[p2];
+        final double zDelta = (double) zs[p1] - zs[p2];
         final double lenDelta = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta + zDelta * zDelta));
         final double force = (lenDelta * lenDelta) / attractionConstant;
         if (Double.isNaN(force)) {
             throw new IllegalArgumentException(String.format("Bad value: force %f %f isNan(force)", lenDelta, attractionConstant));
         }
 
-        final double dx = (xDelta / lenDelta) * force;
-        final double dy = (yDelta / lenDelta) * force;
-        final double dz = (zDelta / lenDelta) * force;
-        final Point3D.Float offset1 = offsets.get(node1);
-        final Point3D.Float offset2 = offsets.get(node2);
-        offset1.setLocation(offset1.getX() - dx, offset1.getY() - dy, offset1.getZ() - dz);
-        offset2.setLocation(offset2.getX() + dx, offset2.getY() + dy, offset2.getZ() + dz);
+        linkXs[link] = (xDelta / lenDelta) * force;
+        linkYs[link] = (yDelta / lenDelta) * force;
+        linkZs[link] = (zDelta / lenDelta) * force;
     }
 
-    private void position(final int node) {
-        final Point3D.Float p = offsets.get(node);
-        final Point3D.Float xyzDelta = points.get(node);
-        final double lenDelta = Math.max(EPSILON, Math.sqrt(p.getX() * p.getX() + p.getY() * p.getY() + p.getZ() * p.getZ()));
-        final double xDelta = p.getX() / lenDelta * Math.min(lenDelta, temperature);
-        final double yDelta = p.getY() / lenDelta * Math.min(lenDelta, temperature);
-        final double zDelta = p.getZ() / lenDelta * Math.min(lenDelta, temperature);
-        final double newX = xyzDelta.getX() + xDelta;
-        final double newY = xyzDelta.getY() + yDelta;
-        final double newZ = xyzDelta.getZ() + zDelta;
-        xyzDelta.setLocation(newX, newY, newZ);
+    private void position(final int position) {
+        final double xOffset = xOffsets[position];
+        final double yOffset = yOffsets[position];
+        final double zOffset = zOffsets[position];
+        final double lenDelta = Math.max(EPSILON, Math.sqrt(xOffset * xOffset + yOffset * yOffset + zOffset * zOffset));
+        final double scale = Math.min(lenDelta, temperature) / lenDelta;
+        xs[position] += xOffset * scale;
+        ys[position] += yOffset * scale;
+        zs[position] += zOffset * scale;
     }
 
     private void cool(final int i) {
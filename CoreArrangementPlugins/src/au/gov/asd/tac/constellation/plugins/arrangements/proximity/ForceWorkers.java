@@ -0,0 +1,159 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.proximity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Split the per-vertex and per-link passes of a force-directed arrangement
+ * across a fork-join pool.
+ * <p>
+ * Every pass writes only to the elements of its own chunk, and values that
+ * several elements contribute to (such as the attraction on a vertex from each
+ * of its links) are gathered per element in link order using
+ * {@link #groupLinkEnds}. Each value is therefore summed in the same order
+ * whatever the number of threads, so a layout depends only on its seed.
+ *
+ * @author algol
+ */
+final class ForceWorkers implements AutoCloseable {
+
+    /**
+     * A task that processes the elements [start, end) of a range.
+     */
+    @FunctionalInterface
+    interface ChunkTask {
+
+        /**
+         * Process one chunk of a range.
+         *
+         * @param chunk The index of the chunk, from 0 to getChunkCount()-1.
+         * @param start The first element of the chunk (inclusive).
+         * @param end The last element of the chunk (exclusive).
+         */
+        void run(final int chunk, final int start, final int end);
+    }
+
+    private final int chunkCount;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a new set of workers.
+     *
+     * @param threads The number of threads to use; one or less means that
+     * every pass runs on the calling thread.
+     */
+    ForceWorkers(final int threads) {
+        chunkCount = Math.max(1, threads);
+        pool = chunkCount > 1 ? new ForkJoinPool(chunkCount) : null;
+    }
+
+    /**
+     * The number of chunks that each range is split into.
+     *
+     * @return the number of chunks.
+     */
+    int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Run a task over every chunk of the range [0, count) and wait for all of
+     * them to finish.
+     *
+     * @param count The number of elements in the range.
+     * @param task The task to run on each chunk.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while
+     * waiting; any unfinished chunks are cancelled.
+     */
+    void forEachChunk(final int count, final ChunkTask task) throws InterruptedException {
+        if (pool == null) {
+            task.run(0, 0, count);
+            return;
+        }
+
+        final List<Future<?>> futures = new ArrayList<>(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            final int c = chunk;
+            final int start = (int) ((long) count * chunk / chunkCount);
+            final int end = (int) ((long) count * (chunk + 1) / chunkCount);
+            futures.add(pool.submit(() -> task.run(c, start, end)));
+        }
+
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            futures.forEach(future -> future.cancel(true));
+            throw ex;
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Group the ends of each link by the vertex they belong to, so that a
+     * per-vertex pass can gather the force along each of its links.
+     * <p>
+     * The ends of the vertex at position v are
+     * {@code ends[offsets[v]]..ends[offsets[v + 1] - 1]}. Each end is encoded
+     * as {@code link * 2} for the low end of a link and {@code link * 2 + 1}
+     * for the high end, and the ends of each vertex are in ascending order,
+     * which is the order a serial pass over the links would visit them.
+     *
+     * @param vxCount The number of vertices.
+     * @param linkLows The position of the low vertex of each link.
+     * @param linkHighs The position of the high vertex of each link.
+     * @return a two element array holding the offsets (of length vxCount + 1)
+     * followed by the ends.
+     */
+    static int[][] groupLinkEnds(final int vxCount, final int[] linkLows, final int[] linkHighs) {
+        final int[] offsets = new int[vxCount + 1];
+        for (int link = 0; link < linkLows.length; link++) {
+            offsets[linkLows[link] + 1]++;
+            offsets[linkHighs[link] + 1]++;
+        }
+        for (int position = 0; position < vxCount; position++) {
+            offsets[position + 1] += offsets[position];
+        }
+
+        final int[] next = Arrays.copyOf(offsets, vxCount);
+        final int[] ends = new int[linkLows.length * 2];
+        for (int link = 0; link < linkLows.length; link++) {
+            ends[next[linkLows[link]]++] = link * 2;
+            ends[next[linkHighs[link]]++] = link * 2 + 1;
+        }
+
+        return new int[][]{offsets, ends};
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -275,6 +275,11 @@ public class ComponentSubgraph implements GraphWriteMethods {
         return proxy.getStructureModificationCounter();
     }
 
+    @Override
+    public long getUndoRedoCounter() {
+        return proxy.getUndoRedoCounter();
+    }
+
     @Override
     public long getValueModificationCounter(final int attribute) {
         return proxy.getValueModificationCounter(attribute);
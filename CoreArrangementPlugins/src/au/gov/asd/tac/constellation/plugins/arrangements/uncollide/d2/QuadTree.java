@@ -35,10 +35,16 @@ public class QuadTree {
     private static final int BOT_R = 3;
 
     private final int level;
+    private final int maxLevels;
     private final List<Orb2D> objects;
     private final Box2D box;
     private QuadTree[] nodes;
 
+    // Barnes-Hut summary of this node: the number of orbs in (and below) this node and their centre of mass.
+    private int mass;
+    private float massX;
+    private float massY;
+
     public QuadTree(final Box2D box) {
         this(0, box);
     }
@@ -47,7 +53,23 @@ public class QuadTree {
      * Constructor
      */
     public QuadTree(final int level, final Box2D box) {
+        this(level, MAX_LEVELS, box);
+    }
+
+    /**
+     * Construct a QuadTree that may split to a depth other than the default.
+     * <p>
+     * Collision detection only needs a shallow tree, but a Barnes-Hut
+     * approximation needs a deeper one so that the leaves stay small on large
+     * graphs.
+     *
+     * @param level The level of this node in the tree.
+     * @param maxLevels The maximum level that nodes will be split to.
+     * @param box The bounds of this node.
+     */
+    public QuadTree(final int level, final int maxLevels, final Box2D box) {
         this.level = level;
+        this.maxLevels = maxLevels;
         this.box = box;
         objects = new ArrayList<>();
         nodes = null;
@@ -76,6 +98,7 @@ public class QuadTree {
      */
     public void clear() {
         objects.clear();
+        mass = 0;
 
         if (nodes != null) {
             for (int i = 0; i < nodes.length; i++) {
@@ -101,10 +124,10 @@ public class QuadTree {
         final float midy = miny + (maxy - miny) / 2;
 
         nodes = new QuadTree[4];
-        nodes[TOP_R] = new QuadTree(level + 1, new Box2D(midx, miny, maxx, midy));
-        nodes[TOP_L] = new QuadTree(level + 1, new Box2D(minx, miny, midx, midy));
-        nodes[BOT_L] = new QuadTree(level + 1, new Box2D(minx, midy, midx, maxy));
-        nodes[BOT_R] = new QuadTree(level + 1, new Box2D(midx, midy, maxx, maxy));
+        nodes[TOP_R] = new QuadTree(level + 1, maxLevels, new Box2D(midx, miny, maxx, midy));
+        nodes[TOP_L] = new QuadTree(level + 1, maxLevels, new Box2D(minx, miny, midx, midy));
+        nodes[BOT_L] = new QuadTree(level + 1, maxLevels, new Box2D(minx, midy, midx, maxy));
+        nodes[BOT_R] = new QuadTree(level + 1, maxLevels, new Box2D(midx, midy, maxx, maxy));
     }
 
     /*
@@ -159,7 +182,7 @@ public class QuadTree {
 
         objects.add(orb);
 
-        if (objects.size() > MAX_OBJECTS && level < MAX_LEVELS) {
+        if (objects.size() > MAX_OBJECTS && level < maxLevels) {
             if (nodes == null) {
                 split();
             }
@@ -236,6 +259,94 @@ public class QuadTree {
         return collided;
     }
 
+    /**
+     * Calculate the mass and centre of mass of every node in this tree.
+     * <p>
+     * Each orb has a mass of one. This must be called after the orbs have been
+     * inserted and before {@link #repulse} is used.
+     */
+    public void computeMass() {
+        double sumx = 0;
+        double sumy = 0;
+        int m = 0;
+        for (final Orb2D orb : objects) {
+            sumx += orb.getX();
+            sumy += orb.getY();
+            m++;
+        }
+
+        if (nodes != null) {
+            for (final QuadTree qt : nodes) {
+                qt.computeMass();
+                sumx += (double) qt.massX * qt.mass;
+                sumy += (double) qt.massY * qt.mass;
+                m += qt.mass;
+            }
+        }
+
+        mass = m;
+        if (m > 0) {
+            massX = (float) (sumx / m);
+            massY = (float) (sumy / m);
+        }
+    }
+
+    /**
+     * Accumulate the Fruchterman-Reingold repulsion of every other orb in this
+     * tree acting on the given orb, using the Barnes-Hut approximation.
+     * <p>
+     * A node whose width divided by its distance from the orb is less than
+     * theta is treated as a single body at its centre of mass; otherwise its
+     * orbs and sub-nodes are visited individually. A theta of zero gives the
+     * exact O(n) sum; larger values are faster and less accurate.
+     *
+     * @param orb The orb being repulsed.
+     * @param theta The Barnes-Hut opening criterion.
+     * @param k2 The square of the repulsion constant.
+     * @param epsilon The minimum distance between two orbs.
+     * @param force A two element array that the x and y components of the
+     * force are added to.
+     */
+    public void repulse(final Orb2D orb, final float theta, final double k2, final double epsilon, final double[] force) {
+        if (mass == 0) {
+            return;
+        }
+
+        final float x = orb.getX();
+        final float y = orb.getY();
+        final boolean contains = x >= box.minx && x <= box.maxx && y >= box.miny && y <= box.maxy;
+        if (!contains) {
+            final double xDelta = x - massX;
+            final double yDelta = y - massY;
+            final double lenDelta = Math.max(epsilon, Math.sqrt(xDelta * xDelta + yDelta * yDelta));
+            final double width = Math.max(box.maxx - box.minx, box.maxy - box.miny);
+            if (width / lenDelta < theta) {
+                final double f = mass * k2 / lenDelta;
+                force[0] += (xDelta / lenDelta) * f;
+                force[1] += (yDelta / lenDelta) * f;
+
+                return;
+            }
+        }
+
+        for (final Orb2D other : objects) {
+            if (other != orb) {
+                final double xDelta = x - other.getX();
+                final double yDelta = y - other.getY();
+                final double lenDelta = Math.max(epsilon, Math.sqrt(xDelta * xDelta + yDelta * yDelta));
+                final double f = k2 / lenDelta;
+                force[0] += (xDelta / lenDelta) * f;
+                force[1] += (yDelta / lenDelta) * f;
+            }
+        }
+
+        if (nodes != null) {
+            for (final QuadTree qt : nodes) {
+                qt.repulse(orb, theta, k2, epsilon, force);
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("[QTree level=%d size=%d %s]", level, objects.size(), box);
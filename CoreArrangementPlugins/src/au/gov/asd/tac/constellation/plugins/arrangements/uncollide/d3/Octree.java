@@ -40,10 +40,17 @@ public class Octree {
     private static final int BOT_R_B = 7;
 
     private final int level;
+    private final int maxLevels;
     private final List<Orb3D> objects;
     private final Box3D box;
     private Octree[] nodes;
 
+    // Barnes-Hut summary of this node: the number of orbs in (and below) this node and their centre of mass.
+    private int mass;
+    private float massX;
+    private float massY;
+    private float massZ;
+
     public Octree(final Box3D box) {
         this(0, box);
     }
@@ -52,7 +59,23 @@ public class Octree {
      * Constructor
      */
     public Octree(final int level, final Box3D box) {
+        this(level, MAX_LEVELS, box);
+    }
+
+    /**
+     * Construct an Octree that may split to a depth other than the default.
+     * <p>
+     * Collision detection only needs a shallow tree, but a Barnes-Hut
+     * approximation needs a deeper one so that the leaves stay small on large
+     * graphs.
+     *
+     * @param level The level of this node in the tree.
+     * @param maxLevels The maximum level that nodes will be split to.
+     * @param box The bounds of this node.
+     */
+    public Octree(final int level, final int maxLevels, final Box3D box) {
         this.level = level;
+        this.maxLevels = maxLevels;
         this.box = box;
         objects = new ArrayList<>();
         nodes = null;
@@ -81,6 +104,7 @@ public class Octree {
      */
     public void clear() {
         objects.clear();
+        mass = 0;
 
         if (nodes != null) {
             for (int i = 0; i < nodes.length; i++) {
@@ -109,14 +133,14 @@ public class Octree {
         final float midz = minz + (maxz - minz) / 2;
 
         nodes = new Octree[8];
-        nodes[TOP_R_F] = new Octree(level + 1, new Box3D(midx, miny, midz, maxx, midy, maxz));
-        nodes[TOP_L_F] = new Octree(level + 1, new Box3D(minx, miny, midz, midx, midy, maxz));
-        nodes[BOT_L_F] = new Octree(level + 1, new Box3D(minx, midy, midz, midx, maxy, maxz));
-        nodes[BOT_R_F] = new Octree(level + 1, new Box3D(midx, midy, midz, maxx, maxy, maxz));
-        nodes[TOP_R_B] = new Octree(level + 1, new Box3D(midx, miny, minz, minz, midy, midz));
-        nodes[TOP_L_B] = new Octree(level + 1, new Box3D(minx, miny, minz, midx, midy, midz));
-        nodes[BOT_L_B] = new Octree(level + 1, new Box3D(minx, midy, minz, midx, maxy, midz));
-        nodes[BOT_R_B] = new Octree(level + 1, new Box3D(midx, midy, minz, maxx, maxy, midz));
+        nodes[TOP_R_F] = new Octree(level + 1, maxLevels, new Box3D(midx, miny, midz, maxx, midy, maxz));
+        nodes[TOP_L_F] = new Octree(level + 1, maxLevels, new Box3D(minx, miny, midz, midx, midy, maxz));
+        nodes[BOT_L_F] = new Octree(level + 1, maxLevels, new Box3D(minx, midy, midz, midx, maxy, maxz));
+        nodes[BOT_R_F] = new Octree(level + 1, maxLevels, new Box3D(midx, midy, midz, maxx, maxy, maxz));
+        nodes[TOP_R_B] = new Octree(level + 1, maxLevels, new Box3D(midx, miny, minz, maxx, midy, midz));
+        nodes[TOP_L_B] = new Octree(level + 1, maxLevels, new Box3D(minx, miny, minz, midx, midy, midz));
+        nodes[BOT_L_B] = new Octree(level + 1, maxLevels, new Box3D(minx, midy, minz, midx, maxy, midz));
+        nodes[BOT_R_B] = new Octree(level + 1, maxLevels, new Box3D(midx, midy, minz, maxx, maxy, midz));
     }
 
     /*
@@ -129,8 +153,8 @@ public class Octree {
     private int getIndex(final Orb3D orb) {
         int index = -1;
         final double midx = box.minx + ((box.maxx - box.minx) / 2f);
-        final double midy = box.miny + ((box.miny - box.maxy) / 2f);
-        final double midz = box.minz + ((box.minz - box.maxz) / 2f);
+        final double midy = box.miny + ((box.maxy - box.miny) / 2f);
+        final double midz = box.minz + ((box.maxz - box.minz) / 2f);
 
         // Object can completely fit within the top/bottom quadrants.
         final boolean topQuadrant = orb.getY() + orb.r < midy;
@@ -176,7 +200,7 @@ public class Octree {
 
         objects.add(orb);
 
-        if (objects.size() > MAX_OBJECTS && level < MAX_LEVELS) {
+        if (objects.size() > MAX_OBJECTS && level < maxLevels) {
             if (nodes == null) {
                 split();
             }
@@ -257,4 +281,103 @@ public class Octree {
 
         return collided;
     }
+
+    /**
+     * Calculate the mass and centre of mass of every node in this tree.
+     * <p>
+     * Each orb has a mass of one. This must be called after the orbs have been
+     * inserted and before {@link #repulse} is used.
+     */
+    public void computeMass() {
+        double sumx = 0;
+        double sumy = 0;
+        double sumz = 0;
+        int m = 0;
+        for (final Orb3D orb : objects) {
+            sumx += orb.getX();
+            sumy += orb.getY();
+            sumz += orb.getZ();
+            m++;
+        }
+
+        if (nodes != null) {
+            for (final Octree ot : nodes) {
+                ot.computeMass();
+                sumx += (double) ot.massX * ot.mass;
+                sumy += (double) ot.massY * ot.mass;
+                sumz += (double) ot.massZ * ot.mass;
+                m += ot.mass;
+            }
+        }
+
+        mass = m;
+        if (m > 0) {
+            massX = (float) (sumx / m);
+            massY = (float) (sumy / m);
+            massZ = (float) (sumz / m);
+        }
+    }
+
+    /**
+     * Accumulate the Fruchterman-Reingold repulsion of every other orb in this
+     * tree acting on the given orb, using the Barnes-Hut approximation.
+     * <p>
+     * A node whose width divided by its distance from the orb is less than
+     * theta is treated as a single body at its centre of mass; otherwise its
+     * orbs and sub-nodes are visited individually. A theta of zero gives the
+     * exact O(n) sum; larger values are faster and less accurate.
+     *
+     * @param orb The orb being repulsed.
+     * @param theta The Barnes-Hut opening criterion.
+     * @param k2 The square of the repulsion constant.
+     * @param epsilon The minimum distance between two orbs.
+     * @param force A three element array that the x, y and z components of the
+     * force are added to.
+     */
+    public void repulse(final Orb3D orb, final float theta, final double k2, final double epsilon, final double[] force) {
+        if (mass == 0) {
+            return;
+        }
+
+        final float x = orb.getX();
+        final float y = orb.getY();
+        final float z = orb.getZ();
+        final boolean contains = x >= box.minx && x <= box.maxx
+                && y >= box.miny && y <= box.maxy
+                && z >= box.minz && z <= box.maxz;
+        if (!contains) {
+            final double xDelta = x - massX;
+            final double yDelta = y - massY;
+            final double zDelta = z - massZ;
+            final double lenDelta = Math.max(epsilon, Math.sqrt(xDelta * xDelta + yDelta * yDelta + zDelta * zDelta));
+            final double width = Math.max(box.maxx - box.minx, Math.max(box.maxy - box.miny, box.maxz - box.minz));
+            if (width / lenDelta < theta) {
+                final double f = mass * k2 / lenDelta;
+                force[0] += (xDelta / lenDelta) * f;
+                force[1] += (yDelta / lenDelta) * f;
+                force[2] += (zDelta / lenDelta) * f;
+
+                return;
+            }
+        }
+
+        for (final Orb3D other : objects) {
+            if (other != orb) {
+                final double xDelta = x - other.getX();
+                final double yDelta = y - other.getY();
+                final double zDelta = z - other.getZ();
+                final double lenDelta = Math.max(epsilon, Math.sqrt(xDelta * xDelta + yDelta * yDelta + zDelta * zDelta));
+                final double f = k2 / lenDelta;
+                force[0] += (xDelta / lenDelta) * f;
+                force[1] += (yDelta / lenDelta) * f;
+                force[2] += (zDelta / lenDelta) * f;
+            }
+        }
+
+        if (nodes != null) {
+            for (final Octree ot : nodes) {
+                ot.repulse(orb, theta, k2, epsilon, force);
+            }
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.proximity;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.text.TextPluginInteraction;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * FR 2D Arranger Test.
+ *
+ * @author algol
+ */
+public class FR2DArrangerNGTest {
+
+    private static final int VERTICES = 200;
+    private static final int TRANSACTIONS = 400;
+    private static final long SEED = 42;
+
+    /**
+     * Build a random graph, including a self loop, parallel transactions and a
+     * hub whose links are spread across every chunk.
+     */
+    static StoreGraph buildGraph() {
+        final StoreGraph graph = new StoreGraph();
+        VisualConcept.VertexAttribute.X.ensure(graph);
+        VisualConcept.VertexAttribute.Y.ensure(graph);
+        VisualConcept.VertexAttribute.Z.ensure(graph);
+
+        final Random random = new Random(SEED);
+        final int[] vertices = new int[VERTICES];
+        for (int i = 0; i < VERTICES; i++) {
+            vertices[i] = graph.addVertex();
+        }
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            graph.addTransaction(vertices[random.nextInt(VERTICES)], vertices[random.nextInt(VERTICES)], true);
+        }
+        for (int i = 1; i < VERTICES; i++) {
+            graph.addTransaction(vertices[0], vertices[i], true);
+        }
+        graph.addTransaction(vertices[0], vertices[0], true);
+        graph.addTransaction(vertices[1], vertices[2], true);
+        graph.addTransaction(vertices[2], vertices[1], false);
+        return graph;
+    }
+
+    private StoreGraph arrange(final int threads, final boolean barnesHut) throws InterruptedException {
+        final StoreGraph graph = buildGraph();
+        final FR2DArranger arranger = new FR2DArranger(new TextPluginInteraction());
+        arranger.setSeed(SEED);
+        arranger.setThreads(threads);
+        arranger.setBarnesHut(barnesHut, 0.5F);
+        arranger.arrange(graph);
+        return graph;
+    }
+
+    /**
+     * Assert that two arranged graphs have exactly the same positions.
+     */
+    static void assertSamePositions(final StoreGraph expected, final StoreGraph actual) {
+        final int x = VisualConcept.VertexAttribute.X.get(expected);
+        final int y = VisualConcept.VertexAttribute.Y.get(expected);
+        final int z = VisualConcept.VertexAttribute.Z.get(expected);
+        assertEquals(actual.getVertexCount(), expected.getVertexCount());
+        for (int position = 0; position < expected.getVertexCount(); position++) {
+            final int vertex = expected.getVertex(position);
+            assertEquals(Float.floatToIntBits(actual.getFloatValue(x, vertex)), Float.floatToIntBits(expected.getFloatValue(x, vertex)));
+            assertEquals(Float.floatToIntBits(actual.getFloatValue(y, vertex)), Float.floatToIntBits(expected.getFloatValue(y, vertex)));
+            assertEquals(Float.floatToIntBits(actual.getFloatValue(z, vertex)), Float.floatToIntBits(expected.getFloatValue(z, vertex)));
+        }
+    }
+
+    @Test
+    public void sameSeedGivesSameLayoutWithAnyThreadCount() throws InterruptedException {
+        final StoreGraph serial = arrange(1, false);
+        assertSamePositions(serial, arrange(4, false));
+        assertSamePositions(serial, arrange(3, false));
+    }
+
+    @Test
+    public void sameSeedGivesSameBarnesHutLayoutWithAnyThreadCount() throws InterruptedException {
+        final StoreGraph serial = arrange(1, true);
+        assertSamePositions(serial, arrange(4, true));
+        assertSamePositions(serial, arrange(3, true));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.proximity;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.plugins.text.TextPluginInteraction;
+import org.testng.annotations.Test;
+
+/**
+ * FR 3D Arranger Test.
+ *
+ * @author algol
+ */
+public class FR3DArrangerNGTest {
+
+    private static final long SEED = 42;
+
+    private StoreGraph arrange(final int threads, final boolean barnesHut) throws InterruptedException {
+        final StoreGraph graph = FR2DArrangerNGTest.buildGraph();
+        final FR3DArranger arranger = new FR3DArranger(new TextPluginInteraction());
+        arranger.setSeed(SEED);
+        arranger.setThreads(threads);
+        arranger.setBarnesHut(barnesHut, 0.5F);
+        arranger.arrange(graph);
+        return graph;
+    }
+
+    @Test
+    public void sameSeedGivesSameLayoutWithAnyThreadCount() throws InterruptedException {
+        final StoreGraph serial = arrange(1, false);
+        FR2DArrangerNGTest.assertSamePositions(serial, arrange(4, false));
+        FR2DArrangerNGTest.assertSamePositions(serial, arrange(3, false));
+    }
+
+    @Test
+    public void sameSeedGivesSameBarnesHutLayoutWithAnyThreadCount() throws InterruptedException {
+        final StoreGraph serial = arrange(1, true);
+        FR2DArrangerNGTest.assertSamePositions(serial, arrange(4, true));
+        FR2DArrangerNGTest.assertSamePositions(serial, arrange(3, true));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d2;
+
+import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d2.BoundingBox2D.Box2D;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Test the Barnes-Hut repulsion of the QuadTree.
+ *
+ * @author algol
+ */
+public class QuadTreeNGTest {
+
+    private static final double K2 = 1.0;
+    private static final double EPSILON = 0.000001;
+
+    private static Orb2D[] buildOrbs(final int count) {
+        final Random random = new Random(42);
+        final Orb2D[] orbs = new Orb2D[count];
+        for (int i = 0; i < count; i++) {
+            orbs[i] = new Orb2D(random.nextFloat() * 100, random.nextFloat() * 100, 0);
+        }
+
+        return orbs;
+    }
+
+    private static QuadTree buildTree(final Orb2D[] orbs) {
+        final QuadTree qt = new QuadTree(0, 16, new Box2D(0, 0, 100, 100));
+        for (final Orb2D orb : orbs) {
+            qt.insert(orb);
+        }
+        qt.computeMass();
+
+        return qt;
+    }
+
+    private static double[] exactRepulsion(final Orb2D[] orbs, final int origin) {
+        final double[] force = new double[2];
+        for (int i = 0; i < orbs.length; i++) {
+            if (i != origin) {
+                final double xDelta = orbs[origin].getX() - orbs[i].getX();
+                final double yDelta = orbs[origin].getY() - orbs[i].getY();
+                final double lenDelta = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta));
+                force[0] += (xDelta / lenDelta) * K2 / lenDelta;
+                force[1] += (yDelta / lenDelta) * K2 / lenDelta;
+            }
+        }
+
+        return force;
+    }
+
+    /**
+     * A theta of zero never approximates, so the result should match the exact
+     * sum.
+     */
+    @Test
+    public void testRepulseExact() {
+        final Orb2D[] orbs = buildOrbs(500);
+        final QuadTree qt = buildTree(orbs);
+        for (int i = 0; i < orbs.length; i += 50) {
+            final double[] expected = exactRepulsion(orbs, i);
+            final double[] actual = new double[2];
+            qt.repulse(orbs[i], 0, K2, EPSILON, actual);
+            assertEquals(actual[0], expected[0], Math.abs(expected[0]) * 1e-6 + 1e-9);
+            assertEquals(actual[1], expected[1], Math.abs(expected[1]) * 1e-6 + 1e-9);
+        }
+    }
+
+    /**
+     * The default theta should stay within a few percent of the exact sum.
+     */
+    @Test
+    public void testRepulseApproximate() {
+        final Orb2D[] orbs = buildOrbs(5000);
+        final QuadTree qt = buildTree(orbs);
+        for (int i = 0; i < orbs.length; i += 250) {
+            final double[] expected = exactRepulsion(orbs, i);
+            final double[] actual = new double[2];
+            qt.repulse(orbs[i], 0.8f, K2, EPSILON, actual);
+            final double error = Math.hypot(actual[0] - expected[0], actual[1] - expected[1]);
+            assertTrue(error <= 0.05 * Math.hypot(expected[0], expected[1]), "Relative error too large: " + error);
+        }
+    }
+}
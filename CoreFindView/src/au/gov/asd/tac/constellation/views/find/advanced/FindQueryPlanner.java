@@ -0,0 +1,275 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.views.find.advanced;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphIndexResult;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.StringAttributeDescription;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Answers <code>FindRule</code>s from attribute indices where possible.
+ * <p>
+ * A rule can be answered from an index when its attribute has an UNORDERED or
+ * ORDERED index and the rule is an equality test, or when its attribute has an
+ * ORDERED index and the rule is a range test. Every other rule must still be
+ * evaluated by scanning the elements of the graph.
+ * <p>
+ * Range queries on an index include both of their limits, so a strict
+ * comparison asks for the range up to (or from) the adjacent integer or float,
+ * and a between rule asks for the range between its two arguments.
+ * <p>
+ * Results are returned as a <code>BitSet</code> of element positions so that
+ * they can be combined with the results of other rules.
+ *
+ * @author betelgeuse
+ */
+final class FindQueryPlanner {
+
+    private FindQueryPlanner() {
+    }
+
+    /**
+     * Evaluates the given rule against the attribute index of its attribute.
+     *
+     * @param graph The graph to query.
+     * @param type The <code>GraphElementType</code> being searched.
+     * @param rule The rule to evaluate.
+     * @return The positions of all elements that match the rule, or
+     * <code>null</code> if the rule cannot be answered from an index and must
+     * be scanned.
+     */
+    static BitSet evaluate(final GraphReadMethods graph, final GraphElementType type, final FindRule rule) {
+        if (rule.getAttribute() == null || !hasPositions(type)) {
+            return null;
+        }
+
+        final int attribute = rule.getAttribute().getId();
+        final GraphIndexType indexType = graph.getAttributeIndexType(attribute);
+        if (indexType == GraphIndexType.NONE) {
+            return null;
+        }
+
+        final String attributeType = graph.getAttributeType(attribute);
+        switch (rule.getType()) {
+            case BOOLEAN:
+                if (BooleanAttributeDescription.ATTRIBUTE_NAME.equals(attributeType)
+                        && rule.getOperator() == FindTypeOperators.Operator.IS) {
+                    return lookup(graph, type, attribute, rule.getBooleanContent());
+                }
+                return null;
+            case INTEGER:
+                return IntegerAttributeDescription.ATTRIBUTE_NAME.equals(attributeType)
+                        ? evaluateInt(graph, type, attribute, indexType, rule) : null;
+            case FLOAT:
+                return FloatAttributeDescription.ATTRIBUTE_NAME.equals(attributeType)
+                        ? evaluateFloat(graph, type, attribute, indexType, rule) : null;
+            case STRING:
+                return StringAttributeDescription.ATTRIBUTE_NAME.equals(attributeType)
+                        ? evaluateString(graph, type, attribute, rule) : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the attribute named by a quick query that was recalled from a
+     * recent search, for example "Identifier" in "Orange : Identifier".
+     *
+     * @param graph The graph to query.
+     * @param type The <code>GraphElementType</code> being searched.
+     * @param content The string being searched for.
+     * @return The first attribute of the given type whose recent search suffix
+     * ends the content, or <code>Graph.NOT_FOUND</code> if there is none.
+     */
+    static int getRecalledAttribute(final GraphReadMethods graph, final GraphElementType type, final String content) {
+        if (content != null) {
+            final int attributeCount = graph.getAttributeCount(type);
+            for (int i = 0; i < attributeCount; i++) {
+                final int attribute = graph.getAttribute(type, i);
+                if (content.endsWith(FindResult.SEPARATOR + graph.getAttributeName(attribute))) {
+                    return attribute;
+                }
+            }
+        }
+        return Graph.NOT_FOUND;
+    }
+
+    /**
+     * Performs an exact match 'quick query' as an index lookup.
+     * <p>
+     * An exact match quick query that was recalled from a recent search, for
+     * example "Orange : Identifier", matches the elements whose value of that
+     * attribute is exactly "Orange". If that attribute is an indexed string
+     * attribute then those elements can be looked up rather than scanned.
+     * <p>
+     * The default quick query is a case insensitive 'contains' search across
+     * every attribute, which an index cannot answer.
+     *
+     * @param graph The graph to query.
+     * @param type The <code>GraphElementType</code> being searched.
+     * @param content The string being searched for.
+     * @return The matching <code>FindResult</code>s, or <code>null</code> if the
+     * query cannot be answered from an index and must be scanned.
+     */
+    static List<FindResult> quickLookup(final GraphReadMethods graph, final GraphElementType type, final String content) {
+        if (!hasPositions(type)) {
+            return null;
+        }
+
+        final int attribute = getRecalledAttribute(graph, type, content);
+        if (attribute == Graph.NOT_FOUND
+                || !StringAttributeDescription.ATTRIBUTE_NAME.equals(graph.getAttributeType(attribute))
+                || graph.getAttributeIndexType(attribute) == GraphIndexType.NONE) {
+            return null;
+        }
+
+        final String attributeName = graph.getAttributeName(attribute);
+        final String value = content.substring(0, content.length() - (FindResult.SEPARATOR + attributeName).length());
+        final GraphIndexResult elements = graph.getElementsWithAttributeValue(attribute, value);
+        final int count = elements.getCount();
+        final List<FindResult> results = new ArrayList<>(count);
+        for (int j = 0; j < count; j++) {
+            final int element = elements.getNextElement();
+            results.add(new FindResult(element, type.getUID(graph, element), type, attributeName, value));
+        }
+        return results;
+    }
+
+    private static BitSet evaluateInt(final GraphReadMethods graph, final GraphElementType type, final int attribute,
+            final GraphIndexType indexType, final FindRule rule) {
+        final int first = rule.getIntFirstArg();
+        switch (rule.getOperator()) {
+            case IS:
+                return lookup(graph, type, attribute, first);
+            case LESS_THAN:
+                if (indexType != GraphIndexType.ORDERED) {
+                    return null;
+                }
+                return first == Integer.MIN_VALUE ? new BitSet() : lookupRange(graph, type, attribute, Integer.MIN_VALUE, first - 1);
+            case GREATER_THAN:
+                if (indexType != GraphIndexType.ORDERED) {
+                    return null;
+                }
+                return first == Integer.MAX_VALUE ? new BitSet() : lookupRange(graph, type, attribute, first + 1, Integer.MAX_VALUE);
+            case BETWEEN:
+                if (indexType != GraphIndexType.ORDERED) {
+                    return null;
+                }
+                final int second = rule.getIntSecondArg();
+                return lookupRange(graph, type, attribute, Math.min(first, second), Math.max(first, second));
+            default:
+                return null;
+        }
+    }
+
+    private static BitSet evaluateFloat(final GraphReadMethods graph, final GraphElementType type, final int attribute,
+            final GraphIndexType indexType, final FindRule rule) {
+        final float first = rule.getFloatFirstArg();
+        switch (rule.getOperator()) {
+            case IS:
+                // NaN is never equal to anything, including the NaNs held by the index.
+                return Float.isNaN(first) ? new BitSet() : lookup(graph, type, attribute, first);
+            case LESS_THAN:
+                if (indexType != GraphIndexType.ORDERED) {
+                    return null;
+                }
+                return Float.isNaN(first) || first == Float.NEGATIVE_INFINITY ? new BitSet()
+                        : lookupRange(graph, type, attribute, Float.NEGATIVE_INFINITY, Math.nextDown(first));
+            case GREATER_THAN:
+                if (indexType != GraphIndexType.ORDERED) {
+                    return null;
+                }
+                return Float.isNaN(first) || first == Float.POSITIVE_INFINITY ? new BitSet()
+                        : lookupRange(graph, type, attribute, Math.nextUp(first), Float.POSITIVE_INFINITY);
+            case BETWEEN:
+                if (indexType != GraphIndexType.ORDERED) {
+                    return null;
+                }
+                final float second = rule.getFloatSecondArg();
+                return Float.isNaN(first) || Float.isNaN(second) ? new BitSet()
+                        : lookupRange(graph, type, attribute, Math.min(first, second), Math.max(first, second));
+            default:
+                return null;
+        }
+    }
+
+    private static BitSet evaluateString(final GraphReadMethods graph, final GraphElementType type, final int attribute, final FindRule rule) {
+        // The indices compare strings exactly, so only case sensitive equality can be answered:
+        if (rule.getOperator() != FindTypeOperators.Operator.IS || !rule.getStringCaseSensitivity()) {
+            return null;
+        }
+
+        final String content = rule.getStringContent();
+        if (content == null) {
+            return new BitSet();
+        }
+
+        final String[] terms = rule.getStringUsingList() ? content.split(",") : new String[]{content};
+        final BitSet positions = new BitSet();
+        for (final String term : terms) {
+            positions.or(lookup(graph, type, attribute, term));
+        }
+
+        return positions;
+    }
+
+    private static BitSet lookup(final GraphReadMethods graph, final GraphElementType type, final int attribute, final Object value) {
+        return toPositions(graph, type, graph.getElementsWithAttributeValue(attribute, value));
+    }
+
+    private static BitSet lookupRange(final GraphReadMethods graph, final GraphElementType type, final int attribute, final Object start, final Object end) {
+        return toPositions(graph, type, graph.getElementsWithAttributeValueRange(attribute, start, end));
+    }
+
+    private static BitSet toPositions(final GraphReadMethods graph, final GraphElementType type, final GraphIndexResult elements) {
+        final BitSet positions = new BitSet();
+        final int count = elements.getCount();
+        for (int i = 0; i < count; i++) {
+            positions.set(getPosition(graph, type, elements.getNextElement()));
+        }
+
+        return positions;
+    }
+
+    private static boolean hasPositions(final GraphElementType type) {
+        return type == GraphElementType.VERTEX || type == GraphElementType.TRANSACTION
+                || type == GraphElementType.EDGE || type == GraphElementType.LINK;
+    }
+
+    private static int getPosition(final GraphReadMethods graph, final GraphElementType type, final int element) {
+        switch (type) {
+            case VERTEX:
+                return graph.getVertexPosition(element);
+            case TRANSACTION:
+                return graph.getTransactionPosition(element);
+            case EDGE:
+                return graph.getEdgePosition(element);
+            case LINK:
+                return graph.getLinkPosition(element);
+            default:
+                throw new IllegalArgumentException("Element type has no positions: " + type);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import au.gov.asd.tac.constellation.graph.ReadableGraph;
 import au.gov.asd.tac.constellation.utilities.color.ConstellationColor;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -51,6 +52,8 @@ import org.openide.util.Exceptions;
  * <p>
  * It should be noted that all search operations are multi-threaded, and are
  * performed in parallel when there are sufficient resources on the platform.
+ * Rules on attributes with an index are answered from the index rather than
+ * by scanning; see {@link FindQueryPlanner}.
  *
  * @author betelgeuse
  */
@@ -91,8 +94,41 @@ public class QueryServices {
      * @see GraphElementType
      */
     public List<FindResult> quickQuery(final GraphElementType type, final String content) {
+        return quickQuery(type, content, false);
+    }
+
+    /**
+     * Performs a 'quick query', optionally matching values exactly.
+     * <p>
+     * By default a quick query is a case insensitive 'contains' search across
+     * every attribute. An exact match query instead matches values exactly,
+     * and a query recalled from a recent search, such as "Orange :
+     * Identifier", only matches the named attribute. An exact match query on a
+     * recalled indexed string attribute is answered from the index.
+     *
+     * @param type The <code>GraphElementType</code> to perform a quick query
+     * on.
+     * @param content The string to find instances of across the graph.
+     * @param exactMatch <code>true</code> to match values exactly,
+     * <code>false</code> to find values containing the content.
+     * @return List of <code>FindResults</code>, with each
+     * <code>FindResult</code> representing an individual positive result to the
+     * query.
+     *
+     * @see FindQueryPlanner#quickLookup
+     */
+    public List<FindResult> quickQuery(final GraphElementType type, final String content, final boolean exactMatch) {
         ReadableGraph rg = graph.getReadableGraph();
         try {
+            // An exact match on a recalled indexed attribute can be answered by a lookup:
+            if (exactMatch) {
+                final List<FindResult> indexedResults = FindQueryPlanner.quickLookup(rg, type, content);
+                if (indexedResults != null) {
+                    findResults.addAll(indexedResults);
+                    return findResults;
+                }
+            }
+
             final int sampleSpaceSize = type.getElementCount(rg);
 
             if (sampleSpaceSize > 0) {
@@ -109,7 +145,7 @@ public class QueryServices {
                         final int workloadLBound = i * loadPerThread;
                         final int workloadUBound = Math.min((sampleSpaceSize - 1), ((i + 1) * loadPerThread) - 1);
 
-                        worker[i] = new ThreadedFind(rg, barrier, this, type, content, i, workloadLBound, workloadUBound);
+                        worker[i] = new ThreadedFind(rg, barrier, this, type, content, exactMatch, i, workloadLBound, workloadUBound);
 
                         // Start the worker now that it knows its workload:
                         Thread t = new Thread(worker[i]);
@@ -163,7 +199,31 @@ public class QueryServices {
             results = new boolean[type.getElementCount(rg)];
             Arrays.fill(results, isAnd);
 
-            final int numThreadsNeeded = Math.min(AVAILABLE_THREADS, rules.size());
+            // Answer the rules on indexed attributes first, leaving only the remaining rules to be scanned:
+            final List<FindRule> scannedRules = new ArrayList<>();
+            BitSet indexedResults = null;
+            for (final FindRule rule : rules) {
+                final BitSet ruleResults = FindQueryPlanner.evaluate(rg, type, rule);
+                if (ruleResults == null) {
+                    scannedRules.add(rule);
+                } else if (indexedResults == null) {
+                    indexedResults = ruleResults;
+                } else if (isAnd) {
+                    indexedResults.and(ruleResults);
+                } else {
+                    indexedResults.or(ruleResults);
+                }
+            }
+            if (indexedResults != null) {
+                // The scanning threads only evaluate elements whose result can still change,
+                // so seeding the result set with the indexed results narrows (AND) or skips (OR) their work.
+                Arrays.fill(results, false);
+                for (int i = indexedResults.nextSetBit(0); i >= 0 && i < results.length; i = indexedResults.nextSetBit(i + 1)) {
+                    results[i] = true;
+                }
+            }
+
+            final int numThreadsNeeded = Math.min(AVAILABLE_THREADS, scannedRules.size());
             final CyclicBarrier barrier = new CyclicBarrier(numThreadsNeeded + 1);
 
             try {
@@ -172,9 +232,9 @@ public class QueryServices {
                 for (int i = 0; i < numThreadsNeeded; i++) {
                     workPackage.add(new ArrayList<>());
                 }
-                for (int i = 0; i < rules.size(); i++) {
+                for (int i = 0; i < scannedRules.size(); i++) {
                     final int allocateTo = i % numThreadsNeeded;
-                    workPackage.get(allocateTo).add(rules.get(i));
+                    workPackage.get(allocateTo).add(scannedRules.get(i));
                 }
 
                 // Allocate work and start threads:
@@ -336,6 +396,7 @@ public class QueryServices {
         private final List<FindRule> rules;
         private final int threadID;
         private final boolean simpleMode;
+        private final boolean exactMatch;
         private boolean isAnd = false;
         // Simple mode variables:
         private int workloadLBound = -1;
@@ -361,6 +422,7 @@ public class QueryServices {
          * @param type The <code>GraphElementType</code> to perform the quick
          * search operation on.
          * @param content The string to search the graph for instances of.
+         * @param exactMatch <code>true</code> to match values exactly.
          * @param threadID The id of this thread.
          * @param workloadLBound The lower index of the graph that this instance
          * of <code>ThreadedFind</code> is responsible for querying.
@@ -372,7 +434,7 @@ public class QueryServices {
          * @see GraphElementType
          */
         public ThreadedFind(final GraphReadMethods rg, final CyclicBarrier barrier, final QueryServices parent,
-                final GraphElementType type, final String content, final int threadID,
+                final GraphElementType type, final String content, final boolean exactMatch, final int threadID,
                 final int workloadLBound, final int workloadUBound) {
             this.rg = rg;
 
@@ -381,6 +443,7 @@ public class QueryServices {
 
             this.type = type;
             this.content = content;
+            this.exactMatch = exactMatch;
 
             this.threadID = threadID;
 
@@ -440,6 +503,7 @@ public class QueryServices {
             simpleMode = false;
             this.type = type;
             this.content = null;
+            this.exactMatch = false;
 
             this.isAnd = isAnd;
         }
@@ -474,13 +538,23 @@ public class QueryServices {
          * <p>
          * Removes the recent search suffix from the search if its found in the
          * search text. For example if the recent search was "Orange : Name"
-         * then just search for "Orange"
+         * then just search for "Orange". An exact match search for a recent
+         * search only looks in the named attribute.
          */
         private void quickFind() {
+            final int recalledAttribute = exactMatch ? FindQueryPlanner.getRecalledAttribute(rg, type, content) : Graph.NOT_FOUND;
             for (int i = 0; i < rg.getAttributeCount(type); i++) {
                 final int attrID = rg.getAttribute(type, i);
+                if (recalledAttribute != Graph.NOT_FOUND && attrID != recalledAttribute) {
+                    continue;
+                }
                 final String recentSearchSuffix = FindResult.SEPARATOR + rg.getAttributeName(attrID);
-                final String searchText = content.contains(recentSearchSuffix) ? content.replace(recentSearchSuffix, "") : content;
+                final String searchText;
+                if (attrID == recalledAttribute) {
+                    searchText = content.substring(0, content.length() - recentSearchSuffix.length());
+                } else {
+                    searchText = content.contains(recentSearchSuffix) ? content.replace(recentSearchSuffix, "") : content;
+                }
 
                 for (int elementPosition = workloadLBound; elementPosition <= workloadUBound; elementPosition++) {
                     final int elementId = type.getElement(rg, elementPosition);
@@ -488,7 +562,9 @@ public class QueryServices {
                     final String retrieved = rg.getStringValue(attrID, elementId);
 
                     // Check if we have a match:
-                    if (retrieved != null && FindComparisons.StringComparisons.evaluateContains(retrieved, searchText, false)) {
+                    final boolean matches = exactMatch ? searchText.equals(retrieved)
+                            : retrieved != null && FindComparisons.StringComparisons.evaluateContains(retrieved, searchText, false);
+                    if (matches) {
                         FindResult fr = new FindResult(elementId, elementUid, type, new GraphAttribute(rg, attrID).getName(), retrieved);
                         parent.findResults.add(fr);
                     }
@@ -40,6 +40,7 @@ public class QuickFindPlugin extends SimplePlugin {
 
     private final GraphElementType type;
     private final String content;
+    private final boolean exactMatch;
     private List<FindResult> results;
 
     /**
@@ -53,14 +54,31 @@ public class QuickFindPlugin extends SimplePlugin {
      * @see GraphElementType
      */
     public QuickFindPlugin(final GraphElementType type, final String content) {
+        this(type, content, false);
+    }
+
+    /**
+     * Constructs a new <code>QuickFindPlugin</code>, and passes in the
+     * relevant find criterion.
+     *
+     * @param type The type of GraphElements that the search operations will be
+     * performed on.
+     * @param content The particular string to be searched for.
+     * @param exactMatch <code>true</code> to only find values equal to the
+     * content, <code>false</code> to find values containing it.
+     *
+     * @see QueryServices#quickQuery(GraphElementType, String, boolean)
+     */
+    public QuickFindPlugin(final GraphElementType type, final String content, final boolean exactMatch) {
         this.type = type;
         this.content = content;
+        this.exactMatch = exactMatch;
     }
 
     @Override
     protected void execute(final PluginGraphs graphs, final PluginInteraction interaction, final PluginParameters parameters) throws InterruptedException {
         final QueryServices qs = new QueryServices(graphs.getGraph());
-        results = qs.quickQuery(type, content);
+        results = qs.quickQuery(type, content, exactMatch);
     }
 
     /**
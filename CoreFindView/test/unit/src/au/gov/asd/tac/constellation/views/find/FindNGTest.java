@@ -18,6 +18,7 @@ package au.gov.asd.tac.constellation.views.find;
 import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.GraphAttribute;
 import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
 import au.gov.asd.tac.constellation.graph.ReadableGraph;
 import au.gov.asd.tac.constellation.graph.WritableGraph;
 import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
@@ -27,13 +28,18 @@ import au.gov.asd.tac.constellation.graph.locking.DualGraph;
 import au.gov.asd.tac.constellation.graph.node.GraphNode;
 import au.gov.asd.tac.constellation.plugins.PluginException;
 import au.gov.asd.tac.constellation.plugins.PluginExecution;
+import au.gov.asd.tac.constellation.utilities.text.SeparatorConstants;
 import au.gov.asd.tac.constellation.views.find.advanced.AdvancedFindPlugin;
 import au.gov.asd.tac.constellation.views.find.advanced.FindResult;
 import au.gov.asd.tac.constellation.views.find.advanced.FindRule;
 import au.gov.asd.tac.constellation.views.find.advanced.FindTypeOperators;
+import au.gov.asd.tac.constellation.views.find.advanced.QueryServices;
+import au.gov.asd.tac.constellation.views.find.advanced.QuickFindPlugin;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import org.openide.windows.TopComponent;
 import static org.testng.Assert.fail;
 import static org.testng.AssertJUnit.assertEquals;
@@ -404,6 +410,143 @@ public class FindNGTest {
         }
     }
 
+    @Test
+    public void findIndexedValuesTest() throws InterruptedException, PluginException {
+        WritableGraph wg = graph.getWritableGraph("index", true);
+        try {
+            wg.setAttributeIndexType(vNameAttr, GraphIndexType.UNORDERED);
+            wg.setAttributeIndexType(attrX, GraphIndexType.ORDERED);
+        } finally {
+            wg.commit();
+        }
+
+        ArrayList<FindRule> rules = new ArrayList<>();
+        ReadableGraph rg = graph.getReadableGraph();
+        try {
+            // setup find criteria / rules
+            HashMap<String, Object> values = new HashMap<>();
+            values.put("string_content", "name2,name5,name7");
+            values.put("string_case_sensitive", true);
+            values.put("string_use_list", true);
+            FindRule rule1 = new FindRule(FindTypeOperators.Type.STRING, new GraphAttribute(rg, vNameAttr), FindTypeOperators.Operator.IS, values);
+            rules.add(rule1);
+
+            values = new HashMap<>();
+            values.put("float_first_item", 5.0f);
+            FindRule rule2 = new FindRule(FindTypeOperators.Type.FLOAT, new GraphAttribute(rg, attrX), FindTypeOperators.Operator.LESS_THAN, values);
+            rules.add(rule2);
+
+            values = new HashMap<>();
+            values.put("boolean_content", true);
+            FindRule rule3 = new FindRule(FindTypeOperators.Type.BOOLEAN, new GraphAttribute(rg, vSelAttr), FindTypeOperators.Operator.IS, values);
+            rules.add(rule3);
+
+            // perform find search
+            // need to create temporary GraphNode and skip the RemoteInit portion of the initialisation
+            GraphNode aGraphNode = new GraphNode(graph, null, new TopComponent(), null);
+
+            AdvancedFindPlugin queryPlugin = new AdvancedFindPlugin(GraphElementType.VERTEX, rules, true);
+            PluginExecution.withPlugin(queryPlugin).executeNow(graph);
+            List<FindResult> results = queryPlugin.getResults();
+
+            // validate results
+            assertEquals("result size", 1, results.size());
+            assertTrue("node 'name2' found", nodeFound(rg, "name2", results));
+
+            queryPlugin = new AdvancedFindPlugin(GraphElementType.VERTEX, rules, false);
+            PluginExecution.withPlugin(queryPlugin).executeNow(graph);
+            results = queryPlugin.getResults();
+
+            // validate results
+            assertEquals("result size", 7, results.size());
+        } finally {
+            rg.release();
+        }
+    }
+
+    @Test
+    public void quickFindIndexedValueTest() throws InterruptedException, PluginException {
+        WritableGraph wg = graph.getWritableGraph("index", true);
+        try {
+            wg.setAttributeIndexType(vNameAttr, GraphIndexType.UNORDERED);
+        } finally {
+            wg.commit();
+        }
+
+        ReadableGraph rg = graph.getReadableGraph();
+        try {
+            QuickFindPlugin queryPlugin = new QuickFindPlugin(GraphElementType.VERTEX, "name3" + FindResult.SEPARATOR + "name", true);
+            PluginExecution.withPlugin(queryPlugin).executeNow(graph);
+            List<FindResult> results = queryPlugin.getResults();
+
+            // validate results
+            assertEquals("result size", 1, results.size());
+            assertTrue("node 'name3' found", nodeFound(rg, "name3", results));
+
+            // a search that is not an exact match is still scanned
+            queryPlugin = new QuickFindPlugin(GraphElementType.VERTEX, "ame");
+            PluginExecution.withPlugin(queryPlugin).executeNow(graph);
+            results = queryPlugin.getResults();
+
+            // validate results
+            assertEquals("result size", 7, results.size());
+        } finally {
+            rg.release();
+        }
+    }
+
+    @Test
+    public void quickFindSameWithAndWithoutIndexTest() throws InterruptedException {
+        WritableGraph wg = graph.getWritableGraph("add", true);
+        try {
+            final int upperCase = wg.addVertex();
+            wg.setStringValue(vNameAttr, upperCase, "NAME3");
+            final int longer = wg.addVertex();
+            wg.setStringValue(vNameAttr, longer, "name33");
+        } finally {
+            wg.commit();
+        }
+
+        final String[] queries = {
+            "name3" + FindResult.SEPARATOR + "name",
+            "Name3" + FindResult.SEPARATOR + "name",
+            "missing" + FindResult.SEPARATOR + "name",
+            "ame"
+        };
+        final List<Set<String>> unindexed = new ArrayList<>();
+        for (final String query : queries) {
+            unindexed.add(quickQuery(query, false));
+            unindexed.add(quickQuery(query, true));
+        }
+
+        wg = graph.getWritableGraph("index", true);
+        try {
+            wg.setAttributeIndexType(vNameAttr, GraphIndexType.UNORDERED);
+        } finally {
+            wg.commit();
+        }
+
+        final List<Set<String>> indexed = new ArrayList<>();
+        for (final String query : queries) {
+            indexed.add(quickQuery(query, false));
+            indexed.add(quickQuery(query, true));
+        }
+        assertEquals(unindexed, indexed);
+
+        // a recalled search still finds case variants and partial matches
+        assertEquals(3, unindexed.get(0).size());
+        assertEquals(1, unindexed.get(1).size());
+        assertEquals(0, unindexed.get(3).size());
+    }
+
+    private Set<String> quickQuery(final String content, final boolean exactMatch) {
+        final Set<String> results = new TreeSet<>();
+        for (final FindResult result : new QueryServices(graph).quickQuery(GraphElementType.VERTEX, content, exactMatch)) {
+            results.add(result.getID() + SeparatorConstants.COLON + result.getAttributeName() + SeparatorConstants.COLON + result.getAttributeValue());
+        }
+        return results;
+    }
+
     // determine whether the node of the specified name was part of the result set
     private boolean nodeFound(ReadableGraph graph, String base_name, List<FindResult> results) {
         int nameAttrId = graph.getAttribute(GraphElementType.VERTEX, "name");
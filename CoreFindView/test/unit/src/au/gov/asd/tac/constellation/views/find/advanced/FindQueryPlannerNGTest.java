@@ -0,0 +1,148 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.views.find.advanced;
+
+import au.gov.asd.tac.constellation.graph.GraphAttribute;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Find Query Planner Test.
+ * <p>
+ * Every indexed range rule must find exactly the elements that the scan in
+ * {@link QueryServices} would find, including at the boundary values.
+ *
+ * @author betelgeuse
+ */
+public class FindQueryPlannerNGTest {
+
+    private static final int[] INT_VALUES = {Integer.MIN_VALUE, -10, -1, 0, 1, 2, 3, 5, 5, 8, 9, 10, Integer.MAX_VALUE};
+    private static final float[] FLOAT_VALUES = {Float.NEGATIVE_INFINITY, -2.5F, -0.0F, 0.0F, Float.MIN_VALUE, 1.0F,
+        Math.nextDown(1.5F), 1.5F, 1.5F, Math.nextUp(1.5F), 3.0F, Float.MAX_VALUE, Float.POSITIVE_INFINITY, Float.NaN};
+
+    private StoreGraph graph;
+    private int intAttribute;
+    private int floatAttribute;
+
+    @BeforeMethod
+    public void setUpMethod() {
+        graph = new StoreGraph();
+        intAttribute = graph.addAttribute(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "int", null, null, null);
+        floatAttribute = graph.addAttribute(GraphElementType.VERTEX, FloatAttributeDescription.ATTRIBUTE_NAME, "float", null, null, null);
+        for (int i = 0; i < Math.max(INT_VALUES.length, FLOAT_VALUES.length); i++) {
+            final int vertex = graph.addVertex();
+            graph.setIntValue(intAttribute, vertex, INT_VALUES[i % INT_VALUES.length]);
+            graph.setFloatValue(floatAttribute, vertex, FLOAT_VALUES[i % FLOAT_VALUES.length]);
+        }
+        graph.setAttributeIndexType(intAttribute, GraphIndexType.ORDERED);
+        graph.setAttributeIndexType(floatAttribute, GraphIndexType.ORDERED);
+    }
+
+    private FindRule intRule(final FindTypeOperators.Operator operator, final int first, final int second) {
+        final Map<String, Object> args = new HashMap<>();
+        args.put("int_first_item", first);
+        args.put("int_second_item", second);
+        return new FindRule(FindTypeOperators.Type.INTEGER, new GraphAttribute(graph, intAttribute), operator, args);
+    }
+
+    private FindRule floatRule(final FindTypeOperators.Operator operator, final float first, final float second) {
+        final Map<String, Object> args = new HashMap<>();
+        args.put("float_first_item", first);
+        args.put("float_second_item", second);
+        return new FindRule(FindTypeOperators.Type.FLOAT, new GraphAttribute(graph, floatAttribute), operator, args);
+    }
+
+    /**
+     * The positions that the scan in QueryServices would find for a rule.
+     */
+    private BitSet scan(final FindRule rule) {
+        final BitSet positions = new BitSet();
+        for (int position = 0; position < graph.getVertexCount(); position++) {
+            final int vertex = graph.getVertex(position);
+            final boolean found;
+            if (rule.getType() == FindTypeOperators.Type.INTEGER) {
+                final int item = graph.getIntValue(intAttribute, vertex);
+                switch (rule.getOperator()) {
+                    case LESS_THAN:
+                        found = FindComparisons.IntComparisons.evaluateLessThan(item, rule.getIntFirstArg());
+                        break;
+                    case GREATER_THAN:
+                        found = FindComparisons.IntComparisons.evaluateGreaterThan(item, rule.getIntFirstArg());
+                        break;
+                    default:
+                        found = FindComparisons.IntComparisons.evaluateBetween(item, rule.getIntFirstArg(), rule.getIntSecondArg());
+                        break;
+                }
+            } else {
+                final float item = graph.getFloatValue(floatAttribute, vertex);
+                switch (rule.getOperator()) {
+                    case LESS_THAN:
+                        found = FindComparisons.FloatComparisons.evaluateLessThan(item, rule.getFloatFirstArg());
+                        break;
+                    case GREATER_THAN:
+                        found = FindComparisons.FloatComparisons.evaluateGreaterThan(item, rule.getFloatFirstArg());
+                        break;
+                    default:
+                        found = FindComparisons.FloatComparisons.evaluateBetween(item, rule.getFloatFirstArg(), rule.getFloatSecondArg());
+                        break;
+                }
+            }
+            positions.set(position, found);
+        }
+        return positions;
+    }
+
+    private void assertMatchesScan(final FindRule rule) {
+        assertEquals(FindQueryPlanner.evaluate(graph, GraphElementType.VERTEX, rule), scan(rule), rule.getOperator() + " " + rule.getArgs());
+    }
+
+    @Test
+    public void intRangesMatchScan() {
+        for (final int value : INT_VALUES) {
+            assertMatchesScan(intRule(FindTypeOperators.Operator.LESS_THAN, value, 0));
+            assertMatchesScan(intRule(FindTypeOperators.Operator.GREATER_THAN, value, 0));
+            for (final int other : INT_VALUES) {
+                assertMatchesScan(intRule(FindTypeOperators.Operator.BETWEEN, value, other));
+            }
+        }
+        assertMatchesScan(intRule(FindTypeOperators.Operator.LESS_THAN, 4, 0));
+        assertMatchesScan(intRule(FindTypeOperators.Operator.GREATER_THAN, 4, 0));
+        assertMatchesScan(intRule(FindTypeOperators.Operator.BETWEEN, 4, 6));
+    }
+
+    @Test
+    public void floatRangesMatchScan() {
+        for (final float value : FLOAT_VALUES) {
+            assertMatchesScan(floatRule(FindTypeOperators.Operator.LESS_THAN, value, 0));
+            assertMatchesScan(floatRule(FindTypeOperators.Operator.GREATER_THAN, value, 0));
+            for (final float other : FLOAT_VALUES) {
+                assertMatchesScan(floatRule(FindTypeOperators.Operator.BETWEEN, value, other));
+            }
+        }
+        assertMatchesScan(floatRule(FindTypeOperators.Operator.LESS_THAN, 1.25F, 0));
+        assertMatchesScan(floatRule(FindTypeOperators.Operator.GREATER_THAN, 1.25F, 0));
+        assertMatchesScan(floatRule(FindTypeOperators.Operator.BETWEEN, 1.25F, 2.0F));
+    }
+}
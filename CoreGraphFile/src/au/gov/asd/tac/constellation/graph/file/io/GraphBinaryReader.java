@@ -0,0 +1,577 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.file.io;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.attribute.AttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.LazyAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.io.AbstractGraphIOProvider;
+import au.gov.asd.tac.constellation.graph.attribute.io.GraphByteReader;
+import au.gov.asd.tac.constellation.graph.locking.DualGraph;
+import au.gov.asd.tac.constellation.graph.schema.SchemaFactory;
+import au.gov.asd.tac.constellation.utilities.datastructure.ImmutableObjectCache;
+import au.gov.asd.tac.constellation.utilities.gui.IoProgress;
+import au.gov.asd.tac.constellation.utilities.stream.ExtendedBuffer;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingJsonFactory;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read a graph in the binary columnar format written by
+ * {@link GraphBinaryWriter}.
+ * <p>
+ * In lazy mode, the string attributes of vertices and transactions are not
+ * decoded when the graph is read. Their encoded values are kept, and each
+ * attribute is decoded the first time it is accessed, so a large graph is
+ * usable as soon as its structure and other attributes have been read.
+ * Attributes that are part of a primary key are always read immediately.
+ * <p>
+ * If a delta written by {@link GraphBinaryWriter#writeDelta} is given, the
+ * attributes that it holds are read from the delta instead of the graph file.
+ * A delta that was not written against the graph file is ignored.
+ *
+ * @author algol
+ */
+final class GraphBinaryReader {
+
+    private static final Logger LOGGER = Logger.getLogger(GraphBinaryReader.class.getName());
+
+    private final Map<String, AbstractGraphIOProvider> providers;
+    private final GraphByteReader byteReader;
+    private final GraphByteReader deltaReader;
+    private final boolean lazy;
+    private final ImmutableObjectCache immutableObjectCache = new ImmutableObjectCache();
+
+    /**
+     * Construct a new GraphBinaryReader.
+     *
+     * @param providers The IO providers, keyed by attribute type.
+     * @param byteReader The contents of the graph file.
+     * @param deltaReader The contents of a delta against the graph file, may
+     * be null.
+     * @param lazy True if string attributes of vertices and transactions should
+     * be decoded when they are first accessed rather than when the graph is
+     * read.
+     */
+    GraphBinaryReader(final Map<String, AbstractGraphIOProvider> providers, final GraphByteReader byteReader, final GraphByteReader deltaReader, final boolean lazy) {
+        this.providers = providers;
+        this.byteReader = byteReader;
+        this.deltaReader = deltaReader;
+        this.lazy = lazy;
+    }
+
+    /**
+     * Read the graph held by the byte reader.
+     *
+     * @param progress A progress indicator, may be null.
+     *
+     * @return A new Graph.
+     *
+     * @throws IOException If an I/O error occurs.
+     * @throws GraphParseException On graph parsing errors.
+     */
+    Graph readGraph(final IoProgress progress) throws IOException, GraphParseException {
+        final DataInputStream in = open(byteReader, GraphFileConstants.BINARY_GRAPH_ENTRY);
+
+        if (in.readInt() != GraphBinaryWriter.MAGIC) {
+            throw new GraphParseException("Entry " + GraphFileConstants.BINARY_GRAPH_ENTRY + " is not a binary graph");
+        }
+
+        final int formatVersion = in.readInt();
+        if (formatVersion < 1 || formatVersion > GraphBinaryWriter.FORMAT_VERSION) {
+            throw new GraphParseException(String.format("Binary format version %d is unknown.", formatVersion));
+        }
+
+        final int version = in.readInt();
+        if (version < 0 || version > GraphJsonWriter.VERSION) {
+            throw new GraphParseException(String.format("Version number %d is unknown.", version));
+        }
+
+        final Map<String, Integer> versionedItems = new HashMap<>();
+        final int versionedItemCount = in.readInt();
+        for (int i = 0; i < versionedItemCount; i++) {
+            final String versionedItem = readString(in);
+            versionedItems.put(versionedItem, in.readInt());
+        }
+
+        final SchemaFactory schemaFactory = GraphJsonReader.getSchemaFactory(readString(in));
+        final StoreGraph storeGraph = GraphJsonReader.createStoreGraph(schemaFactory, versionedItems);
+
+        long globalModCount = in.readLong();
+        final long structModCount = in.readLong();
+        final long attrModCount = in.readLong();
+
+        // The attribute entries replaced by the delta, with their value modification counters.
+        final Map<String, Long> deltaEntries = new HashMap<>();
+        if (deltaReader != null) {
+            final DataInputStream delta = open(deltaReader, GraphFileConstants.BINARY_DELTA_ENTRY);
+            if (delta.readInt() != GraphBinaryWriter.MAGIC) {
+                throw new GraphParseException("Entry " + GraphFileConstants.BINARY_DELTA_ENTRY + " is not a binary graph delta");
+            }
+
+            final int deltaVersion = delta.readInt();
+            if (deltaVersion < 1 || deltaVersion > GraphBinaryWriter.FORMAT_VERSION) {
+                throw new GraphParseException(String.format("Binary format version %d is unknown.", deltaVersion));
+            }
+
+            final long baseGlobalModCount = delta.readLong();
+            final long baseStructModCount = delta.readLong();
+            final long baseAttrModCount = delta.readLong();
+            if (baseGlobalModCount == globalModCount && baseStructModCount == structModCount && baseAttrModCount == attrModCount) {
+                globalModCount = delta.readLong();
+                final int columnCount = delta.readInt();
+                for (int i = 0; i < columnCount; i++) {
+                    final String entry = readString(delta);
+                    deltaEntries.put(entry, delta.readLong());
+                }
+            } else {
+                LOGGER.warning("Ignoring a delta that was not written against this graph file");
+            }
+        }
+
+        // The attributes of each element type in file order, NOT_FOUND if they could not be added.
+        final Map<GraphElementType, int[]> attributeIds = new HashMap<>();
+        final Map<GraphElementType, String[]> attributeTypes = new HashMap<>();
+        final Map<GraphElementType, Boolean> hasData = new HashMap<>();
+        final Map<Integer, Long> attrValCount = new HashMap<>();
+        for (final GraphElementType elementType : GraphBinaryWriter.ELEMENT_TYPES_FILE_ORDER) {
+            hasData.put(elementType, in.readBoolean());
+
+            final int attributeCount = in.readInt();
+            final int[] ids = new int[attributeCount];
+            final String[] types = new String[attributeCount];
+            final Map<String, Integer> labels = new HashMap<>();
+            for (int i = 0; i < attributeCount; i++) {
+                final String attrLabel = readString(in);
+                final String attrType = readString(in);
+                final String attrDesc = readString(in);
+                final Object attrDefault = readDefault(in);
+                final String attributeMergerId = readString(in);
+                final long modCount = in.readLong();
+
+                types[i] = attrType;
+                try {
+                    ids[i] = storeGraph.addAttribute(elementType, attrType, attrLabel, attrDesc, attrDefault, attributeMergerId);
+                    labels.put(attrLabel, ids[i]);
+                    attrValCount.put(ids[i], modCount);
+                } catch (final IllegalArgumentException ex) {
+                    // As with the JSON format, unknown META attribute types are logged and skipped.
+                    if (elementType != GraphElementType.META) {
+                        throw ex;
+                    }
+
+                    LOGGER.warning(String.format("While adding %s attribute: %s", elementType, ex.getMessage()));
+                    ids[i] = Graph.NOT_FOUND;
+                }
+            }
+            attributeIds.put(elementType, ids);
+            attributeTypes.put(elementType, types);
+
+            final int keyLength = in.readInt();
+            if (keyLength > 0) {
+                final int[] keyAttributes = new int[keyLength];
+                for (int i = 0; i < keyLength; i++) {
+                    final String keyLabel = readString(in);
+                    if (!labels.containsKey(keyLabel)) {
+                        throw new GraphParseException(String.format("Key '%s' is not a valid attribute", keyLabel));
+                    }
+                    keyAttributes[i] = labels.get(keyLabel);
+                }
+                storeGraph.setPrimaryKey(elementType, keyAttributes);
+            }
+        }
+
+        if (progress != null) {
+            progress.progress("Reading topology...", 10);
+        }
+
+        // Add the vertices and transactions in their original order.
+        final DataInputStream topology = open(byteReader, GraphFileConstants.BINARY_TOPOLOGY_ENTRY);
+        final int[] fileVertices = new int[topology.readInt()];
+        final int[] vertices = new int[fileVertices.length];
+        for (int i = 0; i < fileVertices.length; i++) {
+            fileVertices[i] = topology.readInt();
+            vertices[i] = storeGraph.addVertex();
+        }
+        final IdMap vertexMap = new IdMap(fileVertices, vertices);
+
+        final int[] fileTransactions = new int[topology.readInt()];
+        final int[] sources = new int[fileTransactions.length];
+        final int[] destinations = new int[fileTransactions.length];
+        for (int i = 0; i < fileTransactions.length; i++) {
+            fileTransactions[i] = topology.readInt();
+        }
+        for (int i = 0; i < fileTransactions.length; i++) {
+            sources[i] = vertexMap.getId(topology.readInt());
+        }
+        for (int i = 0; i < fileTransactions.length; i++) {
+            destinations[i] = vertexMap.getId(topology.readInt());
+        }
+        final int[] transactions = new int[fileTransactions.length];
+        for (int i = 0; i < fileTransactions.length; i++) {
+            transactions[i] = storeGraph.addTransaction(sources[i], destinations[i], topology.readBoolean());
+        }
+        final IdMap transactionMap = new IdMap(fileTransactions, transactions);
+
+        // Read the attribute values.
+        final int[] graphElements = new int[]{0};
+        int workunit = 20;
+        for (final GraphElementType elementType : GraphBinaryWriter.ELEMENT_TYPES_FILE_ORDER) {
+            if (!hasData.get(elementType)) {
+                continue;
+            }
+
+            final int[] elements = elementType == GraphElementType.VERTEX ? vertices
+                    : elementType == GraphElementType.TRANSACTION ? transactions
+                    : graphElements;
+            final int[] ids = attributeIds.get(elementType);
+            final String[] types = attributeTypes.get(elementType);
+
+            if (progress != null) {
+                final String msg = String.format("Reading %s attributes...", IoUtilities.getGraphElementTypeString(elementType));
+                progress.progress(msg, workunit);
+            }
+            workunit += 20;
+
+            final boolean deferStrings = lazy && (elementType == GraphElementType.VERTEX || elementType == GraphElementType.TRANSACTION);
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == Graph.NOT_FOUND) {
+                    continue;
+                }
+
+                final String entry = GraphBinaryWriter.getAttributeEntry(elementType, i);
+                final GraphByteReader reader;
+                if (deltaEntries.containsKey(entry)) {
+                    reader = deltaReader;
+                    attrValCount.put(ids[i], deltaEntries.get(entry));
+                } else {
+                    reader = byteReader;
+                }
+
+                if (deferStrings && GraphBinaryWriter.getEncoding(types[i]) == GraphBinaryWriter.STRING && !storeGraph.isPrimaryKey(ids[i])) {
+                    final byte[] data = readEntry(reader, entry);
+                    if (data.length > 0 && data[0] == GraphBinaryWriter.STRING) {
+                        storeGraph.setAttributeLoader(ids[i], new StringColumnLoader(entry, data, elements));
+                    } else {
+                        readColumn(new DataInputStream(new ByteArrayInputStream(data)), reader, storeGraph, ids[i], types[i], elements, vertexMap, transactionMap);
+                    }
+                } else {
+                    readColumn(open(reader, entry), reader, storeGraph, ids[i], types[i], elements, vertexMap, transactionMap);
+                }
+            }
+        }
+
+        storeGraph.setModificationCounters(globalModCount, structModCount, attrModCount);
+        for (final Map.Entry<Integer, Long> e : attrValCount.entrySet()) {
+            storeGraph.setValueModificationCounter(e.getKey(), e.getValue());
+        }
+
+        GraphJsonReader.updateGraph(storeGraph, versionedItems);
+
+        final Graph graph = new DualGraph(schemaFactory.createSchema(), storeGraph);
+
+        if (progress != null) {
+            progress.finish();
+        }
+
+        LOGGER.log(Level.INFO, "immutableObjectCache={0}", immutableObjectCache);
+
+        return graph;
+    }
+
+    private static DataInputStream open(final GraphByteReader reader, final String entry) throws IOException, GraphParseException {
+        final ExtendedBuffer buffer = reader.read(entry);
+        if (buffer == null) {
+            throw new GraphParseException("Entry " + entry + " not found in graph file");
+        }
+
+        return new DataInputStream(new BufferedInputStream(buffer.getInputStream()));
+    }
+
+    private static byte[] readEntry(final GraphByteReader reader, final String entry) throws IOException, GraphParseException {
+        final ExtendedBuffer buffer = reader.read(entry);
+        if (buffer == null) {
+            throw new GraphParseException("Entry " + entry + " not found in graph file");
+        }
+
+        return buffer.getInputStream().readAllBytes();
+    }
+
+    private static Object readDefault(final DataInputStream in) throws IOException, GraphParseException {
+        final byte tag = in.readByte();
+        switch (tag) {
+            case GraphBinaryWriter.DEFAULT_NULL:
+                return null;
+            case GraphBinaryWriter.DEFAULT_NUMBER:
+                return in.readDouble();
+            case GraphBinaryWriter.DEFAULT_BOOLEAN:
+                return in.readBoolean();
+            case GraphBinaryWriter.DEFAULT_STRING:
+                return readString(in);
+            default:
+                throw new GraphParseException(String.format("Unknown default value tag %d", tag));
+        }
+    }
+
+    private void readColumn(final DataInputStream in, final GraphByteReader reader, final StoreGraph graph, final int attrId, final String attrType, final int[] elements,
+            final IdMap vertexMap, final IdMap transactionMap) throws IOException, GraphParseException {
+        final byte encoding = in.readByte();
+        switch (encoding) {
+            case GraphBinaryWriter.BYTE:
+                for (final int element : elements) {
+                    graph.setByteValue(attrId, element, in.readByte());
+                }
+                break;
+            case GraphBinaryWriter.SHORT:
+                for (final int element : elements) {
+                    graph.setShortValue(attrId, element, in.readShort());
+                }
+                break;
+            case GraphBinaryWriter.INT:
+                for (final int element : elements) {
+                    graph.setIntValue(attrId, element, in.readInt());
+                }
+                break;
+            case GraphBinaryWriter.LONG:
+                for (final int element : elements) {
+                    graph.setLongValue(attrId, element, in.readLong());
+                }
+                break;
+            case GraphBinaryWriter.FLOAT:
+                for (final int element : elements) {
+                    graph.setFloatValue(attrId, element, in.readFloat());
+                }
+                break;
+            case GraphBinaryWriter.DOUBLE:
+                for (final int element : elements) {
+                    graph.setDoubleValue(attrId, element, in.readDouble());
+                }
+                break;
+            case GraphBinaryWriter.BOOLEAN:
+                for (final int element : elements) {
+                    graph.setBooleanValue(attrId, element, in.readBoolean());
+                }
+                break;
+            case GraphBinaryWriter.STRING:
+                final String[] dictionary = readDictionary(in);
+                for (int i = 0; i < dictionary.length; i++) {
+                    dictionary[i] = immutableObjectCache.deduplicate(dictionary[i]);
+                }
+                for (final int element : elements) {
+                    final int code = in.readInt();
+                    graph.setStringValue(attrId, element, code == -1 ? null : dictionary[code]);
+                }
+                break;
+            case GraphBinaryWriter.PROVIDER:
+                readProviderColumn(in, reader, graph, attrId, attrType, elements, vertexMap, transactionMap);
+                break;
+            default:
+                throw new GraphParseException(String.format("Unknown encoding %d for attribute type %s", encoding, attrType));
+        }
+    }
+
+    private void readProviderColumn(final DataInputStream in, final GraphByteReader reader, final StoreGraph graph, final int attrId, final String attrType, final int[] elements,
+            final IdMap vertexMap, final IdMap transactionMap) throws IOException, GraphParseException {
+        final AbstractGraphIOProvider ioProvider = providers.get(attrType);
+        if (ioProvider == null) {
+            throw new GraphParseException("No IO provider found for attribute type: " + attrType);
+        }
+
+        final String label = graph.getAttributeName(attrId);
+        try (final JsonParser jp = new MappingJsonFactory().createParser(in)) {
+            if (jp.nextToken() != JsonToken.START_ARRAY) {
+                throw new GraphParseException(String.format("Expected attribute '%s' START_ARRAY", label));
+            }
+
+            for (final int element : elements) {
+                if (jp.nextToken() != JsonToken.START_OBJECT) {
+                    throw new GraphParseException(String.format("Expected attribute '%s' START_OBJECT at %s", label, jp.getCurrentLocation()));
+                }
+
+                // Default values are written as an empty object.
+                final JsonNode node = jp.readValueAsTree();
+                final JsonNode jnode = node.get(label);
+                if (jnode != null) {
+                    ioProvider.readObject(attrId, element, jnode, graph, vertexMap, transactionMap, reader, immutableObjectCache);
+                }
+            }
+        }
+    }
+
+    private static String[] readDictionary(final DataInputStream in) throws IOException {
+        final String[] dictionary = new String[in.readInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(in);
+        }
+
+        return dictionary;
+    }
+
+    /**
+     * Read a String written by {@link GraphBinaryWriter#writeString}.
+     */
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a dictionary encoded string attribute into its
+     * AttributeDescription when the attribute is first accessed.
+     */
+    private static final class StringColumnLoader implements LazyAttributeDescription.Loader {
+
+        private final String entry;
+        private final byte[] data;
+        private final int[] elements;
+
+        StringColumnLoader(final String entry, final byte[] data, final int[] elements) {
+            this.entry = entry;
+            this.data = data;
+            this.elements = elements;
+        }
+
+        @Override
+        public void load(final AttributeDescription description) {
+            try {
+                final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+                in.readByte();
+                final String[] dictionary = readDictionary(in);
+                for (final int element : elements) {
+                    final int code = in.readInt();
+                    description.setString(element, code == -1 ? null : dictionary[code]);
+                }
+            } catch (final IOException ex) {
+                throw new IllegalStateException("Error loading attribute values from " + entry, ex);
+            }
+        }
+    }
+
+    /**
+     * A read only mapping from the element ids in the file to the element ids
+     * in the graph, backed by arrays rather than boxed entries.
+     * <p>
+     * This is passed to the IO providers in place of the HashMap used by the
+     * JSON format.
+     */
+    private static final class IdMap extends AbstractMap<Integer, Integer> {
+
+        private final int[] fileIds;
+        private final int[] graphIds;
+        private final int[] index;
+
+        IdMap(final int[] fileIds, final int[] graphIds) {
+            this.fileIds = fileIds;
+            this.graphIds = graphIds;
+
+            int capacity = 0;
+            for (final int fileId : fileIds) {
+                capacity = Math.max(capacity, fileId + 1);
+            }
+            index = new int[capacity];
+            Arrays.fill(index, Graph.NOT_FOUND);
+            for (int i = 0; i < fileIds.length; i++) {
+                index[fileIds[i]] = i;
+            }
+        }
+
+        int getId(final int fileId) throws GraphParseException {
+            if (fileId < 0 || fileId >= index.length || index[fileId] == Graph.NOT_FOUND) {
+                throw new GraphParseException(String.format("Element id %d not found in graph file", fileId));
+            }
+
+            return graphIds[index[fileId]];
+        }
+
+        @Override
+        public Integer get(final Object key) {
+            if (key instanceof Integer) {
+                final int fileId = (Integer) key;
+                if (fileId >= 0 && fileId < index.length && index[fileId] != Graph.NOT_FOUND) {
+                    return graphIds[index[fileId]];
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return fileIds.length;
+        }
+
+        @Override
+        public Set<Map.Entry<Integer, Integer>> entrySet() {
+            return new AbstractSet<Map.Entry<Integer, Integer>>() {
+                @Override
+                public Iterator<Map.Entry<Integer, Integer>> iterator() {
+                    return new Iterator<Map.Entry<Integer, Integer>>() {
+                        private int i = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return i < fileIds.length;
+                        }
+
+                        @Override
+                        public Map.Entry<Integer, Integer> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final Map.Entry<Integer, Integer> entry = new AbstractMap.SimpleImmutableEntry<>(fileIds[i], graphIds[i]);
+                            i++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return fileIds.length;
+                }
+            };
+        }
+    }
+}
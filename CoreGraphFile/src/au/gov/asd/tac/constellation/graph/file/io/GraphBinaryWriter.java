@@ -0,0 +1,589 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.file.io;
+
+import au.gov.asd.tac.constellation.graph.Attribute;
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphAttribute;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.ByteAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.DoubleAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.LongAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.ShortAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.StringAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.io.AbstractGraphIOProvider;
+import au.gov.asd.tac.constellation.graph.attribute.io.GraphByteWriter;
+import au.gov.asd.tac.constellation.graph.schema.BareSchemaFactory;
+import au.gov.asd.tac.constellation.graph.schema.Schema;
+import au.gov.asd.tac.constellation.graph.versioning.UpdateProviderManager;
+import au.gov.asd.tac.constellation.utilities.gui.IoProgress;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Write a graph in the binary columnar format.
+ * <p>
+ * The graph is written as a number of ZipEntry files:
+ * <ul>
+ * <li>{@link GraphFileConstants#BINARY_GRAPH_ENTRY} describes the graph: the
+ * file format versions, the schema, the modification counters, and the
+ * attributes and keys of each element type.</li>
+ * <li>{@link GraphFileConstants#BINARY_TOPOLOGY_ENTRY} holds the vertex ids,
+ * then the transaction ids, sources, destinations and directions, as arrays in
+ * position order.</li>
+ * <li>Each attribute with data has its own entry holding one value for each
+ * element in position order. Primitive attribute types are written raw, string
+ * attributes are written as a dictionary followed by an int code per element,
+ * and all other attribute types are written as a JSON array by their
+ * {@link AbstractGraphIOProvider}.</li>
+ * </ul>
+ * As with the JSON format, the ids of the elements in the graph are written so
+ * that IO providers can use them as they are.
+ * <p>
+ * Because each attribute has its own entry, a graph whose attribute values
+ * have changed since it was written can be saved as a delta holding just the
+ * changed attributes; see {@link #encodeDelta} and {@link #writeDelta}.
+ *
+ * @author algol
+ */
+final class GraphBinaryWriter {
+
+    /**
+     * The first int of the graph entry.
+     */
+    static final int MAGIC = 0x43474246;
+
+    /**
+     * The current binary format version.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    static final List<GraphElementType> ELEMENT_TYPES_FILE_ORDER = Arrays.asList(GraphElementType.GRAPH, GraphElementType.VERTEX, GraphElementType.TRANSACTION, GraphElementType.META);
+
+    // Encodings of attribute columns.
+    static final byte NO_DATA = 0;
+    static final byte BYTE = 1;
+    static final byte SHORT = 2;
+    static final byte INT = 3;
+    static final byte LONG = 4;
+    static final byte FLOAT = 5;
+    static final byte DOUBLE = 6;
+    static final byte BOOLEAN = 7;
+    static final byte STRING = 8;
+    static final byte PROVIDER = 9;
+
+    // Tags of default values.
+    static final byte DEFAULT_NULL = 0;
+    static final byte DEFAULT_NUMBER = 1;
+    static final byte DEFAULT_BOOLEAN = 2;
+    static final byte DEFAULT_STRING = 3;
+
+    private static final Map<String, Byte> ENCODINGS = new HashMap<>();
+
+    static {
+        ENCODINGS.put(ByteAttributeDescription.ATTRIBUTE_NAME, BYTE);
+        ENCODINGS.put(ShortAttributeDescription.ATTRIBUTE_NAME, SHORT);
+        ENCODINGS.put(IntegerAttributeDescription.ATTRIBUTE_NAME, INT);
+        ENCODINGS.put(LongAttributeDescription.ATTRIBUTE_NAME, LONG);
+        ENCODINGS.put(FloatAttributeDescription.ATTRIBUTE_NAME, FLOAT);
+        ENCODINGS.put(DoubleAttributeDescription.ATTRIBUTE_NAME, DOUBLE);
+        ENCODINGS.put(BooleanAttributeDescription.ATTRIBUTE_NAME, BOOLEAN);
+        ENCODINGS.put(StringAttributeDescription.ATTRIBUTE_NAME, STRING);
+    }
+
+    private final Map<String, AbstractGraphIOProvider> graphIoProviders;
+    private final GraphByteWriter byteWriter;
+    private final IoProgress progress;
+    private final BooleanSupplier isCancelled;
+
+    /**
+     * Construct a new GraphBinaryWriter.
+     *
+     * @param graphIoProviders The IO providers, keyed by attribute type.
+     * @param byteWriter For ancillary data written by the IO providers.
+     * @param progress A progress indicator, may be null.
+     * @param isCancelled Reports whether the write has been cancelled.
+     */
+    GraphBinaryWriter(final Map<String, AbstractGraphIOProvider> graphIoProviders, final GraphByteWriter byteWriter, final IoProgress progress, final BooleanSupplier isCancelled) {
+        this.graphIoProviders = graphIoProviders;
+        this.byteWriter = byteWriter;
+        this.progress = progress;
+        this.isCancelled = isCancelled;
+    }
+
+    /**
+     * The name of the ZipEntry holding the values of an attribute.
+     *
+     * @param elementType The element type of the attribute.
+     * @param index The index of the attribute within the attributes written
+     * for its element type.
+     *
+     * @return The name of the ZipEntry.
+     */
+    static String getAttributeEntry(final GraphElementType elementType, final int index) {
+        return GraphFileConstants.BINARY_ATTRIBUTE_PREFIX + IoUtilities.getGraphElementTypeString(elementType) + "/" + index + ".bin";
+    }
+
+    /**
+     * The encoding used for the values of attributes of the given type.
+     *
+     * @param attributeType The attribute type.
+     *
+     * @return The encoding of the values.
+     */
+    static byte getEncoding(final String attributeType) {
+        final Byte encoding = ENCODINGS.get(attributeType);
+        return encoding != null ? encoding : PROVIDER;
+    }
+
+    /**
+     * Write a graph to the given zip stream.
+     * <p>
+     * The zip stream is not closed, so ancillary files written by the IO
+     * providers can be added by the caller.
+     *
+     * @param graph The graph to write.
+     * @param zout The zip stream to write the entries to.
+     * @param elementTypes The GraphElementTypes whose data will be written.
+     *
+     * @return True if the write was cancelled, false otherwise.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    boolean write(final GraphReadMethods graph, final ZipOutputStream zout, final List<GraphElementType> elementTypes) throws IOException {
+        final Map<GraphElementType, List<Attribute>> attributes = getAttributes(graph);
+        int total = 1;
+        for (final List<Attribute> attrs : attributes.values()) {
+            total += attrs.size();
+        }
+
+        if (progress != null) {
+            progress.start(total);
+        }
+
+        try {
+            zout.putNextEntry(new ZipEntry(GraphFileConstants.BINARY_GRAPH_ENTRY));
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(zout));
+            writeHeader(out, graph, attributes, elementTypes);
+            out.flush();
+
+            final boolean writeVertices = elementTypes.contains(GraphElementType.VERTEX);
+            final boolean writeTransactions = writeVertices && elementTypes.contains(GraphElementType.TRANSACTION);
+
+            zout.putNextEntry(new ZipEntry(GraphFileConstants.BINARY_TOPOLOGY_ENTRY));
+            final DataOutputStream topology = new DataOutputStream(new BufferedOutputStream(zout));
+            writeTopology(topology, graph, writeVertices, writeTransactions);
+            topology.flush();
+
+            int counter = 1;
+            for (final GraphElementType elementType : ELEMENT_TYPES_FILE_ORDER) {
+                if (!elementTypes.contains(elementType)
+                        || (elementType == GraphElementType.VERTEX && !writeVertices)
+                        || (elementType == GraphElementType.TRANSACTION && !writeTransactions)) {
+                    counter += attributes.get(elementType).size();
+                    continue;
+                }
+
+                final int[] elements = getElements(graph, elementType);
+                final List<Attribute> attrs = attributes.get(elementType);
+                for (int index = 0; index < attrs.size(); index++) {
+                    if (isCancelled.getAsBoolean()) {
+                        return true;
+                    }
+
+                    final Attribute attr = attrs.get(index);
+                    if (progress != null) {
+                        progress.progress(String.format("Writing %s attribute %s...", IoUtilities.getGraphElementTypeString(elementType), attr.getName()), counter);
+                    }
+
+                    zout.putNextEntry(new ZipEntry(getAttributeEntry(elementType, index)));
+                    final DataOutputStream column = new DataOutputStream(new BufferedOutputStream(zout));
+                    writeColumn(column, graph, attr, elements);
+                    column.flush();
+
+                    counter++;
+                }
+            }
+        } finally {
+            if (progress != null) {
+                progress.finish();
+            }
+        }
+
+        return isCancelled.getAsBoolean();
+    }
+
+    /**
+     * Encode the attributes of a graph whose values have changed since a
+     * checkpoint was written.
+     * <p>
+     * The structure and attributes of the graph must be the same as when the
+     * checkpoint was written, so that the attributes of the delta are in the
+     * same place as in the checkpoint file. The values are encoded in memory
+     * so that the graph can be released before they are written by
+     * {@link #writeDelta}.
+     *
+     * @param graph The graph to encode.
+     * @param checkpoint The checkpoint that the graph was last written to.
+     *
+     * @return The encoded attribute values, or null if the encoding was
+     * cancelled.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    GraphDelta encodeDelta(final GraphReadMethods graph, final GraphCheckpoint checkpoint) throws IOException {
+        if (!checkpoint.canWriteDelta(graph)) {
+            throw new IllegalArgumentException("The structure or attributes of the graph have changed, or an undo or redo has been applied, since the checkpoint was written");
+        }
+
+        final GraphDelta delta = new GraphDelta(checkpoint, graph.getGlobalModificationCounter());
+        final Map<GraphElementType, List<Attribute>> attributes = getAttributes(graph);
+        for (final GraphElementType elementType : ELEMENT_TYPES_FILE_ORDER) {
+            final int[] elements = getElements(graph, elementType);
+            final List<Attribute> attrs = attributes.get(elementType);
+            for (int index = 0; index < attrs.size(); index++) {
+                if (isCancelled.getAsBoolean()) {
+                    return null;
+                }
+
+                final Attribute attr = attrs.get(index);
+                final long modificationCounter = graph.getValueModificationCounter(attr.getId());
+                final Long checkpointCounter = checkpoint.getValueModificationCounter(attr.getId());
+                if (checkpointCounter == null || checkpointCounter != modificationCounter) {
+                    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    final DataOutputStream column = new DataOutputStream(bytes);
+                    writeColumn(column, graph, attr, elements);
+                    column.flush();
+                    delta.addColumn(new GraphDelta.Column(getAttributeEntry(elementType, index), modificationCounter, bytes.toByteArray()));
+                }
+            }
+        }
+
+        return delta;
+    }
+
+    /**
+     * Write a delta to the given zip stream.
+     * <p>
+     * The {@link GraphFileConstants#BINARY_DELTA_ENTRY} entry identifies the
+     * checkpoint that the delta applies to, and lists the attribute entries
+     * that replace those in the checkpoint file. The attribute entries are
+     * written with the same names as in the checkpoint file.
+     * <p>
+     * The zip stream is not closed, so ancillary files written by the IO
+     * providers can be added by the caller.
+     *
+     * @param delta The delta to write.
+     * @param zout The zip stream to write the entries to.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    static void writeDelta(final GraphDelta delta, final ZipOutputStream zout) throws IOException {
+        final GraphCheckpoint checkpoint = delta.getCheckpoint();
+
+        zout.putNextEntry(new ZipEntry(GraphFileConstants.BINARY_DELTA_ENTRY));
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(zout));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(checkpoint.getGlobalModificationCounter());
+        out.writeLong(checkpoint.getStructureModificationCounter());
+        out.writeLong(checkpoint.getAttributeModificationCounter());
+        out.writeLong(delta.getGlobalModificationCounter());
+        out.writeInt(delta.getColumns().size());
+        for (final GraphDelta.Column column : delta.getColumns()) {
+            writeString(out, column.getEntry());
+            out.writeLong(column.getModificationCounter());
+        }
+        out.flush();
+
+        for (final GraphDelta.Column column : delta.getColumns()) {
+            zout.putNextEntry(new ZipEntry(column.getEntry()));
+            zout.write(column.getData());
+        }
+    }
+
+    /**
+     * The attributes of each element type that are written, in the order they
+     * are written.
+     */
+    private static Map<GraphElementType, List<Attribute>> getAttributes(final GraphReadMethods graph) {
+        final Map<GraphElementType, List<Attribute>> attributes = new HashMap<>();
+        for (final GraphElementType elementType : ELEMENT_TYPES_FILE_ORDER) {
+            final List<Attribute> attrs = new ArrayList<>();
+            for (int position = 0; position < graph.getAttributeCount(elementType); position++) {
+                final Attribute attr = new GraphAttribute(graph, graph.getAttribute(elementType, position));
+
+                // Don't write non-META object types; we don't know what they are.
+                if (!attr.getAttributeType().equals("object") || elementType == GraphElementType.META) {
+                    attrs.add(attr);
+                }
+            }
+            attributes.put(elementType, attrs);
+        }
+
+        return attributes;
+    }
+
+    private void writeHeader(final DataOutputStream out, final GraphReadMethods graph, final Map<GraphElementType, List<Attribute>> attributes, final List<GraphElementType> elementTypes) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(GraphJsonWriter.VERSION);
+
+        final Map<String, Integer> versionedItems = UpdateProviderManager.getLatestVersions();
+        out.writeInt(versionedItems.size());
+        for (final Map.Entry<String, Integer> itemVersion : versionedItems.entrySet()) {
+            writeString(out, itemVersion.getKey());
+            out.writeInt(itemVersion.getValue());
+        }
+
+        final Schema schema = graph.getSchema();
+        writeString(out, schema == null ? new BareSchemaFactory().getName() : schema.getFactory().getName());
+
+        out.writeLong(graph.getGlobalModificationCounter());
+        out.writeLong(graph.getStructureModificationCounter());
+        out.writeLong(graph.getAttributeModificationCounter());
+
+        for (final GraphElementType elementType : ELEMENT_TYPES_FILE_ORDER) {
+            out.writeBoolean(elementTypes.contains(elementType));
+
+            final List<Attribute> attrs = attributes.get(elementType);
+            out.writeInt(attrs.size());
+            for (final Attribute attr : attrs) {
+                writeString(out, attr.getName());
+                writeString(out, attr.getAttributeType());
+                writeString(out, attr.getDescription());
+                writeDefault(out, attr);
+                writeString(out, attr.getAttributeMerger() != null ? attr.getAttributeMerger().getId() : null);
+                out.writeLong(graph.getValueModificationCounter(attr.getId()));
+            }
+
+            final int[] key = elementType == GraphElementType.VERTEX || elementType == GraphElementType.TRANSACTION
+                    ? graph.getPrimaryKey(elementType) : new int[0];
+            out.writeInt(key.length);
+            for (final int keyAttribute : key) {
+                writeString(out, graph.getAttributeName(keyAttribute));
+            }
+        }
+    }
+
+    /**
+     * Write the default value of an attribute the same way the JSON format
+     * does, so the two formats create identical attributes.
+     */
+    private static void writeDefault(final DataOutputStream out, final Attribute attr) throws IOException {
+        final Object defaultValue = attr.getDefaultValue();
+        final String type = attr.getAttributeType();
+        if (defaultValue == null) {
+            out.writeByte(DEFAULT_NULL);
+        } else if (type.equals(IntegerAttributeDescription.ATTRIBUTE_NAME) || type.equals(FloatAttributeDescription.ATTRIBUTE_NAME)) {
+            out.writeByte(DEFAULT_NUMBER);
+            out.writeDouble(((Number) defaultValue).doubleValue());
+        } else if (type.equals(BooleanAttributeDescription.ATTRIBUTE_NAME)) {
+            out.writeByte(DEFAULT_BOOLEAN);
+            out.writeBoolean((Boolean) defaultValue);
+        } else {
+            out.writeByte(DEFAULT_STRING);
+            writeString(out, defaultValue.toString());
+        }
+    }
+
+    private static void writeTopology(final DataOutputStream out, final GraphReadMethods graph, final boolean writeVertices, final boolean writeTransactions) throws IOException {
+        final int vertexCount = writeVertices ? graph.getVertexCount() : 0;
+        out.writeInt(vertexCount);
+        for (int position = 0; position < vertexCount; position++) {
+            out.writeInt(graph.getVertex(position));
+        }
+
+        final int transactionCount = writeTransactions ? graph.getTransactionCount() : 0;
+        out.writeInt(transactionCount);
+        for (int position = 0; position < transactionCount; position++) {
+            out.writeInt(graph.getTransaction(position));
+        }
+        for (int position = 0; position < transactionCount; position++) {
+            out.writeInt(graph.getTransactionSourceVertex(graph.getTransaction(position)));
+        }
+        for (int position = 0; position < transactionCount; position++) {
+            out.writeInt(graph.getTransactionDestinationVertex(graph.getTransaction(position)));
+        }
+        for (int position = 0; position < transactionCount; position++) {
+            out.writeBoolean(graph.getTransactionDirection(graph.getTransaction(position)) != Graph.UNDIRECTED);
+        }
+    }
+
+    private static int[] getElements(final GraphReadMethods graph, final GraphElementType elementType) {
+        final int[] elements;
+        switch (elementType) {
+            case VERTEX:
+                elements = new int[graph.getVertexCount()];
+                for (int position = 0; position < elements.length; position++) {
+                    elements[position] = graph.getVertex(position);
+                }
+                break;
+            case TRANSACTION:
+                elements = new int[graph.getTransactionCount()];
+                for (int position = 0; position < elements.length; position++) {
+                    elements[position] = graph.getTransaction(position);
+                }
+                break;
+            default:
+                elements = new int[]{0};
+                break;
+        }
+
+        return elements;
+    }
+
+    private void writeColumn(final DataOutputStream out, final GraphReadMethods graph, final Attribute attr, final int[] elements) throws IOException {
+        final int attrId = attr.getId();
+        final byte encoding = getEncoding(attr.getAttributeType());
+        out.writeByte(encoding);
+        switch (encoding) {
+            case BYTE:
+                for (final int element : elements) {
+                    out.writeByte(graph.getByteValue(attrId, element));
+                }
+                break;
+            case SHORT:
+                for (final int element : elements) {
+                    out.writeShort(graph.getShortValue(attrId, element));
+                }
+                break;
+            case INT:
+                for (final int element : elements) {
+                    out.writeInt(graph.getIntValue(attrId, element));
+                }
+                break;
+            case LONG:
+                for (final int element : elements) {
+                    out.writeLong(graph.getLongValue(attrId, element));
+                }
+                break;
+            case FLOAT:
+                for (final int element : elements) {
+                    out.writeFloat(graph.getFloatValue(attrId, element));
+                }
+                break;
+            case DOUBLE:
+                for (final int element : elements) {
+                    out.writeDouble(graph.getDoubleValue(attrId, element));
+                }
+                break;
+            case BOOLEAN:
+                for (final int element : elements) {
+                    out.writeBoolean(graph.getBooleanValue(attrId, element));
+                }
+                break;
+            case STRING:
+                writeStringColumn(out, graph, attrId, elements);
+                break;
+            default:
+                writeProviderColumn(out, graph, attr, elements);
+                break;
+        }
+    }
+
+    /**
+     * Strings are dictionary encoded: the distinct values are written first,
+     * followed by the index of the value of each element, or -1 for null.
+     */
+    private static void writeStringColumn(final DataOutputStream out, final GraphReadMethods graph, final int attrId, final int[] elements) throws IOException {
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+        final int[] codes = new int[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            final String value = graph.getStringValue(attrId, elements[i]);
+            if (value == null) {
+                codes[i] = -1;
+            } else {
+                Integer code = dictionary.get(value);
+                if (code == null) {
+                    code = values.size();
+                    dictionary.put(value, code);
+                    values.add(value);
+                }
+                codes[i] = code;
+            }
+        }
+
+        out.writeInt(values.size());
+        for (final String value : values) {
+            writeString(out, value);
+        }
+        for (final int code : codes) {
+            out.writeInt(code);
+        }
+    }
+
+    /**
+     * Attributes without a native encoding are written by their IO provider as
+     * a JSON array holding an object for each element. As with the JSON format,
+     * the object is empty if the value of the element is the default value.
+     */
+    private void writeProviderColumn(final DataOutputStream out, final GraphReadMethods graph, final Attribute attr, final int[] elements) throws IOException {
+        final AbstractGraphIOProvider ioProvider = graphIoProviders.get(attr.getAttributeType());
+        if (ioProvider == null) {
+            throw new IOException("No IO provider found for attribute type: " + attr.getAttributeType());
+        }
+
+        // Don't close the underlying zip stream automatically.
+        final JsonGenerator jg = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+        jg.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        try {
+            jg.writeStartArray();
+            for (final int element : elements) {
+                jg.writeStartObject();
+                ioProvider.writeObject(attr, element, jg, graph, byteWriter, false);
+                jg.writeEndObject();
+            }
+            jg.writeEndArray();
+        } finally {
+            jg.close();
+        }
+    }
+
+    /**
+     * Write a possibly null String as its UTF-8 length followed by its UTF-8
+     * bytes. Unlike {@link DataOutputStream#writeUTF}, this is not limited to
+     * 64K bytes.
+     */
+    static void writeString(final DataOutputStream out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
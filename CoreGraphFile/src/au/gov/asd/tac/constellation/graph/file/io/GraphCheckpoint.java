@@ -0,0 +1,149 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.file.io;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The state of a graph when it was last written in full by
+ * {@link GraphJsonWriter#writeCheckpointToZip}.
+ * <p>
+ * While the structure and attributes of the graph are unchanged, the graph can
+ * be saved as a delta against the checkpoint file that holds only the
+ * attributes whose values have changed since the checkpoint was written. See
+ * {@link GraphJsonWriter#createDelta}.
+ * <p>
+ * Changes are detected by comparing modification counters. An undo reverts
+ * these counters, so a later change can bring them back to the values they had
+ * when the checkpoint was written. Once an undo or redo has been applied to the
+ * graph, the checkpoint therefore treats the graph as modified and no longer
+ * allows a delta to be written.
+ *
+ * @author algol
+ */
+public final class GraphCheckpoint {
+
+    private final long globalModificationCounter;
+    private final long structureModificationCounter;
+    private final long attributeModificationCounter;
+    private final long undoRedoCounter;
+    private final int vertexCount;
+    private final int transactionCount;
+    private final Map<Integer, Long> valueModificationCounters;
+    private final long size;
+
+    private GraphCheckpoint(final GraphReadMethods graph, final long size) {
+        globalModificationCounter = graph.getGlobalModificationCounter();
+        structureModificationCounter = graph.getStructureModificationCounter();
+        attributeModificationCounter = graph.getAttributeModificationCounter();
+        undoRedoCounter = graph.getUndoRedoCounter();
+        vertexCount = graph.getVertexCount();
+        transactionCount = graph.getTransactionCount();
+
+        final Map<Integer, Long> counters = new HashMap<>();
+        for (final GraphElementType elementType : GraphBinaryWriter.ELEMENT_TYPES_FILE_ORDER) {
+            for (int position = 0; position < graph.getAttributeCount(elementType); position++) {
+                final int attribute = graph.getAttribute(elementType, position);
+                counters.put(attribute, graph.getValueModificationCounter(attribute));
+            }
+        }
+        valueModificationCounters = Collections.unmodifiableMap(counters);
+
+        this.size = size;
+    }
+
+    /**
+     * Record the state of a graph that has just been written.
+     *
+     * @param graph The graph that was written.
+     * @param size The size in bytes of the file the graph was written to.
+     *
+     * @return A new GraphCheckpoint.
+     */
+    static GraphCheckpoint create(final GraphReadMethods graph, final long size) {
+        return new GraphCheckpoint(graph, size);
+    }
+
+    long getGlobalModificationCounter() {
+        return globalModificationCounter;
+    }
+
+    long getStructureModificationCounter() {
+        return structureModificationCounter;
+    }
+
+    long getAttributeModificationCounter() {
+        return attributeModificationCounter;
+    }
+
+    /**
+     * The value modification counter of an attribute when the checkpoint was
+     * written.
+     *
+     * @param attribute The id of the attribute.
+     *
+     * @return The value modification counter of the attribute, or null if the
+     * attribute did not exist.
+     */
+    Long getValueModificationCounter(final int attribute) {
+        return valueModificationCounters.get(attribute);
+    }
+
+    /**
+     * The size of the checkpoint file.
+     *
+     * @return The size in bytes of the file the checkpoint was written to.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Has the graph been modified since the checkpoint was written?
+     *
+     * @param graph The graph that the checkpoint was written from.
+     *
+     * @return True if the graph has been modified.
+     */
+    public boolean isModified(final GraphReadMethods graph) {
+        return graph.getGlobalModificationCounter() != globalModificationCounter
+                || graph.getUndoRedoCounter() != undoRedoCounter;
+    }
+
+    /**
+     * Can the current state of the graph be written as a delta against this
+     * checkpoint?
+     * <p>
+     * A delta only holds attribute values, so this is true only while the
+     * vertices, transactions and attributes of the graph are the same as when
+     * the checkpoint was written, and no undo or redo has been applied since.
+     *
+     * @param graph The graph that the checkpoint was written from.
+     *
+     * @return True if a delta can be written.
+     */
+    public boolean canWriteDelta(final GraphReadMethods graph) {
+        return graph.getUndoRedoCounter() == undoRedoCounter
+                && graph.getStructureModificationCounter() == structureModificationCounter
+                && graph.getAttributeModificationCounter() == attributeModificationCounter
+                && graph.getVertexCount() == vertexCount
+                && graph.getTransactionCount() == transactionCount;
+    }
+}
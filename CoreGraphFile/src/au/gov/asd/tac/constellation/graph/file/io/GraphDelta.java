@@ -0,0 +1,117 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.file.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The attribute values of a graph that have changed since a
+ * {@link GraphCheckpoint}, encoded and ready to be written.
+ * <p>
+ * A GraphDelta is created by {@link GraphJsonWriter#createDelta} while the
+ * graph is locked, and written by {@link GraphJsonWriter#writeDeltaToZip}
+ * after the lock has been released. The delta holds every attribute that has
+ * changed since the checkpoint, so only the most recent delta needs to be kept
+ * alongside the checkpoint file.
+ *
+ * @author algol
+ */
+public final class GraphDelta {
+
+    /**
+     * The encoded values of one attribute.
+     */
+    static final class Column {
+
+        private final String entry;
+        private final long modificationCounter;
+        private final byte[] data;
+
+        Column(final String entry, final long modificationCounter, final byte[] data) {
+            this.entry = entry;
+            this.modificationCounter = modificationCounter;
+            this.data = data;
+        }
+
+        String getEntry() {
+            return entry;
+        }
+
+        long getModificationCounter() {
+            return modificationCounter;
+        }
+
+        byte[] getData() {
+            return data;
+        }
+    }
+
+    private final GraphCheckpoint checkpoint;
+    private final long globalModificationCounter;
+    private final List<Column> columns = new ArrayList<>();
+
+    GraphDelta(final GraphCheckpoint checkpoint, final long globalModificationCounter) {
+        this.checkpoint = checkpoint;
+        this.globalModificationCounter = globalModificationCounter;
+    }
+
+    void addColumn(final Column column) {
+        columns.add(column);
+    }
+
+    List<Column> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * The checkpoint that this delta is relative to.
+     *
+     * @return The checkpoint that this delta is relative to.
+     */
+    public GraphCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    long getGlobalModificationCounter() {
+        return globalModificationCounter;
+    }
+
+    /**
+     * The number of attributes whose values are held by this delta.
+     *
+     * @return The number of attributes whose values are held by this delta.
+     */
+    public int getAttributeCount() {
+        return columns.size();
+    }
+
+    /**
+     * The size of the encoded attribute values, before compression and not
+     * including any ancillary files.
+     *
+     * @return The size in bytes of the encoded attribute values.
+     */
+    public long getSize() {
+        long size = 0;
+        for (final Column column : columns) {
+            size += column.getData().length;
+        }
+
+        return size;
+    }
+}
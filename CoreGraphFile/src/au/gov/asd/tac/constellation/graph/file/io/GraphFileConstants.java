@@ -31,6 +31,25 @@ public final class GraphFileConstants {
      * The file extensions for ZipEntry files.
      */
     public static final String FILE_EXTENSION = ".txt";
+    /**
+     * The ZipEntry holding the description of a graph in the binary format.
+     */
+    public static final String BINARY_GRAPH_ENTRY = "graph.bin";
+    /**
+     * The ZipEntry holding the vertices and transactions of a graph in the
+     * binary format.
+     */
+    public static final String BINARY_TOPOLOGY_ENTRY = "topology.bin";
+    /**
+     * The prefix of the ZipEntry files holding attribute values in the binary
+     * format.
+     */
+    public static final String BINARY_ATTRIBUTE_PREFIX = "attributes/";
+    /**
+     * The ZipEntry holding the description of a delta against a graph written
+     * in the binary format.
+     */
+    public static final String BINARY_DELTA_ENTRY = "delta.bin";
     /**
      * The field separator in CSV files.
      */
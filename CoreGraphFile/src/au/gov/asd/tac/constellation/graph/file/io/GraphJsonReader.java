@@ -53,6 +53,9 @@ import org.openide.util.Lookup;
 
 /**
  * Read a graph in JSON format.
+ * <p>
+ * Graph zip files written in the binary columnar format are handed to
+ * {@link GraphBinaryReader}, so files in either format can be read.
  *
  * @author algol
  */
@@ -74,6 +77,8 @@ public final class GraphJsonReader {
     private long structModCount;
     private final Map<Integer, Long> attrValCount = new HashMap<>();
     private GraphByteReader byteReader;
+    private GraphByteReader deltaReader;
+    private boolean lazy = false;
 
     private static final String ATTRIBUTE_MOD_COUNT = "attribute_mod_count";
     private static final String GLOBAL_MOD_COUNT = "global_mod_count";
@@ -97,12 +102,69 @@ public final class GraphJsonReader {
         byteReader = null;
     }
 
+    /**
+     * Does this reader defer loading attribute values until they are used?
+     *
+     * @return True if attribute values are loaded lazily.
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Set whether this reader defers loading the values of the string
+     * attributes of vertices and transactions until they are first accessed.
+     * <p>
+     * This makes large graphs usable sooner, at the cost of keeping the encoded
+     * values in memory until they are loaded. It only applies to graphs written
+     * in the binary format; JSON graphs are always loaded in full.
+     *
+     * @param lazy True to load attribute values lazily.
+     */
+    public void setLazy(final boolean lazy) {
+        this.lazy = lazy;
+    }
+
     public Graph readGraphZip(final File graphFile, final IoProgress progress) throws IOException, GraphParseException {
         try (final InputStream in = new BufferedInputStream(new FileInputStream(graphFile))) {
             return readGraphZip(graphFile.getPath(), in, progress);
         }
     }
 
+    /**
+     * Read a graph zip file together with a delta written against it by
+     * {@link GraphJsonWriter#writeDeltaToZip}.
+     * <p>
+     * The attribute values held by the delta replace those in the graph file.
+     * If the delta does not exist, or was not written against the graph file,
+     * the graph file is read on its own.
+     *
+     * @param graphFile The graph file, written by
+     * {@link GraphJsonWriter#writeCheckpointToZip}.
+     * @param deltaFile The delta file.
+     * @param progress A progress indicator.
+     *
+     * @return A new Graph.
+     *
+     * @throws IOException If an I/O error occurs.
+     * @throws GraphParseException On graph parsing errors.
+     */
+    public Graph readGraphZip(final File graphFile, final File deltaFile, final IoProgress progress) throws IOException, GraphParseException {
+        if (deltaFile == null || !deltaFile.isFile()) {
+            return readGraphZip(graphFile, progress);
+        }
+
+        try (final InputStream in = new BufferedInputStream(new FileInputStream(deltaFile))) {
+            deltaReader = new GraphByteReader(in);
+        }
+
+        try {
+            return readGraphZip(graphFile, progress);
+        } finally {
+            deltaReader = null;
+        }
+    }
+
     public Graph readGraphZip(final String name, InputStream bin, final IoProgress progress) throws IOException, GraphParseException {
         try (bin) {
             progress.start(100);
@@ -112,7 +174,21 @@ public final class GraphJsonReader {
         }
 
         try {
-            // Get the graph first.
+            // Graphs written in the binary format are read by the binary reader.
+            if (byteReader.read(GraphFileConstants.BINARY_GRAPH_ENTRY) != null) {
+                try {
+                    graph = new GraphBinaryReader(providers, byteReader, deltaReader, lazy).readGraph(progress);
+                } catch (IllegalStateException | IllegalArgumentException ex) {
+                    throw new GraphParseException(ex.getMessage(), ex);
+                }
+                return graph;
+            }
+
+            // Otherwise get the JSON graph.
+            if (deltaReader != null) {
+                LOGGER.log(Level.WARNING, "Ignoring a delta against JSON graph file {0}", name);
+            }
+
             final String graphEntry = "graph" + GraphFileConstants.FILE_EXTENSION;
             ExtendedBuffer in = byteReader.read(graphEntry);
             if (in == null) {
@@ -314,22 +390,8 @@ public final class GraphJsonReader {
             throw new GraphParseException(String.format(EXPECTED_END_OBJECT_FORMAT, current));
         }
 
-        SchemaFactory schemaFactory = SchemaFactoryUtilities.getSchemaFactory(schemaFactoryName);
-        if (schemaFactory == null) {
-            final SchemaFactory defaultSchemaFactory = SchemaFactoryUtilities.getDefaultSchemaFactory();
-            LOGGER.warning(String.format("Unknown schema factory '%s'; falling back to '%s'", schemaFactoryName, defaultSchemaFactory.getName()));
-            schemaFactory = defaultSchemaFactory;
-        }
-
-        storeGraph = new StoreGraph(schemaFactory.createSchema());
-        UpdateProviderManager.getRegisteredProviders().forEach((item, itemProviders) -> {
-            if (item.appliesToGraph(storeGraph)) {
-                final int currentVersion = versionedItems.containsKey(item.getName()) ? versionedItems.get(item.getName()) : UpdateProvider.DEFAULT_VERSION;
-                if (itemProviders.containsKey(currentVersion)) {
-                    itemProviders.get(currentVersion).configure(storeGraph);
-                }
-            }
-        });
+        final SchemaFactory schemaFactory = getSchemaFactory(schemaFactoryName);
+        storeGraph = createStoreGraph(schemaFactory, versionedItems);
 
         try {
             // Depending on the version number, different things could happen.
@@ -437,6 +499,69 @@ public final class GraphJsonReader {
             }
         }
 
+        updateGraph(storeGraph, versionedItems);
+
+        graph = new DualGraph(schemaFactory.createSchema(), storeGraph);
+
+        if (progress != null) {
+            progress.finish();
+        }
+
+        LOGGER.log(Level.INFO, "immutableObjectCache={0}", immutableObjectCache);
+
+        return graph;
+    }
+
+    /**
+     * Find the schema factory with the given name, falling back to the default
+     * schema factory if it is not known.
+     *
+     * @param schemaFactoryName The name of the schema factory.
+     *
+     * @return The schema factory to create the graph with.
+     */
+    static SchemaFactory getSchemaFactory(final String schemaFactoryName) {
+        final SchemaFactory schemaFactory = SchemaFactoryUtilities.getSchemaFactory(schemaFactoryName);
+        if (schemaFactory == null) {
+            final SchemaFactory defaultSchemaFactory = SchemaFactoryUtilities.getDefaultSchemaFactory();
+            LOGGER.warning(String.format("Unknown schema factory '%s'; falling back to '%s'", schemaFactoryName, defaultSchemaFactory.getName()));
+            return defaultSchemaFactory;
+        }
+
+        return schemaFactory;
+    }
+
+    /**
+     * Create the graph to read into, configured by the update providers for
+     * the versions of the items in the file.
+     *
+     * @param schemaFactory The schema factory of the graph.
+     * @param versionedItems The versions of the items in the file.
+     *
+     * @return A new StoreGraph.
+     */
+    static StoreGraph createStoreGraph(final SchemaFactory schemaFactory, final Map<String, Integer> versionedItems) {
+        final StoreGraph storeGraph = new StoreGraph(schemaFactory.createSchema());
+        UpdateProviderManager.getRegisteredProviders().forEach((item, itemProviders) -> {
+            if (item.appliesToGraph(storeGraph)) {
+                final int currentVersion = versionedItems.containsKey(item.getName()) ? versionedItems.get(item.getName()) : UpdateProvider.DEFAULT_VERSION;
+                if (itemProviders.containsKey(currentVersion)) {
+                    itemProviders.get(currentVersion).configure(storeGraph);
+                }
+            }
+        });
+
+        return storeGraph;
+    }
+
+    /**
+     * Allow any relevant update providers to bring a graph that has been read
+     * up to date.
+     *
+     * @param storeGraph The graph that has been read.
+     * @param versionedItems The versions of the items in the file.
+     */
+    static void updateGraph(final StoreGraph storeGraph, final Map<String, Integer> versionedItems) {
         try {
             // Allow any relevant version providers to update the graph if necessary.
             UpdateProviderManager.getRegisteredProviders().forEach((item, itemProviders) -> {
@@ -456,16 +581,6 @@ public final class GraphJsonReader {
             LOGGER.warning(msg);
             Exceptions.printStackTrace(ex);
         }
-
-        graph = new DualGraph(schemaFactory.createSchema(), storeGraph);
-
-        if (progress != null) {
-            progress.finish();
-        }
-
-        LOGGER.log(Level.INFO, "immutableObjectCache={0}", immutableObjectCache);
-
-        return graph;
     }
 
     /**
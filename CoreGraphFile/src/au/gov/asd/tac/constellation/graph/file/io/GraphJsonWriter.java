@@ -47,6 +47,11 @@ import org.openide.util.Exceptions;
 
 /**
  * Write a graph in JSON format.
+ * <p>
+ * Graphs written to zip files use the binary columnar format of
+ * {@link GraphBinaryWriter} by default, which is much faster to write and read
+ * for large graphs. The JSON format can still be written to zip files by
+ * calling {@link #setBinary setBinary(false)}.
  *
  * @author algol
  */
@@ -63,6 +68,7 @@ public final class GraphJsonWriter implements Cancellable {
     private volatile boolean isCancelled;
     private final GraphByteWriter byteWriter;
     private final HashMap<String, AbstractGraphIOProvider> graphIoProviders = new HashMap<>();
+    private boolean binary = true;
 
     private static final String DEFAULT_FIELD = "default";
 
@@ -76,6 +82,30 @@ public final class GraphJsonWriter implements Cancellable {
         }
     }
 
+    /**
+     * Does this writer write zip files in the binary columnar format?
+     *
+     * @return True if zip files are written in the binary format, false if
+     * they are written in JSON.
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * Set whether this writer writes zip files in the binary columnar format
+     * (the default) or in JSON.
+     * <p>
+     * This does not affect {@link #writeGraphFile} and
+     * {@link #writeGraphToStream}, which always write JSON.
+     *
+     * @param binary True to write zip files in the binary format, false to
+     * write them in JSON.
+     */
+    public void setBinary(final boolean binary) {
+        this.binary = binary;
+    }
+
     /**
      * Serialise a graph to a file with all elements written.
      * <p>
@@ -148,7 +178,8 @@ public final class GraphJsonWriter implements Cancellable {
      * Serialise a graph to a zip file with element writing optimised.
      * <p>
      * The OutputStream will be wrapped in a ZipOutputStream and the graph and
-     * any ancillary files will be written as ZipEntry files.
+     * any ancillary files will be written as ZipEntry files. The graph is
+     * written in the binary columnar format unless {@link #isBinary} is false.
      *
      * @param graph The graph to serialise.
      * @param out The OutputStream to write a zip file to.
@@ -163,10 +194,16 @@ public final class GraphJsonWriter implements Cancellable {
         this.progress = progress;
 
         try (ZipOutputStream zout = new ZipOutputStream(out)) {
-            final ZipEntry zentry = new ZipEntry("graph" + GraphFileConstants.FILE_EXTENSION);
-            zout.putNextEntry(zentry);
-            writeGraphToStream(graph, zout, false, elementTypes);
             try {
+                if (binary) {
+                    isCancelled = false;
+                    new GraphBinaryWriter(graphIoProviders, byteWriter, progress, () -> isCancelled).write(graph, zout, elementTypes);
+                } else {
+                    final ZipEntry zentry = new ZipEntry("graph" + GraphFileConstants.FILE_EXTENSION);
+                    zout.putNextEntry(zentry);
+                    writeGraphToStream(graph, zout, false, elementTypes);
+                }
+
                 if (!isCancelled) {
                     for (Map.Entry<String, File> entry : byteWriter.getFileMap().entrySet()) {
                         final String reference = entry.getKey();
@@ -185,6 +222,99 @@ public final class GraphJsonWriter implements Cancellable {
         return isCancelled;
     }
 
+    /**
+     * Serialise a graph to a zip file in the binary columnar format, and
+     * return a checkpoint that later deltas can be written against.
+     * <p>
+     * The graph is always written in the binary format, whatever the value of
+     * {@link #isBinary}.
+     *
+     * @param graph The graph to serialise.
+     * @param path The path name of the file to write the graph to.
+     * @param progress A progress indicator.
+     *
+     * @return The checkpoint of the written graph, or null if the user
+     * cancelled the write.
+     *
+     * @throws IOException If there was a problem writing.
+     */
+    public GraphCheckpoint writeCheckpointToZip(final GraphReadMethods graph, final String path, final IoProgress progress) throws IOException {
+        final boolean wasBinary = binary;
+        binary = true;
+        try {
+            if (writeGraphToZip(graph, path, progress)) {
+                return null;
+            }
+        } finally {
+            binary = wasBinary;
+        }
+
+        return GraphCheckpoint.create(graph, new File(path).length());
+    }
+
+    /**
+     * Encode the attributes of a graph whose values have changed since a
+     * checkpoint was written.
+     * <p>
+     * This only reads the changed attributes, so it is much cheaper than
+     * copying the graph, and should be called while the graph is locked. The
+     * delta is written by {@link #writeDeltaToZip}, which can be called after
+     * the graph has been released. Ancillary files written by the IO providers
+     * are kept by this writer until the delta is written.
+     *
+     * @param graph The graph to encode.
+     * @param checkpoint The checkpoint that the graph was last written to.
+     *
+     * @return The changed attribute values, or null if the user cancelled the
+     * encoding.
+     *
+     * @throws IOException If there was a problem encoding.
+     * @throws IllegalArgumentException If the structure or attributes of the
+     * graph have changed, or an undo or redo has been applied, since the
+     * checkpoint was written.
+     *
+     * @see GraphCheckpoint#canWriteDelta
+     */
+    public GraphDelta createDelta(final GraphReadMethods graph, final GraphCheckpoint checkpoint) throws IOException {
+        isCancelled = false;
+        GraphDelta delta = null;
+        try {
+            delta = new GraphBinaryWriter(graphIoProviders, byteWriter, null, () -> isCancelled).encodeDelta(graph, checkpoint);
+        } finally {
+            if (delta == null) {
+                byteWriter.reset();
+            }
+        }
+
+        return delta;
+    }
+
+    /**
+     * Write a delta created by {@link #createDelta} to a zip file.
+     * <p>
+     * The delta file is read together with its checkpoint file by
+     * {@link GraphJsonReader#readGraphZip(File, File, IoProgress)}.
+     *
+     * @param delta The delta to write.
+     * @param path The path name of the file to write the delta to.
+     *
+     * @throws IOException If there was a problem writing.
+     */
+    public void writeDeltaToZip(final GraphDelta delta, final String path) throws IOException {
+        try (ZipOutputStream zout = new ZipOutputStream(new FileOutputStream(path))) {
+            try {
+                GraphBinaryWriter.writeDelta(delta, zout);
+
+                for (Map.Entry<String, File> entry : byteWriter.getFileMap().entrySet()) {
+                    zout.putNextEntry(new ZipEntry(entry.getKey()));
+                    GraphByteWriter.copy(new FileInputStream(entry.getValue()), zout);
+                }
+            } finally {
+                byteWriter.reset();
+            }
+        }
+    }
+
     /**
      * Serialise a graph in JSON format to an OutputStream.
      * <p>
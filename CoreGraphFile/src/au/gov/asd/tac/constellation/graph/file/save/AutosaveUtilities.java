@@ -15,8 +15,14 @@
  */
 package au.gov.asd.tac.constellation.graph.file.save;
 
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.ReadableGraph;
 import au.gov.asd.tac.constellation.graph.file.GraphDataObject;
+import au.gov.asd.tac.constellation.graph.file.io.GraphJsonReader;
+import au.gov.asd.tac.constellation.graph.file.io.GraphJsonWriter;
+import au.gov.asd.tac.constellation.graph.file.io.GraphParseException;
 import au.gov.asd.tac.constellation.preferences.ApplicationPreferenceKeys;
+import au.gov.asd.tac.constellation.utilities.gui.HandleIoProgress;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -45,6 +51,7 @@ public final class AutosaveUtilities {
     public static final String UNSAVED = "unsaved";
     public static final String DT = "dt";
     public static final String AUTO_EXT = ".star_auto";
+    public static final String DELTA_EXT = ".star_delta";
     private static final Logger LOGGER = Logger.getLogger(AutosaveUtilities.class.getName());
     private static final String AUTOSAVE_DIR = "Autosave";
 
@@ -95,10 +102,26 @@ public final class AutosaveUtilities {
     }
 
     /**
-     * Delete a pair of autosave files.
+     * Return the delta file that belongs to an autosaved graph.
+     * <p>
+     * The delta holds the attribute values that have changed since the
+     * autosaved graph was written. It might not exist.
+     *
+     * @param f The autosaved .star file.
+     *
+     * @return The .star_delta file that belongs to the autosaved graph.
+     */
+    public static File getDeltaFile(final File f) {
+        final String path = f.getPath();
+        final String base = path.endsWith(GraphDataObject.FILE_EXTENSION) ? path.substring(0, path.length() - GraphDataObject.FILE_EXTENSION.length()) : path;
+        return new File(base + DELTA_EXT);
+    }
+
+    /**
+     * Delete a set of autosave files.
      * <p>
      * If the .star is given, the matching .star_auto will be deleted, and vice
-     * versa.
+     * versa. The matching .star_delta is also deleted if it exists.
      *
      * @param f A .star or .star_auto to be deleted.
      */
@@ -122,6 +145,17 @@ public final class AutosaveUtilities {
                 //TODO: Handle case where file not successfully deleted
             }
         }
+
+        final File star = path.endsWith(AUTO_EXT) ? f2 : f;
+        if (star != null) {
+            final File delta = getDeltaFile(star);
+            if (delta.exists()) {
+                final boolean deltaIsDeleted = delta.delete();
+                if (!deltaIsDeleted) {
+                    //TODO: Handle case where file not successfully deleted
+                }
+            }
+        }
     }
 
     /**
@@ -207,6 +241,50 @@ public final class AutosaveUtilities {
         }
     }
 
+    /**
+     * Safely move an autosaved graph to a file.
+     * <p>
+     * If the autosaved graph has a delta, the graph and its delta are merged
+     * into a single graph file. Otherwise this is the same as
+     * {@link #copyFile}.
+     *
+     * @param autosaved The autosaved .star file.
+     * @param to The destination file.
+     *
+     * @throws IOException When an error happens.
+     */
+    public static void copyAutosave(final File autosaved, final File to) throws IOException {
+        final File delta = getDeltaFile(autosaved);
+        if (!delta.exists()) {
+            copyFile(autosaved, to);
+            return;
+        }
+
+        final Graph graph;
+        try {
+            graph = new GraphJsonReader().readGraphZip(autosaved, delta, new HandleIoProgress("Merging autosaved graph..."));
+        } catch (final GraphParseException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+
+        final File merged = File.createTempFile(autosaved.getName(), GraphDataObject.FILE_EXTENSION, autosaved.getParentFile());
+        try {
+            final ReadableGraph rg = graph.getReadableGraph();
+            try {
+                new GraphJsonWriter().writeGraphToZip(rg, merged.getPath(), new HandleIoProgress("Writing autosaved graph..."));
+            } finally {
+                rg.release();
+            }
+
+            copyFile(merged, to);
+        } finally {
+            final boolean mergedIsDeleted = merged.delete();
+            if (!mergedIsDeleted) {
+                //TODO: Handle case where file not successfully deleted
+            }
+        }
+    }
+
     /**
      * Clean up stray files in the autosave directory.
      * <p>
@@ -22,11 +22,19 @@ import au.gov.asd.tac.constellation.graph.WritableGraph;
 import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
 import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
 import au.gov.asd.tac.constellation.graph.attribute.StringAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.io.GraphByteReader;
 import au.gov.asd.tac.constellation.graph.locking.DualGraph;
 import au.gov.asd.tac.constellation.utilities.gui.TextIoProgress;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import javax.swing.SwingUtilities;
+import javax.swing.undo.UndoManager;
 import static org.testng.Assert.fail;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -224,6 +232,249 @@ public class GraphSavingNGTest {
         }
     }
 
+    @Test
+    public void writeReadBinaryGraphTest() throws Exception {
+        final File graphFile = File.createTempFile("tmp2", ".star");
+
+        ReadableGraph rg = graph.getReadableGraph();
+        try {
+            final GraphJsonWriter writer = new GraphJsonWriter();
+            assertTrue("binary by default", writer.isBinary());
+            writer.writeGraphToZip(rg, graphFile.getPath(), new TextIoProgress(false));
+        } finally {
+            rg.release();
+        }
+
+        try (final InputStream in = new FileInputStream(graphFile)) {
+            final GraphByteReader byteReader = new GraphByteReader(in);
+            assertNotNull("binary graph entry", byteReader.read(GraphFileConstants.BINARY_GRAPH_ENTRY));
+            assertNull("no JSON graph entry", byteReader.read("graph" + GraphFileConstants.FILE_EXTENSION));
+        }
+
+        final Graph newGraph = new GraphJsonReader().readGraphZip(graphFile, new TextIoProgress(false));
+        graphFile.delete();
+
+        assertSameGraph(newGraph);
+    }
+
+    @Test
+    public void writeReadLazyGraphTest() throws Exception {
+        final File graphFile = File.createTempFile("tmp4", ".star");
+
+        ReadableGraph rg = graph.getReadableGraph();
+        try {
+            new GraphJsonWriter().writeGraphToZip(rg, graphFile.getPath(), new TextIoProgress(false));
+        } finally {
+            rg.release();
+        }
+
+        final GraphJsonReader reader = new GraphJsonReader();
+        reader.setLazy(true);
+        final Graph newGraph = reader.readGraphZip(graphFile, new TextIoProgress(false));
+        graphFile.delete();
+
+        assertSameGraph(newGraph);
+    }
+
+    @Test
+    public void writeReadJsonGraphTest() throws Exception {
+        final File graphFile = File.createTempFile("tmp3", ".star");
+
+        ReadableGraph rg = graph.getReadableGraph();
+        try {
+            final GraphJsonWriter writer = new GraphJsonWriter();
+            writer.setBinary(false);
+            writer.writeGraphToZip(rg, graphFile.getPath(), new TextIoProgress(false));
+        } finally {
+            rg.release();
+        }
+
+        final Graph newGraph = new GraphJsonReader().readGraphZip(graphFile, new TextIoProgress(false));
+        graphFile.delete();
+
+        assertSameGraph(newGraph);
+    }
+
+    @Test
+    public void writeReadDeltaGraphTest() throws Exception {
+        final File graphFile = File.createTempFile("tmp5", ".star");
+        final File deltaFile = File.createTempFile("tmp5", ".star_delta");
+
+        final GraphJsonWriter writer = new GraphJsonWriter();
+        ReadableGraph rg = graph.getReadableGraph();
+        final GraphCheckpoint checkpoint;
+        try {
+            checkpoint = writer.writeCheckpointToZip(rg, graphFile.getPath(), new TextIoProgress(false));
+        } finally {
+            rg.release();
+        }
+        assertNotNull("checkpoint", checkpoint);
+
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            wg.setFloatValue(attrX, vxId3, 30.0f);
+            wg.setStringValue(vNameAttr, vxId5, "renamed5");
+        } finally {
+            wg.commit();
+        }
+
+        rg = graph.getReadableGraph();
+        final GraphDelta delta;
+        try {
+            assertTrue("modified", checkpoint.isModified(rg));
+            assertTrue("delta allowed", checkpoint.canWriteDelta(rg));
+            delta = writer.createDelta(rg, checkpoint);
+        } finally {
+            rg.release();
+        }
+        assertEquals("changed attributes", 2, delta.getAttributeCount());
+        writer.writeDeltaToZip(delta, deltaFile.getPath());
+
+        final Graph newGraph = new GraphJsonReader().readGraphZip(graphFile, deltaFile, new TextIoProgress(false));
+        assertSameGraph(newGraph);
+
+        // The checkpoint on its own doesn't have the changes.
+        final Graph oldGraph = new GraphJsonReader().readGraphZip(graphFile, new TextIoProgress(false));
+        final ReadableGraph oldRg = oldGraph.getReadableGraph();
+        try {
+            assertEquals("old x", 3.0f, oldRg.getFloatValue(oldRg.getAttribute(GraphElementType.VERTEX, "x"), oldRg.getVertex(2)));
+        } finally {
+            oldRg.release();
+        }
+
+        graphFile.delete();
+        deltaFile.delete();
+
+        // A structural change needs a new checkpoint.
+        final WritableGraph wg2 = graph.getWritableGraph("", true);
+        try {
+            wg2.addVertex();
+        } finally {
+            wg2.commit();
+        }
+        rg = graph.getReadableGraph();
+        try {
+            assertFalse("delta not allowed", checkpoint.canWriteDelta(rg));
+        } finally {
+            rg.release();
+        }
+    }
+
+    @Test
+    public void undoSinceCheckpointPreventsDeltaTest() throws Exception {
+        final UndoManager undoManager = new UndoManager();
+        graph.setUndoManager(undoManager);
+        setX(vxId3, 30.0f);
+
+        final File graphFile = File.createTempFile("tmp6", ".star");
+        final GraphJsonWriter writer = new GraphJsonWriter();
+        ReadableGraph rg = graph.getReadableGraph();
+        final GraphCheckpoint checkpoint;
+        try {
+            checkpoint = writer.writeCheckpointToZip(rg, graphFile.getPath(), new TextIoProgress(false));
+        } finally {
+            rg.release();
+        }
+        assertNotNull("checkpoint", checkpoint);
+
+        // Undo happens on its own thread.
+        SwingUtilities.invokeAndWait(undoManager::undo);
+        for (int i = 0; i < 1000 && getX(vxId3) != 3.0f; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals("undone x", 3.0f, getX(vxId3));
+        setX(vxId3, 40.0f);
+
+        rg = graph.getReadableGraph();
+        try {
+            // The undo has taken the counters back to their values at the checkpoint.
+            assertEquals("global counter", checkpoint.getGlobalModificationCounter(), rg.getGlobalModificationCounter());
+            assertEquals("x counter", checkpoint.getValueModificationCounter(attrX).longValue(), rg.getValueModificationCounter(attrX));
+
+            assertTrue("modified", checkpoint.isModified(rg));
+            assertFalse("delta allowed", checkpoint.canWriteDelta(rg));
+            try {
+                writer.createDelta(rg, checkpoint);
+                fail("delta created");
+            } catch (final IllegalArgumentException ex) {
+                // A new checkpoint must be written instead.
+            }
+            writer.writeCheckpointToZip(rg, graphFile.getPath(), new TextIoProgress(false));
+        } finally {
+            rg.release();
+        }
+
+        final Graph newGraph = new GraphJsonReader().readGraphZip(graphFile, new TextIoProgress(false));
+        graphFile.delete();
+
+        assertSameGraph(newGraph);
+        final ReadableGraph newRg = newGraph.getReadableGraph();
+        try {
+            assertEquals("new x", 40.0f, newRg.getFloatValue(newRg.getAttribute(GraphElementType.VERTEX, "x"), newRg.getVertex(2)));
+        } finally {
+            newRg.release();
+        }
+    }
+
+    private void setX(final int vxId, final float x) throws Exception {
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            wg.setFloatValue(attrX, vxId, x);
+        } finally {
+            wg.commit();
+        }
+
+        // Edits are passed to the undo manager on the event dispatch thread.
+        SwingUtilities.invokeAndWait(() -> {
+        });
+    }
+
+    private float getX(final int vxId) {
+        final ReadableGraph rg = graph.getReadableGraph();
+        try {
+            return rg.getFloatValue(attrX, vxId);
+        } finally {
+            rg.release();
+        }
+    }
+
+    // check that a graph that has been read back has the same elements and values as the original graph
+    private void assertSameGraph(final Graph newGraph) {
+        final ReadableGraph rg = graph.getReadableGraph();
+        final ReadableGraph newRg = newGraph.getReadableGraph();
+        try {
+            assertEquals("num nodes", rg.getVertexCount(), newRg.getVertexCount());
+            assertEquals("num transactions", rg.getTransactionCount(), newRg.getTransactionCount());
+
+            final int newNameAttr = newRg.getAttribute(GraphElementType.VERTEX, "name");
+            final int newXAttr = newRg.getAttribute(GraphElementType.VERTEX, "x");
+            final int newSelAttr = newRg.getAttribute(GraphElementType.VERTEX, "selected");
+            assertEquals("x default", 0.0F, ((Number) newRg.getAttributeDefaultValue(newXAttr)).floatValue());
+            for (int position = 0; position < rg.getVertexCount(); position++) {
+                final int vxId = rg.getVertex(position);
+                final int newVxId = newRg.getVertex(position);
+                assertEquals("name", rg.getStringValue(vNameAttr, vxId), newRg.getStringValue(newNameAttr, newVxId));
+                assertEquals("x", rg.getFloatValue(attrX, vxId), newRg.getFloatValue(newXAttr, newVxId));
+                assertEquals("selected", rg.getBooleanValue(vSelAttr, vxId), newRg.getBooleanValue(newSelAttr, newVxId));
+            }
+
+            final int newTNameAttr = newRg.getAttribute(GraphElementType.TRANSACTION, "name");
+            for (int position = 0; position < rg.getTransactionCount(); position++) {
+                final int txId = rg.getTransaction(position);
+                final int newTxId = newRg.getTransaction(position);
+                assertEquals("tx name", rg.getStringValue(tNameAttr, txId), newRg.getStringValue(newTNameAttr, newTxId));
+                assertEquals("source", rg.getStringValue(vNameAttr, rg.getTransactionSourceVertex(txId)),
+                        newRg.getStringValue(newNameAttr, newRg.getTransactionSourceVertex(newTxId)));
+                assertEquals("destination", rg.getStringValue(vNameAttr, rg.getTransactionDestinationVertex(txId)),
+                        newRg.getStringValue(newNameAttr, newRg.getTransactionDestinationVertex(newTxId)));
+                assertEquals("direction", rg.getTransactionDirection(txId), newRg.getTransactionDirection(newTxId));
+            }
+        } finally {
+            newRg.release();
+            rg.release();
+        }
+    }
+
     // determine whether the node of the specified name exists in the graph
     private boolean nodeFound(ReadableGraph graph, String base_name) {
         int nameAttrId = graph.getAttribute(GraphElementType.VERTEX, "name");
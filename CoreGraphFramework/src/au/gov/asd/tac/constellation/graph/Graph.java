@@ -216,6 +216,38 @@ public interface Graph extends GraphConstants {
      */
     public WritableGraph getWritableGraph(final String name, final boolean significant, final Object editor) throws InterruptedException;
 
+    /**
+     * Gets a write lock on the graph for an edit that continues the most
+     * recent edit, if that edit was made by the same editor. A long running
+     * process can use this to release the write lock between its steps while
+     * still having every step undone together.
+     * <p>
+     * The first step of such a process should be a significant edit obtained
+     * from {@link #getWritableGraph(String, boolean, Object)}. Each later step
+     * joins the undo step of the previous one as long as no other edit has
+     * been committed in between and that undo step has not been undone.
+     * Otherwise the new edit is significant and begins a new undo step, so the
+     * steps of the process are never absorbed by an edit made by another
+     * process.
+     * <b>
+     * To prevent deadlock situations, calling this method on the event dispatch
+     * thread is not allowed and will cause an {@link IllegalStateException} to
+     * be thrown.
+     * </b>
+     *
+     * @param name The name of the edit used to modify the graph.
+     * @param editor the object that identifies the process performing the
+     * edit, compared by identity with the editor of the previous edit.
+     *
+     * @return a WritableGraph that provides methods to modify the graph.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * for the write lock.
+     * @throws IllegalStateException if this method is called on the event
+     * dispatch thread.
+     */
+    public WritableGraph getContinuingWritableGraph(final String name, final Object editor) throws InterruptedException;
+
     /**
      * Gets a write lock on the graph and returns a WritableGraph that provides
      * methods to modify the graph. This method does not block, returning null
@@ -274,4 +306,21 @@ public interface Graph extends GraphConstants {
      * @param undoManager the new UndoManager.
      */
     public void setUndoManager(final UndoManager undoManager);
+
+    /**
+     * Requests that each subsequent commit on this graph records a
+     * {@link au.gov.asd.tac.constellation.graph.monitor.GraphChangeJournal} of
+     * the elements it touched, available to listeners through
+     * {@link au.gov.asd.tac.constellation.graph.monitor.GraphChangeEvent#getJournal()}.
+     * Journals cost a little extra work on each commit so they are only
+     * recorded while there is at least one outstanding request. Each call
+     * should be matched by a call to {@link #disableChangeJournal()}, usually
+     * when the listener that needed the journals is removed.
+     */
+    public void enableChangeJournal();
+
+    /**
+     * Withdraws a request made by {@link #enableChangeJournal()}.
+     */
+    public void disableChangeJournal();
 }
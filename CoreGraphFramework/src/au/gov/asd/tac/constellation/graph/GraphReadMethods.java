@@ -253,6 +253,19 @@ public interface GraphReadMethods extends GraphConstants {
      */
     long getStructureModificationCounter();
 
+    /**
+     * Returns the undo/redo counter. This counter is increased every time an
+     * undo or redo is applied to the graph and, unlike the modification
+     * counters, is never reverted. Because an undo reverts the modification
+     * counters, a later change can bring them back to values they held before
+     * while the graph itself is different. A change in this counter shows that
+     * this may have happened, so that modification counters recorded before it
+     * can no longer be trusted to identify the state of the graph.
+     *
+     * @return the undo/redo counter.
+     */
+    long getUndoRedoCounter();
+
     /**
      * Returns the modification counter for the specified attribute. This
      * counter is increased every time the value of the attribute is set for any
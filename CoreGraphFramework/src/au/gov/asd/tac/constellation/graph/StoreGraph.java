@@ -19,6 +19,7 @@ import static au.gov.asd.tac.constellation.graph.GraphConstants.NOT_FOUND;
 import au.gov.asd.tac.constellation.graph.NativeAttributeType.NativeValue;
 import au.gov.asd.tac.constellation.graph.attribute.AttributeDescription;
 import au.gov.asd.tac.constellation.graph.attribute.AttributeRegistry;
+import au.gov.asd.tac.constellation.graph.attribute.LazyAttributeDescription;
 import au.gov.asd.tac.constellation.graph.locking.GraphOperationMode;
 import au.gov.asd.tac.constellation.graph.locking.LockingTarget;
 import au.gov.asd.tac.constellation.graph.locking.ParameterReadAccess;
@@ -100,6 +101,7 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
     private long globalModificationCounter = 0;
     private long attributeModificationCounter = 0;
     private long structureModificationCounter = 0;
+    private long undoRedoCounter = 0;
     private long lastFiredModificationCount = Long.MIN_VALUE;
     protected final int[][] primaryKeys;
     private int[] primaryKeyLookup;
@@ -328,6 +330,7 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
         this.globalModificationCounter = original.globalModificationCounter;
         this.attributeModificationCounter = original.attributeModificationCounter;
         this.structureModificationCounter = original.structureModificationCounter;
+        this.undoRedoCounter = original.undoRedoCounter;
 
         this.lastFiredModificationCount = original.lastFiredModificationCount;
 
@@ -398,6 +401,27 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
         attributeModificationCounters[attribute] = modificationCounter;
     }
 
+    /**
+     * Defer loading the values of an attribute until they are first accessed.
+     * <p>
+     * The loader sets the values directly on the AttributeDescription of the
+     * attribute, so the loaded values do not create edits or change any
+     * modification counters. This is intended for graphs that are being read
+     * from a file, before the values of the attribute have been set.
+     *
+     * @param attribute the attribute whose values will be loaded.
+     * @param loader the loader of the values.
+     * @throws IllegalArgumentException if the attribute is part of a primary
+     * key or is indexed, as keys and indices must see the loaded values.
+     */
+    public void setAttributeLoader(final int attribute, final LazyAttributeDescription.Loader loader) {
+        if (primaryKeyLookup[attribute] >= 0 || attributeIndexTypes[attribute] != GraphIndexType.NONE) {
+            throw new IllegalArgumentException("Attempt to defer loading of an attribute that is keyed or indexed: " + attribute);
+        }
+
+        attributeDescriptions[attribute] = new LazyAttributeDescription(attributeDescriptions[attribute], loader);
+    }
+
     @Override
     public long getModificationCounter() {
         return globalModificationCounter;
@@ -561,6 +585,16 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
         return structureModificationCounter;
     }
 
+    @Override
+    public long getUndoRedoCounter() {
+        return undoRedoCounter;
+    }
+
+    @Override
+    public void undoRedoApplied() {
+        undoRedoCounter++;
+    }
+
     @Override
     public long getValueModificationCounter(final int attribute) {
         return attributeModificationCounters[attribute];
@@ -2334,6 +2368,7 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
 
     protected void restore(final int attribute, final int id, final ParameterReadAccess access) {
         attributeDescriptions[attribute].restore(id, access);
+        attributeIndices[attribute].updateElement(id);
         attributeModificationCounters[attribute] += operationMode.getModificationIncrement();
         globalModificationCounter += operationMode.getModificationIncrement();
     }
@@ -2344,6 +2379,10 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
 
     protected void restoreData(final int attribute, final Object savedData) {
         attributeDescriptions[attribute].restoreData(savedData);
+        if (attributeIndexTypes[attribute] != GraphIndexType.NONE) {
+            // Every value may have changed so the index is rebuilt.
+            attributeIndices[attribute] = createPopulatedIndex(attribute, attributeIndexTypes[attribute]);
+        }
         attributeModificationCounters[attribute] += operationMode.getModificationIncrement();
         globalModificationCounter += operationMode.getModificationIncrement();
     }
@@ -2382,14 +2421,7 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
             AttributeDescription attributeDescription = attributeDescriptions[attribute];
             if (attributeDescription.supportsIndexType(indexType)) {
                 attributeIndexTypes[attribute] = indexType;
-                GraphIndex index = attributeIndices[attribute] = attributeDescription.createIndex(indexType);
-
-                GraphElementType elementType = attributes[attribute].getElementType();
-                int elementCount = elementType.getElementCount(this);
-                for (int i = 0; i < elementCount; i++) {
-                    int element = elementType.getElement(this, i);
-                    index.addElement(element);
-                }
+                attributeIndices[attribute] = createPopulatedIndex(attribute, indexType);
 
                 if (graphEdit != null) {
                     graphEdit.setAttributeIndexType(attribute, oldIndexType, indexType);
@@ -2398,6 +2430,19 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
         }
     }
 
+    private GraphIndex createPopulatedIndex(final int attribute, final GraphIndexType indexType) {
+        final GraphIndex index = attributeDescriptions[attribute].createIndex(indexType);
+
+        final GraphElementType elementType = attributes[attribute].getElementType();
+        final int elementCount = elementType.getElementCount(this);
+        for (int i = 0; i < elementCount; i++) {
+            final int element = elementType.getElement(this, i);
+            index.addElement(element);
+        }
+
+        return index;
+    }
+
     public AttributeRegistry getAttributeRegistry() {
         return attributeRegistry;
     }
@@ -15,6 +15,8 @@
  */
 package au.gov.asd.tac.constellation.graph.attribute;
 
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.locking.ParameterReadAccess;
@@ -25,6 +27,7 @@ import au.gov.asd.tac.constellation.graph.value.variables.ObjectVariable;
 import java.lang.reflect.InvocationTargetException;
 import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * Describes an attribute backed by a class which extends Object. This provides
@@ -208,4 +211,74 @@ public abstract class AbstractObjectAttributeDescription<T extends Object> exten
             }
         };
     }
+
+    /**
+     * Object attributes can be given an unordered index based on
+     * {@link Object#hashCode()} and {@link Object#equals(Object)}, and an
+     * ordered index if their native class is {@link Comparable}.
+     *
+     * @param indexType the candidate index type.
+     * @return true if this AttributeDescription supports the specified index
+     * type.
+     */
+    @Override
+    public boolean supportsIndexType(final GraphIndexType indexType) {
+        return indexType != GraphIndexType.ORDERED || Comparable.class.isAssignableFrom(nativeClass);
+    }
+
+    @Override
+    public GraphIndex createIndex(final GraphIndexType indexType) {
+        switch (indexType) {
+            case UNORDERED:
+                return new HashGraphIndex(new IndexValues(), data.length);
+            case ORDERED:
+                return new OrderedGraphIndex(new IndexValues(), data.length);
+            default:
+                return NULL_GRAPH_INDEX;
+        }
+    }
+
+    private class IndexValues implements IndexedAttributeValues {
+
+        @Override
+        public Object convert(final Object value) {
+            return convertFromObject(value);
+        }
+
+        @Override
+        public long getKey(final int element) {
+            return Objects.hashCode(data[element]);
+        }
+
+        @Override
+        public long getValueKey(final Object value) {
+            return Objects.hashCode(value);
+        }
+
+        @Override
+        public boolean matches(final int element, final Object value) {
+            return Objects.equals(data[element], value);
+        }
+
+        @Override
+        public int compare(final int element1, final int element2) {
+            return compareValues(data[element1], data[element2]);
+        }
+
+        @Override
+        public int compareToValue(final int element, final Object value) {
+            return compareValues(data[element], value);
+        }
+
+        @SuppressWarnings("unchecked") // Only used when the native class is Comparable
+        private int compareValues(final Object value1, final Object value2) {
+            if (value1 == null) {
+                return value2 == null ? 0 : -1;
+            } else if (value2 == null) {
+                return 1;
+            } else {
+                return ((Comparable<Object>) value1).compareTo(value2);
+            }
+        }
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.attribute;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphIndexResult;
+
+/**
+ * A GraphIndexResult over a snapshot of element ids held in an array.
+ *
+ * @author sirius
+ */
+class ArrayGraphIndexResult implements GraphIndexResult {
+
+    private final int[] elements;
+    private final int count;
+    private int position = 0;
+
+    ArrayGraphIndexResult(final int[] elements, final int count) {
+        this.elements = elements;
+        this.count = count;
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public int getNextElement() {
+        return position < count ? elements[position++] : Graph.NOT_FOUND;
+    }
+}
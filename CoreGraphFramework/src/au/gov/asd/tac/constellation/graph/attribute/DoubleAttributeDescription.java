@@ -15,6 +15,8 @@
  */
 package au.gov.asd.tac.constellation.graph.attribute;
 
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.NativeAttributeType;
@@ -304,4 +306,34 @@ public class DoubleAttributeDescription extends AbstractAttributeDescription {
             }
         };
     }
+
+    @Override
+    public boolean supportsIndexType(final GraphIndexType indexType) {
+        return true;
+    }
+
+    @Override
+    public GraphIndex createIndex(final GraphIndexType indexType) {
+        switch (indexType) {
+            case UNORDERED:
+                return new HashGraphIndex(new IndexValues(), data.length);
+            case ORDERED:
+                return new OrderedGraphIndex(new IndexValues(), data.length);
+            default:
+                return NULL_GRAPH_INDEX;
+        }
+    }
+
+    private class IndexValues extends PrimitiveIndexedAttributeValues {
+
+        @Override
+        public long getKey(final int element) {
+            return getSortableKey(data[element]);
+        }
+
+        @Override
+        protected long toKey(final Object value) {
+            return getSortableKey(convertFromObject(value));
+        }
+    }
 }
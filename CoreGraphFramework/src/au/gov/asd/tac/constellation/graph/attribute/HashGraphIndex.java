@@ -0,0 +1,182 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.attribute;
+
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexResult;
+import java.util.Arrays;
+
+/**
+ * An unordered GraphIndex that hashes the key of each element's value into a
+ * table of buckets.
+ * <p>
+ * Each bucket is a doubly linked list of elements held in primitive arrays, so
+ * adding, removing and updating an element is O(1) and an equality lookup is
+ * proportional to the size of its bucket. The key of each element is
+ * remembered so that an element can be moved out of its old bucket after its
+ * value has already changed.
+ *
+ * @author sirius
+ */
+public class HashGraphIndex implements GraphIndex {
+
+    private static final int NOT_INDEXED = -2;
+    private static final int NONE = -1;
+    private static final int MINIMUM_BUCKETS = 16;
+
+    private final IndexedAttributeValues values;
+
+    private long[] keys;
+    private int[] next;
+    private int[] prev;
+    private int[] buckets;
+    private int mask;
+
+    /**
+     * Create a new index.
+     *
+     * @param values the values to index.
+     * @param capacity the current element capacity of the attribute.
+     */
+    public HashGraphIndex(final IndexedAttributeValues values, final int capacity) {
+        this.values = values;
+        keys = new long[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        Arrays.fill(prev, NOT_INDEXED);
+        createBuckets(capacity);
+    }
+
+    private void createBuckets(final int capacity) {
+        int bucketCount = MINIMUM_BUCKETS;
+        while (bucketCount < capacity) {
+            bucketCount <<= 1;
+        }
+        buckets = new int[bucketCount];
+        Arrays.fill(buckets, NONE);
+        mask = bucketCount - 1;
+    }
+
+    private int getBucket(final long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void link(final int element) {
+        final int bucket = getBucket(keys[element]);
+        final int head = buckets[bucket];
+        next[element] = head;
+        prev[element] = NONE;
+        if (head != NONE) {
+            prev[head] = element;
+        }
+        buckets[bucket] = element;
+    }
+
+    private void unlink(final int element) {
+        final int p = prev[element];
+        final int n = next[element];
+        if (p == NONE) {
+            buckets[getBucket(keys[element])] = n;
+        } else {
+            next[p] = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
+        }
+    }
+
+    @Override
+    public void addElement(final int element) {
+        if (prev[element] == NOT_INDEXED) {
+            keys[element] = values.getKey(element);
+            link(element);
+        }
+    }
+
+    @Override
+    public void removeElement(final int element) {
+        if (prev[element] != NOT_INDEXED) {
+            unlink(element);
+            prev[element] = NOT_INDEXED;
+        }
+    }
+
+    @Override
+    public void updateElement(final int element) {
+        if (prev[element] != NOT_INDEXED) {
+            final long key = values.getKey(element);
+            if (key != keys[element]) {
+                unlink(element);
+                keys[element] = key;
+                link(element);
+            }
+        }
+    }
+
+    @Override
+    public GraphIndexResult getElementsWithAttributeValue(final Object value) {
+        final Object converted = values.convert(value);
+        final long key = values.getValueKey(converted);
+
+        int[] result = new int[MINIMUM_BUCKETS];
+        int count = 0;
+        for (int element = buckets[getBucket(key)]; element != NONE; element = next[element]) {
+            if (keys[element] == key && values.matches(element, converted)) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = element;
+            }
+        }
+
+        return new ArrayGraphIndexResult(result, count);
+    }
+
+    @Override
+    public GraphIndexResult getElementsWithAttributeValueRange(final Object start, final Object end) {
+        return null;
+    }
+
+    @Override
+    public void expandCapacity(final int newCapacity) {
+        final int oldCapacity = keys.length;
+        if (newCapacity <= oldCapacity) {
+            return;
+        }
+
+        keys = Arrays.copyOf(keys, newCapacity);
+        next = Arrays.copyOf(next, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+        Arrays.fill(prev, oldCapacity, newCapacity, NOT_INDEXED);
+
+        if (newCapacity > buckets.length) {
+            // Collect the indexed elements before the bucket links are overwritten.
+            final int[] indexed = new int[oldCapacity];
+            int indexedCount = 0;
+            for (int element = 0; element < oldCapacity; element++) {
+                if (prev[element] != NOT_INDEXED) {
+                    indexed[indexedCount++] = element;
+                }
+            }
+
+            createBuckets(newCapacity);
+            for (int i = 0; i < indexedCount; i++) {
+                link(indexed[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.attribute;
+
+/**
+ * The view of an attribute's values that {@link HashGraphIndex} and
+ * {@link OrderedGraphIndex} use to index them.
+ * <p>
+ * An AttributeDescription that supports these indexes implements this
+ * interface over its internal data array so that the index always sees the
+ * current value of each element.
+ * <p>
+ * Query values are passed through {@link #convert} once per query, and the
+ * converted value is then handed to the other query methods.
+ *
+ * @author sirius
+ */
+public interface IndexedAttributeValues {
+
+    /**
+     * Convert an object passed to an index query into the form expected by
+     * the other methods of this interface.
+     *
+     * @param value the query value.
+     * @return the converted value.
+     * @throws IllegalArgumentException if the value cannot be converted to the
+     * type of this attribute.
+     */
+    public Object convert(final Object value);
+
+    /**
+     * Return a 64 bit key for the current value of the specified element.
+     * Equal values must have equal keys, but equal keys need not imply equal
+     * values.
+     *
+     * @param element the element id.
+     * @return a key for the current value of the element.
+     */
+    public long getKey(final int element);
+
+    /**
+     * Return the key for a converted query value, consistent with
+     * {@link #getKey(int)}.
+     *
+     * @param value the converted query value.
+     * @return the key for the value.
+     */
+    public long getValueKey(final Object value);
+
+    /**
+     * Returns true if the value of the specified element is equal to the
+     * converted query value. This is only called when the keys are equal.
+     *
+     * @param element the element id.
+     * @param value the converted query value.
+     * @return true if the value of the element equals the query value.
+     */
+    public boolean matches(final int element, final Object value);
+
+    /**
+     * Compare the values of two elements.
+     *
+     * @param element1 the first element id.
+     * @param element2 the second element id.
+     * @return a negative integer, zero or a positive integer as the value of
+     * the first element is less than, equal to or greater than the value of
+     * the second.
+     */
+    public int compare(final int element1, final int element2);
+
+    /**
+     * Compare the value of an element to a converted query value.
+     *
+     * @param element the element id.
+     * @param value the converted query value.
+     * @return a negative integer, zero or a positive integer as the value of
+     * the element is less than, equal to or greater than the query value.
+     */
+    public int compareToValue(final int element, final Object value);
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.attribute;
+
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.NativeAttributeType;
+import au.gov.asd.tac.constellation.graph.locking.ParameterReadAccess;
+import au.gov.asd.tac.constellation.graph.locking.ParameterWriteAccess;
+import au.gov.asd.tac.constellation.graph.value.readables.IntReadable;
+
+/**
+ * A LazyAttributeDescription wraps another AttributeDescription whose values
+ * have not been loaded yet.
+ * <p>
+ * The values are loaded into the wrapped description by a {@link Loader} the
+ * first time they are accessed, so attributes that are never looked at never
+ * pay the cost of being loaded. Until then, the wrapped description holds the
+ * default value for every element.
+ * <p>
+ * Methods that only describe the attribute, such as {@link #getName} and
+ * {@link #getCapacity}, do not cause the values to be loaded. Every other
+ * method loads the values before delegating to the wrapped description.
+ * Loading is synchronized, so concurrent readers of a graph can safely trigger
+ * it.
+ *
+ * @see au.gov.asd.tac.constellation.graph.StoreGraph#setAttributeLoader
+ * @author sirius
+ */
+public final class LazyAttributeDescription implements AttributeDescription {
+
+    /**
+     * A Loader sets the values of an attribute directly on its
+     * AttributeDescription.
+     * <p>
+     * A loader may be asked to load the same values more than once, into
+     * different descriptions, as copies of a graph load their values
+     * independently.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * Set the values of the attribute on the given description.
+         *
+         * @param description the description to set the values on.
+         */
+        void load(final AttributeDescription description);
+    }
+
+    private final AttributeDescription description;
+    private volatile Loader loader;
+
+    /**
+     * Create a new LazyAttributeDescription.
+     *
+     * @param description the description that the values will be loaded into.
+     * @param loader the loader of the values.
+     */
+    public LazyAttributeDescription(final AttributeDescription description, final Loader loader) {
+        this.description = description;
+        this.loader = loader;
+    }
+
+    /**
+     * Returns true if the values of this attribute have been loaded.
+     *
+     * @return true if the values of this attribute have been loaded.
+     */
+    public boolean isLoaded() {
+        return loader == null;
+    }
+
+    /**
+     * Returns the description that the values are loaded into, after loading
+     * them.
+     *
+     * @return the wrapped description.
+     */
+    public AttributeDescription getLoadedDescription() {
+        load();
+        return description;
+    }
+
+    private void load() {
+        if (loader != null) {
+            synchronized (this) {
+                final Loader pendingLoader = loader;
+                if (pendingLoader != null) {
+                    pendingLoader.load(description);
+                    loader = null;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void setGraph(final GraphReadMethods graph) {
+        description.setGraph(graph);
+    }
+
+    @Override
+    public String getName() {
+        return description.getName();
+    }
+
+    @Override
+    public int getVersion() {
+        return description.getVersion();
+    }
+
+    @Override
+    public Class<?> getNativeClass() {
+        return description.getNativeClass();
+    }
+
+    @Override
+    public NativeAttributeType getNativeType() {
+        return description.getNativeType();
+    }
+
+    @Override
+    public Object getDefault() {
+        return description.getDefault();
+    }
+
+    @Override
+    public void setDefault(final Object value) {
+        load();
+        description.setDefault(value);
+    }
+
+    @Override
+    public int getCapacity() {
+        return description.getCapacity();
+    }
+
+    @Override
+    public void setCapacity(final int capacity) {
+        // Growing the capacity does not disturb the values still to be loaded.
+        if (capacity < description.getCapacity()) {
+            load();
+        }
+        description.setCapacity(capacity);
+    }
+
+    @Override
+    public byte getByte(final int id) {
+        load();
+        return description.getByte(id);
+    }
+
+    @Override
+    public void setByte(final int id, final byte value) {
+        load();
+        description.setByte(id, value);
+    }
+
+    @Override
+    public short getShort(final int id) {
+        load();
+        return description.getShort(id);
+    }
+
+    @Override
+    public void setShort(final int id, final short value) {
+        load();
+        description.setShort(id, value);
+    }
+
+    @Override
+    public int getInt(final int id) {
+        load();
+        return description.getInt(id);
+    }
+
+    @Override
+    public void setInt(final int id, final int value) {
+        load();
+        description.setInt(id, value);
+    }
+
+    @Override
+    public long getLong(final int id) {
+        load();
+        return description.getLong(id);
+    }
+
+    @Override
+    public void setLong(final int id, final long value) {
+        load();
+        description.setLong(id, value);
+    }
+
+    @Override
+    public float getFloat(final int id) {
+        load();
+        return description.getFloat(id);
+    }
+
+    @Override
+    public void setFloat(final int id, final float value) {
+        load();
+        description.setFloat(id, value);
+    }
+
+    @Override
+    public double getDouble(final int id) {
+        load();
+        return description.getDouble(id);
+    }
+
+    @Override
+    public void setDouble(final int id, final double value) {
+        load();
+        description.setDouble(id, value);
+    }
+
+    @Override
+    public boolean getBoolean(final int id) {
+        load();
+        return description.getBoolean(id);
+    }
+
+    @Override
+    public void setBoolean(final int id, final boolean value) {
+        load();
+        description.setBoolean(id, value);
+    }
+
+    @Override
+    public char getChar(final int id) {
+        load();
+        return description.getChar(id);
+    }
+
+    @Override
+    public void setChar(final int id, final char value) {
+        load();
+        description.setChar(id, value);
+    }
+
+    @Override
+    public String getString(final int id) {
+        load();
+        return description.getString(id);
+    }
+
+    @Override
+    public void setString(final int id, final String value) {
+        load();
+        description.setString(id, value);
+    }
+
+    @Override
+    public String acceptsString(final String value) {
+        return description.acceptsString(value);
+    }
+
+    @Override
+    public Object getObject(final int id) {
+        load();
+        return description.getObject(id);
+    }
+
+    @Override
+    public void setObject(final int id, final Object value) {
+        load();
+        description.setObject(id, value);
+    }
+
+    @Override
+    public Object createReadObject(final IntReadable indexReadable) {
+        load();
+        return description.createReadObject(indexReadable);
+    }
+
+    @Override
+    public Object createWriteObject(final GraphWriteMethods graph, final int attribute, final IntReadable indexReadable) {
+        load();
+        return description.createWriteObject(graph, attribute, indexReadable);
+    }
+
+    @Override
+    public Object convertToNativeValue(final Object object) {
+        return description.convertToNativeValue(object);
+    }
+
+    @Override
+    public boolean isClear(final int id) {
+        load();
+        return description.isClear(id);
+    }
+
+    @Override
+    public void clear(final int id) {
+        load();
+        description.clear(id);
+    }
+
+    @Override
+    public AttributeDescription copy(final GraphReadMethods graph) {
+        synchronized (this) {
+            // A copy of an attribute that has not been loaded yet loads its own values when it is first accessed.
+            return loader == null ? description.copy(graph) : new LazyAttributeDescription(description.copy(graph), loader);
+        }
+    }
+
+    @Override
+    public int hashCode(final int id) {
+        load();
+        return description.hashCode(id);
+    }
+
+    @Override
+    public boolean equals(final int id1, final int id2) {
+        load();
+        return description.equals(id1, id2);
+    }
+
+    @Override
+    public void save(final int id, final ParameterWriteAccess access) {
+        load();
+        description.save(id, access);
+    }
+
+    @Override
+    public void restore(final int id, final ParameterReadAccess access) {
+        load();
+        description.restore(id, access);
+    }
+
+    @Override
+    public Object saveData() {
+        load();
+        return description.saveData();
+    }
+
+    @Override
+    public void restoreData(final Object savedData) {
+        load();
+        description.restoreData(savedData);
+    }
+
+    @Override
+    public boolean supportsIndexType(final GraphIndexType indexType) {
+        return description.supportsIndexType(indexType);
+    }
+
+    @Override
+    public GraphIndex createIndex(final GraphIndexType indexType) {
+        load();
+        return description.createIndex(indexType);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LazyAttributeDescription[%s,loaded=%s]", description, isLoaded());
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.attribute;
+
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexResult;
+import java.util.Arrays;
+
+/**
+ * An ordered GraphIndex that keeps the indexed elements in an array sorted by
+ * value, supporting both equality and range queries by binary search.
+ * <p>
+ * Adding, removing or updating an element is O(1): the element is only noted
+ * as pending. The next query merges the pending elements into the sorted
+ * array, which costs O(n + p log p) for p pending elements, or re-sorts the
+ * whole array if most of it has changed. Queries may be made concurrently from
+ * several reading threads, so the merge is synchronized.
+ *
+ * @author sirius
+ */
+public class OrderedGraphIndex implements GraphIndex {
+
+    private final IndexedAttributeValues values;
+
+    private boolean[] present;
+    private boolean[] pending;
+    private int[] pendingElements;
+    private int pendingCount = 0;
+    private int[] sorted = new int[0];
+    private int sortedCount = 0;
+
+    /**
+     * Create a new index.
+     *
+     * @param values the values to index.
+     * @param capacity the current element capacity of the attribute.
+     */
+    public OrderedGraphIndex(final IndexedAttributeValues values, final int capacity) {
+        this.values = values;
+        present = new boolean[capacity];
+        pending = new boolean[capacity];
+        pendingElements = new int[capacity];
+    }
+
+    private void setPending(final int element) {
+        if (!pending[element]) {
+            pending[element] = true;
+            pendingElements[pendingCount++] = element;
+        }
+    }
+
+    @Override
+    public void addElement(final int element) {
+        present[element] = true;
+        setPending(element);
+    }
+
+    @Override
+    public void removeElement(final int element) {
+        if (present[element]) {
+            present[element] = false;
+            setPending(element);
+        }
+    }
+
+    @Override
+    public void updateElement(final int element) {
+        if (present[element]) {
+            setPending(element);
+        }
+    }
+
+    /**
+     * Bring the sorted array up to date with the pending changes.
+     */
+    private synchronized void merge() {
+        if (pendingCount == 0) {
+            return;
+        }
+
+        if (pendingCount * 4L > sortedCount) {
+            // Most of the index has changed so rebuild it from scratch.
+            int count = 0;
+            final int[] elements = new int[present.length];
+            for (int element = 0; element < present.length; element++) {
+                if (present[element]) {
+                    elements[count++] = element;
+                }
+            }
+            sort(elements, count);
+            sorted = elements;
+            sortedCount = count;
+        } else {
+            // Remove the pending elements from their old positions...
+            int kept = 0;
+            for (int i = 0; i < sortedCount; i++) {
+                final int element = sorted[i];
+                if (!pending[element]) {
+                    sorted[kept++] = element;
+                }
+            }
+
+            // ...sort the pending elements that are still present...
+            final int[] added = new int[pendingCount];
+            int addedCount = 0;
+            for (int i = 0; i < pendingCount; i++) {
+                final int element = pendingElements[i];
+                if (present[element]) {
+                    added[addedCount++] = element;
+                }
+            }
+            sort(added, addedCount);
+
+            // ...and merge the two sorted runs.
+            final int[] merged = new int[Math.max(kept + addedCount, sorted.length)];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < kept && j < addedCount) {
+                merged[k++] = values.compare(added[j], sorted[i]) < 0 ? added[j++] : sorted[i++];
+            }
+            while (i < kept) {
+                merged[k++] = sorted[i++];
+            }
+            while (j < addedCount) {
+                merged[k++] = added[j++];
+            }
+            sorted = merged;
+            sortedCount = k;
+        }
+
+        for (int i = 0; i < pendingCount; i++) {
+            pending[pendingElements[i]] = false;
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * Stable merge sort of the first count elements by value.
+     */
+    private void sort(final int[] elements, final int count) {
+        if (count > 1) {
+            final int[] buffer = Arrays.copyOf(elements, count);
+            mergeSort(buffer, elements, 0, count);
+        }
+    }
+
+    private void mergeSort(final int[] source, final int[] destination, final int low, final int high) {
+        if (high - low < 2) {
+            return;
+        }
+
+        final int mid = (low + high) >>> 1;
+        mergeSort(destination, source, low, mid);
+        mergeSort(destination, source, mid, high);
+
+        int i = low;
+        int j = mid;
+        for (int k = low; k < high; k++) {
+            if (j >= high || (i < mid && values.compare(source[i], source[j]) <= 0)) {
+                destination[k] = source[i++];
+            } else {
+                destination[k] = source[j++];
+            }
+        }
+    }
+
+    /**
+     * Return the first position in the sorted array whose value is not less
+     * than (or, if inclusive is false, not less than or equal to) the value.
+     */
+    private int search(final Object value, final boolean inclusive) {
+        int low = 0;
+        int high = sortedCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            final int comparison = values.compareToValue(sorted[mid], value);
+            if (comparison < 0 || (!inclusive && comparison == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    @Override
+    public GraphIndexResult getElementsWithAttributeValue(final Object value) {
+        final Object converted = values.convert(value);
+        synchronized (this) {
+            merge();
+            final int start = search(converted, true);
+            final int end = search(converted, false);
+            return new ArrayGraphIndexResult(Arrays.copyOfRange(sorted, start, end), end - start);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Both ends of the range are inclusive, and a null start or end leaves that
+     * end of the range unbounded.
+     */
+    @Override
+    public GraphIndexResult getElementsWithAttributeValueRange(final Object start, final Object end) {
+        final Object convertedStart = start == null ? null : values.convert(start);
+        final Object convertedEnd = end == null ? null : values.convert(end);
+        synchronized (this) {
+            merge();
+            final int from = start == null ? 0 : search(convertedStart, true);
+            final int to = end == null ? sortedCount : Math.max(from, search(convertedEnd, false));
+            return new ArrayGraphIndexResult(Arrays.copyOfRange(sorted, from, to), to - from);
+        }
+    }
+
+    @Override
+    public void expandCapacity(final int newCapacity) {
+        if (newCapacity > present.length) {
+            present = Arrays.copyOf(present, newCapacity);
+            pending = Arrays.copyOf(pending, newCapacity);
+            pendingElements = Arrays.copyOf(pendingElements, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.attribute;
+
+/**
+ * A base for the {@link IndexedAttributeValues} of primitive attributes, where
+ * the key of each value is an order preserving 64 bit encoding of the value
+ * itself. Comparisons and matches are then made on the keys alone.
+ *
+ * @author sirius
+ */
+public abstract class PrimitiveIndexedAttributeValues implements IndexedAttributeValues {
+
+    /**
+     * Convert a query value to a key.
+     *
+     * @param value the query value.
+     * @return the key of the value.
+     */
+    protected abstract long toKey(final Object value);
+
+    /**
+     * Return an order preserving key for a floating point value. Negative and
+     * positive zero share a key, as do all NaNs, which sort above positive
+     * infinity.
+     *
+     * @param value the floating point value.
+     * @return a key that sorts in the same order as the value.
+     */
+    public static long getSortableKey(final double value) {
+        final long bits = Double.doubleToLongBits(value == 0.0 ? 0.0 : value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    @Override
+    public final Object convert(final Object value) {
+        return toKey(value);
+    }
+
+    @Override
+    public final long getValueKey(final Object value) {
+        return (Long) value;
+    }
+
+    @Override
+    public final boolean matches(final int element, final Object value) {
+        return getKey(element) == (Long) value;
+    }
+
+    @Override
+    public final int compare(final int element1, final int element2) {
+        return Long.compare(getKey(element1), getKey(element2));
+    }
+
+    @Override
+    public final int compareToValue(final int element, final Object value) {
+        return Long.compare(getKey(element), (Long) value);
+    }
+}
@@ -15,6 +15,8 @@
  */
 package au.gov.asd.tac.constellation.graph.attribute;
 
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.NativeAttributeType;
@@ -24,6 +26,8 @@ import au.gov.asd.tac.constellation.graph.value.readables.IntReadable;
 import au.gov.asd.tac.constellation.graph.value.readables.StringReadable;
 import au.gov.asd.tac.constellation.graph.value.variables.StringVariable;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
 import org.openide.util.lookup.ServiceProvider;
 
 /**
@@ -49,6 +53,8 @@ public final class StringAttributeDescription extends AbstractAttributeDescripti
     public static final NativeAttributeType NATIVE_TYPE = NativeAttributeType.OBJECT;
     private static final String DEFAULT_VALUE = null;
 
+    private static final Comparator<String> INDEX_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
     private String[] data = new String[0];
     private String defaultValue = DEFAULT_VALUE;
 
@@ -281,4 +287,54 @@ public final class StringAttributeDescription extends AbstractAttributeDescripti
             }
         };
     }
+
+    @Override
+    public boolean supportsIndexType(final GraphIndexType indexType) {
+        return true;
+    }
+
+    @Override
+    public GraphIndex createIndex(final GraphIndexType indexType) {
+        switch (indexType) {
+            case UNORDERED:
+                return new HashGraphIndex(new IndexValues(), data.length);
+            case ORDERED:
+                return new OrderedGraphIndex(new IndexValues(), data.length);
+            default:
+                return NULL_GRAPH_INDEX;
+        }
+    }
+
+    private class IndexValues implements IndexedAttributeValues {
+
+        @Override
+        public Object convert(final Object value) {
+            return convertFromObject(value);
+        }
+
+        @Override
+        public long getKey(final int element) {
+            return Objects.hashCode(data[element]);
+        }
+
+        @Override
+        public long getValueKey(final Object value) {
+            return Objects.hashCode(value);
+        }
+
+        @Override
+        public boolean matches(final int element, final Object value) {
+            return Objects.equals(data[element], value);
+        }
+
+        @Override
+        public int compare(final int element1, final int element2) {
+            return INDEX_ORDER.compare(data[element1], data[element2]);
+        }
+
+        @Override
+        public int compareToValue(final int element, final Object value) {
+            return INDEX_ORDER.compare(data[element], (String) value);
+        }
+    }
 }
@@ -20,6 +20,7 @@ import au.gov.asd.tac.constellation.graph.ReadableGraph;
 import au.gov.asd.tac.constellation.graph.StoreGraph;
 import au.gov.asd.tac.constellation.graph.WritableGraph;
 import au.gov.asd.tac.constellation.graph.monitor.GraphChangeEvent;
+import au.gov.asd.tac.constellation.graph.monitor.GraphChangeJournal;
 import au.gov.asd.tac.constellation.graph.monitor.GraphChangeListener;
 import au.gov.asd.tac.constellation.graph.schema.Schema;
 import au.gov.asd.tac.constellation.utilities.memory.MemoryManager;
@@ -84,8 +85,8 @@ public class DualGraph implements Graph, Serializable {
     private LockingManager<LockingStoreGraph> createLockingManager() {
         return new LockingManager<LockingStoreGraph>() {
             @Override
-            protected void update(final Object description, final Object editor) {
-                final GraphChangeEvent event = new GraphChangeEvent(previousEvent, DualGraph.this, editor, description);
+            protected void update(final Object description, final Object editor, final GraphChangeJournal journal) {
+                final GraphChangeEvent event = new GraphChangeEvent(previousEvent, DualGraph.this, editor, description, journal);
                 previousEvent = event;
                 SwingUtilities.invokeLater(() -> {
                     synchronized (graphChangeListeners) {
@@ -207,6 +208,17 @@ public class DualGraph implements Graph, Serializable {
         return lockingManager.startWriting(name, significant, editor);
     }
 
+    @Override
+    public WritableGraph getContinuingWritableGraph(final String name, final Object editor) throws InterruptedException {
+        if (SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("Attempting to write on the EDT");
+        }
+        if (Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("Attempting to write on the JavaFX Application Thread");
+        }
+        return lockingManager.continueWriting(name, editor);
+    }
+
     @Override
     public WritableGraph getWritableGraphNow(final String name, final boolean significant) {
         return getWritableGraphNow(name, significant, null);
@@ -225,4 +237,24 @@ public class DualGraph implements Graph, Serializable {
     public void setUndoManager(final UndoManager undoManager) {
         lockingManager.setUndoManager(undoManager);
     }
+
+    /**
+     * Sets when the graph being read catches up with each commit. See
+     * {@link LockingManager.CommitStrategy}.
+     *
+     * @param commitStrategy the new commit strategy.
+     */
+    public void setCommitStrategy(final LockingManager.CommitStrategy commitStrategy) {
+        lockingManager.setCommitStrategy(commitStrategy);
+    }
+
+    @Override
+    public void enableChangeJournal() {
+        lockingManager.enableChangeJournal();
+    }
+
+    @Override
+    public void disableChangeJournal() {
+        lockingManager.disableChangeJournal();
+    }
 }
@@ -17,12 +17,19 @@ package au.gov.asd.tac.constellation.graph.locking;
 
 import au.gov.asd.tac.constellation.graph.DuplicateKeyException;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.monitor.GraphChangeJournal;
+import au.gov.asd.tac.constellation.graph.undo.CompositeGraphEdit;
+import au.gov.asd.tac.constellation.graph.undo.GraphEdit;
 import au.gov.asd.tac.constellation.graph.undo.UndoGraphEdit;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.swing.SwingUtilities;
@@ -35,6 +42,19 @@ import javax.swing.undo.UndoableEdit;
 /**
  * The LockingManager manages the locking and unlocking of a graph in response
  * to requests for read and/or write access by plugins.
+ * <p>
+ * When a write is committed the two targets swap roles, and the target that
+ * was being read must then replay the committed edit to catch up before it can
+ * be written. With the {@link CommitStrategy#DEFERRED} strategy this catch-up
+ * is done on a background thread, so a commit returns without replaying the
+ * edit or waiting for readers of the old target to finish. A writer that
+ * arrives first catches up itself, except that {@link #tryStartWriting} never
+ * waits for a catch-up and instead returns null. Readers always see the target
+ * that was just committed.
+ * <p>
+ * Undo and redo requests are queued and replayed on a pooled thread. Requests
+ * that build up while the graph is locked are applied together, so holding
+ * down undo costs one replay on each target rather than one per edit.
  *
  * @author sirius
  * @param <T>
@@ -42,6 +62,14 @@ import javax.swing.undo.UndoableEdit;
 public class LockingManager<T extends LockingTarget> implements Serializable {
 
     public static final boolean VERBOSE = false;
+
+    // Undo and redo requests, and deferred catch-ups, are replayed on these threads, with at most one task of each kind queued for each graph.
+    private static final ExecutorService UNDO_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "Graph Undo Redo");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final ReentrantLock globalWriteLock = new ReentrantLock(true);
     private Context a;
     private Context b;
@@ -50,6 +78,39 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
     private LockingEdit currentEdit = null;
     private LockingEdit initialEdit = null;
     private UndoManager undoManager;
+    private volatile CommitStrategy commitStrategy = CommitStrategy.DEFERRED;
+
+    // The edits that the write target has not yet replayed, guarded by the global write lock.
+    private final List<Replay> catchUpReplays = new ArrayList<>();
+    private boolean catchUpScheduled = false;
+
+    // The undo and redo requests waiting to be replayed, guarded by itself.
+    private final List<Replay> undoQueue = new ArrayList<>();
+    private boolean undoScheduled = false;
+
+    // Change journals are recorded while this is positive.
+    private final AtomicInteger changeJournalUsers = new AtomicInteger();
+    // The journal of the changes made since the last announced update, guarded by the global write lock.
+    private GraphChangeJournal pendingJournal = null;
+    private boolean pendingUnrecorded = false;
+
+    // The significant edit that the most recently committed edit belongs to, or null if it was not significant, guarded by the global write lock.
+    private LockingEdit lastCommittedGroup = null;
+
+    /**
+     * When the target that was being read catches up with a committed edit.
+     */
+    public enum CommitStrategy {
+        /**
+         * The target catches up with the edit before the commit returns.
+         */
+        IMMEDIATE,
+        /**
+         * The target catches up with the edit on a background thread, or when
+         * the next writer, undo or redo needs it if that is sooner.
+         */
+        DEFERRED
+    }
 
     public void setTargets(final T targetA, final T targetB) {
         a = readContext = new Context(targetA);
@@ -62,6 +123,214 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
         this.undoManager = undoManager;
     }
 
+    public CommitStrategy getCommitStrategy() {
+        return commitStrategy;
+    }
+
+    public void setCommitStrategy(final CommitStrategy commitStrategy) {
+        this.commitStrategy = commitStrategy;
+    }
+
+    /**
+     * Replays the edits that have been applied to the read target onto the
+     * write target if it has not yet caught up. This must be called with the
+     * global write lock held, before the write target is changed or handed to
+     * a writer.
+     */
+    private void catchUp() {
+        if (!catchUpReplays.isEmpty()) {
+            final List<Replay> replays = new ArrayList<>(catchUpReplays);
+            catchUpReplays.clear();
+
+            // Wait for any readers that started before the targets were swapped
+            writeContext.lock.writeLock().lock();
+            try {
+                replay(writeContext.target, replays);
+            } finally {
+                writeContext.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Swaps the read and write targets after the write target has been
+     * changed, leaving the new write target to catch up with the replays
+     * according to the commit strategy. This must be called with the global
+     * write lock held.
+     *
+     * @param replays the changes that were made to the write target.
+     */
+    private void swap(final List<Replay> replays) {
+        final Context originalReadContext = readContext;
+        readContext = writeContext;
+        writeContext = originalReadContext;
+
+        catchUpReplays.addAll(replays);
+        if (commitStrategy == CommitStrategy.IMMEDIATE) {
+            catchUp();
+        } else if (!catchUpScheduled) {
+            catchUpScheduled = true;
+            UNDO_EXECUTOR.execute(this::catchUpInBackground);
+        }
+    }
+
+    private void catchUpInBackground() {
+        globalWriteLock.lock();
+        try {
+            catchUpScheduled = false;
+            catchUp();
+        } finally {
+            globalWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Applies a sequence of edits to a target and then validates its keys.
+     * <p>
+     * Keys are only validated once at the end. Each edit leaves the graph in
+     * a state that was valid when it was committed, and key validation only
+     * visits the elements whose key values were changed, so it costs nothing
+     * when no key attributes were touched.
+     *
+     * @param target the target to change.
+     * @param replays the edits to apply, in order.
+     */
+    private void replay(final T target, final List<Replay> replays) {
+        for (final Replay replay : replays) {
+            replay.apply(target);
+        }
+        target.validateKeys();
+    }
+
+    /**
+     * Queues an undo or redo of an edit. Requests that arrive while earlier
+     * ones are waiting for the global write lock are replayed together, and an
+     * undo immediately followed by a redo of the same edit, or the other way
+     * around, cancel out.
+     *
+     * @param edit the edit to undo or redo.
+     * @param mode {@link GraphOperationMode#UNDO} or
+     * {@link GraphOperationMode#REDO}.
+     */
+    private void requestUndo(final LockingEdit edit, final GraphOperationMode mode) {
+        synchronized (undoQueue) {
+            final int last = undoQueue.size() - 1;
+            if (last >= 0 && undoQueue.get(last).edit == edit && undoQueue.get(last).mode != mode) {
+                undoQueue.remove(last);
+            } else {
+                undoQueue.add(new Replay(edit, mode));
+            }
+
+            if (!undoScheduled) {
+                undoScheduled = true;
+                UNDO_EXECUTOR.execute(this::replayUndoQueue);
+            }
+        }
+    }
+
+    private void replayUndoQueue() {
+        final List<Replay> replays;
+
+        // Get the global write lock because we will change the graph
+        globalWriteLock.lock();
+        try {
+            synchronized (undoQueue) {
+                replays = new ArrayList<>(undoQueue);
+                undoQueue.clear();
+                undoScheduled = false;
+            }
+            if (replays.isEmpty()) {
+                return;
+            }
+
+            catchUp();
+            replay(writeContext.target, replays);
+            swap(replays);
+        } finally {
+            // Unlock the global write lock so new write requests can begin on the new write context
+            globalWriteLock.unlock();
+        }
+
+        update(null, null, null);
+    }
+
+    /**
+     * An edit to be applied to a target in a particular mode.
+     */
+    private final class Replay {
+
+        private final LockingEdit edit;
+        private final GraphOperationMode mode;
+
+        public Replay(final LockingEdit edit, final GraphOperationMode mode) {
+            this.edit = edit;
+            this.mode = mode;
+        }
+
+        public void apply(final T target) {
+            if (mode != GraphOperationMode.EXECUTE) {
+                target.undoRedoApplied();
+            }
+            target.setOperationMode(mode);
+            try {
+                if (mode == GraphOperationMode.UNDO) {
+                    edit.undo(target);
+                } else {
+                    edit.execute(target);
+                }
+            } finally {
+                target.setOperationMode(GraphOperationMode.EXECUTE);
+            }
+        }
+    }
+
+    /**
+     * Requests that a {@link GraphChangeJournal} be recorded for each
+     * subsequent commit. Each call should be matched by a call to
+     * {@link #disableChangeJournal()}; journals are recorded while there is at
+     * least one outstanding request.
+     */
+    public void enableChangeJournal() {
+        changeJournalUsers.incrementAndGet();
+    }
+
+    /**
+     * Withdraws a request made by {@link #enableChangeJournal()}.
+     */
+    public void disableChangeJournal() {
+        changeJournalUsers.updateAndGet(users -> Math.max(users - 1, 0));
+    }
+
+    /**
+     * Adds the journal of a top level edit that has been committed or flushed
+     * to the changes that will be announced by the next update.
+     *
+     * @param journal the journal of the edit, or null if it was not recorded.
+     */
+    private void addJournal(final GraphChangeJournal journal) {
+        if (journal == null) {
+            pendingUnrecorded = true;
+        } else if (pendingJournal == null) {
+            pendingJournal = journal;
+        } else {
+            pendingJournal.addAll(journal);
+        }
+    }
+
+    /**
+     * Returns the journal of the changes made since the last announced update
+     * and starts a new one. The journal is null if any of those changes were
+     * made while journals were disabled.
+     *
+     * @return the journal of the changes made since the last announced update.
+     */
+    private GraphChangeJournal takeJournal() {
+        final GraphChangeJournal journal = pendingUnrecorded ? null : pendingJournal;
+        pendingJournal = null;
+        pendingUnrecorded = false;
+        return journal;
+    }
+
     private final class Context {
 
         ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
@@ -78,16 +347,52 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
         }
 
         globalWriteLock.lockInterruptibly();
+        return beginEdit(name, significant, source, false);
+    }
+
+    /**
+     * Start writing an edit that continues the most recently committed edit,
+     * if that edit was made by the same source. A process can use this to
+     * release the write lock between the steps of a long running edit and
+     * still have all of its steps undone together.
+     * <p>
+     * The new edit joins the undo step of the previous edit only while that
+     * step is the most recent significant edit and has not been undone. If
+     * another edit has been committed since, or the step has been undone, the
+     * new edit is significant and starts a new undo step, so that it is never
+     * absorbed by an edit made by another process.
+     *
+     * @param name the name of the edit.
+     * @param source the source of the edit, which is compared by identity with
+     * the source of the previous edit.
+     * @return the write target.
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * for the write lock.
+     */
+    public T continueWriting(final String name, final Object source) throws InterruptedException {
+        if (a.lock.getReadHoldCount() > 0 || b.lock.getReadHoldCount() > 0) {
+            throw new IllegalMonitorStateException("attempting to write while reading");
+        }
+
+        globalWriteLock.lockInterruptibly();
+        return beginEdit(name, true, source, true);
+    }
+
+    private T beginEdit(final String name, final boolean significant, final Object source, final boolean continuing) {
         if (currentEdit == null) {
-            currentEdit = new LockingEdit(name, significant, source);
+            catchUp();
+            final LockingEdit group = continuing && source != null && lastCommittedGroup != null
+                    && lastCommittedGroup.editor == source && lastCommittedGroup.canUndo() ? lastCommittedGroup : null;
+            currentEdit = new LockingEdit(name, significant && group == null, source, changeJournalUsers.get() > 0);
+            currentEdit.group = group;
             initialEdit = currentEdit;
         } else {
-            LockingEdit childEdit = new LockingEdit(name, significant, source);
+            LockingEdit childEdit = new LockingEdit(name, significant, source, currentEdit.journal != null);
             childEdit.parent = currentEdit;
             currentEdit = childEdit;
         }
 
-        writeContext.target.setGraphEdit(currentEdit.graphEdit);
+        writeContext.target.setGraphEdit(currentEdit.recordingEdit);
         currentEdit.setModificationCounter(writeContext.target.getModificationCounter());
 
         if (VERBOSE) {
@@ -105,22 +410,12 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
 
         try {
             if (globalWriteLock.tryLock(0, TimeUnit.SECONDS)) {
-                if (currentEdit == null) {
-                    currentEdit = new LockingEdit(name, significant, source);
-                    initialEdit = currentEdit;
-                } else {
-                    LockingEdit childEdit = new LockingEdit(name, significant, source);
-                    childEdit.parent = currentEdit;
-                    currentEdit = childEdit;
-                }
-                writeContext.target.setGraphEdit(currentEdit.graphEdit);
-                currentEdit.setModificationCounter(writeContext.target.getModificationCounter());
-
-                if (VERBOSE) {
-                    System.out.println("Write lock acquired for " + name + " by " + Thread.currentThread());
+                // Catching up could wait for readers and replay a large edit, so leave it to the background
+                if (currentEdit == null && !catchUpReplays.isEmpty()) {
+                    globalWriteLock.unlock();
+                    return null;
                 }
-
-                return writeContext.target;
+                return beginEdit(name, significant, source, false);
             } else {
                 return null;
             }
@@ -141,7 +436,7 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
         return c.target;
     }
 
-    protected void update(final Object description, Object editor) {
+    protected void update(final Object description, final Object editor, final GraphChangeJournal journal) {
         // Overridden in class DualGraph
     }
 
@@ -176,12 +471,15 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
     public final class LockingEdit implements UndoableEdit {
 
         private String name;
-        private final boolean significant;
+        private boolean significant;
         private final Object editor;
         private final AtomicBoolean executed = new AtomicBoolean(true);
         private boolean alive = true;
         private LockingEdit parent;
 
+        // The significant edit whose undo step this edit continues, or null.
+        private LockingEdit group = null;
+
         private long modificationCounter;
 
         public void setModificationCounter(final long modificationCounter) {
@@ -194,7 +492,13 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
 
         private List<LockingEdit> followingChildren = null;
 
-        private UndoGraphEdit graphEdit = new UndoGraphEdit();
+        private final UndoGraphEdit graphEdit = new UndoGraphEdit();
+
+        // The changes made by this edit and its committed children, or null if they are not being recorded.
+        private final GraphChangeJournal journal;
+
+        // The edit that the write target reports its changes to.
+        private final GraphEdit recordingEdit;
 
         private void finished() {
             graphEdit.finish();
@@ -221,10 +525,12 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
             graphEdit.undo((GraphWriteMethods) target);
         }
 
-        public LockingEdit(final String name, final boolean significant, final Object editor) {
+        public LockingEdit(final String name, final boolean significant, final Object editor, final boolean journalled) {
             this.name = name;
             this.significant = significant;
             this.editor = editor;
+            this.journal = journalled ? new GraphChangeJournal() : null;
+            this.recordingEdit = journal == null ? graphEdit : new CompositeGraphEdit(graphEdit, journal);
         }
 
         @Override
@@ -234,38 +540,7 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
                 throw new CannotUndoException();
             }
 
-            new Thread(() -> {
-                // Get the global write lock because we will change the graph
-                globalWriteLock.lock();
-                try {
-                    writeContext.target.setOperationMode(GraphOperationMode.UNDO);
-                    undo(writeContext.target);
-                    writeContext.target.validateKeys();
-                    writeContext.target.setOperationMode(GraphOperationMode.EXECUTE);
-
-                    // Switch the read context to the write context
-                    final Context originalReadContext = readContext;
-                    readContext = writeContext;
-
-                    originalReadContext.lock.writeLock().lock();
-                    try {
-                        originalReadContext.target.setOperationMode(GraphOperationMode.UNDO);
-                        undo(originalReadContext.target);
-                        originalReadContext.target.validateKeys();
-                        originalReadContext.target.setOperationMode(GraphOperationMode.EXECUTE);
-                    } finally {
-                        originalReadContext.lock.writeLock().unlock();
-                    }
-
-                    // Switch the write context
-                    writeContext = originalReadContext;
-                } finally {
-                    // Unlock the global write lock so new write requests can begin on the new write context
-                    globalWriteLock.unlock();
-                }
-            }).start();
-
-            update(null, null);
+            requestUndo(this, GraphOperationMode.UNDO);
         }
 
         @Override
@@ -280,38 +555,7 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
                 throw new CannotRedoException();
             }
 
-            new Thread(() -> {
-                // Get the global write lock because we will change the graph
-                globalWriteLock.lock();
-                try {
-                    writeContext.target.setOperationMode(GraphOperationMode.REDO);
-                    execute(writeContext.target);
-                    writeContext.target.validateKeys();
-                    writeContext.target.setOperationMode(GraphOperationMode.EXECUTE);
-
-                    // Switch the read context to the write context
-                    final Context originalReadContext = readContext;
-                    readContext = writeContext;
-
-                    originalReadContext.lock.writeLock().lock();
-                    try {
-                        originalReadContext.target.setOperationMode(GraphOperationMode.REDO);
-                        execute(originalReadContext.target);
-                        originalReadContext.target.validateKeys();
-                        originalReadContext.target.setOperationMode(GraphOperationMode.EXECUTE);
-                    } finally {
-                        originalReadContext.lock.writeLock().unlock();
-                    }
-
-                    // Switch the write context
-                    writeContext = originalReadContext;
-                } finally {
-                    // Unlock the global write lock so new write requests can begin on the new write context
-                    globalWriteLock.unlock();
-                }
-            }).start();
-
-            update(null, null);
+            requestUndo(this, GraphOperationMode.REDO);
         }
 
         @Override
@@ -329,7 +573,7 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
             if (edit.getClass() == LockingEdit.class) {
                 @SuppressWarnings("unchecked") // Type is manually checked.
                 LockingEdit lockingEdit = (LockingEdit) edit;
-                if (!lockingEdit.significant) {
+                if (!lockingEdit.significant && (lockingEdit.group == null || lockingEdit.group == this)) {
                     if (followingChildren == null) {
                         followingChildren = new ArrayList<>();
                     }
@@ -383,32 +627,24 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
 
                 writeContext.target.setGraphEdit(null);
 
-                Context originalReadContext = readContext;
-                readContext = writeContext;
-
-                originalReadContext.lock.writeLock().lock();
-                try {
-                    execute(originalReadContext.target);
-                    originalReadContext.target.validateKeys();
-                } finally {
-                    originalReadContext.lock.writeLock().unlock();
-                }
+                swap(Collections.singletonList(new Replay(this, GraphOperationMode.EXECUTE)));
 
-                writeContext = originalReadContext;
-
-                if (undoManager != null) {
-                    SwingUtilities.invokeLater(() -> undoManager.undoableEditHappened(new UndoableEditEvent(LockingManager.this, LockingEdit.this)));
-                }
+                addToUndoManager();
                 currentEdit = null;
                 initialEdit = null;
+                addJournal(journal);
+                final GraphChangeJournal announcedJournal = takeJournal();
                 globalWriteLock.unlock();
 
-                update(description, editor);
+                update(description, editor, announcedJournal);
 
             } else {
                 parent.graphEdit.addChild(graphEdit);
+                if (parent.journal != null) {
+                    parent.journal.addAll(journal);
+                }
                 currentEdit = parent;
-                writeContext.target.setGraphEdit(currentEdit.graphEdit);
+                writeContext.target.setGraphEdit(currentEdit.recordingEdit);
                 globalWriteLock.unlock();
 
             }
@@ -427,41 +663,54 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
 
             if (parent == null) {
 
-                Context originalReadContext = readContext;
-                readContext = writeContext;
-
-                originalReadContext.lock.writeLock().lock();
-                try {
-                    execute(originalReadContext.target);
-                    originalReadContext.target.validateKeys();
-                } finally {
-                    originalReadContext.lock.writeLock().unlock();
-                }
-
-                writeContext = originalReadContext;
+                // The writer carries on straight away, so the new write target must catch up now
+                swap(Collections.singletonList(new Replay(this, GraphOperationMode.EXECUTE)));
+                catchUp();
 
-                if (undoManager != null) {
-                    SwingUtilities.invokeLater(() -> undoManager.undoableEditHappened(new UndoableEditEvent(LockingManager.this, LockingEdit.this)));
-                }
-                currentEdit = new LockingEdit(name, false, editor);
-                writeContext.target.setGraphEdit(currentEdit.graphEdit);
+                addToUndoManager();
+                addJournal(journal);
+                currentEdit = new LockingEdit(name, false, editor, changeJournalUsers.get() > 0);
+                currentEdit.group = lastCommittedGroup;
+                writeContext.target.setGraphEdit(currentEdit.recordingEdit);
 
                 if (announce) {
-                    update(description, editor);
+                    update(description, editor, takeJournal());
                 }
 
             } else {
 
                 parent.graphEdit.addChild(graphEdit);
-                LockingEdit childEdit = new LockingEdit(name, false, editor);
+                if (parent.journal != null) {
+                    parent.journal.addAll(journal);
+                }
+                LockingEdit childEdit = new LockingEdit(name, false, editor, journal != null);
                 childEdit.parent = currentEdit;
                 currentEdit = childEdit;
-                writeContext.target.setGraphEdit(currentEdit.graphEdit);
+                writeContext.target.setGraphEdit(currentEdit.recordingEdit);
 
             }
             return writeContext.target;
         }
 
+        /**
+         * Pass this edit to the undo manager and record the undo step it
+         * belongs to, so that a later edit can continue it.
+         */
+        private void addToUndoManager() {
+            lastCommittedGroup = group != null ? group : (significant ? this : null);
+            if (undoManager != null) {
+                SwingUtilities.invokeLater(() -> {
+                    // The group may have been undone since this edit started,
+                    // in which case this edit becomes an undo step of its own.
+                    if (group != null && !group.canUndo()) {
+                        significant = true;
+                        group = null;
+                    }
+                    undoManager.undoableEditHappened(new UndoableEditEvent(LockingManager.this, LockingEdit.this));
+                });
+            }
+        }
+
         public void rollBack() {
             rollBack(true);
         }
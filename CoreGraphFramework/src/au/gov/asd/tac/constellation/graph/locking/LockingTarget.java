@@ -42,6 +42,13 @@ public abstract class LockingTarget implements ReadingInterface {
     public void update() {
     }
 
+    /**
+     * Called each time an undo or redo is applied to this target, before its
+     * operation mode is set.
+     */
+    public void undoRedoApplied() {
+    }
+
     public abstract long getModificationCounter();
 
     public abstract void validateKeys() throws DuplicateKeyException;
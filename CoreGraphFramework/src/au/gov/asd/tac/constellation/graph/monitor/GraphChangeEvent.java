@@ -22,6 +22,10 @@ import au.gov.asd.tac.constellation.graph.Graph;
  * little information about the change, instead relying on the various
  * modification counters on the graph to communicate what type of change
  * occurred.
+ * <p>
+ * If change journals have been enabled on the graph, a committed change also
+ * carries a {@link GraphChangeJournal} recording which elements were touched,
+ * allowing listeners to refresh only those elements.
  *
  * @author sirius
  */
@@ -33,6 +37,7 @@ public class GraphChangeEvent {
     private final Graph graph;
     private final Object editor;
     private final Object description;
+    private final GraphChangeJournal journal;
 
     /**
      * Creates a new GraphChangeEvent with a automatically created one-up id.
@@ -47,12 +52,30 @@ public class GraphChangeEvent {
      * the modification counters on the graph.
      */
     public GraphChangeEvent(final GraphChangeEvent previous, final Graph graph, final Object editor, final Object description) {
+        this(previous, graph, editor, description, null);
+    }
+
+    /**
+     * Creates a new GraphChangeEvent with a automatically created one-up id
+     * and a journal of the elements touched by the change.
+     *
+     * @param previous the change event that occurred immediately previous to
+     * this one.
+     * @param graph the graph that underwent the change.
+     * @param editor an object that represents the editor (usually the plug-in
+     * instance)
+     * @param description an object that describes the change.
+     * @param journal the elements touched by the change, or null if they were
+     * not recorded.
+     */
+    public GraphChangeEvent(final GraphChangeEvent previous, final Graph graph, final Object editor, final Object description, final GraphChangeJournal journal) {
         synchronized (GraphChangeEvent.class) {
             id = NEXT_ID++;
         }
         this.graph = graph;
         this.editor = editor;
         this.description = description;
+        this.journal = journal;
 
         if (previous != null) {
             previous.next = this;
@@ -77,6 +100,7 @@ public class GraphChangeEvent {
         this.graph = graph;
         this.editor = editor;
         this.description = description;
+        this.journal = null;
 
         if (previous != null) {
             previous.next = this;
@@ -129,6 +153,38 @@ public class GraphChangeEvent {
         return description;
     }
 
+    /**
+     * Returns the journal of the elements touched by this change. This is null
+     * if change journals were not enabled on the graph when the change was
+     * committed, or if the change was an undo or redo. A listener receiving a
+     * null or incomplete journal should examine the whole graph.
+     *
+     * @return the journal of the elements touched by this change, or null.
+     */
+    public GraphChangeJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns a journal combining the journals of this event and every event
+     * issued after it. This suits listeners that only process the latest
+     * event: the first event not yet processed gives every element touched
+     * since then.
+     *
+     * @return the combined journal of this and all later events, or null if
+     * any of them has no journal.
+     */
+    public GraphChangeJournal getJournalToLatest() {
+        final GraphChangeJournal combined = new GraphChangeJournal();
+        for (GraphChangeEvent event = this; event != null; event = event.next) {
+            if (event.journal == null) {
+                return null;
+            }
+            combined.addAll(event.journal);
+        }
+        return combined;
+    }
+
     /**
      * Returns the latest GraphChangeEvent that has been issued for this graph.
      * Often, if graph changes are occurring frequently, a GraphChangeEvent may
@@ -156,6 +212,7 @@ public class GraphChangeEvent {
         out.append(", graph = ").append(graph);
         out.append(", editor = ").append(editor);
         out.append(", description = ").append(description);
+        out.append(", journal = ").append(journal);
         out.append("]");
         return out.toString();
     }
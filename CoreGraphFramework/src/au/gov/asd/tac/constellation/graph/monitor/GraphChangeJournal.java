@@ -0,0 +1,376 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.monitor;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.operations.GraphOperation;
+import au.gov.asd.tac.constellation.graph.undo.GraphEdit;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A record of the elements touched by one or more commits on a graph.
+ * <p>
+ * A journal records the changes made by a writer alongside the undo edit. The
+ * journals of nested edits are added to their parent when they commit, so
+ * changes that are rolled back are not reported. Vertex and transaction ids
+ * are collected into bit sets: the ids that were added, the ids that were
+ * removed, the transactions whose end points moved, and for each attribute the
+ * ids whose value changed. An id can appear in both the added and removed sets
+ * if it was reused within the same commit.
+ * <p>
+ * Graph operations that edit the graph directly, rather than through the
+ * individual graph methods, cannot be seen by the journal. When one of these
+ * is executed the journal is marked as incomplete and listeners should fall
+ * back to examining the whole graph.
+ * <p>
+ * Journals are only recorded while at least one party has called
+ * {@link au.gov.asd.tac.constellation.graph.Graph#enableChangeJournal()}, and
+ * they are never recorded for undo and redo. A {@link GraphChangeEvent}
+ * without a journal carries no information about which elements changed.
+ *
+ * @author sirius
+ */
+public class GraphChangeJournal implements GraphEdit {
+
+    private final BitSet addedVertices = new BitSet();
+    private final BitSet removedVertices = new BitSet();
+    private final BitSet addedTransactions = new BitSet();
+    private final BitSet removedTransactions = new BitSet();
+    private final BitSet movedTransactions = new BitSet();
+    private final BitSet addedAttributes = new BitSet();
+    private final BitSet removedAttributes = new BitSet();
+    private final BitSet redefinedAttributes = new BitSet();
+    private final Map<Integer, BitSet> modifiedValues = new HashMap<>();
+    private boolean complete = true;
+
+    /**
+     * Returns true if every change made to the graph was recorded by this
+     * journal. If this is false then the graph was modified by a graph
+     * operation that bypasses the journal and the journal should not be
+     * relied upon.
+     *
+     * @return true if every change made to the graph was recorded.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Returns true if nothing was recorded by this journal.
+     *
+     * @return true if nothing was recorded by this journal.
+     */
+    public boolean isEmpty() {
+        return complete && addedVertices.isEmpty() && removedVertices.isEmpty()
+                && addedTransactions.isEmpty() && removedTransactions.isEmpty() && movedTransactions.isEmpty()
+                && addedAttributes.isEmpty() && removedAttributes.isEmpty() && redefinedAttributes.isEmpty()
+                && modifiedValues.isEmpty();
+    }
+
+    /**
+     * Returns the ids of the vertices that were added to the graph.
+     *
+     * @return the ids of the vertices that were added to the graph.
+     */
+    public BitSet getAddedVertices() {
+        return (BitSet) addedVertices.clone();
+    }
+
+    /**
+     * Returns the ids of the vertices that were removed from the graph.
+     *
+     * @return the ids of the vertices that were removed from the graph.
+     */
+    public BitSet getRemovedVertices() {
+        return (BitSet) removedVertices.clone();
+    }
+
+    /**
+     * Returns the ids of the transactions that were added to the graph.
+     *
+     * @return the ids of the transactions that were added to the graph.
+     */
+    public BitSet getAddedTransactions() {
+        return (BitSet) addedTransactions.clone();
+    }
+
+    /**
+     * Returns the ids of the transactions that were removed from the graph.
+     *
+     * @return the ids of the transactions that were removed from the graph.
+     */
+    public BitSet getRemovedTransactions() {
+        return (BitSet) removedTransactions.clone();
+    }
+
+    /**
+     * Returns the ids of the transactions whose source or destination vertex
+     * was changed.
+     *
+     * @return the ids of the transactions whose end points were changed.
+     */
+    public BitSet getMovedTransactions() {
+        return (BitSet) movedTransactions.clone();
+    }
+
+    /**
+     * Returns the ids of the attributes that were added to the graph.
+     *
+     * @return the ids of the attributes that were added to the graph.
+     */
+    public BitSet getAddedAttributes() {
+        return (BitSet) addedAttributes.clone();
+    }
+
+    /**
+     * Returns the ids of the attributes that were removed from the graph.
+     *
+     * @return the ids of the attributes that were removed from the graph.
+     */
+    public BitSet getRemovedAttributes() {
+        return (BitSet) removedAttributes.clone();
+    }
+
+    /**
+     * Returns the ids of the attributes whose name, description, default value
+     * or index type was changed.
+     *
+     * @return the ids of the attributes whose definition was changed.
+     */
+    public BitSet getRedefinedAttributes() {
+        return (BitSet) redefinedAttributes.clone();
+    }
+
+    /**
+     * Returns the ids of the attributes that had at least one value changed.
+     *
+     * @return the ids of the attributes that had at least one value changed.
+     */
+    public BitSet getModifiedAttributes() {
+        final BitSet attributes = new BitSet();
+        modifiedValues.keySet().forEach(attributes::set);
+        return attributes;
+    }
+
+    /**
+     * Returns the ids of the elements whose value for the specified attribute
+     * was changed. The element type of the ids is the element type of the
+     * attribute.
+     *
+     * @param attribute the id of the attribute.
+     * @return the ids of the elements whose value was changed, which is empty
+     * if the attribute was not modified.
+     */
+    public BitSet getModifiedElements(final int attribute) {
+        final BitSet elements = modifiedValues.get(attribute);
+        return elements == null ? new BitSet() : (BitSet) elements.clone();
+    }
+
+    /**
+     * Returns true if the value of the specified attribute was changed for any
+     * element.
+     *
+     * @param attribute the id of the attribute.
+     * @return true if the value of the specified attribute was changed.
+     */
+    public boolean isModified(final int attribute) {
+        return modifiedValues.containsKey(attribute);
+    }
+
+    /**
+     * Adds everything recorded by another journal to this journal.
+     *
+     * @param other the journal to add to this journal.
+     */
+    public void addAll(final GraphChangeJournal other) {
+        addedVertices.or(other.addedVertices);
+        removedVertices.or(other.removedVertices);
+        addedTransactions.or(other.addedTransactions);
+        removedTransactions.or(other.removedTransactions);
+        movedTransactions.or(other.movedTransactions);
+        addedAttributes.or(other.addedAttributes);
+        removedAttributes.or(other.removedAttributes);
+        redefinedAttributes.or(other.redefinedAttributes);
+        other.modifiedValues.forEach((attribute, elements) -> modifiedValues.computeIfAbsent(attribute, a -> new BitSet()).or(elements));
+        complete &= other.complete;
+    }
+
+    private void modify(final int attribute, final int id) {
+        BitSet elements = modifiedValues.get(attribute);
+        if (elements == null) {
+            elements = new BitSet();
+            modifiedValues.put(attribute, elements);
+        }
+        elements.set(id);
+    }
+
+    @Override
+    public void execute(final GraphWriteMethods graph) {
+        // A journal only records changes
+    }
+
+    @Override
+    public void undo(final GraphWriteMethods graph) {
+        // A journal only records changes
+    }
+
+    @Override
+    public void addChild(final GraphEdit childEdit) {
+        // Child journals are added explicitly when the child edit commits
+    }
+
+    @Override
+    public void finish() {
+        // Nothing to do
+    }
+
+    @Override
+    public void setPrimaryKey(final GraphElementType elementType, final int[] oldKeys, final int[] newKeys) {
+        // Primary keys do not change any elements
+    }
+
+    @Override
+    public void addVertex(final int vertex) {
+        addedVertices.set(vertex);
+    }
+
+    @Override
+    public void removeVertex(final int vertex) {
+        removedVertices.set(vertex);
+    }
+
+    @Override
+    public void addTransaction(final int sourceVertex, final int destinationVertex, final boolean directed, final int transaction) {
+        addedTransactions.set(transaction);
+    }
+
+    @Override
+    public void removeTransaction(final int sourceVertex, final int destinationVertex, final boolean directed, final int transaction) {
+        removedTransactions.set(transaction);
+    }
+
+    @Override
+    public void setTransactionSourceVertex(final int transaction, final int oldSourceVertex, final int newSourceVertex, final boolean reverseTransaction) {
+        movedTransactions.set(transaction);
+    }
+
+    @Override
+    public void setTransactionDestinationVertex(final int transaction, final int oldDestinationVertex, final int newDestinationVertex, final boolean reverseTransaction) {
+        movedTransactions.set(transaction);
+    }
+
+    @Override
+    public void addAttribute(final GraphElementType elementType, final String attributeType, final String label,
+            final String description, final Object defaultValue, final String attributeMergerId, final int attribute) {
+        addedAttributes.set(attribute);
+    }
+
+    @Override
+    public void removeAttribute(final GraphElementType elementType, final String attributeType, final String label,
+            final String description, final Object defaultValue, final String attributeMergerId, final int attribute) {
+        removedAttributes.set(attribute);
+        modifiedValues.remove(attribute);
+    }
+
+    @Override
+    public void updateAttributeName(final int attribute, final String oldName, final String newName) {
+        redefinedAttributes.set(attribute);
+    }
+
+    @Override
+    public void updateAttributeDescription(final int attribute, final String oldDescription, final String newDescription) {
+        redefinedAttributes.set(attribute);
+    }
+
+    @Override
+    public void updateAttributeDefaultValue(final int attribute, final Object oldObject, final Object newObject) {
+        redefinedAttributes.set(attribute);
+    }
+
+    @Override
+    public void setByteValue(final int attribute, final int id, final byte oldValue, final byte newValue) {
+        modify(attribute, id);
+    }
+
+    @Override
+    public void setShortValue(final int attribute, final int id, final short oldValue, final short newValue) {
+        modify(attribute, id);
+    }
+
+    @Override
+    public void setIntValue(final int attribute, final int id, final int oldValue, final int newValue) {
+        modify(attribute, id);
+    }
+
+    @Override
+    public void setLongValue(final int attribute, final int id, final long oldValue, final long newValue) {
+        modify(attribute, id);
+    }
+
+    @Override
+    public void setFloatValue(final int attribute, final int id, final float oldValue, final float newValue) {
+        modify(attribute, id);
+    }
+
+    @Override
+    public void setDoubleValue(final int attribute, final int id, final double oldValue, final double newValue) {
+        modify(attribute, id);
+    }
+
+    @Override
+    public void setBooleanValue(final int attribute, final int id, final boolean oldValue, final boolean newValue) {
+        modify(attribute, id);
+    }
+
+    @Override
+    public void setCharValue(final int attribute, final int id, final char oldValue, final char newValue) {
+        modify(attribute, id);
+    }
+
+    @Override
+    public void setObjectValue(final int attribute, final int id, final Object oldValue, final Object newValue) {
+        modify(attribute, id);
+    }
+
+    @Override
+    public void executeGraphOperation(final GraphOperation operation) {
+        complete = false;
+    }
+
+    @Override
+    public void setAttributeIndexType(final int attribute, final GraphIndexType oldValue, final GraphIndexType newValue) {
+        redefinedAttributes.set(attribute);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder();
+        out.append("GraphChangeJournal[");
+        out.append("complete = ").append(complete);
+        out.append(", addedVertices = ").append(addedVertices);
+        out.append(", removedVertices = ").append(removedVertices);
+        out.append(", addedTransactions = ").append(addedTransactions);
+        out.append(", removedTransactions = ").append(removedTransactions);
+        out.append(", movedTransactions = ").append(movedTransactions);
+        out.append(", modifiedAttributes = ").append(modifiedValues.keySet());
+        out.append("]");
+        return out.toString();
+    }
+}
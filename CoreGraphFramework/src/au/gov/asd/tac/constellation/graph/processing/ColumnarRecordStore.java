@@ -0,0 +1,898 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.processing;
+
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.DoubleAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.LongAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.StringAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.ZonedDateTimeAttributeDescription;
+import au.gov.asd.tac.constellation.utilities.temporal.TemporalFormatting;
+import au.gov.asd.tac.constellation.utilities.temporal.TimeZoneUtilities;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * An implementation of {@link RecordStore} which stores each column as an
+ * array of its native type rather than as an array of {@link String}.
+ * <p>
+ * Like {@link GraphRecordStore}, keys may carry the attribute type they are
+ * intended for, for example <code>source.Count&lt;integer&gt;</code>. The type
+ * decides how the column is stored:
+ * <ul>
+ * <li>integer, long, float, double and boolean columns are held in primitive
+ * arrays;</li>
+ * <li>datetime columns are held as epoch milliseconds in a long array, so the
+ * time zone of a value is normalised to UTC;</li>
+ * <li>every other column, including keys without a type, is held as codes into
+ * a dictionary of the distinct strings in this record store.</li>
+ * </ul>
+ * Values can be set and retrieved as Strings, as required by
+ * {@link RecordStore}, or through the typed methods such as
+ * {@link #setInt(int, String, int)}, which avoid creating a String for each
+ * value. A String that cannot be represented by the type of its column (for
+ * example "abc" in an integer column) converts that column into a String
+ * column, so no value is ever lost. Blank Strings are stored as null in typed
+ * columns, since the graph treats both as the default value of the attribute.
+ * <p>
+ * {@link GraphRecordStoreUtilities#addRecordStoreToGraph} recognises this
+ * record store and sets typed values on the graph directly.
+ *
+ * @author cygnus_x-1
+ */
+public class ColumnarRecordStore implements RecordStore {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final String STRING_TYPE = StringAttributeDescription.ATTRIBUTE_NAME;
+    private static final ZonedDateTimeAttributeDescription DATETIME_PARSER = new ZonedDateTimeAttributeDescription();
+
+    private final Map<String, Column> typedColumns = new LinkedHashMap<>();
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+
+    private int size = 0;
+    private int capacity = INITIAL_CAPACITY;
+    private int currentRecord = -1;
+
+    /**
+     * Get the column for the specified key, which may or may not include a
+     * type.
+     *
+     * @param key The key of the column.
+     * @return The column for the key, or null if no value has been set for the
+     * key.
+     */
+    protected Column getColumn(final String key) {
+        final Column column = typedColumns.get(key);
+        return column != null ? column : columns.get(key);
+    }
+
+    /**
+     * Get the column for the specified key, creating it if it does not yet
+     * exist. A key without a type is given the specified default type.
+     *
+     * @param key The key of the column.
+     * @param defaultType The type to give the column if the key does not
+     * specify a type.
+     * @return The column for the key.
+     */
+    private Column getOrCreateColumn(final String key, final String defaultType) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+
+        Column column = getColumn(key);
+        if (column == null) {
+            final String typedKey;
+            final String untypedKey;
+            final String type;
+            final int typeIndex = key.indexOf('<');
+            if (typeIndex == -1 || !key.endsWith(">")) {
+                untypedKey = key;
+                type = defaultType;
+                typedKey = key + "<" + type + ">";
+            } else {
+                typedKey = key;
+                untypedKey = key.substring(0, typeIndex);
+                type = key.substring(typeIndex + 1, key.length() - 1);
+            }
+
+            column = createColumn(type);
+            typedColumns.put(typedKey, column);
+            columns.put(untypedKey, column);
+        }
+
+        return column;
+    }
+
+    private Column createColumn(final String type) {
+        switch (type) {
+            case IntegerAttributeDescription.ATTRIBUTE_NAME:
+                return new IntColumn(capacity);
+            case LongAttributeDescription.ATTRIBUTE_NAME:
+                return new LongColumn(capacity);
+            case FloatAttributeDescription.ATTRIBUTE_NAME:
+                return new FloatColumn(capacity);
+            case DoubleAttributeDescription.ATTRIBUTE_NAME:
+                return new DoubleColumn(capacity);
+            case BooleanAttributeDescription.ATTRIBUTE_NAME:
+                return new BooleanColumn(capacity);
+            case ZonedDateTimeAttributeDescription.ATTRIBUTE_NAME:
+                return new DateTimeColumn(capacity);
+            default:
+                return new StringColumn(capacity);
+        }
+    }
+
+    /**
+     * Replace a typed column with a String column holding the same values.
+     */
+    private Column convertToStringColumn(final Column column) {
+        final StringColumn stringColumn = new StringColumn(capacity);
+        for (int record = column.present.nextSetBit(0); record >= 0; record = column.present.nextSetBit(record + 1)) {
+            stringColumn.setString(record, column.getString(record));
+        }
+
+        typedColumns.replaceAll((key, value) -> value == column ? stringColumn : value);
+        columns.replaceAll((key, value) -> value == column ? stringColumn : value);
+        return stringColumn;
+    }
+
+    private void checkRecord(final int record) {
+        if (record < 0 || record >= size) {
+            throw new IllegalArgumentException("Invalid record: " + record);
+        }
+    }
+
+    private int encode(final String value) {
+        Integer code = dictionaryCodes.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            dictionaryCodes.put(value, code);
+        }
+        return code;
+    }
+
+    @Override
+    public int add() {
+        currentRecord = size++;
+        if (size > capacity) {
+            capacity <<= 1;
+        }
+        return currentRecord;
+    }
+
+    @Override
+    public void add(final RecordStore recordStore) {
+        if (recordStore instanceof ColumnarRecordStore) {
+            final ColumnarRecordStore columnarRecordStore = (ColumnarRecordStore) recordStore;
+            final int offset = size;
+            for (int record = 0; record < columnarRecordStore.size(); record++) {
+                add();
+            }
+            for (final Map.Entry<String, Column> entry : columnarRecordStore.typedColumns.entrySet()) {
+                final Column source = entry.getValue();
+                Column column = getOrCreateColumn(entry.getKey(), STRING_TYPE);
+                for (int record = source.present.nextSetBit(0); record >= 0; record = source.present.nextSetBit(record + 1)) {
+                    if (!column.copyValue(source, record, offset + record)) {
+                        column = convertToStringColumn(column);
+                        column.setString(offset + record, source.getString(record));
+                    }
+                }
+            }
+        } else {
+            final List<String> keys = recordStore instanceof GraphRecordStore
+                    ? ((GraphRecordStore) recordStore).keysWithType() : recordStore.keys();
+            for (int record = 0; record < recordStore.size(); record++) {
+                final int newRecord = add();
+                for (final String key : keys) {
+                    final String value = recordStore.get(record, key);
+                    if (value != null) {
+                        set(newRecord, key, value);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public int index() {
+        return currentRecord;
+    }
+
+    @Override
+    public final boolean next() {
+        if (++currentRecord >= size) {
+            currentRecord = size;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        currentRecord = -1;
+    }
+
+    @Override
+    public void close() {
+        dictionaryCodes.clear();
+    }
+
+    @Override
+    public boolean hasValue(final String key) {
+        return hasValue(currentRecord, key);
+    }
+
+    @Override
+    public boolean hasValue(final int record, final String key) {
+        final Column column = getColumn(key);
+        return column != null && record >= 0 && column.hasValue(record);
+    }
+
+    @Override
+    public String get(final String key) {
+        return get(currentRecord, key);
+    }
+
+    @Override
+    public String get(final int record, final String key) {
+        final Column column = getColumn(key);
+        return column == null || record < 0 ? null : column.getString(record);
+    }
+
+    @Override
+    public void set(final String key, final String value) {
+        set(currentRecord, key, value);
+    }
+
+    @Override
+    public void set(final int record, final String key, final String value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key, STRING_TYPE);
+        if (!column.setString(record, value)) {
+            convertToStringColumn(column).setString(record, value);
+        }
+    }
+
+    /**
+     * Set an int value for the specified record. A key without a type is
+     * stored as an integer column.
+     *
+     * @param record The index of the record
+     * @param key The key whose value is being set
+     * @param value The value to set.
+     */
+    public void setInt(final int record, final String key, final int value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key, IntegerAttributeDescription.ATTRIBUTE_NAME);
+        if (column instanceof IntColumn) {
+            ((IntColumn) column).set(record, value);
+        } else {
+            set(record, key, String.valueOf(value));
+        }
+    }
+
+    /**
+     * Set a long value for the specified record. A key without a type is
+     * stored as a long column.
+     *
+     * @param record The index of the record
+     * @param key The key whose value is being set
+     * @param value The value to set.
+     */
+    public void setLong(final int record, final String key, final long value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key, LongAttributeDescription.ATTRIBUTE_NAME);
+        if (column instanceof LongColumn) {
+            // A datetime column takes a long as milliseconds since the epoch, as the graph does.
+            ((LongColumn) column).set(record, value);
+        } else {
+            set(record, key, String.valueOf(value));
+        }
+    }
+
+    /**
+     * Set a float value for the specified record. A key without a type is
+     * stored as a float column.
+     *
+     * @param record The index of the record
+     * @param key The key whose value is being set
+     * @param value The value to set.
+     */
+    public void setFloat(final int record, final String key, final float value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key, FloatAttributeDescription.ATTRIBUTE_NAME);
+        if (column instanceof FloatColumn) {
+            ((FloatColumn) column).set(record, value);
+        } else {
+            set(record, key, String.valueOf(value));
+        }
+    }
+
+    /**
+     * Set a double value for the specified record. A key without a type is
+     * stored as a double column.
+     *
+     * @param record The index of the record
+     * @param key The key whose value is being set
+     * @param value The value to set.
+     */
+    public void setDouble(final int record, final String key, final double value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key, DoubleAttributeDescription.ATTRIBUTE_NAME);
+        if (column instanceof DoubleColumn) {
+            ((DoubleColumn) column).set(record, value);
+        } else {
+            set(record, key, String.valueOf(value));
+        }
+    }
+
+    /**
+     * Set a boolean value for the specified record. A key without a type is
+     * stored as a boolean column.
+     *
+     * @param record The index of the record
+     * @param key The key whose value is being set
+     * @param value The value to set.
+     */
+    public void setBoolean(final int record, final String key, final boolean value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key, BooleanAttributeDescription.ATTRIBUTE_NAME);
+        if (column instanceof BooleanColumn) {
+            ((BooleanColumn) column).set(record, value);
+        } else {
+            set(record, key, String.valueOf(value));
+        }
+    }
+
+    /**
+     * Set a datetime value, as milliseconds since the epoch, for the specified
+     * record. A key without a type is stored as a datetime column.
+     *
+     * @param record The index of the record
+     * @param key The key whose value is being set
+     * @param value The value to set, in milliseconds since the epoch.
+     */
+    public void setDateTime(final int record, final String key, final long value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key, ZonedDateTimeAttributeDescription.ATTRIBUTE_NAME);
+        if (column instanceof DateTimeColumn) {
+            ((DateTimeColumn) column).set(record, value);
+        } else {
+            set(record, key, DateTimeColumn.formatMillis(value));
+        }
+    }
+
+    @Override
+    public List<String> values() {
+        return values(currentRecord);
+    }
+
+    @Override
+    public List<String> values(final int record) {
+        final List<String> values = new ArrayList<>(typedColumns.size());
+        for (final Column column : typedColumns.values()) {
+            values.add(record < 0 ? null : column.getString(record));
+        }
+        return values;
+    }
+
+    @Override
+    public List<String> keys() {
+        return new ArrayList<>(columns.keySet());
+    }
+
+    /**
+     * Return the keys which contain the type
+     * <p>
+     * For example Source.Identifier&lt;string&gt;
+     *
+     * @return Return the keys which contain the type
+     */
+    public List<String> keysWithType() {
+        return new ArrayList<>(typedColumns.keySet());
+    }
+
+    @Override
+    public List<String> getAll(final String key) {
+        final Column column = getColumn(key);
+        final List<String> result = new ArrayList<>(size);
+        for (int record = 0; record < size; record++) {
+            result.add(column == null ? null : column.getString(record));
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "Columnar Record Store with " + size + " rows and " + typedColumns.size() + " columns.";
+    }
+
+    @Override
+    public String toStringVerbose() {
+        final StringBuilder out = new StringBuilder();
+        for (int record = 0; record < size; record++) {
+            boolean first = true;
+            for (final Map.Entry<String, Column> e : typedColumns.entrySet()) {
+                if (e.getValue().hasValue(record)) {
+                    if (!first) {
+                        out.append(", ");
+                    } else {
+                        first = false;
+                    }
+                    out.append(e.getKey());
+                    out.append(" = ");
+                    out.append(e.getValue().getString(record));
+                }
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * A single column of a ColumnarRecordStore.
+     * <p>
+     * A record may have no value in a column, may have a null value, or may
+     * have a value of the type of the column.
+     */
+    protected abstract static class Column {
+
+        protected final BitSet present = new BitSet();
+        protected final BitSet nulls = new BitSet();
+
+        /**
+         * Check if the specified record has a value, possibly null, in this
+         * column.
+         *
+         * @param record The index of the record.
+         * @return True if the record has a value in this column.
+         */
+        public boolean hasValue(final int record) {
+            return present.get(record);
+        }
+
+        /**
+         * Get the value of the specified record as a String.
+         *
+         * @param record The index of the record.
+         * @return The value of the record, or null if the record has no value
+         * or a null value.
+         */
+        public String getString(final int record) {
+            return !present.get(record) || nulls.get(record) ? null : format(record);
+        }
+
+        /**
+         * Set the value of the specified record from a String.
+         *
+         * @param record The index of the record.
+         * @param value The value to set.
+         * @return False if the value cannot be represented by this column, in
+         * which case the column is unchanged.
+         */
+        public boolean setString(final int record, final String value) {
+            if (value == null || (isTyped() && StringUtils.isBlank(value))) {
+                ensureCapacity(record + 1);
+                present.set(record);
+                nulls.set(record);
+                return true;
+            }
+            ensureCapacity(record + 1);
+            if (!parse(record, value)) {
+                return false;
+            }
+            present.set(record);
+            nulls.clear(record);
+            return true;
+        }
+
+        /**
+         * Copy a value from another column of the same record store.
+         *
+         * @param source The column to copy from.
+         * @param sourceRecord The record to copy from.
+         * @param record The record to copy to.
+         * @return False if the value cannot be represented by this column, in
+         * which case the column is unchanged.
+         */
+        protected boolean copyValue(final Column source, final int sourceRecord, final int record) {
+            return setString(record, source.getString(sourceRecord));
+        }
+
+        /**
+         * Set the value of the specified record on an element of a graph,
+         * using the setter for the native type of this column.
+         *
+         * @param graph The graph to set the value on.
+         * @param attribute The attribute to set.
+         * @param element The element to set.
+         * @param record The record holding the value.
+         */
+        protected void setValue(final GraphWriteMethods graph, final int attribute, final int element, final int record) {
+            if (nulls.get(record)) {
+                graph.setStringValue(attribute, element, null);
+            } else {
+                try {
+                    setNativeValue(graph, attribute, element, record);
+                } catch (final IllegalArgumentException ex) {
+                    // The attribute does not accept this type, so fall back to its String conversion.
+                    graph.setStringValue(attribute, element, format(record));
+                }
+            }
+        }
+
+        protected void markSet(final int record) {
+            present.set(record);
+            nulls.clear(record);
+        }
+
+        protected boolean isTyped() {
+            return true;
+        }
+
+        protected abstract String format(final int record);
+
+        protected abstract boolean parse(final int record, final String value);
+
+        protected abstract void ensureCapacity(final int capacity);
+
+        protected abstract void setNativeValue(final GraphWriteMethods graph, final int attribute, final int element, final int record);
+    }
+
+    private static int grow(final int length, final int capacity) {
+        return Math.max(capacity, length << 1);
+    }
+
+    private static final class IntColumn extends Column {
+
+        private int[] values;
+
+        private IntColumn(final int capacity) {
+            values = new int[capacity];
+        }
+
+        private void set(final int record, final int value) {
+            ensureCapacity(record + 1);
+            values[record] = value;
+            markSet(record);
+        }
+
+        @Override
+        protected String format(final int record) {
+            return String.valueOf(values[record]);
+        }
+
+        @Override
+        protected boolean parse(final int record, final String value) {
+            try {
+                values[record] = Integer.parseInt(value);
+                return true;
+            } catch (final NumberFormatException ex) {
+                return false;
+            }
+        }
+
+        @Override
+        protected boolean copyValue(final Column source, final int sourceRecord, final int record) {
+            if (source instanceof IntColumn && !source.nulls.get(sourceRecord)) {
+                set(record, ((IntColumn) source).values[sourceRecord]);
+                return true;
+            }
+            return super.copyValue(source, sourceRecord, record);
+        }
+
+        @Override
+        protected void ensureCapacity(final int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        protected void setNativeValue(final GraphWriteMethods graph, final int attribute, final int element, final int record) {
+            graph.setIntValue(attribute, element, values[record]);
+        }
+    }
+
+    private static class LongColumn extends Column {
+
+        protected long[] values;
+
+        private LongColumn(final int capacity) {
+            values = new long[capacity];
+        }
+
+        protected void set(final int record, final long value) {
+            ensureCapacity(record + 1);
+            values[record] = value;
+            markSet(record);
+        }
+
+        @Override
+        protected String format(final int record) {
+            return String.valueOf(values[record]);
+        }
+
+        @Override
+        protected boolean parse(final int record, final String value) {
+            try {
+                values[record] = Long.parseLong(value);
+                return true;
+            } catch (final NumberFormatException ex) {
+                return false;
+            }
+        }
+
+        @Override
+        protected boolean copyValue(final Column source, final int sourceRecord, final int record) {
+            if (source.getClass() == getClass() && !source.nulls.get(sourceRecord)) {
+                set(record, ((LongColumn) source).values[sourceRecord]);
+                return true;
+            }
+            return super.copyValue(source, sourceRecord, record);
+        }
+
+        @Override
+        protected void ensureCapacity(final int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        protected void setNativeValue(final GraphWriteMethods graph, final int attribute, final int element, final int record) {
+            graph.setLongValue(attribute, element, values[record]);
+        }
+    }
+
+    private static final class DateTimeColumn extends LongColumn {
+
+        private DateTimeColumn(final int capacity) {
+            super(capacity);
+        }
+
+        private static String formatMillis(final long value) {
+            return ZonedDateTime.ofInstant(Instant.ofEpochMilli(value), TimeZoneUtilities.UTC).format(TemporalFormatting.ZONED_DATE_TIME_FORMATTER);
+        }
+
+        @Override
+        protected String format(final int record) {
+            return formatMillis(values[record]);
+        }
+
+        @Override
+        protected boolean parse(final int record, final String value) {
+            try {
+                values[record] = DATETIME_PARSER.convertFromString(value).toInstant().toEpochMilli();
+                return true;
+            } catch (final IllegalArgumentException ex) {
+                return false;
+            }
+        }
+    }
+
+    private static final class FloatColumn extends Column {
+
+        private float[] values;
+
+        private FloatColumn(final int capacity) {
+            values = new float[capacity];
+        }
+
+        private void set(final int record, final float value) {
+            ensureCapacity(record + 1);
+            values[record] = value;
+            markSet(record);
+        }
+
+        @Override
+        protected String format(final int record) {
+            return String.valueOf(values[record]);
+        }
+
+        @Override
+        protected boolean parse(final int record, final String value) {
+            try {
+                values[record] = Float.parseFloat(value);
+                return true;
+            } catch (final NumberFormatException ex) {
+                return false;
+            }
+        }
+
+        @Override
+        protected boolean copyValue(final Column source, final int sourceRecord, final int record) {
+            if (source instanceof FloatColumn && !source.nulls.get(sourceRecord)) {
+                set(record, ((FloatColumn) source).values[sourceRecord]);
+                return true;
+            }
+            return super.copyValue(source, sourceRecord, record);
+        }
+
+        @Override
+        protected void ensureCapacity(final int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        protected void setNativeValue(final GraphWriteMethods graph, final int attribute, final int element, final int record) {
+            graph.setFloatValue(attribute, element, values[record]);
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+
+        private double[] values;
+
+        private DoubleColumn(final int capacity) {
+            values = new double[capacity];
+        }
+
+        private void set(final int record, final double value) {
+            ensureCapacity(record + 1);
+            values[record] = value;
+            markSet(record);
+        }
+
+        @Override
+        protected String format(final int record) {
+            return String.valueOf(values[record]);
+        }
+
+        @Override
+        protected boolean parse(final int record, final String value) {
+            try {
+                values[record] = Double.parseDouble(value);
+                return true;
+            } catch (final NumberFormatException ex) {
+                return false;
+            }
+        }
+
+        @Override
+        protected boolean copyValue(final Column source, final int sourceRecord, final int record) {
+            if (source instanceof DoubleColumn && !source.nulls.get(sourceRecord)) {
+                set(record, ((DoubleColumn) source).values[sourceRecord]);
+                return true;
+            }
+            return super.copyValue(source, sourceRecord, record);
+        }
+
+        @Override
+        protected void ensureCapacity(final int capacity) {
+            if (values.length < capacity) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        protected void setNativeValue(final GraphWriteMethods graph, final int attribute, final int element, final int record) {
+            graph.setDoubleValue(attribute, element, values[record]);
+        }
+    }
+
+    private static final class BooleanColumn extends Column {
+
+        private final BitSet values = new BitSet();
+
+        private BooleanColumn(final int capacity) {
+            // A BitSet grows as required.
+        }
+
+        private void set(final int record, final boolean value) {
+            values.set(record, value);
+            markSet(record);
+        }
+
+        @Override
+        protected String format(final int record) {
+            return String.valueOf(values.get(record));
+        }
+
+        @Override
+        protected boolean parse(final int record, final String value) {
+            // Only accept the values that will be returned unchanged by format().
+            if ("true".equalsIgnoreCase(value)) {
+                values.set(record);
+                return true;
+            } else if ("false".equalsIgnoreCase(value)) {
+                values.clear(record);
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        protected boolean copyValue(final Column source, final int sourceRecord, final int record) {
+            if (source instanceof BooleanColumn && !source.nulls.get(sourceRecord)) {
+                set(record, ((BooleanColumn) source).values.get(sourceRecord));
+                return true;
+            }
+            return super.copyValue(source, sourceRecord, record);
+        }
+
+        @Override
+        protected void ensureCapacity(final int capacity) {
+            // A BitSet grows as required.
+        }
+
+        @Override
+        protected void setNativeValue(final GraphWriteMethods graph, final int attribute, final int element, final int record) {
+            graph.setBooleanValue(attribute, element, values.get(record));
+        }
+    }
+
+    private final class StringColumn extends Column {
+
+        private int[] codes;
+
+        private StringColumn(final int capacity) {
+            codes = new int[capacity];
+        }
+
+        @Override
+        protected String format(final int record) {
+            return dictionary.get(codes[record]);
+        }
+
+        @Override
+        protected boolean parse(final int record, final String value) {
+            codes[record] = encode(value);
+            return true;
+        }
+
+        @Override
+        protected boolean isTyped() {
+            return false;
+        }
+
+        @Override
+        protected void ensureCapacity(final int capacity) {
+            if (codes.length < capacity) {
+                codes = Arrays.copyOf(codes, grow(codes.length, capacity));
+            }
+        }
+
+        @Override
+        protected void setNativeValue(final GraphWriteMethods graph, final int attribute, final int element, final int record) {
+            graph.setStringValue(attribute, element, format(record));
+        }
+    }
+}
@@ -33,6 +33,7 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -74,7 +75,8 @@ public class GraphRecordStoreUtilities {
 
     private static int addVertex(final GraphWriteMethods graph, final Map<String, String> values,
             final Map<String, Integer> vertexMap, final boolean initializeWithSchema, boolean completeWithSchema,
-            final List<Integer> newVertices, final Set<Integer> ghostVertices, final List<String> vertexIdAttributes) {
+            final List<Integer> newVertices, final Set<Integer> ghostVertices, final List<String> vertexIdAttributes,
+            final TypedValues typedValues) {
         String idValue = values.remove(ID);
 
         // If the idValue has not been set and we have vertexIdAttributes then create an idValue automatically
@@ -142,6 +144,9 @@ public class GraphRecordStoreUtilities {
         }
 
         copyValues(graph, GraphElementType.VERTEX, vertex, values);
+        if (typedValues != null) {
+            typedValues.copyValues(graph, vertex);
+        }
 
         if (completeWithSchema && graph.getSchema() != null) {
             graph.getSchema().completeVertex(graph, vertex);
@@ -186,7 +191,8 @@ public class GraphRecordStoreUtilities {
     }
 
     private static int addTransaction(final GraphWriteMethods graph, final int source, final int destination, final Map<String, String> values,
-            final Map<String, Integer> transactionMap, final boolean initializeWithSchema, boolean completeWithSchema) {
+            final Map<String, Integer> transactionMap, final boolean initializeWithSchema, boolean completeWithSchema,
+            final TypedValues typedValues) {
         final String type = values.get(TYPE_KEY);
         final String directedValue = values.get(DIRECTED_KEY);
         boolean directed = true;
@@ -217,6 +223,9 @@ public class GraphRecordStoreUtilities {
         }
 
         copyValues(graph, GraphElementType.TRANSACTION, transaction, values);
+        if (typedValues != null) {
+            typedValues.copyValues(graph, transaction);
+        }
 
         if (completeWithSchema && graph.getSchema() != null) {
             graph.getSchema().completeTransaction(graph, transaction);
@@ -298,17 +307,80 @@ public class GraphRecordStoreUtilities {
                 }
             }
 
-            // TODO: look at ensure(true/fale)
-            int attribute = graph.getAttribute(elementType, key);
+            final int attribute = getOrCreateAttribute(graph, elementType, key, type);
+            graph.setStringValue(attribute, element, entry.getValue());
+        });
+    }
+
+    private static int getOrCreateAttribute(final GraphWriteMethods graph, final GraphElementType elementType, final String key, final String type) {
+        // TODO: look at ensure(true/fale)
+        int attribute = graph.getAttribute(elementType, key);
+        if (attribute == Graph.NOT_FOUND) {
+            attribute = graph.getSchema() != null ? graph.getSchema().getFactory().ensureAttribute(graph, elementType, key) : Graph.NOT_FOUND;
             if (attribute == Graph.NOT_FOUND) {
-                attribute = graph.getSchema() != null ? graph.getSchema().getFactory().ensureAttribute(graph, elementType, key) : Graph.NOT_FOUND;
-                if (attribute == Graph.NOT_FOUND) {
-                    attribute = graph.addAttribute(elementType, type, key, key, null, null);
+                attribute = graph.addAttribute(elementType, type, key, key, null, null);
+            }
+        }
+        return attribute;
+    }
+
+    /**
+     * The typed columns of a {@link ColumnarRecordStore} that belong to one
+     * element of each record, whose values are set on the graph with the
+     * native setter of each column rather than as Strings.
+     */
+    private static final class TypedValues {
+
+        private final GraphElementType elementType;
+        private final List<String> names = new ArrayList<>();
+        private final List<String> types = new ArrayList<>();
+        private final List<ColumnarRecordStore.Column> columns = new ArrayList<>();
+        private int[] attributes = new int[0];
+        private int record;
+
+        private TypedValues(final GraphElementType elementType) {
+            this.elementType = elementType;
+        }
+
+        private void addColumn(final String key, final ColumnarRecordStore.Column column) {
+            String name = key;
+            String type = "string";
+            final int typeStart = key.lastIndexOf('<');
+            if (key.endsWith(">") && typeStart > 0) {
+                type = key.substring(typeStart + 1, key.length() - 1);
+                name = key.substring(0, typeStart);
+            }
+            names.add(name);
+            types.add(type);
+            columns.add(column);
+            attributes = Arrays.copyOf(attributes, columns.size());
+            attributes[columns.size() - 1] = Graph.NOT_FOUND;
+        }
+
+        private void setRecord(final int record) {
+            this.record = record;
+        }
+
+        private boolean hasValues() {
+            for (final ColumnarRecordStore.Column column : columns) {
+                if (column.hasValue(record)) {
+                    return true;
                 }
             }
+            return false;
+        }
 
-            graph.setStringValue(attribute, element, entry.getValue());
-        });
+        private void copyValues(final GraphWriteMethods graph, final int element) {
+            for (int i = 0; i < columns.size(); i++) {
+                final ColumnarRecordStore.Column column = columns.get(i);
+                if (column.hasValue(record)) {
+                    if (attributes[i] == Graph.NOT_FOUND) {
+                        attributes[i] = getOrCreateAttribute(graph, elementType, names.get(i), types.get(i));
+                    }
+                    column.setValue(graph, attributes[i], element, record);
+                }
+            }
+        }
     }
 
     /**
@@ -366,7 +438,48 @@ public class GraphRecordStoreUtilities {
         final Set<Integer> ghostVertices = new HashSet<>();
 
         recordStore.reset();
-        final List<String> keys = (recordStore instanceof GraphRecordStore) ? ((GraphRecordStore) recordStore).keysWithType() : recordStore.keys();
+        final List<String> keys;
+        if (recordStore instanceof GraphRecordStore) {
+            keys = ((GraphRecordStore) recordStore).keysWithType();
+        } else if (recordStore instanceof ColumnarRecordStore) {
+            keys = ((ColumnarRecordStore) recordStore).keysWithType();
+        } else {
+            keys = recordStore.keys();
+        }
+
+        // The typed columns of a ColumnarRecordStore are set on the graph directly, skipping the String round trip.
+        // Vertex ids made from vertexIdAttributes need every value as a String, so they take the String path.
+        final TypedValues sourceTypedValues = new TypedValues(GraphElementType.VERTEX);
+        final TypedValues destinationTypedValues = new TypedValues(GraphElementType.VERTEX);
+        final TypedValues transactionTypedValues = new TypedValues(GraphElementType.TRANSACTION);
+        if (recordStore instanceof ColumnarRecordStore && vertexIdAttributes == null) {
+            final ColumnarRecordStore columnarRecordStore = (ColumnarRecordStore) recordStore;
+            final Iterator<String> keyIterator = keys.iterator();
+            while (keyIterator.hasNext()) {
+                final String key = keyIterator.next();
+                final ColumnarRecordStore.Column column = columnarRecordStore.getColumn(key);
+                final int dividerPosition = key.indexOf('.');
+                if (column.isTyped() && dividerPosition > 0) {
+                    final String keyAttribute = key.substring(dividerPosition + 1);
+                    switch (key.substring(0, dividerPosition).toLowerCase().split("\\$")[0]) {
+                        case "source":
+                            sourceTypedValues.addColumn(keyAttribute, column);
+                            keyIterator.remove();
+                            break;
+                        case "destination":
+                            destinationTypedValues.addColumn(keyAttribute, column);
+                            keyIterator.remove();
+                            break;
+                        case "transaction":
+                            transactionTypedValues.addColumn(keyAttribute, column);
+                            keyIterator.remove();
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        }
 
         if (vertexMap == null) {
             vertexMap = new HashMap<>();
@@ -406,17 +519,23 @@ public class GraphRecordStoreUtilities {
                 }
             }
 
-            if (sourceValues.isEmpty() && destinationValues.isEmpty() && transactionValues.containsKey(ID)) {
+            sourceTypedValues.setRecord(recordStore.index());
+            destinationTypedValues.setRecord(recordStore.index());
+            transactionTypedValues.setRecord(recordStore.index());
+            final boolean hasSource = !sourceValues.isEmpty() || sourceTypedValues.hasValues();
+            final boolean hasDestination = !destinationValues.isEmpty() || destinationTypedValues.hasValues();
+
+            if (!hasSource && !hasDestination && transactionValues.containsKey(ID)) {
                 // This will not add a new transaction to the graph (as source and destination are both -1), but if the transaction exists already it will be returned allowing it to be selected.
-                addTransaction(graph, NO_ELEMENT, NO_ELEMENT, transactionValues, transactionMap, initializeWithSchema, completeWithSchema);
-            } else if (!sourceValues.isEmpty() && !destinationValues.isEmpty()) {
-                final int source = addVertex(graph, sourceValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
-                final int destination = addVertex(graph, destinationValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
-                addTransaction(graph, source, destination, transactionValues, transactionMap, initializeWithSchema, completeWithSchema);
-            } else if (!sourceValues.isEmpty()) {
-                addVertex(graph, sourceValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
-            } else if (!destinationValues.isEmpty()) {
-                addVertex(graph, destinationValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
+                addTransaction(graph, NO_ELEMENT, NO_ELEMENT, transactionValues, transactionMap, initializeWithSchema, completeWithSchema, transactionTypedValues);
+            } else if (hasSource && hasDestination) {
+                final int source = addVertex(graph, sourceValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes, sourceTypedValues);
+                final int destination = addVertex(graph, destinationValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes, destinationTypedValues);
+                addTransaction(graph, source, destination, transactionValues, transactionMap, initializeWithSchema, completeWithSchema, transactionTypedValues);
+            } else if (hasSource) {
+                addVertex(graph, sourceValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes, sourceTypedValues);
+            } else if (hasDestination) {
+                addVertex(graph, destinationValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes, destinationTypedValues);
             }
         }
 
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.undo;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.operations.GraphOperation;
+
+/**
+ * A GraphEdit that passes every change on to two other edits, allowing a graph
+ * to be recorded by more than one edit at a time. Edits are executed in order
+ * and undone in reverse order.
+ *
+ * @author sirius
+ */
+public class CompositeGraphEdit implements GraphEdit {
+
+    private final GraphEdit first;
+    private final GraphEdit second;
+
+    public CompositeGraphEdit(final GraphEdit first, final GraphEdit second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public void execute(final GraphWriteMethods graph) {
+        first.execute(graph);
+        second.execute(graph);
+    }
+
+    @Override
+    public void undo(final GraphWriteMethods graph) {
+        second.undo(graph);
+        first.undo(graph);
+    }
+
+    @Override
+    public void addChild(final GraphEdit childEdit) {
+        first.addChild(childEdit);
+        second.addChild(childEdit);
+    }
+
+    @Override
+    public void finish() {
+        first.finish();
+        second.finish();
+    }
+
+    @Override
+    public void setPrimaryKey(final GraphElementType elementType, final int[] oldKeys, final int[] newKeys) {
+        first.setPrimaryKey(elementType, oldKeys, newKeys);
+        second.setPrimaryKey(elementType, oldKeys, newKeys);
+    }
+
+    @Override
+    public void addVertex(final int vertex) {
+        first.addVertex(vertex);
+        second.addVertex(vertex);
+    }
+
+    @Override
+    public void removeVertex(final int vertex) {
+        first.removeVertex(vertex);
+        second.removeVertex(vertex);
+    }
+
+    @Override
+    public void addTransaction(final int sourceVertex, final int destinationVertex, final boolean directed, final int transaction) {
+        first.addTransaction(sourceVertex, destinationVertex, directed, transaction);
+        second.addTransaction(sourceVertex, destinationVertex, directed, transaction);
+    }
+
+    @Override
+    public void removeTransaction(final int sourceVertex, final int destinationVertex, final boolean directed, final int transaction) {
+        first.removeTransaction(sourceVertex, destinationVertex, directed, transaction);
+        second.removeTransaction(sourceVertex, destinationVertex, directed, transaction);
+    }
+
+    @Override
+    public void setTransactionSourceVertex(final int transaction, final int oldSourceVertex, final int newSourceVertex, final boolean reverseTransaction) {
+        first.setTransactionSourceVertex(transaction, oldSourceVertex, newSourceVertex, reverseTransaction);
+        second.setTransactionSourceVertex(transaction, oldSourceVertex, newSourceVertex, reverseTransaction);
+    }
+
+    @Override
+    public void setTransactionDestinationVertex(final int transaction, final int oldDestinationVertex, final int newDestinationVertex, final boolean reverseTransaction) {
+        first.setTransactionDestinationVertex(transaction, oldDestinationVertex, newDestinationVertex, reverseTransaction);
+        second.setTransactionDestinationVertex(transaction, oldDestinationVertex, newDestinationVertex, reverseTransaction);
+    }
+
+    @Override
+    public void addAttribute(final GraphElementType elementType, final String attributeType, final String label,
+            final String description, final Object defaultValue, final String attributeMergerId, final int attribute) {
+        first.addAttribute(elementType, attributeType, label, description, defaultValue, attributeMergerId, attribute);
+        second.addAttribute(elementType, attributeType, label, description, defaultValue, attributeMergerId, attribute);
+    }
+
+    @Override
+    public void removeAttribute(final GraphElementType elementType, final String attributeType, final String label,
+            final String description, final Object defaultValue, final String attributeMergerId, final int attribute) {
+        first.removeAttribute(elementType, attributeType, label, description, defaultValue, attributeMergerId, attribute);
+        second.removeAttribute(elementType, attributeType, label, description, defaultValue, attributeMergerId, attribute);
+    }
+
+    @Override
+    public void updateAttributeName(final int attribute, final String oldName, final String newName) {
+        first.updateAttributeName(attribute, oldName, newName);
+        second.updateAttributeName(attribute, oldName, newName);
+    }
+
+    @Override
+    public void updateAttributeDescription(final int attribute, final String oldDescription, final String newDescription) {
+        first.updateAttributeDescription(attribute, oldDescription, newDescription);
+        second.updateAttributeDescription(attribute, oldDescription, newDescription);
+    }
+
+    @Override
+    public void updateAttributeDefaultValue(final int attribute, final Object oldObject, final Object newObject) {
+        first.updateAttributeDefaultValue(attribute, oldObject, newObject);
+        second.updateAttributeDefaultValue(attribute, oldObject, newObject);
+    }
+
+    @Override
+    public void setByteValue(final int attribute, final int id, final byte oldValue, final byte newValue) {
+        first.setByteValue(attribute, id, oldValue, newValue);
+        second.setByteValue(attribute, id, oldValue, newValue);
+    }
+
+    @Override
+    public void setShortValue(final int attribute, final int id, final short oldValue, final short newValue) {
+        first.setShortValue(attribute, id, oldValue, newValue);
+        second.setShortValue(attribute, id, oldValue, newValue);
+    }
+
+    @Override
+    public void setIntValue(final int attribute, final int id, final int oldValue, final int newValue) {
+        first.setIntValue(attribute, id, oldValue, newValue);
+        second.setIntValue(attribute, id, oldValue, newValue);
+    }
+
+    @Override
+    public void setLongValue(final int attribute, final int id, final long oldValue, final long newValue) {
+        first.setLongValue(attribute, id, oldValue, newValue);
+        second.setLongValue(attribute, id, oldValue, newValue);
+    }
+
+    @Override
+    public void setFloatValue(final int attribute, final int id, final float oldValue, final float newValue) {
+        first.setFloatValue(attribute, id, oldValue, newValue);
+        second.setFloatValue(attribute, id, oldValue, newValue);
+    }
+
+    @Override
+    public void setDoubleValue(final int attribute, final int id, final double oldValue, final double newValue) {
+        first.setDoubleValue(attribute, id, oldValue, newValue);
+        second.setDoubleValue(attribute, id, oldValue, newValue);
+    }
+
+    @Override
+    public void setBooleanValue(final int attribute, final int id, final boolean oldValue, final boolean newValue) {
+        first.setBooleanValue(attribute, id, oldValue, newValue);
+        second.setBooleanValue(attribute, id, oldValue, newValue);
+    }
+
+    @Override
+    public void setCharValue(final int attribute, final int id, final char oldValue, final char newValue) {
+        first.setCharValue(attribute, id, oldValue, newValue);
+        second.setCharValue(attribute, id, oldValue, newValue);
+    }
+
+    @Override
+    public void setObjectValue(final int attribute, final int id, final Object oldValue, final Object newValue) {
+        first.setObjectValue(attribute, id, oldValue, newValue);
+        second.setObjectValue(attribute, id, oldValue, newValue);
+    }
+
+    @Override
+    public void executeGraphOperation(final GraphOperation operation) {
+        first.executeGraphOperation(operation);
+        second.executeGraphOperation(operation);
+    }
+
+    @Override
+    public void setAttributeIndexType(final int attribute, final GraphIndexType oldValue, final GraphIndexType newValue) {
+        first.setAttributeIndexType(attribute, oldValue, newValue);
+        second.setAttributeIndexType(attribute, oldValue, newValue);
+    }
+}
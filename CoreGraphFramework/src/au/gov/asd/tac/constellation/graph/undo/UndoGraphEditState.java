@@ -17,16 +17,30 @@ package au.gov.asd.tac.constellation.graph.undo;
 
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.operations.GraphOperation;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
+ * The recorded changes of an {@link UndoGraphEdit}, held as a set of primitive
+ * stacks and an object stack.
+ * <p>
+ * Once finished, a state is registered with the {@link UndoHistoryStore},
+ * which may write its primitive stacks to disk when the undo history grows
+ * beyond its memory budget. The stacks are read back the next time the state
+ * is executed or undone.
  *
  * @author sirius
  */
@@ -83,11 +97,143 @@ public class UndoGraphEditState {
     private short currentOperation = 0xFF;
     private int extraOperationsCount = 0;
 
+    // The registration of this state with the undo history store, guarded by this
+    private UndoHistoryStore.Entry entry = null;
+
     public UndoGraphEditState() {
         // do nothing
     }
 
     public UndoGraphEditState(final DataInputStream in) throws Exception {
+        readStacks(in);
+
+        final Map<Integer, Class<?>> classMap = new HashMap<>();
+        classMap.put(0, null);
+
+        objectCount = in.readInt();
+        byte[] buffer = new byte[1024];
+        for (int i = 0; i < objectCount; i++) {
+            final int objectClassIndex = in.readInt();
+            final Class<?> objectClass;
+            if (classMap.containsKey(objectClassIndex)) {
+                objectClass = classMap.get(objectClassIndex);
+            } else {
+                final int classLength = in.readInt();
+                if (classLength > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, classLength);
+                }
+                in.read(buffer, 0, classLength);
+                final String objectName = new String(buffer, 0, classLength, UTF8);
+                objectClass = Class.forName(objectName);
+            }
+            classMap.put(objectClassIndex, objectClass);
+            objectMap.put(objectClass, objectClassIndex);
+        }
+
+        objectStack = new Object[objectCount];
+        Arrays.setAll(objectStack, index -> classMap.get(index));
+    }
+
+    private void writeStacks(final DataOutputStream out) throws IOException {
+        out.writeInt(operationCount);
+        for (int i = 0; i < operationCount; i++) {
+            out.writeShort(operationStack[i]);
+        }
+
+        out.writeInt(byteCount);
+        for (int i = 0; i < byteCount; i++) {
+            out.writeByte(byteStack[i]);
+        }
+
+        out.writeInt(shortCount);
+        for (int i = 0; i < shortCount; i++) {
+            out.writeShort(shortStack[i]);
+        }
+
+        out.writeInt(intCount);
+        for (int i = 0; i < intCount; i++) {
+            out.writeInt(intStack[i]);
+        }
+
+        out.writeInt(longCount);
+        for (int i = 0; i < longCount; i++) {
+            out.writeLong(longStack[i]);
+        }
+    }
+
+    /**
+     * Returns the number of bytes held by the primitive stacks of this state.
+     *
+     * @return the number of bytes held by the primitive stacks of this state.
+     */
+    public long getStackSize() {
+        return (operationCount * 2L) + byteCount + (shortCount * 2L) + (intCount * 4L) + (longCount * 8L);
+    }
+
+    /**
+     * Returns true if the primitive stacks of this state are currently written
+     * to disk rather than held in memory.
+     *
+     * @return true if the primitive stacks of this state are on disk.
+     */
+    public synchronized boolean isSpilled() {
+        return entry != null && entry.getFile() != null;
+    }
+
+    /**
+     * Writes the primitive stacks of this state to a compressed temporary file
+     * and releases them from memory. This is called by the
+     * {@link UndoHistoryStore} and does nothing if the state has since been
+     * reloaded or re-registered.
+     *
+     * @param victim the entry the store chose to write to disk.
+     * @throws IOException if the file could not be written.
+     */
+    synchronized void spill(final UndoHistoryStore.Entry victim) throws IOException {
+        if (entry != victim || entry.getFile() != null) {
+            return;
+        }
+
+        final File file = UndoHistoryStore.createFile();
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(new FileOutputStream(file))))) {
+            writeStacks(out);
+        } catch (final IOException ex) {
+            UndoHistoryStore.deleteFile(file);
+            throw ex;
+        }
+
+        operationStack = null;
+        byteStack = null;
+        shortStack = null;
+        intStack = null;
+        longStack = null;
+
+        UndoHistoryStore.spilled(entry, file);
+    }
+
+    // Must be called with this locked
+    private void ensureResident() {
+        if (entry == null) {
+            return;
+        }
+        final File file = entry.getFile();
+        if (file == null) {
+            UndoHistoryStore.touch(entry);
+            return;
+        }
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new FileInputStream(file))))) {
+            readStacks(in);
+        } catch (final IOException ex) {
+            throw new IllegalStateException("Unable to read undo history from " + file, ex);
+        }
+        UndoHistoryStore.reloaded(entry);
+    }
+
+    /**
+     * Reads the primitive stacks of this state, as written by
+     * {@link #write(DataOutputStream)}.
+     */
+    private void readStacks(final DataInputStream in) throws IOException {
         operationCount = in.readInt();
         operationStack = new short[operationCount];
         for (int i = 0; i < operationCount; i++) {
@@ -117,32 +263,6 @@ public class UndoGraphEditState {
         for (int i = 0; i < longCount; i++) {
             longStack[i] = in.readLong();
         }
-
-        final Map<Integer, Class<?>> classMap = new HashMap<>();
-        classMap.put(0, null);
-
-        objectCount = in.readInt();
-        byte[] buffer = new byte[1024];
-        for (int i = 0; i < objectCount; i++) {
-            final int objectClassIndex = in.readInt();
-            final Class<?> objectClass;
-            if (classMap.containsKey(objectClassIndex)) {
-                objectClass = classMap.get(objectClassIndex);
-            } else {
-                final int classLength = in.readInt();
-                if (classLength > buffer.length) {
-                    buffer = Arrays.copyOf(buffer, classLength);
-                }
-                in.read(buffer, 0, classLength);
-                final String objectName = new String(buffer, 0, classLength, UTF8);
-                objectClass = Class.forName(objectName);
-            }
-            classMap.put(objectClassIndex, objectClass);
-            objectMap.put(objectClass, objectClassIndex);
-        }
-
-        objectStack = new Object[objectCount];
-        Arrays.setAll(objectStack, index -> classMap.get(index));
     }
 
     public byte[] getByteStack() {
@@ -332,7 +452,13 @@ public class UndoGraphEditState {
         return objectIndex;
     }
 
-    public void finish() {
+    public synchronized void finish() {
+        if (entry != null) {
+            ensureResident();
+            UndoHistoryStore.unregister(entry);
+            entry = null;
+        }
+
         operationStack = Arrays.copyOf(operationStack, operationCount);
         byteStack = Arrays.copyOf(byteStack, byteCount);
         shortStack = Arrays.copyOf(shortStack, shortCount);
@@ -353,9 +479,13 @@ public class UndoGraphEditState {
         if (PRINT_STATS) {
             printStats();
         }
+
+        entry = UndoHistoryStore.register(this, getStackSize());
     }
 
-    public void printStats() {
+    public synchronized void printStats() {
+        ensureResident();
+
         bytePointer = 0;
         shortPointer = 0;
         intPointer = 0;
@@ -413,7 +543,8 @@ public class UndoGraphEditState {
         }
     }
 
-    public void execute(final GraphWriteMethods graph) {
+    public synchronized void execute(final GraphWriteMethods graph) {
+        ensureResident();
 
         bytePointer = 0;
         shortPointer = 0;
@@ -437,7 +568,8 @@ public class UndoGraphEditState {
         }
     }
 
-    public void undo(final GraphWriteMethods graph) {
+    public synchronized void undo(final GraphWriteMethods graph) {
+        ensureResident();
 
         bytePointer = byteCount;
         shortPointer = shortCount;
@@ -462,31 +594,9 @@ public class UndoGraphEditState {
         }
     }
 
-    public void write(final DataOutputStream out) throws IOException {
-        out.writeInt(operationCount);
-        for (int i = 0; i < operationCount; i++) {
-            out.writeShort(operationStack[i]);
-        }
-
-        out.writeInt(byteCount);
-        for (int i = 0; i < byteCount; i++) {
-            out.writeByte(byteStack[i]);
-        }
-
-        out.writeInt(shortCount);
-        for (int i = 0; i < shortCount; i++) {
-            out.writeShort(shortStack[i]);
-        }
-
-        out.writeInt(intCount);
-        for (int i = 0; i < intCount; i++) {
-            out.writeInt(intStack[i]);
-        }
-
-        out.writeInt(longCount);
-        for (int i = 0; i < longCount; i++) {
-            out.writeLong(longStack[i]);
-        }
+    public synchronized void write(final DataOutputStream out) throws IOException {
+        ensureResident();
+        writeStacks(out);
 
         final Map<Class<?>, Integer> classMap = new HashMap<>();
         classMap.put(null, 0);
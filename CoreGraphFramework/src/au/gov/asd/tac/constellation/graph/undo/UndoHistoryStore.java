@@ -0,0 +1,343 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.undo;
+
+import au.gov.asd.tac.constellation.utilities.memory.MemoryManager;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the undo history of all graphs within a memory budget.
+ * <p>
+ * Every finished {@link UndoGraphEditState} is registered here with the size
+ * of its value stacks. When the registered states hold more than the budget,
+ * the stacks of the least recently used states are compressed and written to
+ * temporary files, and are only read back when the edit is next undone or
+ * redone. The object stack of a state always stays in memory.
+ * <p>
+ * The memory and disk used are reported to the {@link MemoryManager} as
+ * {@link #MEMORY_USAGE} and {@link #DISK_USAGE}. Changes are reported from the
+ * store's own thread, so that listeners are never called with a state or the
+ * store locked.
+ * <p>
+ * Files are deleted when their state is reloaded or collected. Any files left
+ * when the JVM exits are deleted by a single shutdown hook.
+ *
+ * @author sirius
+ */
+public class UndoHistoryStore {
+
+    private static final Logger LOGGER = Logger.getLogger(UndoHistoryStore.class.getName());
+
+    public static final String MEMORY_USAGE = "Undo history in memory (bytes)";
+    public static final String DISK_USAGE = "Undo history on disk (bytes)";
+
+    // States smaller than this are not worth a file of their own.
+    private static final long MINIMUM_SPILL_SIZE = 64 * 1024;
+
+    private static final ExecutorService SPILL_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "Undo History Store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The states held in memory, least recently used first, guarded by itself.
+    private static final LinkedHashSet<Entry> RESIDENT = new LinkedHashSet<>();
+    private static final ReferenceQueue<UndoGraphEditState> COLLECTED = new ReferenceQueue<>();
+    private static long residentSize = 0;
+    private static long budget = Runtime.getRuntime().maxMemory() / 8;
+    private static boolean trimScheduled = false;
+
+    // The files currently holding spilled states.
+    private static final Set<File> FILES = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> FILES.forEach(File::delete), "Undo History Cleanup"));
+    }
+
+    /**
+     * The registration of a state. This does not keep the state alive, so the
+     * state's memory and file can be accounted for once it is collected.
+     */
+    static final class Entry extends WeakReference<UndoGraphEditState> {
+
+        private final long size;
+        private File file = null;
+        private long fileSize = 0;
+
+        // Whether size is included in MEMORY_USAGE, guarded by RESIDENT
+        private boolean counted = false;
+
+        private Entry(final UndoGraphEditState state, final long size) {
+            super(state, COLLECTED);
+            this.size = size;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        File getFile() {
+            return file;
+        }
+    }
+
+    private UndoHistoryStore() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns the number of bytes of undo history that may be held in memory
+     * before the oldest history is written to disk.
+     *
+     * @return the memory budget in bytes.
+     */
+    public static long getMemoryBudget() {
+        synchronized (RESIDENT) {
+            return budget;
+        }
+    }
+
+    /**
+     * Sets the number of bytes of undo history that may be held in memory
+     * before the oldest history is written to disk. The default is an eighth
+     * of the maximum heap size.
+     *
+     * @param memoryBudget the memory budget in bytes.
+     */
+    public static void setMemoryBudget(final long memoryBudget) {
+        synchronized (RESIDENT) {
+            budget = memoryBudget;
+            scheduleTrim();
+        }
+    }
+
+    /**
+     * Returns the number of bytes of undo history currently held in memory.
+     *
+     * @return the number of bytes of undo history currently held in memory.
+     */
+    public static long getMemoryUsage() {
+        synchronized (RESIDENT) {
+            expunge();
+            return residentSize;
+        }
+    }
+
+    /**
+     * Waits for any outstanding writes to disk to complete.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public static void flush() throws InterruptedException {
+        try {
+            SPILL_EXECUTOR.submit(() -> {
+            }).get();
+        } catch (final java.util.concurrent.ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    static Entry register(final UndoGraphEditState state, final long size) {
+        final Entry entry = new Entry(state, size);
+        synchronized (RESIDENT) {
+            expunge();
+            RESIDENT.add(entry);
+            residentSize += size;
+            count(entry);
+            scheduleTrim();
+        }
+        return entry;
+    }
+
+    static void unregister(final Entry entry) {
+        synchronized (RESIDENT) {
+            if (RESIDENT.remove(entry)) {
+                residentSize -= entry.size;
+            }
+
+            // the entry may have been taken for a spill that will no longer happen
+            uncount(entry);
+        }
+    }
+
+    /**
+     * Creates a temporary file to write the stacks of a state to. The file is
+     * deleted when the JVM exits unless it has been deleted by then.
+     *
+     * @return the new file.
+     * @throws IOException if the file could not be created.
+     */
+    static File createFile() throws IOException {
+        final File file = File.createTempFile("undo", ".bin");
+        FILES.add(file);
+        return file;
+    }
+
+    /**
+     * Deletes a file created by {@link #createFile}.
+     *
+     * @param file the file to delete.
+     */
+    static void deleteFile(final File file) {
+        if (!file.delete()) {
+            LOGGER.log(Level.WARNING, "Unable to delete undo history file {0}", file);
+        }
+        FILES.remove(file);
+    }
+
+    /**
+     * Records that the stacks of a state have been written to a file. This is
+     * called by the state, with the state locked.
+     */
+    static void spilled(final Entry entry, final File file) {
+        entry.file = file;
+        entry.fileSize = file.length();
+        synchronized (RESIDENT) {
+            uncount(entry);
+        }
+        reportUsage(DISK_USAGE, entry.fileSize);
+    }
+
+    /**
+     * Records that the stacks of a state have been read back from its file,
+     * making it the most recently used state. This is called by the state,
+     * with the state locked.
+     */
+    static void reloaded(final Entry entry) {
+        deleteFile(entry);
+        synchronized (RESIDENT) {
+            RESIDENT.add(entry);
+            residentSize += entry.size;
+            count(entry);
+            scheduleTrim();
+        }
+    }
+
+    /**
+     * Marks a state as the most recently used state.
+     */
+    static void touch(final Entry entry) {
+        synchronized (RESIDENT) {
+            if (RESIDENT.remove(entry)) {
+                RESIDENT.add(entry);
+            }
+        }
+    }
+
+    private static void deleteFile(final Entry entry) {
+        if (entry.file != null) {
+            deleteFile(entry.file);
+            reportUsage(DISK_USAGE, -entry.fileSize);
+            entry.file = null;
+            entry.fileSize = 0;
+        }
+    }
+
+    // Must be called with RESIDENT locked
+    private static void expunge() {
+        Entry entry;
+        while ((entry = (Entry) COLLECTED.poll()) != null) {
+            if (RESIDENT.remove(entry)) {
+                residentSize -= entry.size;
+            }
+            uncount(entry);
+            deleteFile(entry);
+        }
+    }
+
+    // Must be called with RESIDENT locked
+    private static void count(final Entry entry) {
+        if (!entry.counted) {
+            entry.counted = true;
+            reportUsage(MEMORY_USAGE, entry.size);
+        }
+    }
+
+    // Must be called with RESIDENT locked
+    private static void uncount(final Entry entry) {
+        if (entry.counted) {
+            entry.counted = false;
+            reportUsage(MEMORY_USAGE, -entry.size);
+        }
+    }
+
+    private static void reportUsage(final String name, final long amount) {
+        SPILL_EXECUTOR.execute(() -> MemoryManager.addUsage(name, amount));
+    }
+
+    // Must be called with RESIDENT locked
+    private static void scheduleTrim() {
+        if (residentSize > budget && !trimScheduled) {
+            trimScheduled = true;
+            SPILL_EXECUTOR.execute(UndoHistoryStore::trim);
+        }
+    }
+
+    /**
+     * Writes the least recently used states to disk until the states in
+     * memory are within the budget.
+     */
+    private static void trim() {
+        while (true) {
+            Entry victim = null;
+            synchronized (RESIDENT) {
+                expunge();
+                if (residentSize > budget) {
+                    final Iterator<Entry> iterator = RESIDENT.iterator();
+                    while (iterator.hasNext()) {
+                        final Entry entry = iterator.next();
+                        if (entry.size >= MINIMUM_SPILL_SIZE) {
+                            iterator.remove();
+                            residentSize -= entry.size;
+                            victim = entry;
+                            break;
+                        }
+                    }
+                }
+                if (victim == null) {
+                    trimScheduled = false;
+                    return;
+                }
+            }
+
+            final UndoGraphEditState state = victim.get();
+            if (state != null) {
+                try {
+                    state.spill(victim);
+                } catch (final IOException ex) {
+                    LOGGER.log(Level.WARNING, "Unable to write undo history to disk", ex);
+                    synchronized (RESIDENT) {
+                        RESIDENT.add(victim);
+                        residentSize += victim.size;
+                        trimScheduled = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
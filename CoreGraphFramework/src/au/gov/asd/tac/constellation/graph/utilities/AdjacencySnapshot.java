@@ -0,0 +1,507 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.utilities;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable snapshot of the adjacency of a graph in compressed sparse row
+ * (CSR) form, for analytics that need to traverse the graph many times.
+ * <p>
+ * The vertices of the snapshot are numbered by index from 0 to
+ * {@link #getVertexCount} - 1. If every vertex is included, the index of a
+ * vertex is its position in the graph. Otherwise the included vertices are
+ * numbered in position order.
+ * <p>
+ * Each transaction contributes one entry to the row of its source vertex,
+ * pointing at its destination vertex. In an undirected snapshot, and for
+ * undirected transactions in a directed snapshot, it also contributes an entry
+ * to the row of its destination vertex, pointing at its source vertex. A loop
+ * only ever contributes one entry. The entries of each row are sorted by the
+ * index of the vertex they point at, so neighbourhoods can be intersected by
+ * merging rows. The entries of vertex {@code i} are at offsets
+ * {@code getOutOffsets()[i]} to {@code getOutOffsets()[i + 1] - 1} of
+ * {@link #getOutTargets}, {@link #getOutWeights} and
+ * {@link #getOutTransactions}. A directed snapshot also holds the reverse
+ * entries in the same form; in an undirected snapshot the "in" arrays are the
+ * same as the "out" arrays.
+ * <p>
+ * The arrays are returned directly rather than copied, and must not be
+ * modified.
+ * <p>
+ * Snapshots returned by {@link #get} are cached until the structure of the
+ * graph changes, or the values of the weight or selection attributes change,
+ * so several analytics run over the same graph share a single snapshot.
+ *
+ * @author cygnus_x-1
+ */
+public final class AdjacencySnapshot {
+
+    private static final int CACHE_SIZE = 8;
+
+    private static final Map<Key, AdjacencySnapshot> CACHE = new LinkedHashMap<Key, AdjacencySnapshot>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, AdjacencySnapshot> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final boolean directed;
+    private final boolean weighted;
+    private final long structureModificationCounter;
+    private final int[] vertices;
+    private final int[] vertexIndices;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final double[] outWeights;
+    private final int[] outTransactions;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final double[] inWeights;
+    private final int[] inTransactions;
+
+    /**
+     * Return a snapshot of the adjacency of a graph, reusing a cached snapshot
+     * if the graph has not changed since it was built.
+     *
+     * @param graph The graph.
+     * @param directed True if the direction of transactions should be kept,
+     * false to treat every transaction as undirected.
+     *
+     * @return A snapshot of the adjacency of the graph.
+     */
+    public static AdjacencySnapshot get(final GraphReadMethods graph, final boolean directed) {
+        return get(graph, directed, Graph.NOT_FOUND, Graph.NOT_FOUND);
+    }
+
+    /**
+     * Return a snapshot of the adjacency of a graph, reusing a cached snapshot
+     * if the graph has not changed since it was built.
+     *
+     * @param graph The graph.
+     * @param directed True if the direction of transactions should be kept,
+     * false to treat every transaction as undirected.
+     * @param weightAttribute A numeric transaction attribute holding the weight
+     * of each transaction, or {@link Graph#NOT_FOUND} to give every transaction
+     * a weight of 1.
+     * @param selectedAttribute A boolean vertex attribute such that only the
+     * vertices for which it is true, and the transactions between them, are
+     * included, or {@link Graph#NOT_FOUND} to include every vertex.
+     *
+     * @return A snapshot of the adjacency of the graph.
+     */
+    public static AdjacencySnapshot get(final GraphReadMethods graph, final boolean directed, final int weightAttribute, final int selectedAttribute) {
+        final Key key = new Key(graph, directed, weightAttribute, selectedAttribute);
+        synchronized (CACHE) {
+            final AdjacencySnapshot snapshot = CACHE.get(key);
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+
+        // Build outside the lock so that snapshots of different graphs can be built at the same time.
+        final AdjacencySnapshot snapshot = build(graph, directed, weightAttribute, selectedAttribute);
+        synchronized (CACHE) {
+            CACHE.put(key, snapshot);
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Build a new snapshot of the adjacency of a graph without using the
+     * cache.
+     *
+     * @param graph The graph.
+     * @param directed True if the direction of transactions should be kept,
+     * false to treat every transaction as undirected.
+     * @param weightAttribute A numeric transaction attribute holding the weight
+     * of each transaction, or {@link Graph#NOT_FOUND} to give every transaction
+     * a weight of 1.
+     * @param selectedAttribute A boolean vertex attribute such that only the
+     * vertices for which it is true, and the transactions between them, are
+     * included, or {@link Graph#NOT_FOUND} to include every vertex.
+     *
+     * @return A snapshot of the adjacency of the graph.
+     */
+    public static AdjacencySnapshot build(final GraphReadMethods graph, final boolean directed, final int weightAttribute, final int selectedAttribute) {
+        return new AdjacencySnapshot(graph, directed, weightAttribute, selectedAttribute);
+    }
+
+    /**
+     * Remove every snapshot from the cache.
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    private AdjacencySnapshot(final GraphReadMethods graph, final boolean directed, final int weightAttribute, final int selectedAttribute) {
+        this.directed = directed;
+        this.weighted = weightAttribute != Graph.NOT_FOUND;
+        this.structureModificationCounter = graph.getStructureModificationCounter();
+
+        // Number the included vertices.
+        final int graphVertexCount = graph.getVertexCount();
+        vertexIndices = new int[graph.getVertexCapacity()];
+        Arrays.fill(vertexIndices, Graph.NOT_FOUND);
+        final int[] included = new int[graphVertexCount];
+        int vertexCount = 0;
+        for (int position = 0; position < graphVertexCount; position++) {
+            final int vertex = graph.getVertex(position);
+            if (selectedAttribute == Graph.NOT_FOUND || graph.getBooleanValue(selectedAttribute, vertex)) {
+                vertexIndices[vertex] = vertexCount;
+                included[vertexCount++] = vertex;
+            }
+        }
+        vertices = Arrays.copyOf(included, vertexCount);
+
+        // Collect one arc per direction of each included transaction.
+        final int transactionCount = graph.getTransactionCount();
+        int[] arcSources = new int[transactionCount];
+        int[] arcTargets = new int[transactionCount];
+        int[] arcTransactions = new int[transactionCount];
+        int arcCount = 0;
+        for (int position = 0; position < transactionCount; position++) {
+            final int transaction = graph.getTransaction(position);
+            final int source = vertexIndices[graph.getTransactionSourceVertex(transaction)];
+            final int destination = vertexIndices[graph.getTransactionDestinationVertex(transaction)];
+            if (source == Graph.NOT_FOUND || destination == Graph.NOT_FOUND) {
+                continue;
+            }
+
+            final boolean bothWays = source != destination && (!directed || graph.getTransactionDirection(transaction) == Graph.UNDIRECTED);
+            if (arcCount + 2 > arcSources.length) {
+                final int capacity = Math.max(arcSources.length * 2, arcCount + 2);
+                arcSources = Arrays.copyOf(arcSources, capacity);
+                arcTargets = Arrays.copyOf(arcTargets, capacity);
+                arcTransactions = Arrays.copyOf(arcTransactions, capacity);
+            }
+            arcSources[arcCount] = source;
+            arcTargets[arcCount] = destination;
+            arcTransactions[arcCount++] = transaction;
+            if (bothWays) {
+                arcSources[arcCount] = destination;
+                arcTargets[arcCount] = source;
+                arcTransactions[arcCount++] = transaction;
+            }
+        }
+
+        // Bucket the arcs by target, then by source; a stable bucket sort by source
+        // of arcs already ordered by target leaves each row sorted by target.
+        final int[] byTarget = bucket(arcTargets, null, arcCount, vertexCount);
+        final int[] bySource = bucket(arcSources, byTarget, arcCount, vertexCount);
+
+        outOffsets = offsets(arcSources, arcCount, vertexCount);
+        outTargets = new int[arcCount];
+        outWeights = new double[arcCount];
+        outTransactions = new int[arcCount];
+        for (int i = 0; i < arcCount; i++) {
+            final int arc = bySource[i];
+            outTargets[i] = arcTargets[arc];
+            outTransactions[i] = arcTransactions[arc];
+            outWeights[i] = weighted ? graph.getDoubleValue(weightAttribute, arcTransactions[arc]) : 1.0;
+        }
+
+        if (directed) {
+            // A stable bucket sort by target of arcs ordered by source leaves each row sorted by source.
+            final int[] reverse = bucket(arcTargets, bySource, arcCount, vertexCount);
+            inOffsets = offsets(arcTargets, arcCount, vertexCount);
+            inSources = new int[arcCount];
+            inWeights = new double[arcCount];
+            inTransactions = new int[arcCount];
+            for (int i = 0; i < arcCount; i++) {
+                final int arc = reverse[i];
+                inSources[i] = arcSources[arc];
+                inTransactions[i] = arcTransactions[arc];
+                inWeights[i] = weighted ? graph.getDoubleValue(weightAttribute, arcTransactions[arc]) : 1.0;
+            }
+        } else {
+            inOffsets = outOffsets;
+            inSources = outTargets;
+            inWeights = outWeights;
+            inTransactions = outTransactions;
+        }
+    }
+
+    /**
+     * The offset of the first entry of each row, followed by the total number
+     * of entries.
+     */
+    private static int[] offsets(final int[] rows, final int arcCount, final int vertexCount) {
+        final int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < arcCount; i++) {
+            offsets[rows[i] + 1]++;
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Stable bucket sort of arcs by row.
+     *
+     * @param rows The row of each arc.
+     * @param order The order to visit the arcs in, or null for arc order.
+     * @param arcCount The number of arcs.
+     * @param vertexCount The number of rows.
+     *
+     * @return The arcs sorted by row.
+     */
+    private static int[] bucket(final int[] rows, final int[] order, final int arcCount, final int vertexCount) {
+        final int[] next = offsets(rows, arcCount, vertexCount);
+        final int[] sorted = new int[arcCount];
+        for (int i = 0; i < arcCount; i++) {
+            final int arc = order == null ? i : order[i];
+            sorted[next[rows[arc]]++] = arc;
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Is the direction of transactions kept by this snapshot?
+     *
+     * @return True if this snapshot is directed.
+     */
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Are the weights of this snapshot read from a transaction attribute?
+     *
+     * @return True if this snapshot is weighted, false if every weight is 1.
+     */
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    /**
+     * The structure modification counter of the graph when this snapshot was
+     * built.
+     *
+     * @return The structure modification counter of the graph.
+     */
+    public long getStructureModificationCounter() {
+        return structureModificationCounter;
+    }
+
+    /**
+     * The number of vertices in this snapshot.
+     *
+     * @return The number of vertices in this snapshot.
+     */
+    public int getVertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * The number of entries in the rows of this snapshot.
+     *
+     * @return The number of entries in the rows of this snapshot.
+     */
+    public int getEntryCount() {
+        return outTargets.length;
+    }
+
+    /**
+     * The id of the vertex with the given index.
+     *
+     * @param index The index of a vertex in this snapshot.
+     *
+     * @return The id of the vertex in the graph.
+     */
+    public int getVertex(final int index) {
+        return vertices[index];
+    }
+
+    /**
+     * The index of the vertex with the given id.
+     *
+     * @param vertex The id of a vertex in the graph.
+     *
+     * @return The index of the vertex in this snapshot, or
+     * {@link Graph#NOT_FOUND} if the vertex is not included.
+     */
+    public int getIndex(final int vertex) {
+        return vertex >= 0 && vertex < vertexIndices.length ? vertexIndices[vertex] : Graph.NOT_FOUND;
+    }
+
+    /**
+     * The number of outgoing entries of a vertex.
+     *
+     * @param index The index of the vertex.
+     *
+     * @return The number of outgoing entries of the vertex.
+     */
+    public int getOutDegree(final int index) {
+        return outOffsets[index + 1] - outOffsets[index];
+    }
+
+    /**
+     * The number of incoming entries of a vertex.
+     *
+     * @param index The index of the vertex.
+     *
+     * @return The number of incoming entries of the vertex.
+     */
+    public int getInDegree(final int index) {
+        return inOffsets[index + 1] - inOffsets[index];
+    }
+
+    /**
+     * The offset of the first outgoing entry of each vertex, followed by the
+     * number of entries.
+     *
+     * @return The outgoing offsets, of length {@link #getVertexCount} + 1.
+     */
+    public int[] getOutOffsets() {
+        return outOffsets;
+    }
+
+    /**
+     * The index of the vertex that each outgoing entry points at.
+     *
+     * @return The outgoing targets.
+     */
+    public int[] getOutTargets() {
+        return outTargets;
+    }
+
+    /**
+     * The weight of each outgoing entry.
+     *
+     * @return The outgoing weights.
+     */
+    public double[] getOutWeights() {
+        return outWeights;
+    }
+
+    /**
+     * The id of the transaction of each outgoing entry.
+     *
+     * @return The outgoing transactions.
+     */
+    public int[] getOutTransactions() {
+        return outTransactions;
+    }
+
+    /**
+     * The offset of the first incoming entry of each vertex, followed by the
+     * number of entries.
+     *
+     * @return The incoming offsets, of length {@link #getVertexCount} + 1.
+     */
+    public int[] getInOffsets() {
+        return inOffsets;
+    }
+
+    /**
+     * The index of the vertex that each incoming entry comes from.
+     *
+     * @return The incoming sources.
+     */
+    public int[] getInSources() {
+        return inSources;
+    }
+
+    /**
+     * The weight of each incoming entry.
+     *
+     * @return The incoming weights.
+     */
+    public double[] getInWeights() {
+        return inWeights;
+    }
+
+    /**
+     * The id of the transaction of each incoming entry.
+     *
+     * @return The incoming transactions.
+     */
+    public int[] getInTransactions() {
+        return inTransactions;
+    }
+
+    /**
+     * Identifies the state of a graph that a snapshot was built from.
+     * <p>
+     * The graph is compared by identity. Copies of a graph share its id and
+     * modification counters, but can diverge while their counters stay equal,
+     * so they never share snapshots. The graph is held weakly so that the cache
+     * does not keep it alive.
+     */
+    private static final class Key {
+
+        private final WeakReference<GraphReadMethods> graph;
+        private final int graphHash;
+        private final long undoRedoCounter;
+        private final long structureModificationCounter;
+        private final boolean directed;
+        private final int weightAttribute;
+        private final long weightModificationCounter;
+        private final int selectedAttribute;
+        private final long selectedModificationCounter;
+
+        Key(final GraphReadMethods graph, final boolean directed, final int weightAttribute, final int selectedAttribute) {
+            this.graph = new WeakReference<>(graph);
+            this.graphHash = System.identityHashCode(graph);
+            this.undoRedoCounter = graph.getUndoRedoCounter();
+            this.structureModificationCounter = graph.getStructureModificationCounter();
+            this.directed = directed;
+            this.weightAttribute = weightAttribute;
+            this.weightModificationCounter = weightAttribute == Graph.NOT_FOUND ? 0 : graph.getValueModificationCounter(weightAttribute);
+            this.selectedAttribute = selectedAttribute;
+            this.selectedModificationCounter = selectedAttribute == Graph.NOT_FOUND ? 0 : graph.getValueModificationCounter(selectedAttribute);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+            final GraphReadMethods g = graph.get();
+            return g != null && g == other.graph.get()
+                    && undoRedoCounter == other.undoRedoCounter
+                    && structureModificationCounter == other.structureModificationCounter
+                    && directed == other.directed
+                    && weightAttribute == other.weightAttribute
+                    && weightModificationCounter == other.weightModificationCounter
+                    && selectedAttribute == other.selectedAttribute
+                    && selectedModificationCounter == other.selectedModificationCounter;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(graphHash, undoRedoCounter, structureModificationCounter, directed, weightAttribute, weightModificationCounter, selectedAttribute, selectedModificationCounter);
+        }
+    }
+}
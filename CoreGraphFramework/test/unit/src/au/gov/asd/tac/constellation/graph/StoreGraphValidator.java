@@ -152,6 +152,11 @@ public final class StoreGraphValidator implements GraphWriteMethods {
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
+    @Override
+    public long getUndoRedoCounter() {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
     @Override
     public long getValueModificationCounter(final int attribute) {
         throw new UnsupportedOperationException("Not supported yet.");
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.attribute;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphIndexResult;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import java.util.HashSet;
+import java.util.Set;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Test the hash and ordered indexes on primitive and String attributes.
+ *
+ * @author sirius
+ */
+public class GraphIndexNGTest {
+
+    private static Set<Integer> toSet(final GraphIndexResult result) {
+        final Set<Integer> elements = new HashSet<>();
+        final int count = result.getCount();
+        for (int i = 0; i < count; i++) {
+            elements.add(result.getNextElement());
+        }
+        return elements;
+    }
+
+    private static Set<Integer> setOf(final int... elements) {
+        final Set<Integer> set = new HashSet<>();
+        for (final int element : elements) {
+            set.add(element);
+        }
+        return set;
+    }
+
+    @Test
+    public void testIntegerIndexes() {
+        for (final GraphIndexType indexType : new GraphIndexType[]{GraphIndexType.UNORDERED, GraphIndexType.ORDERED}) {
+            final StoreGraph graph = new StoreGraph();
+            final int attr = graph.addAttribute(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "value", null, null, null);
+            assertTrue(graph.attributeSupportsIndexType(attr, indexType));
+
+            final int[] vertices = new int[100];
+            for (int i = 0; i < vertices.length; i++) {
+                vertices[i] = graph.addVertex();
+                graph.setIntValue(attr, vertices[i], i % 10);
+            }
+            graph.setAttributeIndexType(attr, indexType);
+            assertEquals(graph.getElementsWithAttributeValue(attr, 3).getCount(), 10);
+
+            // Updates and removals are reflected in the index.
+            graph.setIntValue(attr, vertices[3], 42);
+            graph.removeVertex(vertices[13]);
+            assertEquals(graph.getElementsWithAttributeValue(attr, 3).getCount(), 8);
+            assertEquals(toSet(graph.getElementsWithAttributeValue(attr, 42)), setOf(vertices[3]));
+
+            // Vertices added after the index was created are indexed.
+            final int added = graph.addVertex();
+            graph.setIntValue(attr, added, 42);
+            assertEquals(toSet(graph.getElementsWithAttributeValue(attr, "42")), setOf(vertices[3], added));
+
+            if (indexType == GraphIndexType.ORDERED) {
+                // Both ends of a range are inclusive.
+                assertEquals(graph.getElementsWithAttributeValueRange(attr, 8, 9).getCount(), 20);
+                assertEquals(graph.getElementsWithAttributeValueRange(attr, 8, 8).getCount(), 10);
+                assertEquals(graph.getElementsWithAttributeValueRange(attr, 9, 8).getCount(), 0);
+                assertEquals(graph.getElementsWithAttributeValueRange(attr, null, 1).getCount(), 20);
+                assertEquals(graph.getElementsWithAttributeValueRange(attr, 40, null).getCount(), 2);
+            } else {
+                assertNull(graph.getElementsWithAttributeValueRange(attr, 8, 10));
+            }
+        }
+    }
+
+    @Test
+    public void testDoubleOrderedIndex() {
+        final StoreGraph graph = new StoreGraph();
+        final int attr = graph.addAttribute(GraphElementType.VERTEX, DoubleAttributeDescription.ATTRIBUTE_NAME, "value", null, null, null);
+        graph.setAttributeIndexType(attr, GraphIndexType.ORDERED);
+
+        final double[] values = {-2.5, -0.0, 0.0, 1.5, 3.0};
+        final int[] vertices = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            vertices[i] = graph.addVertex();
+            graph.setDoubleValue(attr, vertices[i], values[i]);
+        }
+
+        assertEquals(toSet(graph.getElementsWithAttributeValue(attr, 0.0)), setOf(vertices[1], vertices[2]));
+        assertEquals(toSet(graph.getElementsWithAttributeValueRange(attr, -3.0, 1.5)), setOf(vertices[0], vertices[1], vertices[2], vertices[3]));
+        assertEquals(toSet(graph.getElementsWithAttributeValueRange(attr, -3.0, 1.0)), setOf(vertices[0], vertices[1], vertices[2]));
+    }
+
+    @Test
+    public void testStringIndexes() {
+        for (final GraphIndexType indexType : new GraphIndexType[]{GraphIndexType.UNORDERED, GraphIndexType.ORDERED}) {
+            final StoreGraph graph = new StoreGraph();
+            final int attr = graph.addAttribute(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "name", null, null, null);
+            graph.setAttributeIndexType(attr, indexType);
+
+            final int alpha = graph.addVertex();
+            final int bravo = graph.addVertex();
+            final int charlie = graph.addVertex();
+            final int none = graph.addVertex();
+            graph.setStringValue(attr, alpha, "alpha");
+            graph.setStringValue(attr, bravo, "bravo");
+            graph.setStringValue(attr, charlie, "charlie");
+
+            assertEquals(toSet(graph.getElementsWithAttributeValue(attr, "bravo")), setOf(bravo));
+            assertEquals(toSet(graph.getElementsWithAttributeValue(attr, null)), setOf(none));
+
+            graph.setStringValue(attr, charlie, "bravo");
+            assertEquals(toSet(graph.getElementsWithAttributeValue(attr, "bravo")), setOf(bravo, charlie));
+            assertEquals(graph.getElementsWithAttributeValue(attr, "charlie").getCount(), 0);
+
+            if (indexType == GraphIndexType.ORDERED) {
+                assertEquals(toSet(graph.getElementsWithAttributeValueRange(attr, "a", "b")), setOf(alpha));
+                assertEquals(toSet(graph.getElementsWithAttributeValueRange(attr, "alpha", "bravo")), setOf(alpha, bravo, charlie));
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.attribute;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import org.testng.annotations.Test;
+
+/**
+ * Test attributes whose values are loaded on first access.
+ *
+ * @author sirius
+ */
+public class LazyAttributeDescriptionNGTest {
+
+    @Test
+    public void testLoadOnFirstAccess() {
+        final StoreGraph graph = new StoreGraph();
+        final int attr = graph.addAttribute(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "name", null, null, null);
+        final int[] vertices = new int[10];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = graph.addVertex();
+        }
+
+        final AtomicInteger loads = new AtomicInteger();
+        graph.setAttributeLoader(attr, description -> {
+            loads.incrementAndGet();
+            for (int i = 0; i < vertices.length; i++) {
+                description.setString(vertices[i], "v" + i);
+            }
+        });
+        final long modificationCounter = graph.getValueModificationCounter(attr);
+
+        // Adding elements does not load the values.
+        final int extra = graph.addVertex();
+        assertEquals(loads.get(), 0);
+
+        assertEquals(graph.getStringValue(attr, vertices[3]), "v3");
+        assertNull(graph.getStringValue(attr, extra));
+        assertEquals(graph.getStringValue(attr, vertices[9]), "v9");
+        assertEquals(loads.get(), 1);
+        assertEquals(graph.getValueModificationCounter(attr), modificationCounter);
+
+        // Indexes see the loaded values.
+        graph.setAttributeIndexType(attr, GraphIndexType.UNORDERED);
+        assertEquals(graph.getElementsWithAttributeValue(attr, "v5").getCount(), 1);
+    }
+
+    @Test
+    public void testCopyLoadsIndependently() {
+        final StoreGraph graph = new StoreGraph();
+        final int attr = graph.addAttribute(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "count", null, null, null);
+        final int vertex = graph.addVertex();
+
+        final AtomicInteger loads = new AtomicInteger();
+        graph.setAttributeLoader(attr, description -> {
+            loads.incrementAndGet();
+            description.setInt(vertex, 42);
+        });
+
+        final StoreGraph copy = new StoreGraph(graph);
+        assertEquals(loads.get(), 0);
+
+        copy.setIntValue(attr, vertex, 7);
+        assertEquals(loads.get(), 1);
+        assertEquals(graph.getIntValue(attr, vertex), 42);
+        assertEquals(copy.getIntValue(attr, vertex), 7);
+        assertEquals(loads.get(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testKeyedAttributeCannotBeDeferred() {
+        final StoreGraph graph = new StoreGraph();
+        final int attr = graph.addAttribute(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "name", null, null, null);
+        graph.setPrimaryKey(GraphElementType.VERTEX, attr);
+        graph.setAttributeLoader(attr, description -> {
+        });
+    }
+}
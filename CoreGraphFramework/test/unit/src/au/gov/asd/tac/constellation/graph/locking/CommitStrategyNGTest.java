@@ -0,0 +1,235 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.locking;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.ReadableGraph;
+import au.gov.asd.tac.constellation.graph.WritableGraph;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.graph.locking.LockingManager.CommitStrategy;
+import javax.swing.SwingUtilities;
+import javax.swing.undo.UndoManager;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import org.testng.annotations.Test;
+
+/**
+ * Commit Strategy Test.
+ *
+ * @author sirius
+ */
+public class CommitStrategyNGTest {
+
+    private static DualGraph createGraph(final CommitStrategy commitStrategy) {
+        final DualGraph graph = new DualGraph(null);
+        graph.setCommitStrategy(commitStrategy);
+        return graph;
+    }
+
+    private static void assertValues(final DualGraph graph, final int attribute, final int count) {
+        final ReadableGraph rg = graph.getReadableGraph();
+        try {
+            assertEquals(rg.getVertexCount(), count);
+            for (int position = 0; position < count; position++) {
+                final int vertex = rg.getVertex(position);
+                assertEquals(rg.getIntValue(attribute, vertex), vertex * 10);
+            }
+        } finally {
+            rg.release();
+        }
+    }
+
+    @Test
+    public void readersSeeEveryImmediateCommit() throws InterruptedException {
+        readersSeeEveryCommit(CommitStrategy.IMMEDIATE);
+    }
+
+    @Test
+    public void readersSeeEveryDeferredCommit() throws InterruptedException {
+        readersSeeEveryCommit(CommitStrategy.DEFERRED);
+    }
+
+    private void readersSeeEveryCommit(final CommitStrategy commitStrategy) throws InterruptedException {
+        final DualGraph graph = createGraph(commitStrategy);
+
+        WritableGraph wg = graph.getWritableGraph("", true);
+        final int attribute;
+        try {
+            attribute = wg.addAttribute(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "value", "value", 0, null);
+        } finally {
+            wg.commit();
+        }
+
+        for (int i = 1; i <= 5; i++) {
+            wg = graph.getWritableGraph("", true);
+            try {
+                final int vertex = wg.addVertex();
+                wg.setIntValue(attribute, vertex, vertex * 10);
+
+                // The writer must see every earlier commit
+                assertEquals(wg.getVertexCount(), i);
+
+                wg = wg.flush(false);
+                wg.setIntValue(attribute, vertex, -1);
+                wg.setIntValue(attribute, vertex, vertex * 10);
+            } finally {
+                wg.commit();
+            }
+            assertValues(graph, attribute, i);
+        }
+    }
+
+    @Test
+    public void deferredCommitDoesNotWaitForReaders() throws InterruptedException {
+        final DualGraph graph = createGraph(CommitStrategy.DEFERRED);
+
+        final ReadableGraph rg = graph.getReadableGraph();
+        final Thread writer = new Thread(() -> {
+            try {
+                final WritableGraph wg = graph.getWritableGraph("", true);
+                try {
+                    wg.addVertex();
+                } finally {
+                    wg.commit();
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            writer.start();
+            writer.join(10000);
+            assertFalse(writer.isAlive());
+
+            // The reader keeps its snapshot
+            assertEquals(rg.getVertexCount(), 0);
+        } finally {
+            rg.release();
+        }
+
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            assertEquals(wg.getVertexCount(), 1);
+            wg.addVertex();
+        } finally {
+            wg.commit();
+        }
+
+        final ReadableGraph rg2 = graph.getReadableGraph();
+        try {
+            assertEquals(rg2.getVertexCount(), 2);
+        } finally {
+            rg2.release();
+        }
+    }
+
+    @Test
+    public void tryWritingDoesNotWaitForStaleReaders() throws InterruptedException {
+        final DualGraph graph = createGraph(CommitStrategy.DEFERRED);
+
+        // The reader holds the copy that becomes stale when the writer commits
+        final ReadableGraph rg = graph.getReadableGraph();
+        final WritableGraph[] tried = new WritableGraph[1];
+        final Thread writer = new Thread(() -> {
+            try {
+                final WritableGraph wg = graph.getWritableGraph("", true);
+                try {
+                    wg.addVertex();
+                } finally {
+                    wg.commit();
+                }
+
+                tried[0] = graph.getWritableGraphNow("", true);
+                if (tried[0] != null) {
+                    tried[0].rollBack();
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            writer.start();
+            writer.join(10000);
+            assertFalse(writer.isAlive());
+        } finally {
+            rg.release();
+        }
+
+        // Once the reader has finished, the stale copy catches up in the background
+        WritableGraph wg = null;
+        for (int i = 0; i < 1000 && wg == null; i++) {
+            wg = graph.getWritableGraphNow("", true);
+            if (wg == null) {
+                Thread.sleep(10);
+            }
+        }
+        assertNotNull(wg);
+        try {
+            assertEquals(wg.getVertexCount(), 1);
+        } finally {
+            wg.rollBack();
+        }
+    }
+
+    @Test
+    public void undoAndRedoCatchUp() throws Exception {
+        final DualGraph graph = createGraph(CommitStrategy.DEFERRED);
+        final UndoManager undoManager = new UndoManager();
+        graph.setUndoManager(undoManager);
+
+        for (int i = 0; i < 2; i++) {
+            final WritableGraph wg = graph.getWritableGraph("", true);
+            try {
+                wg.addVertex();
+            } finally {
+                wg.commit();
+            }
+        }
+
+        // Edits are passed to the undo manager on the event dispatch thread
+        SwingUtilities.invokeAndWait(() -> {
+        });
+
+        undoManager.undo();
+        waitForVertexCount(graph, 1);
+        undoManager.redo();
+        waitForVertexCount(graph, 2);
+
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            assertEquals(wg.getVertexCount(), 2);
+        } finally {
+            wg.rollBack();
+        }
+    }
+
+    private static void waitForVertexCount(final DualGraph graph, final int count) throws InterruptedException {
+        // Undo and redo happen on their own thread
+        for (int i = 0; i < 1000; i++) {
+            final ReadableGraph rg = graph.getReadableGraph();
+            try {
+                if (rg.getVertexCount() == count) {
+                    return;
+                }
+            } finally {
+                rg.release();
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Vertex count did not become " + count);
+    }
+}
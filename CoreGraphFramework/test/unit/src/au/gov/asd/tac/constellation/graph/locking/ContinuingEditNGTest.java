@@ -0,0 +1,109 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.locking;
+
+import au.gov.asd.tac.constellation.graph.ReadableGraph;
+import au.gov.asd.tac.constellation.graph.WritableGraph;
+import java.lang.reflect.InvocationTargetException;
+import javax.swing.SwingUtilities;
+import javax.swing.undo.UndoManager;
+import static org.testng.Assert.assertFalse;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Continuing Edit Test.
+ *
+ * @author sirius
+ */
+public class ContinuingEditNGTest {
+
+    private final Object importer = new Object();
+    private final Object other = new Object();
+
+    private DualGraph graph;
+    private UndoManager undoManager;
+
+    @BeforeMethod
+    public void setUpMethod() {
+        graph = new DualGraph(null);
+        undoManager = new UndoManager();
+        graph.setUndoManager(undoManager);
+    }
+
+    private void addVertex(final WritableGraph wg) throws InterruptedException, InvocationTargetException {
+        try {
+            wg.addVertex();
+        } finally {
+            wg.commit();
+        }
+
+        // Edits are passed to the undo manager on the event dispatch thread
+        SwingUtilities.invokeAndWait(() -> {
+        });
+    }
+
+    private void undo(final int count) throws InterruptedException, InvocationTargetException {
+        SwingUtilities.invokeAndWait(undoManager::undo);
+
+        // Undo and redo happen on their own thread
+        for (int i = 0; i < 1000; i++) {
+            final ReadableGraph rg = graph.getReadableGraph();
+            try {
+                if (rg.getVertexCount() == count) {
+                    return;
+                }
+            } finally {
+                rg.release();
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Vertex count did not become " + count);
+    }
+
+    @Test
+    public void continuingEditsAreUndoneTogether() throws InterruptedException, InvocationTargetException {
+        addVertex(graph.getWritableGraph("Import", true, importer));
+        addVertex(graph.getContinuingWritableGraph("Import", importer));
+        addVertex(graph.getContinuingWritableGraph("Import", importer));
+
+        undo(0);
+        assertFalse(undoManager.canUndo());
+    }
+
+    @Test
+    public void anotherEditDoesNotAbsorbTheRest() throws InterruptedException, InvocationTargetException {
+        addVertex(graph.getWritableGraph("Import", true, importer));
+        addVertex(graph.getWritableGraph("Other", true, other));
+        addVertex(graph.getContinuingWritableGraph("Import", importer));
+        addVertex(graph.getContinuingWritableGraph("Import", importer));
+
+        undo(2);
+        undo(1);
+        undo(0);
+        assertFalse(undoManager.canUndo());
+    }
+
+    @Test
+    public void undoneEditIsNotContinued() throws InterruptedException, InvocationTargetException {
+        addVertex(graph.getWritableGraph("Import", true, importer));
+        undo(0);
+
+        addVertex(graph.getContinuingWritableGraph("Import", importer));
+        undo(0);
+        assertFalse(undoManager.canUndo());
+    }
+}
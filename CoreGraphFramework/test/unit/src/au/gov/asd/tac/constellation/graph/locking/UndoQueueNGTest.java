@@ -0,0 +1,140 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.locking;
+
+import au.gov.asd.tac.constellation.graph.ReadableGraph;
+import au.gov.asd.tac.constellation.graph.WritableGraph;
+import au.gov.asd.tac.constellation.graph.monitor.GraphChangeEvent;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.swing.SwingUtilities;
+import javax.swing.undo.UndoManager;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Undo Queue Test.
+ *
+ * @author sirius
+ */
+public class UndoQueueNGTest {
+
+    private static final int EDITS = 5;
+
+    private DualGraph graph;
+    private UndoManager undoManager;
+    private List<GraphChangeEvent> events;
+
+    @BeforeMethod
+    public void setUpMethod() throws InterruptedException, InvocationTargetException {
+        graph = new DualGraph(null);
+        undoManager = new UndoManager();
+        graph.setUndoManager(undoManager);
+
+        for (int i = 0; i < EDITS; i++) {
+            final WritableGraph wg = graph.getWritableGraph("Add Vertex", true);
+            try {
+                wg.addVertex();
+            } finally {
+                wg.commit();
+            }
+        }
+
+        // Edits are passed to the undo manager on the event dispatch thread
+        events = new CopyOnWriteArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+        });
+        graph.addGraphChangeListener(events::add);
+    }
+
+    private void waitForVertexCount(final int count) throws InterruptedException, InvocationTargetException {
+        // Undo and redo happen on their own thread
+        for (int i = 0; i < 1000; i++) {
+            final ReadableGraph rg = graph.getReadableGraph();
+            try {
+                if (rg.getVertexCount() == count) {
+                    SwingUtilities.invokeAndWait(() -> {
+                    });
+                    return;
+                }
+            } finally {
+                rg.release();
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Vertex count did not become " + count);
+    }
+
+    private void waitForEvents(final int count) throws InterruptedException {
+        // Listeners are told of a replay after the graph is unlocked
+        for (int i = 0; i < 1000 && events.size() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void queuedUndosAreReplayedTogether() throws InterruptedException, InvocationTargetException {
+
+        // Hold the graph so that every undo is queued
+        final WritableGraph wg = graph.getWritableGraph("Hold", true);
+        try {
+            for (int i = 0; i < EDITS; i++) {
+                undoManager.undo();
+            }
+        } finally {
+            wg.rollBack();
+        }
+
+        waitForVertexCount(0);
+        waitForEvents(1);
+        assertEquals(events.size(), 1);
+
+        final WritableGraph wg2 = graph.getWritableGraph("Add Vertex", true);
+        try {
+            assertEquals(wg2.getVertexCount(), 0);
+            wg2.addVertex();
+        } finally {
+            wg2.commit();
+        }
+        waitForVertexCount(1);
+    }
+
+    @Test
+    public void undoThenRedoCancelsOut() throws InterruptedException, InvocationTargetException {
+        final WritableGraph wg = graph.getWritableGraph("Hold", true);
+        try {
+            undoManager.undo();
+            undoManager.undo();
+            undoManager.redo();
+        } finally {
+            wg.rollBack();
+        }
+
+        waitForVertexCount(EDITS - 1);
+
+        undoManager.redo();
+        waitForVertexCount(EDITS);
+
+        final WritableGraph wg2 = graph.getWritableGraph("Check", true);
+        try {
+            assertEquals(wg2.getVertexCount(), EDITS);
+        } finally {
+            wg2.rollBack();
+        }
+    }
+}
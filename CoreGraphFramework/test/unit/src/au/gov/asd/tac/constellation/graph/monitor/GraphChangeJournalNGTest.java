@@ -0,0 +1,176 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.monitor;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.WritableGraph;
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.locking.DualGraph;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Graph Change Journal Test.
+ *
+ * @author sirius
+ */
+public class GraphChangeJournalNGTest {
+
+    private DualGraph graph;
+    private List<GraphChangeEvent> events;
+    private int selected;
+    private int vx0;
+    private int vx1;
+    private int vx2;
+    private int tx0;
+
+    @BeforeMethod
+    public void setUpMethod() throws InterruptedException, InvocationTargetException {
+        graph = new DualGraph(null);
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            selected = wg.addAttribute(GraphElementType.VERTEX, BooleanAttributeDescription.ATTRIBUTE_NAME, "selected", "selected", false, null);
+            vx0 = wg.addVertex();
+            vx1 = wg.addVertex();
+            vx2 = wg.addVertex();
+            tx0 = wg.addTransaction(vx0, vx1, true);
+        } finally {
+            wg.commit();
+        }
+
+        // Wait for the event from setting up the graph before listening
+        events = new ArrayList<>();
+        getEvents();
+        graph.addGraphChangeListener(events::add);
+    }
+
+    private List<GraphChangeEvent> getEvents() throws InterruptedException, InvocationTargetException {
+        // Events are delivered on the event dispatch thread
+        SwingUtilities.invokeAndWait(() -> {
+        });
+        return events;
+    }
+
+    @Test
+    public void journalIsNullWhenNotEnabled() throws InterruptedException, InvocationTargetException {
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            wg.setBooleanValue(selected, vx1, true);
+        } finally {
+            wg.commit();
+        }
+
+        assertEquals(getEvents().size(), 1);
+        assertNull(events.get(0).getJournal());
+    }
+
+    @Test
+    public void journalRecordsTouchedElements() throws InterruptedException, InvocationTargetException {
+        graph.enableChangeJournal();
+
+        WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            wg.setBooleanValue(selected, vx1, true);
+            wg.setBooleanValue(selected, vx2, false);
+        } finally {
+            wg.commit();
+        }
+
+        wg = graph.getWritableGraph("", true);
+        final int vx3;
+        try {
+            wg.removeVertex(vx0);
+            vx3 = wg.addVertex();
+        } finally {
+            wg.commit();
+        }
+
+        assertEquals(getEvents().size(), 2);
+
+        final GraphChangeJournal selection = events.get(0).getJournal();
+        assertNotNull(selection);
+        assertTrue(selection.isComplete());
+        assertTrue(selection.getAddedVertices().isEmpty());
+        assertTrue(selection.getRemovedVertices().isEmpty());
+        final BitSet expected = new BitSet();
+        expected.set(vx1);
+        assertEquals(selection.getModifiedElements(selected), expected);
+
+        final GraphChangeJournal structure = events.get(1).getJournal();
+        assertNotNull(structure);
+        assertTrue(structure.getAddedVertices().get(vx3));
+        assertTrue(structure.getRemovedVertices().get(vx0));
+        assertEquals(structure.getRemovedTransactions().cardinality(), 1);
+        assertTrue(structure.getRemovedTransactions().get(tx0));
+        assertFalse(structure.isModified(selected));
+
+        final GraphChangeJournal combined = events.get(0).getJournalToLatest();
+        assertTrue(combined.getModifiedElements(selected).get(vx1));
+        assertTrue(combined.getRemovedVertices().get(vx0));
+    }
+
+    @Test
+    public void journalCoversNestedAndFlushedEdits() throws InterruptedException, InvocationTargetException {
+        graph.enableChangeJournal();
+
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            wg.setBooleanValue(selected, vx0, true);
+            wg.flush(false);
+
+            final WritableGraph child = graph.getWritableGraph("", false);
+            try {
+                child.setBooleanValue(selected, vx2, true);
+            } finally {
+                child.commit();
+            }
+        } finally {
+            wg.commit();
+        }
+
+        assertEquals(getEvents().size(), 1);
+        final BitSet expected = new BitSet();
+        expected.set(vx0);
+        expected.set(vx2);
+        assertEquals(events.get(0).getJournal().getModifiedElements(selected), expected);
+    }
+
+    @Test
+    public void journalIsNullAfterDisabling() throws InterruptedException, InvocationTargetException {
+        graph.enableChangeJournal();
+        graph.disableChangeJournal();
+
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            wg.addVertex();
+        } finally {
+            wg.commit();
+        }
+
+        assertEquals(getEvents().size(), 1);
+        assertNull(events.get(0).getJournal());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.processing;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import java.util.Arrays;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Columnar RecordStore Test.
+ *
+ * @author cygnus_x-1
+ */
+public class ColumnarRecordStoreNGTest {
+
+    private ColumnarRecordStore instance = null;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        instance = new ColumnarRecordStore();
+        for (int i = 0; i < 1000; i++) {
+            instance.add();
+            instance.setInt(i, "source.Count<integer>", i);
+            instance.set("source.Identifier<string>", "id" + (i % 10));
+            instance.set("source.x<float>", i % 3 == 0 ? "" : Float.toString(i * 0.5F));
+        }
+    }
+
+    /**
+     * Test that typed values are returned as Strings.
+     */
+    @Test
+    public void testTypedValues() {
+        assertEquals(instance.size(), 1000);
+        assertEquals(instance.get(5, "source.Count"), "5");
+        assertEquals(instance.get(999, "source.Count<integer>"), "999");
+        assertEquals(instance.get(4, "source.x"), "2.0");
+        assertEquals(instance.get(12, "source.Identifier"), "id2");
+
+        // blank values in typed columns are stored as null
+        assertTrue(instance.hasValue(3, "source.x"));
+        assertNull(instance.get(3, "source.x"));
+
+        assertFalse(instance.hasValue(3, "source.y"));
+        assertEquals(instance.keysWithType(), Arrays.asList("source.Count<integer>", "source.Identifier<string>", "source.x<float>"));
+        assertEquals(instance.keys(), Arrays.asList("source.Count", "source.Identifier", "source.x"));
+    }
+
+    /**
+     * Test that a value which does not fit the type of its column converts the
+     * column to Strings without losing any values.
+     */
+    @Test
+    public void testConvertToStringColumn() {
+        instance.set(7, "source.Count<integer>", "seven");
+        assertEquals(instance.get(7, "source.Count"), "seven");
+        assertEquals(instance.get(8, "source.Count"), "8");
+
+        instance.setInt(9, "source.Count", 42);
+        assertEquals(instance.get(9, "source.Count"), "42");
+    }
+
+    /**
+     * Test that datetime values survive a round trip through their String
+     * representation.
+     */
+    @Test
+    public void testDateTime() {
+        instance.setDateTime(0, "transaction.DateTime<datetime>", 1500000000123L);
+        final String datetime = instance.get(0, "transaction.DateTime");
+        instance.set(1, "transaction.DateTime<datetime>", datetime);
+        assertEquals(instance.get(1, "transaction.DateTime"), datetime);
+    }
+
+    /**
+     * Test of add method, of class ColumnarRecordStore.
+     */
+    @Test
+    public void testAddRecordStore() {
+        final ColumnarRecordStore recordStore = new ColumnarRecordStore();
+        recordStore.add();
+        recordStore.setInt(0, "source.Count", -1);
+        recordStore.add(instance);
+
+        assertEquals(recordStore.size(), 1001);
+        assertEquals(recordStore.get(0, "source.Count"), "-1");
+        assertEquals(recordStore.get(6, "source.Count"), "5");
+        assertEquals(recordStore.get(6, "source.Identifier"), "id5");
+    }
+
+    /**
+     * Test that typed values are set on the graph by addRecordStoreToGraph.
+     */
+    @Test
+    public void testAddRecordStoreToGraph() {
+        final ColumnarRecordStore recordStore = new ColumnarRecordStore();
+        recordStore.add();
+        recordStore.set(GraphRecordStoreUtilities.SOURCE + GraphRecordStoreUtilities.ID, "a");
+        recordStore.setInt(0, GraphRecordStoreUtilities.SOURCE + "Count<integer>", 5);
+        recordStore.set(GraphRecordStoreUtilities.DESTINATION + GraphRecordStoreUtilities.ID, "b");
+        recordStore.setInt(0, GraphRecordStoreUtilities.DESTINATION + "Count<integer>", 6);
+        recordStore.setFloat(0, GraphRecordStoreUtilities.TRANSACTION + "Weight<float>", 1.5F);
+        recordStore.add();
+        recordStore.setInt(1, GraphRecordStoreUtilities.SOURCE + "Count<integer>", 7);
+
+        final StoreGraph graph = new StoreGraph();
+        GraphRecordStoreUtilities.addRecordStoreToGraph(graph, recordStore, false, false, null);
+
+        assertEquals(graph.getVertexCount(), 3);
+        assertEquals(graph.getTransactionCount(), 1);
+
+        final int countAttribute = graph.getAttribute(GraphElementType.VERTEX, "Count");
+        assertEquals(graph.getAttributeType(countAttribute), IntegerAttributeDescription.ATTRIBUTE_NAME);
+        final int weightAttribute = graph.getAttribute(GraphElementType.TRANSACTION, "Weight");
+        final int transaction = graph.getTransaction(0);
+        assertEquals(graph.getFloatValue(weightAttribute, transaction), 1.5F);
+        assertEquals(graph.getIntValue(countAttribute, graph.getTransactionSourceVertex(transaction)), 5);
+        assertEquals(graph.getIntValue(countAttribute, graph.getTransactionDestinationVertex(transaction)), 6);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.undo;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.utilities.memory.MemoryManager;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Undo History Store Test.
+ *
+ * @author sirius
+ */
+public class UndoHistoryStoreNGTest {
+
+    private static final int VERTICES = 20000;
+
+    private long originalBudget;
+
+    @BeforeMethod
+    public void setUpMethod() {
+        originalBudget = UndoHistoryStore.getMemoryBudget();
+    }
+
+    @AfterMethod
+    public void tearDownMethod() {
+        UndoHistoryStore.setMemoryBudget(originalBudget);
+    }
+
+    @Test
+    public void spilledEditCanBeUndoneAndRedone() throws InterruptedException {
+        final StoreGraph graph = new StoreGraph();
+        final int attribute = graph.addAttribute(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "value", "value", 0, null);
+
+        final UndoGraphEdit edit = new UndoGraphEdit();
+        graph.setGraphEdit(edit);
+        for (int i = 0; i < VERTICES; i++) {
+            final int vertex = graph.addVertex();
+            graph.setIntValue(attribute, vertex, i * 7);
+        }
+        graph.setGraphEdit(null);
+        edit.finish();
+
+        // Nothing may be held in memory, so the edit is written to disk
+        final long usage = UndoHistoryStore.getMemoryUsage();
+        UndoHistoryStore.setMemoryBudget(0);
+        UndoHistoryStore.flush();
+        assertTrue(UndoHistoryStore.getMemoryUsage() < usage);
+
+        edit.undo(graph);
+        assertEquals(graph.getVertexCount(), 0);
+
+        UndoHistoryStore.flush();
+        edit.execute(graph);
+        assertEquals(graph.getVertexCount(), VERTICES);
+        for (int position = 0; position < VERTICES; position++) {
+            final int vertex = graph.getVertex(position);
+            assertEquals(graph.getIntValue(attribute, vertex), position * 7);
+        }
+    }
+
+    @Test
+    public void editWithinBudgetStaysInMemory() throws InterruptedException {
+        UndoHistoryStore.setMemoryBudget(Long.MAX_VALUE);
+
+        final UndoGraphEditState state = new UndoGraphEditState();
+        for (int i = 0; i < VERTICES; i++) {
+            state.addInt(i);
+        }
+        state.finish();
+        UndoHistoryStore.flush();
+
+        assertFalse(state.isSpilled());
+        assertTrue(UndoHistoryStore.getMemoryUsage() >= state.getStackSize());
+    }
+
+    @Test
+    public void finishDuringSpillIsCountedOnce() throws InterruptedException {
+        // write out any earlier history so that only this state can be spilled
+        UndoHistoryStore.setMemoryBudget(0);
+        UndoHistoryStore.flush();
+        UndoHistoryStore.setMemoryBudget(Long.MAX_VALUE);
+
+        final UndoGraphEditState state = new UndoGraphEditState();
+        for (int i = 0; i < VERTICES; i++) {
+            state.addInt(i);
+        }
+        state.finish();
+        final long usage = UndoHistoryStore.getMemoryUsage();
+        UndoHistoryStore.flush();
+        final long reportedUsage = getReportedMemoryUsage();
+
+        synchronized (state) {
+            // the store takes the state out of memory, then waits for the state to spill it
+            UndoHistoryStore.setMemoryBudget(0);
+            while (UndoHistoryStore.getMemoryUsage() >= usage) {
+                Thread.sleep(1);
+            }
+            state.finish();
+        }
+        UndoHistoryStore.flush();
+
+        assertTrue(state.isSpilled());
+        final long usageChange = UndoHistoryStore.getMemoryUsage() - usage;
+        UndoHistoryStore.flush();
+        assertEquals(getReportedMemoryUsage() - reportedUsage, usageChange);
+    }
+
+    private static long getReportedMemoryUsage() {
+        return MemoryManager.getUsage().getOrDefault(UndoHistoryStore.MEMORY_USAGE, 0L);
+    }
+}
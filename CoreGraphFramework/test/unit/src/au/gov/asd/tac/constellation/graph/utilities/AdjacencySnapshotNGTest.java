@@ -0,0 +1,196 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.utilities;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.locking.GraphOperationMode;
+import au.gov.asd.tac.constellation.graph.undo.UndoGraphEdit;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test building adjacency snapshots.
+ *
+ * @author cygnus_x-1
+ */
+public class AdjacencySnapshotNGTest {
+
+    private StoreGraph graph;
+    private int vxId0, vxId1, vxId2, vxId3;
+    private int txId0, txId1, txId2, txId3;
+    private int weightAttribute;
+    private int selectedAttribute;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        AdjacencySnapshot.clearCache();
+
+        graph = new StoreGraph();
+        weightAttribute = graph.addAttribute(GraphElementType.TRANSACTION, FloatAttributeDescription.ATTRIBUTE_NAME, "weight", null, null, null);
+        selectedAttribute = graph.addAttribute(GraphElementType.VERTEX, BooleanAttributeDescription.ATTRIBUTE_NAME, "selected", null, null, null);
+
+        vxId0 = graph.addVertex();
+        vxId1 = graph.addVertex();
+        vxId2 = graph.addVertex();
+        vxId3 = graph.addVertex();
+
+        // 2 -> 0, 0 -> 1, 1 - 2 (undirected), 3 -> 3 (loop)
+        txId0 = graph.addTransaction(vxId2, vxId0, true);
+        txId1 = graph.addTransaction(vxId0, vxId1, true);
+        txId2 = graph.addTransaction(vxId1, vxId2, false);
+        txId3 = graph.addTransaction(vxId3, vxId3, true);
+        graph.setFloatValue(weightAttribute, txId0, 2.0F);
+        graph.setFloatValue(weightAttribute, txId1, 3.0F);
+        graph.setFloatValue(weightAttribute, txId2, 4.0F);
+        graph.setFloatValue(weightAttribute, txId3, 5.0F);
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        AdjacencySnapshot.clearCache();
+    }
+
+    @Test
+    public void testDirected() {
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.build(graph, true, weightAttribute, Graph.NOT_FOUND);
+
+        assertEquals(snapshot.getVertexCount(), 4);
+        assertEquals(snapshot.getIndex(vxId2), graph.getVertexPosition(vxId2));
+        assertEquals(snapshot.getVertex(graph.getVertexPosition(vxId3)), vxId3);
+
+        // The undirected transaction is in both directions, the loop only once.
+        assertEquals(snapshot.getEntryCount(), 5);
+        assertEquals(snapshot.getOutDegree(snapshot.getIndex(vxId1)), 1);
+        assertEquals(snapshot.getInDegree(snapshot.getIndex(vxId1)), 2);
+        assertEquals(snapshot.getOutDegree(snapshot.getIndex(vxId3)), 1);
+
+        // Rows are sorted by neighbour.
+        final int row = snapshot.getIndex(vxId2);
+        final int[] offsets = snapshot.getOutOffsets();
+        assertEquals(offsets[row + 1] - offsets[row], 2);
+        assertEquals(snapshot.getOutTargets()[offsets[row]], snapshot.getIndex(vxId0));
+        assertEquals(snapshot.getOutTargets()[offsets[row] + 1], snapshot.getIndex(vxId1));
+        assertEquals(snapshot.getOutTransactions()[offsets[row]], txId0);
+        assertEquals(snapshot.getOutWeights()[offsets[row]], 2.0);
+        assertEquals(snapshot.getOutWeights()[offsets[row] + 1], 4.0);
+
+        final int inRow = snapshot.getIndex(vxId1);
+        final int[] inOffsets = snapshot.getInOffsets();
+        assertEquals(snapshot.getInSources()[inOffsets[inRow]], snapshot.getIndex(vxId0));
+        assertEquals(snapshot.getInSources()[inOffsets[inRow] + 1], snapshot.getIndex(vxId2));
+        assertEquals(snapshot.getInWeights()[inOffsets[inRow]], 3.0);
+    }
+
+    @Test
+    public void testUndirected() {
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.build(graph, false, Graph.NOT_FOUND, Graph.NOT_FOUND);
+
+        assertEquals(snapshot.getEntryCount(), 7);
+        assertSame(snapshot.getInOffsets(), snapshot.getOutOffsets());
+        for (int index = 0; index < 3; index++) {
+            assertEquals(snapshot.getOutDegree(index), 2);
+        }
+        assertEquals(snapshot.getOutWeights()[0], 1.0);
+    }
+
+    @Test
+    public void testSelectedOnly() {
+        graph.setBooleanValue(selectedAttribute, vxId0, true);
+        graph.setBooleanValue(selectedAttribute, vxId2, true);
+
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.build(graph, true, Graph.NOT_FOUND, selectedAttribute);
+
+        assertEquals(snapshot.getVertexCount(), 2);
+        assertEquals(snapshot.getIndex(vxId0), 0);
+        assertEquals(snapshot.getIndex(vxId1), Graph.NOT_FOUND);
+        assertEquals(snapshot.getIndex(vxId2), 1);
+        assertEquals(snapshot.getEntryCount(), 1);
+        assertEquals(snapshot.getOutTargets()[0], 0);
+        assertEquals(snapshot.getOutTransactions()[0], txId0);
+    }
+
+    @Test
+    public void testCache() {
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.get(graph, true);
+        assertSame(AdjacencySnapshot.get(graph, true), snapshot);
+        assertNotSame(AdjacencySnapshot.get(graph, false), snapshot);
+
+        // Changing the weights replaces a weighted snapshot only.
+        final AdjacencySnapshot weighted = AdjacencySnapshot.get(graph, true, weightAttribute, Graph.NOT_FOUND);
+        graph.setFloatValue(weightAttribute, txId0, 7.0F);
+        assertSame(AdjacencySnapshot.get(graph, true), snapshot);
+        assertNotSame(AdjacencySnapshot.get(graph, true, weightAttribute, Graph.NOT_FOUND), weighted);
+
+        graph.addVertex();
+        final AdjacencySnapshot rebuilt = AdjacencySnapshot.get(graph, true);
+        assertNotSame(rebuilt, snapshot);
+        assertEquals(rebuilt.getVertexCount(), 5);
+    }
+
+    @Test
+    public void testCacheAfterUndo() {
+        final UndoGraphEdit edit = new UndoGraphEdit();
+        graph.setGraphEdit(edit);
+        graph.addTransaction(vxId0, vxId3, true);
+        graph.setGraphEdit(null);
+        edit.finish();
+
+        final long structureModificationCounter = graph.getStructureModificationCounter();
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.get(graph, true);
+
+        // Undo the way the locking manager does, then make a different change.
+        graph.undoRedoApplied();
+        graph.setOperationMode(GraphOperationMode.UNDO);
+        edit.undo(graph);
+        graph.setOperationMode(GraphOperationMode.EXECUTE);
+        graph.addTransaction(vxId3, vxId0, true);
+        assertEquals(graph.getStructureModificationCounter(), structureModificationCounter);
+
+        final AdjacencySnapshot rebuilt = AdjacencySnapshot.get(graph, true);
+        assertNotSame(rebuilt, snapshot);
+        assertEquals(rebuilt.getOutDegree(rebuilt.getIndex(vxId0)), 1);
+        assertEquals(rebuilt.getOutDegree(rebuilt.getIndex(vxId3)), 2);
+    }
+
+    @Test
+    public void testCacheForDivergingCopies() {
+        final StoreGraph copy0 = new StoreGraph(graph);
+        final StoreGraph copy1 = new StoreGraph(graph);
+
+        // Each copy makes one different change, so their counters stay equal.
+        copy0.addTransaction(vxId0, vxId3, true);
+        final int vxId4 = copy1.addVertex();
+        assertEquals(copy0.getId(), copy1.getId());
+        assertEquals(copy0.getStructureModificationCounter(), copy1.getStructureModificationCounter());
+
+        final AdjacencySnapshot snapshot0 = AdjacencySnapshot.get(copy0, true);
+        final AdjacencySnapshot snapshot1 = AdjacencySnapshot.get(copy1, true);
+        assertNotSame(snapshot1, snapshot0);
+        assertEquals(snapshot0.getVertexCount(), 4);
+        assertEquals(snapshot0.getOutDegree(snapshot0.getIndex(vxId0)), 2);
+        assertEquals(snapshot1.getVertexCount(), 5);
+        assertEquals(snapshot1.getOutDegree(snapshot1.getIndex(vxId0)), 1);
+        assertEquals(snapshot1.getOutDegree(snapshot1.getIndex(vxId4)), 0);
+    }
+}
@@ -17,8 +17,10 @@ package au.gov.asd.tac.constellation.plugins.importexport.delimited;
 
 import au.gov.asd.tac.constellation.graph.Attribute;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.attribute.AttributeDescription;
 import au.gov.asd.tac.constellation.plugins.importexport.delimited.translator.AttributeTranslator;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
+import java.lang.reflect.InvocationTargetException;
 
 /**
  * An ImportAttributeDefinition provides all the information and functionality
@@ -49,6 +51,9 @@ public class ImportAttributeDefinition {
      */
     private int overriddenAttributeId = ATTRIBUTE_NOT_DEFINED;
 
+    private Class<? extends AttributeDescription> valueType = null;
+    private Object valueDefault = null;
+
     public ImportAttributeDefinition(final int columnIndex, final Attribute attribute, final AttributeTranslator translator, final String defaultValue, final PluginParameters parameters) {
         this.columnLabel = null;
         this.columnIndex = columnIndex;
@@ -139,14 +144,93 @@ public class ImportAttributeDefinition {
         this.overriddenAttributeId = overriddenAttributeId;
     }
 
-    public void setValue(GraphWriteMethods graph, int elementId, String[] row, int rowIndex) {
+    /**
+     * Set the data type and default value of the graph attribute that this
+     * definition sets, so that translated values can be converted to the
+     * native type of the attribute without access to the graph.
+     *
+     * @param valueType the data type of the graph attribute.
+     * @param valueDefault the default value of the graph attribute.
+     */
+    public void setValueType(final Class<? extends AttributeDescription> valueType, final Object valueDefault) {
+        this.valueType = valueType;
+        this.valueDefault = valueDefault;
+    }
+
+    /**
+     * Create an attribute description, not attached to any graph, that holds
+     * the converted values of this definition for a number of rows.
+     * <p>
+     * Setting a translated value on the returned description converts it
+     * exactly as setting it on the graph would, so the converted values can be
+     * copied to the graph without being parsed again.
+     *
+     * @param capacity the number of rows the description must hold.
+     * @return a new attribute description with the data type and default value
+     * given to {@link #setValueType(Class, Object)}.
+     */
+    public AttributeDescription createValues(final int capacity) {
+        if (valueType == null) {
+            throw new IllegalStateException("No value type has been set for attribute " + attribute.getName());
+        }
+        try {
+            final AttributeDescription values = valueType.getDeclaredConstructor().newInstance();
+            values.setDefault(valueDefault);
+            values.setCapacity(capacity);
+            return values;
+        } catch (final IllegalAccessException | IllegalArgumentException
+                | InstantiationException | NoSuchMethodException
+                | SecurityException | InvocationTargetException ex) {
+            throw new IllegalStateException("Error creating values for attribute " + attribute.getName(), ex);
+        }
+    }
+
+    /**
+     * Returns true if this definition provides a value for each row, either
+     * from a column, a default value or the row number.
+     *
+     * @return true if this definition provides a value for each row.
+     */
+    public boolean hasValue() {
+        return (columnIndex == ImportDelimitedPlugin.ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN && defaultValue != null)
+                || columnIndex >= 0
+                || columnIndex == ROWID_COLUMN_INDEX;
+    }
+
+    /**
+     * Returns true if the translator of this definition can be used by several
+     * threads at once.
+     *
+     * @return true if the translator of this definition is thread safe.
+     */
+    public boolean isThreadSafe() {
+        return translator.isThreadSafe();
+    }
+
+    /**
+     * Extract and translate the value this definition provides for a row.
+     *
+     * @param row the row values.
+     * @param rowIndex the index of the row.
+     * @return the translated value, or null if this definition does not provide
+     * a value.
+     */
+    public String translate(String[] row, int rowIndex) {
         if (columnIndex == ImportDelimitedPlugin.ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN && defaultValue != null) {
-            graph.setStringValue(getOverriddenAttributeId(), elementId, translator.translate(defaultValue, parameters));
+            return translator.translate(defaultValue, parameters);
         } else if (columnIndex >= 0) {
             final String cell = columnIndex < row.length ? row[columnIndex] : "";
-            graph.setStringValue(getOverriddenAttributeId(), elementId, translator.translate(cell, parameters));
+            return translator.translate(cell, parameters);
         } else if (columnIndex == ROWID_COLUMN_INDEX) {
-            graph.setStringValue(getOverriddenAttributeId(), elementId, Integer.toString(rowIndex));
+            return Integer.toString(rowIndex);
+        } else {
+            return null;
+        }
+    }
+
+    public void setValue(GraphWriteMethods graph, int elementId, String[] row, int rowIndex) {
+        if (hasValue()) {
+            graph.setStringValue(getOverriddenAttributeId(), elementId, translate(row, rowIndex));
         }
     }
 
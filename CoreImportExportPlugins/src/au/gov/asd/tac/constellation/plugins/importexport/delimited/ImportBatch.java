@@ -0,0 +1,257 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.importexport.delimited;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.attribute.AttributeDescription;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An ImportBatch holds the rows of a chunk of a file that passed the row filter
+ * of an {@link ImportDefinition}, with every attribute value already extracted,
+ * translated and converted to the native type of its graph attribute.
+ * <p>
+ * Building a batch does not touch the graph, so batches can be built by worker
+ * threads without holding a lock. The values are converted using attribute
+ * descriptions of the same type as the graph attributes, so applying a batch
+ * only adds elements and copies native values without parsing anything, which
+ * keeps the time spent holding the write lock to a minimum. Schema completion
+ * of each new element still runs while the lock is held.
+ *
+ * @author sirius
+ */
+final class ImportBatch {
+
+    private final List<ImportAttributeDefinition> sourceDefinitions;
+    private final List<ImportAttributeDefinition> destinationDefinitions;
+    private final List<ImportAttributeDefinition> transactionDefinitions;
+    private final boolean transactions;
+    private final int firstRow;
+    private final int lastRow;
+
+    private int size = 0;
+    private final AttributeDescription[] sourceValues;
+    private final AttributeDescription[] destinationValues;
+    private final AttributeDescription[] transactionValues;
+    private final boolean[] directed;
+
+    private ImportBatch(final List<ImportAttributeDefinition> sourceDefinitions, final List<ImportAttributeDefinition> destinationDefinitions,
+            final List<ImportAttributeDefinition> transactionDefinitions, final boolean transactions, final int firstRow, final int lastRow) {
+        this.sourceDefinitions = sourceDefinitions;
+        this.destinationDefinitions = destinationDefinitions;
+        this.transactionDefinitions = transactionDefinitions;
+        this.transactions = transactions;
+        this.firstRow = firstRow;
+        this.lastRow = lastRow;
+
+        final int capacity = Math.max(lastRow - firstRow + 1, 0);
+        this.sourceValues = createValues(sourceDefinitions, capacity, false);
+        this.destinationValues = createValues(destinationDefinitions, capacity, false);
+        this.transactionValues = createValues(transactionDefinitions, capacity, true);
+        this.directed = new boolean[transactions ? capacity : 0];
+    }
+
+    /**
+     * Build a batch by applying an import definition to a chunk of rows.
+     * <p>
+     * The attributes of the definition must already have been added to the
+     * graph so that the attribute id and value type of each attribute
+     * definition are known.
+     *
+     * @param definition the import definition.
+     * @param filter the row filter to use in place of the row filter of the
+     * definition, as row filters cannot be shared between threads.
+     * @param rows the rows in this chunk.
+     * @param chunkFirstRow the index of the first row of the chunk within the
+     * file.
+     * @return the batch, or null if the definition does not import anything.
+     */
+    static ImportBatch build(final ImportDefinition definition, final RowFilter filter, final List<String[]> rows, final int chunkFirstRow) {
+        final List<ImportAttributeDefinition> sources = definition.getDefinitions(AttributeType.SOURCE_VERTEX);
+        final List<ImportAttributeDefinition> destinations = definition.getDefinitions(AttributeType.DESTINATION_VERTEX);
+
+        final int startRow = Math.max(definition.getFirstRow(), chunkFirstRow);
+        final int endRow = chunkFirstRow + rows.size();
+
+        final ImportBatch batch;
+        int directedIx = ImportDelimitedPlugin.ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN;
+        if (sources.isEmpty() && destinations.isEmpty()) {
+            return null;
+        } else if (sources.isEmpty() || destinations.isEmpty()) {
+            batch = new ImportBatch(sources.isEmpty() ? destinations : sources, Collections.emptyList(), Collections.emptyList(), false, startRow, endRow - 1);
+        } else {
+            final List<ImportAttributeDefinition> transactionDefinitions = definition.getDefinitions(AttributeType.TRANSACTION);
+            for (int i = 0; i < transactionDefinitions.size(); i++) {
+                if (transactionDefinitions.get(i).getAttribute().getName().equals(ImportController.DIRECTED)) {
+                    directedIx = transactionDefinitions.get(i).getColumnIndex();
+                    break;
+                }
+            }
+            batch = new ImportBatch(sources, destinations, transactionDefinitions, true, startRow, endRow - 1);
+        }
+
+        for (int i = startRow; i < endRow; i++) {
+            final String[] row = rows.get(i - chunkFirstRow);
+            if (filter == null || filter.passesFilter(i - 1, row)) {
+                final int ix = batch.size++;
+                translate(batch.sourceDefinitions, batch.sourceValues, ix, row, i - 1);
+                translate(batch.destinationDefinitions, batch.destinationValues, ix, row, i - 1);
+                if (batch.transactions) {
+                    translate(batch.transactionDefinitions, batch.transactionValues, ix, row, i - 1);
+                    batch.directed[ix] = directedIx == ImportDelimitedPlugin.ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN || Boolean.parseBoolean(row[directedIx]);
+                }
+            }
+        }
+
+        return batch;
+    }
+
+    /**
+     * Create the attribute descriptions that hold the converted values of the
+     * attribute definitions that provide a value. Definitions that do not
+     * provide a value get null.
+     */
+    private static AttributeDescription[] createValues(final List<ImportAttributeDefinition> attributeDefinitions, final int capacity, final boolean requireAttribute) {
+        final AttributeDescription[] values = new AttributeDescription[attributeDefinitions.size()];
+        for (int d = 0; d < values.length; d++) {
+            final ImportAttributeDefinition attributeDefinition = attributeDefinitions.get(d);
+            if (attributeDefinition.hasValue() && (!requireAttribute || attributeDefinition.getOverriddenAttributeId() != Graph.NOT_FOUND)) {
+                values[d] = attributeDefinition.createValues(capacity);
+            }
+        }
+        return values;
+    }
+
+    private static void translate(final List<ImportAttributeDefinition> attributeDefinitions, final AttributeDescription[] values, final int ix, final String[] row, final int rowIndex) {
+        for (int d = 0; d < values.length; d++) {
+            if (values[d] != null) {
+                values[d].setString(ix, attributeDefinitions.get(d).translate(row, rowIndex));
+            }
+        }
+    }
+
+    /**
+     * Returns true if this batch adds transactions, or false if it only adds
+     * vertices.
+     *
+     * @return true if this batch adds transactions.
+     */
+    boolean isTransactions() {
+        return transactions;
+    }
+
+    /**
+     * The index within the file of the first row covered by this batch.
+     *
+     * @return the index of the first row covered by this batch.
+     */
+    int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * The index within the file of the last row covered by this batch.
+     *
+     * @return the index of the last row covered by this batch.
+     */
+    int getLastRow() {
+        return lastRow;
+    }
+
+    /**
+     * Add the rows of this batch to the graph.
+     *
+     * @param graph the graph to add the rows to.
+     * @param initialiseWithSchema true if the schema should complete each new
+     * element.
+     * @param newVertices the list that new vertices are added to.
+     * @throws InterruptedException if the import is canceled; the rows before
+     * the current row have already been added.
+     */
+    void apply(final GraphWriteMethods graph, final boolean initialiseWithSchema, final List<Integer> newVertices) throws InterruptedException {
+        final boolean complete = initialiseWithSchema && graph.getSchema() != null;
+        for (int ix = 0; ix < size; ix++) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            final int sourceVertexId = addVertex(graph, sourceDefinitions, sourceValues, ix, complete);
+            if (transactions) {
+                final int destinationVertexId = addVertex(graph, destinationDefinitions, destinationValues, ix, complete);
+                final int transactionId = graph.addTransaction(sourceVertexId, destinationVertexId, directed[ix]);
+                setValues(graph, transactionDefinitions, transactionValues, ix, transactionId);
+                if (complete) {
+                    graph.getSchema().completeTransaction(graph, transactionId);
+                }
+            } else {
+                newVertices.add(sourceVertexId);
+            }
+        }
+    }
+
+    private static int addVertex(final GraphWriteMethods graph, final List<ImportAttributeDefinition> attributeDefinitions, final AttributeDescription[] values, final int ix, final boolean complete) {
+        final int vertexId = graph.addVertex();
+        setValues(graph, attributeDefinitions, values, ix, vertexId);
+        if (complete) {
+            graph.getSchema().completeVertex(graph, vertexId);
+        }
+        return vertexId;
+    }
+
+    /**
+     * Copy the converted values of a row to an element, using the native type
+     * of each value so that nothing is parsed or boxed.
+     */
+    private static void setValues(final GraphWriteMethods graph, final List<ImportAttributeDefinition> attributeDefinitions, final AttributeDescription[] values, final int ix, final int elementId) {
+        for (int d = 0; d < values.length; d++) {
+            final AttributeDescription value = values[d];
+            if (value == null) {
+                continue;
+            }
+            final int attributeId = attributeDefinitions.get(d).getOverriddenAttributeId();
+            switch (value.getNativeType()) {
+                case BYTE:
+                    graph.setByteValue(attributeId, elementId, value.getByte(ix));
+                    break;
+                case SHORT:
+                    graph.setShortValue(attributeId, elementId, value.getShort(ix));
+                    break;
+                case INT:
+                    graph.setIntValue(attributeId, elementId, value.getInt(ix));
+                    break;
+                case LONG:
+                    graph.setLongValue(attributeId, elementId, value.getLong(ix));
+                    break;
+                case FLOAT:
+                    graph.setFloatValue(attributeId, elementId, value.getFloat(ix));
+                    break;
+                case DOUBLE:
+                    graph.setDoubleValue(attributeId, elementId, value.getDouble(ix));
+                    break;
+                case BOOLEAN:
+                    graph.setBooleanValue(attributeId, elementId, value.getBoolean(ix));
+                    break;
+                case CHAR:
+                    graph.setCharValue(attributeId, elementId, value.getChar(ix));
+                    break;
+                default:
+                    graph.setObjectValue(attributeId, elementId, value.getObject(ix));
+                    break;
+            }
+        }
+    }
+}
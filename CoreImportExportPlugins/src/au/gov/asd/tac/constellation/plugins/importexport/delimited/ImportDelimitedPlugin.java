@@ -16,16 +16,20 @@
 package au.gov.asd.tac.constellation.plugins.importexport.delimited;
 
 import au.gov.asd.tac.constellation.graph.Attribute;
+import au.gov.asd.tac.constellation.graph.DuplicateKeyException;
 import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.GraphElementType;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.WritableGraph;
 import au.gov.asd.tac.constellation.graph.processing.GraphRecordStoreUtilities;
 import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginException;
 import au.gov.asd.tac.constellation.plugins.PluginExecutor;
+import au.gov.asd.tac.constellation.plugins.PluginGraphs;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
+import au.gov.asd.tac.constellation.plugins.PluginNotificationLevel;
 import au.gov.asd.tac.constellation.plugins.PluginType;
 import au.gov.asd.tac.constellation.plugins.arrangements.AbstractInclusionGraph;
 import au.gov.asd.tac.constellation.plugins.arrangements.ArrangementPluginRegistry;
@@ -41,12 +45,18 @@ import au.gov.asd.tac.constellation.plugins.parameters.types.FileParameterType;
 import au.gov.asd.tac.constellation.plugins.parameters.types.FileParameterType.FileParameterValue;
 import au.gov.asd.tac.constellation.plugins.parameters.types.ObjectParameterType;
 import au.gov.asd.tac.constellation.plugins.parameters.types.ObjectParameterType.ObjectParameterValue;
-import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
+import au.gov.asd.tac.constellation.plugins.templates.SimplePlugin;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.application.Platform;
@@ -64,7 +74,7 @@ import org.openide.util.lookup.ServiceProvider;
 @ServiceProvider(service = Plugin.class)
 @PluginInfo(pluginType = PluginType.IMPORT, tags = {"IMPORT"})
 @NbBundle.Messages("ImportDelimitedPlugin=Import Delimited Data")
-public class ImportDelimitedPlugin extends SimpleEditPlugin {
+public class ImportDelimitedPlugin extends SimplePlugin {
 
     private static final Logger LOGGER = Logger.getLogger(ImportDelimitedPlugin.class.getName());
 
@@ -74,6 +84,11 @@ public class ImportDelimitedPlugin extends SimpleEditPlugin {
      */
     public static final int ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN = -145355;
 
+    /**
+     * The number of steps that the progress through each file is reported in.
+     */
+    private static final int PROGRESS_STEPS = 1000;
+
     public static final String PARSER_PARAMETER_ID = PluginParameter.buildId(ImportDelimitedPlugin.class, "parser");
     public static final String FILES_PARAMETER_ID = PluginParameter.buildId(ImportDelimitedPlugin.class, "files");
     public static final String DEFINITIONS_PARAMETER_ID = PluginParameter.buildId(ImportDelimitedPlugin.class, "definitions");
@@ -170,8 +185,48 @@ public class ImportDelimitedPlugin extends SimpleEditPlugin {
         });
     }
 
+    @Override
+    protected void execute(final PluginGraphs graphs, final PluginInteraction interaction, final PluginParameters parameters) throws InterruptedException, PluginException {
+        final Graph graph = graphs.getGraph();
+        if (graph == null) {
+            LOGGER.warning(String.format("Null graph not allowed in a %s", ImportDelimitedPlugin.class.getSimpleName()));
+            return;
+        }
+
+        // Each batch is applied under its own write lock so that the graph is
+        // only locked while elements are being added. The first write is a
+        // significant edit and every later write continues it, so the import
+        // is undone as a single step. If another edit is committed part way
+        // through, the rest of the import becomes a new undo step rather than
+        // being absorbed by that edit.
+        //
+        // Canceling the import keeps the rows that have already been added,
+        // including those of the batch being applied at the time, and they are
+        // undone along with the rest of the import.
+        final boolean[] started = {false};
+        try {
+            importFiles(edit -> {
+                final WritableGraph wg = started[0]
+                        ? graph.getContinuingWritableGraph(getName(), this)
+                        : graph.getWritableGraph(getName(), true, this);
+                started[0] = true;
+                try {
+                    edit.edit(wg);
+                } finally {
+                    wg.commit();
+                }
+            }, interaction, parameters);
+        } catch (final DuplicateKeyException ex) {
+            interaction.notify(PluginNotificationLevel.ERROR, ex.getMessage());
+        }
+    }
+
     @Override
     protected void edit(final GraphWriteMethods graph, final PluginInteraction interaction, final PluginParameters parameters) throws InterruptedException, PluginException {
+        importFiles(edit -> edit.edit(graph), interaction, parameters);
+    }
+
+    private void importFiles(final GraphWriter writer, final PluginInteraction interaction, final PluginParameters parameters) throws InterruptedException, PluginException {
         final ImportFileParser parser = (ImportFileParser) parameters.getParameters().get(PARSER_PARAMETER_ID).getObjectValue();
         @SuppressWarnings("unchecked") //files will be a list of file which extends from object type
         final List<File> files = (List<File>) parameters.getParameters().get(FILES_PARAMETER_ID).getObjectValue();
@@ -185,70 +240,164 @@ public class ImportDelimitedPlugin extends SimpleEditPlugin {
         final List<String> invalidFiles = new ArrayList<>();
         int importRows = 0;
 
-        for (final File file : files) {
-            interaction.setProgress(0, 0, "Reading File: " + file.getName(), true);
-            List<String[]> data = null;
-
-            try {
-                data = parser.parse(new InputSource(file), parserParameters);
-                importRows = importRows + data.size() - 1;
-                validFiles.add(file.getPath());
-                LOGGER.log(Level.INFO, "Imported {0} rows of data from file {1}. {2} total rows imported", new Object[]{(data.size() - 1), file.getPath(), importRows});
-            } catch (FileNotFoundException ex) {
-                final String errorMsg = file.getPath() + " could not be found. Ignoring file during import.";
-                LOGGER.log(Level.INFO, errorMsg);
-                invalidFiles.add(file.getPath());
-            } catch (IOException ex) {
-                final String errorMsg = file.getPath() + " could not be parsed. Removing file during import.";
-                LOGGER.log(Level.INFO, errorMsg);
-                invalidFiles.add(file.getPath());
+        // Row filters and some translators are not thread safe: each worker
+        // gets its own copy of every row filter, and translation is only spread
+        // across several workers when every translator is thread safe.
+        boolean threadSafe = true;
+        final List<ThreadLocal<RowFilter>> filters = new ArrayList<>();
+        for (final ImportDefinition definition : definitions) {
+            // Determine if a positional attribute has been defined, if so update the overall flag
+            final boolean isPositional = attributeDefintionIsPositional(definition.getDefinitions(AttributeType.SOURCE_VERTEX), definition.getDefinitions(AttributeType.DESTINATION_VERTEX));
+            positionalAtrributesExist = (positionalAtrributesExist || isPositional);
+
+            for (final AttributeType attributeType : AttributeType.values()) {
+                for (final ImportAttributeDefinition attributeDefinition : definition.getDefinitions(attributeType)) {
+                    threadSafe = threadSafe && attributeDefinition.isThreadSafe();
+                }
             }
 
-            if (data != null) {
-                for (final ImportDefinition definition : definitions) {
-                    if (definition.getDefinitions(AttributeType.SOURCE_VERTEX).isEmpty()) {
-                        if (!definition.getDefinitions(AttributeType.DESTINATION_VERTEX).isEmpty()) {
-                            processVertices(definition, graph, data, AttributeType.DESTINATION_VERTEX, initialiseWithSchema, interaction, file.getName(), newVertices);
-                        }
-                    } else if (definition.getDefinitions(AttributeType.DESTINATION_VERTEX).isEmpty()) {
-                        processVertices(definition, graph, data, AttributeType.SOURCE_VERTEX, initialiseWithSchema, interaction, file.getName(), newVertices);
-                    } else {
-                        processTransactions(definition, graph, data, initialiseWithSchema, interaction, file.getName());
+            final RowFilter filter = definition.getRowFilter();
+            filters.add(filter == null ? null : ThreadLocal.withInitial(filter::copy));
+        }
+
+        final int workerCount = threadSafe ? Runtime.getRuntime().availableProcessors() : 1;
+        final ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        try {
+            for (final File file : files) {
+                interaction.setProgress(0, 0, "Reading File: " + file.getName(), true);
+
+                writer.write(graph -> {
+                    for (final ImportDefinition definition : definitions) {
+                        addAttributes(graph, definition);
+                    }
+                });
+
+                // The file is read a chunk at a time on this thread. The workers
+                // filter, translate and convert each chunk into batches while
+                // the batches of earlier chunks are applied to the graph in file
+                // order. At most two chunks per worker are held in memory at once.
+                final Deque<PendingChunk> pending = new ArrayDeque<>();
+                final int[] rowsRead = {0};
+                try {
+                    IOException failure = null;
+                    try {
+                        parser.parse(new InputSource(file), parserParameters, ImportFileParser.DEFAULT_CHUNK_SIZE, (rows, firstRow, progress) -> {
+                            pending.add(new PendingChunk(workers.submit(() -> buildBatches(definitions, filters, rows, firstRow)), progress));
+                            rowsRead[0] = firstRow + rows.size();
+                            if (pending.size() >= 2 * workerCount) {
+                                applyBatches(writer, pending.remove(), initialiseWithSchema, interaction, file.getName(), newVertices);
+                            }
+                        });
+                    } catch (IOException ex) {
+                        failure = ex;
                     }
 
-                    // Determine if a positional attribute has been defined, if so update the overall flag
-                    final boolean isPositional = attributeDefintionIsPositional(definition.getDefinitions(AttributeType.SOURCE_VERTEX), definition.getDefinitions(AttributeType.DESTINATION_VERTEX));
-                    positionalAtrributesExist = (positionalAtrributesExist || isPositional);
+                    // Apply the chunks that are still in flight, including those read before a failure.
+                    while (!pending.isEmpty()) {
+                        applyBatches(writer, pending.remove(), initialiseWithSchema, interaction, file.getName(), newVertices);
+                    }
+                    if (failure != null) {
+                        throw failure;
+                    }
+
+                    final int fileRows = Math.max(rowsRead[0] - 1, 0);
+                    importRows = importRows + fileRows;
+                    validFiles.add(file.getPath());
+                    LOGGER.log(Level.INFO, "Imported {0} rows of data from file {1}. {2} total rows imported", new Object[]{fileRows, file.getPath(), importRows});
+                } catch (FileNotFoundException ex) {
+                    final String errorMsg = file.getPath() + " could not be found. Ignoring file during import.";
+                    LOGGER.log(Level.INFO, errorMsg);
+                    invalidFiles.add(file.getPath());
+                } catch (IOException ex) {
+                    final String errorMsg = file.getPath() + " could not be parsed after " + rowsRead[0] + " rows. Removing file during import.";
+                    LOGGER.log(Level.INFO, errorMsg);
+                    invalidFiles.add(file.getPath());
                 }
             }
+        } finally {
+            workers.shutdownNow();
         }
         LOGGER.log(Level.INFO, "Imported {0} rows of data. {1} files contained data. {2} files were ignored.", new Object[]{importRows, validFiles.size(), invalidFiles.size()});
         displaySummaryAlert(importRows, validFiles, invalidFiles);
 
-        ConstellationLoggerHelper.importPropertyBuilder(
-                this,
-                GraphRecordStoreUtilities.getVertices(graph, false, false, false).getAll(GraphRecordStoreUtilities.SOURCE + VisualConcept.VertexAttribute.LABEL),
-                files,
-                ConstellationLoggerHelper.SUCCESS
-        );
-        LOGGER.log(Level.INFO, "Auto arrangement use={0}", (!positionalAtrributesExist));
-
-        // If at least one positional attribute has been received for either the src or destination vertex we will assume that the user is trying to import positions and won't auto arrange
-        // the graph. This does mean some nodes could sit on top of each other if multiple nodes have the same coordinates.
-        if (!positionalAtrributesExist) {
-            interaction.setProgress(1, 1, "Arranging", true);
-
-            graph.validateKey(GraphElementType.VERTEX, true);
-            graph.validateKey(GraphElementType.TRANSACTION, true);
-
-            // unfortunately need to arrange with pendants and uncollide because grid arranger works based on selection
-            final VertexListInclusionGraph vlGraph = new VertexListInclusionGraph(graph, AbstractInclusionGraph.Connections.NONE, newVertices);
-            PluginExecutor.startWith(ArrangementPluginRegistry.GRID_COMPOSITE)
-                    .followedBy(ArrangementPluginRegistry.PENDANTS)
-                    .followedBy(ArrangementPluginRegistry.UNCOLLIDE)
-                    .executeNow(vlGraph.getInclusionGraph());
-            vlGraph.retrieveCoords();
+        final boolean arrange = !positionalAtrributesExist;
+        writer.write(graph -> {
+            ConstellationLoggerHelper.importPropertyBuilder(
+                    this,
+                    GraphRecordStoreUtilities.getVertices(graph, false, false, false).getAll(GraphRecordStoreUtilities.SOURCE + VisualConcept.VertexAttribute.LABEL),
+                    files,
+                    ConstellationLoggerHelper.SUCCESS
+            );
+            LOGGER.log(Level.INFO, "Auto arrangement use={0}", arrange);
+
+            // If at least one positional attribute has been received for either the src or destination vertex we will assume that the user is trying to import positions and won't auto arrange
+            // the graph. This does mean some nodes could sit on top of each other if multiple nodes have the same coordinates.
+            if (arrange) {
+                interaction.setProgress(1, 1, "Arranging", true);
+
+                graph.validateKey(GraphElementType.VERTEX, true);
+                graph.validateKey(GraphElementType.TRANSACTION, true);
+
+                // unfortunately need to arrange with pendants and uncollide because grid arranger works based on selection
+                final VertexListInclusionGraph vlGraph = new VertexListInclusionGraph(graph, AbstractInclusionGraph.Connections.NONE, newVertices);
+                PluginExecutor.startWith(ArrangementPluginRegistry.GRID_COMPOSITE)
+                        .followedBy(ArrangementPluginRegistry.PENDANTS)
+                        .followedBy(ArrangementPluginRegistry.UNCOLLIDE)
+                        .executeNow(vlGraph.getInclusionGraph());
+                vlGraph.retrieveCoords();
+            }
+        });
+    }
+
+    /**
+     * Filter, translate and convert a chunk of rows for every import
+     * definition. This runs on a worker thread and does not touch the graph.
+     */
+    private static List<ImportBatch> buildBatches(final List<ImportDefinition> definitions, final List<ThreadLocal<RowFilter>> filters, final List<String[]> rows, final int firstRow) {
+        final List<ImportBatch> batches = new ArrayList<>(definitions.size());
+        for (int i = 0; i < definitions.size(); i++) {
+            final ThreadLocal<RowFilter> filter = filters.get(i);
+            final ImportBatch batch = ImportBatch.build(definitions.get(i), filter == null ? null : filter.get(), rows, firstRow);
+            if (batch != null) {
+                batches.add(batch);
+            }
+        }
+        return batches;
+    }
+
+    /**
+     * Wait for the batches of a chunk to be built and then apply them to the
+     * graph under a single write.
+     * <p>
+     * Progress is reported as the fraction of the file that had been read when
+     * the chunk was complete, which only reaches the end once the last row of
+     * the file has been applied. Parsers that cannot measure how much of their
+     * input they have read give indeterminate progress.
+     */
+    private static void applyBatches(final GraphWriter writer, final PendingChunk chunk, final boolean initialiseWithSchema,
+            final PluginInteraction interaction, final String source, final List<Integer> newVertices) throws InterruptedException {
+        final List<ImportBatch> batches;
+        try {
+            batches = chunk.batches.get();
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
         }
+
+        writer.write(graph -> {
+            for (final ImportBatch batch : batches) {
+                final String message = String.format("Importing %s: %s (rows %d to %d)",
+                        batch.isTransactions() ? "Transactions" : "Vertices", source, batch.getFirstRow(), batch.getLastRow());
+                if (chunk.progress < 0) {
+                    interaction.setProgress(0, 0, message, true);
+                } else {
+                    interaction.setProgress((int) (chunk.progress * PROGRESS_STEPS), PROGRESS_STEPS, message, true);
+                }
+                batch.apply(graph, initialiseWithSchema, newVertices);
+            }
+        });
     }
 
     // If src or destination attribute definitions have been supplied, check them and return true if any of the positional attributes ('x', 'y', or 'z') are included. Positional
@@ -263,90 +412,21 @@ public class ImportDelimitedPlugin extends SimpleEditPlugin {
         return destAttributeDefinitions.stream().map(attribute -> attribute.getAttribute().getName()).anyMatch(name -> (VisualConcept.VertexAttribute.X.getName().equals(name) || VisualConcept.VertexAttribute.Y.getName().equals(name) || VisualConcept.VertexAttribute.Z.getName().equals(name)));
     }
 
-    private static void processVertices(ImportDefinition definition, GraphWriteMethods graph, List<String[]> data, AttributeType attributeType, boolean initialiseWithSchema, PluginInteraction interaction, String source, final List<Integer> newVertices) throws InterruptedException {
-        final List<ImportAttributeDefinition> attributeDefinitions = definition.getDefinitions(attributeType);
-
-        addAttributes(graph, GraphElementType.VERTEX, attributeDefinitions);
-
-        int currentRow = 0;
-        final int totalRows = data.size() - definition.getFirstRow();
-
-        final RowFilter filter = definition.getRowFilter();
-
-        for (int i = definition.getFirstRow(); i < data.size(); i++) {
-            interaction.setProgress(++currentRow, totalRows, "Importing Vertices: " + source, true);
-
-            final String[] row = data.get(i);
-            if (filter == null || filter.passesFilter(i - 1, row)) {
-                final int vertexId = graph.addVertex();
-                newVertices.add(vertexId);
-
-                for (final ImportAttributeDefinition attributeDefinition : attributeDefinitions) {
-                    attributeDefinition.setValue(graph, vertexId, row, (i - 1));
-                }
-
-                if (initialiseWithSchema && graph.getSchema() != null) {
-                    graph.getSchema().completeVertex(graph, vertexId);
-                }
-            }
-        }
-    }
-
-    private static void processTransactions(ImportDefinition definition, GraphWriteMethods graph, List<String[]> data, boolean initialiseWithSchema, PluginInteraction interaction, String source) throws InterruptedException {
-        final List<ImportAttributeDefinition> sourceVertexDefinitions = definition.getDefinitions(AttributeType.SOURCE_VERTEX);
-        final List<ImportAttributeDefinition> destinationVertexDefinitions = definition.getDefinitions(AttributeType.DESTINATION_VERTEX);
-        final List<ImportAttributeDefinition> transactionDefinitions = definition.getDefinitions(AttributeType.TRANSACTION);
-
-        int directedIx = ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN;
-        for (int i = 0; i < transactionDefinitions.size(); i++) {
-            if (transactionDefinitions.get(i).getAttribute().getName().equals(ImportController.DIRECTED)) {
-                directedIx = transactionDefinitions.get(i).getColumnIndex();
-                break;
-            }
-        }
-
-        addAttributes(graph, GraphElementType.VERTEX, sourceVertexDefinitions);
-        addAttributes(graph, GraphElementType.VERTEX, destinationVertexDefinitions);
-        addAttributes(graph, GraphElementType.TRANSACTION, transactionDefinitions);
-
-        int currentRow = 0;
-        final int totalRows = data.size() - definition.getFirstRow();
-
-        final RowFilter filter = definition.getRowFilter();
-
-        for (int i = definition.getFirstRow(); i < data.size(); i++) {
-            interaction.setProgress(++currentRow, totalRows, "Importing Transactions: " + source, true);
-
-            final String[] row = data.get(i);
-
-            if (filter == null || filter.passesFilter(i - 1, row)) {
-                final int sourceVertexId = graph.addVertex();
-                for (final ImportAttributeDefinition attributeDefinition : sourceVertexDefinitions) {
-                    attributeDefinition.setValue(graph, sourceVertexId, row, (i - 1));
-                }
-                if (initialiseWithSchema && graph.getSchema() != null) {
-                    graph.getSchema().completeVertex(graph, sourceVertexId);
-                }
-
-                final int destinationVertexId = graph.addVertex();
-                for (final ImportAttributeDefinition attributeDefinition : destinationVertexDefinitions) {
-                    attributeDefinition.setValue(graph, destinationVertexId, row, (i - 1));
-                }
-                if (initialiseWithSchema && graph.getSchema() != null) {
-                    graph.getSchema().completeVertex(graph, destinationVertexId);
-                }
-
-                final boolean isDirected = directedIx == ImportDelimitedPlugin.ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN || Boolean.parseBoolean(row[directedIx]);
-                final int transactionId = graph.addTransaction(sourceVertexId, destinationVertexId, isDirected);
-                for (final ImportAttributeDefinition attributeDefinition : transactionDefinitions) {
-                    if (attributeDefinition.getOverriddenAttributeId() != Graph.NOT_FOUND) {
-                        attributeDefinition.setValue(graph, transactionId, row, (i - 1));
-                    }
-                }
-                if (initialiseWithSchema && graph.getSchema() != null) {
-                    graph.getSchema().completeTransaction(graph, transactionId);
-                }
-            }
+    /**
+     * Add the attributes used by an import definition to the graph
+     *
+     * @param graph
+     * @param definition the import definition
+     */
+    private static void addAttributes(GraphWriteMethods graph, ImportDefinition definition) {
+        if (definition.getDefinitions(AttributeType.SOURCE_VERTEX).isEmpty()) {
+            addAttributes(graph, GraphElementType.VERTEX, definition.getDefinitions(AttributeType.DESTINATION_VERTEX));
+        } else if (definition.getDefinitions(AttributeType.DESTINATION_VERTEX).isEmpty()) {
+            addAttributes(graph, GraphElementType.VERTEX, definition.getDefinitions(AttributeType.SOURCE_VERTEX));
+        } else {
+            addAttributes(graph, GraphElementType.VERTEX, definition.getDefinitions(AttributeType.SOURCE_VERTEX));
+            addAttributes(graph, GraphElementType.VERTEX, definition.getDefinitions(AttributeType.DESTINATION_VERTEX));
+            addAttributes(graph, GraphElementType.TRANSACTION, definition.getDefinitions(AttributeType.TRANSACTION));
         }
     }
 
@@ -374,8 +454,39 @@ public class ImportDelimitedPlugin extends SimpleEditPlugin {
                             attribute.getDefaultValue(), attribute.getAttributeMerger() == null ? null : attribute.getAttributeMerger().getId());
                 }
                 attributeDefinition.setOverriddenAttributeId(attributeId);
+                attributeDefinition.setValueType(graph.getAttributeDataType(attributeId), graph.getAttributeDefaultValue(attributeId));
             }
 
         }
     }
+
+    /**
+     * A chunk of a file whose batches are being built by a worker.
+     */
+    private static final class PendingChunk {
+
+        private final Future<List<ImportBatch>> batches;
+        private final double progress;
+
+        PendingChunk(final Future<List<ImportBatch>> batches, final double progress) {
+            this.batches = batches;
+            this.progress = progress;
+        }
+    }
+
+    /**
+     * Performs an edit on the graph, taking the write lock if it is not already
+     * held.
+     */
+    @FunctionalInterface
+    private interface GraphWriter {
+
+        public void write(final GraphEdit edit) throws InterruptedException;
+    }
+
+    @FunctionalInterface
+    private interface GraphEdit {
+
+        public void edit(final GraphWriteMethods graph) throws InterruptedException;
+    }
 }
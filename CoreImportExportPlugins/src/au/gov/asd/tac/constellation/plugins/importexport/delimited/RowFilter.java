@@ -63,6 +63,29 @@ public class RowFilter {
         script = null;
     }
 
+    /**
+     * Create a copy of this filter with its own script engine.
+     * <p>
+     * A RowFilter is not thread safe, so each thread that evaluates rows must
+     * use its own copy.
+     *
+     * @return a copy of this filter.
+     */
+    public RowFilter copy() {
+        final RowFilter copy = new RowFilter();
+        if (script != null) {
+            try {
+                copy.script = script;
+                copy.compiledScript = ((Compilable) copy.engine).compile(script);
+            } catch (ScriptException ex) {
+                copy.script = null;
+            }
+        }
+        copy.columns = columns;
+        copy.encodedColumns = encodedColumns;
+        return copy;
+    }
+
     /**
      * The script that this filter implements.
      *
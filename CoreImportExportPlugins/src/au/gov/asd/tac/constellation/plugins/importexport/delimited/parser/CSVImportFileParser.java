@@ -55,6 +55,21 @@ public class CSVImportFileParser extends ImportFileParser {
         return results;
     }
 
+    @Override
+    public void parse(final InputSource input, final PluginParameters parameters, final int chunkSize, final ChunkHandler handler) throws IOException, InterruptedException {
+        final RowChunker chunker = new RowChunker(chunkSize, handler, input);
+        try (final CSVParser csvFileParser = CSVFormat.RFC4180.parse(new InputStreamReader(input.getInputStream(), StandardCharsets.UTF_8.name()))) {
+            for (final CSVRecord record : csvFileParser) {
+                final String[] line = new String[record.size()];
+                for (int i = 0; i < record.size(); i++) {
+                    line[i] = record.get(i);
+                }
+                chunker.add(line);
+            }
+        }
+        chunker.flush();
+    }
+
     @Override
     public List<String[]> preview(final InputSource input, final PluginParameters parameters, final int limit) throws IOException {
         // Leave the header on, as the importer expects this as the first entry.
@@ -39,6 +39,12 @@ import org.openide.util.lookup.ServiceProvider;
  */
 public abstract class ImportFileParser {
 
+    /**
+     * The default number of rows handed to a {@link ChunkHandler} at a time by
+     * {@link #parse(InputSource, PluginParameters, int, ChunkHandler)}.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 10000;
+
     private static final Map<String, ImportFileParser> PARSERS = new LinkedHashMap<>();
     private static final Map<String, ImportFileParser> UNMODIFIABLE_PARSERS = Collections.unmodifiableMap(PARSERS);
 
@@ -159,6 +165,33 @@ public abstract class ImportFileParser {
      */
     public abstract List<String[]> parse(final InputSource input, final PluginParameters parameters) throws IOException;
 
+    /**
+     * Reads the entire file and passes its rows to the specified handler in
+     * chunks of at most {@code chunkSize} rows, in file order. The first chunk
+     * starts with the same row that would be the first entry returned by
+     * {@link #parse(InputSource, PluginParameters)}.
+     * <p>
+     * Parsers that can read their input incrementally should override this
+     * method so that no more than one chunk of rows is held in memory at a
+     * time. The default implementation reads the entire file with
+     * {@link #parse(InputSource, PluginParameters)} and then divides it into
+     * chunks.
+     *
+     * @param input Input file
+     * @param parameters the parameters that configure the parse operation.
+     * @param chunkSize the maximum number of rows in each chunk.
+     * @param handler the handler that will receive each chunk of rows.
+     * @throws IOException if an error occurred while reading the file.
+     * @throws InterruptedException if the handler was interrupted.
+     */
+    public void parse(final InputSource input, final PluginParameters parameters, final int chunkSize, final ChunkHandler handler) throws IOException, InterruptedException {
+        final List<String[]> rows = parse(input, parameters);
+        for (int start = 0; start < rows.size(); start += chunkSize) {
+            final int end = Math.min(rows.size(), start + chunkSize);
+            handler.handle(rows.subList(start, end), start, (double) end / rows.size());
+        }
+    }
+
     /**
      * Reads only {@code limit} lines and returns a List of String arrays, each
      * of which represents a row in the resulting table.
@@ -172,4 +205,83 @@ public abstract class ImportFileParser {
      */
     public abstract List<String[]> preview(final InputSource input, final PluginParameters parameters, final int limit) throws IOException;
 
+    /**
+     * Receives the rows of a file in chunks from
+     * {@link ImportFileParser#parse(InputSource, PluginParameters, int, ChunkHandler)}.
+     */
+    @FunctionalInterface
+    public interface ChunkHandler {
+
+        /**
+         * Handle a chunk of rows. Parsers hand over a new list for each chunk,
+         * so the handler may keep the list after this call returns.
+         *
+         * @param rows the rows in this chunk.
+         * @param firstRow the index of the first row of this chunk within the
+         * whole file.
+         * @param progress the fraction of the input that has been read once
+         * this chunk is complete, from 0 to 1, or a negative value if it is
+         * not known.
+         * @throws InterruptedException if the import has been canceled.
+         */
+        public void handle(final List<String[]> rows, final int firstRow, final double progress) throws InterruptedException;
+    }
+
+    /**
+     * Collects rows as they are read and passes them to a
+     * {@link ChunkHandler} each time a chunk is full.
+     * <p>
+     * The progress of each chunk is measured by the bytes read from the
+     * input, so it is only known when the input is a file read through
+     * {@link InputSource#getInputStream()}.
+     */
+    protected static final class RowChunker {
+
+        private final int chunkSize;
+        private final ChunkHandler handler;
+        private final InputSource input;
+        private List<String[]> rows;
+        private int firstRow = 0;
+
+        public RowChunker(final int chunkSize, final ChunkHandler handler, final InputSource input) {
+            this.chunkSize = chunkSize;
+            this.handler = handler;
+            this.input = input;
+            this.rows = new ArrayList<>(chunkSize);
+        }
+
+        private double getProgress() {
+            final long length = input == null ? -1 : input.getLength();
+            return length > 0 ? Math.min(1.0, (double) input.getBytesRead() / length) : -1;
+        }
+
+        /**
+         * Add a row, handing the current chunk to the handler if it is now
+         * full.
+         *
+         * @param row the row to add.
+         * @throws InterruptedException if the handler was interrupted.
+         */
+        public void add(final String[] row) throws InterruptedException {
+            rows.add(row);
+            if (rows.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Hand any rows that have not yet been handled to the handler. This
+         * must be called once all rows have been added.
+         *
+         * @throws InterruptedException if the handler was interrupted.
+         */
+        public void flush() throws InterruptedException {
+            if (!rows.isEmpty()) {
+                final List<String[]> chunk = rows;
+                rows = new ArrayList<>(chunkSize);
+                handler.handle(chunk, firstRow, getProgress());
+                firstRow += chunk.size();
+            }
+        }
+    }
 }
@@ -17,12 +17,16 @@ package au.gov.asd.tac.constellation.plugins.importexport.delimited.parser;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
 /**
  * In InputSource provides an abstract source for data, whether or not it is a
  * real file or an InputStream.
+ * <p>
+ * The number of bytes read through {@link #getInputStream()} is counted so that
+ * the progress of a parser reading the source can be reported.
  *
  * @author sirius
  */
@@ -30,6 +34,7 @@ public class InputSource {
 
     private final File file;
     private final InputStream inputStream;
+    private volatile long bytesRead = 0;
 
     public InputSource(final File file) {
         this.file = file;
@@ -47,13 +52,65 @@ public class InputSource {
 
     public InputStream getInputStream() throws IOException {
         if (inputStream != null) {
-            return inputStream;
+            return new CountingInputStream(inputStream);
         }
 
         if (file != null) {
-            return new FileInputStream(file);
+            return new CountingInputStream(new FileInputStream(file));
         }
 
         return null;
     }
+
+    /**
+     * The length of this source in bytes.
+     *
+     * @return the length of the file, or -1 if this source is not a file.
+     */
+    public long getLength() {
+        return file == null ? -1 : file.length();
+    }
+
+    /**
+     * The number of bytes that have been read from the streams returned by
+     * {@link #getInputStream()}. Parsers buffer their input, so this may run
+     * ahead of the rows that have been parsed by up to the size of a buffer.
+     *
+     * @return the number of bytes read so far.
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    private class CountingInputStream extends FilterInputStream {
+
+        CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int count = super.read(b, off, len);
+            if (count > 0) {
+                bytesRead += count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long count = super.skip(n);
+            bytesRead += count;
+            return count;
+        }
+    }
 }
@@ -144,9 +144,28 @@ public class SQLiteImportFileParser extends ImportFileParser {
         }
     }
 
+    @Override
+    public void parse(final InputSource input, final PluginParameters parameters, final int chunkSize, final ChunkHandler handler) throws IOException, InterruptedException {
+        final String tableName = parameters.getParameters().get(TABLE_PARAMETER_ID).getStringValue();
+        if (tableName != null) {
+            final RowChunker chunker = new RowChunker(chunkSize, handler, null);
+            readTable(input, tableName, -1, chunker::add);
+            chunker.flush();
+        }
+    }
+
     private static List<String[]> readTable(final InputSource input, final String tableName, final int limit) {
         final List<String[]> result = new ArrayList<>();
+        try {
+            readTable(input, tableName, limit, result::add);
+        } catch (InterruptedException ex) {
+            // adding to a list is never interrupted
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
 
+    private static void readTable(final InputSource input, final String tableName, final int limit, final RowConsumer result) throws InterruptedException {
         try {
             Class.forName("org.sqlite.JDBC");
 
@@ -182,7 +201,11 @@ public class SQLiteImportFileParser extends ImportFileParser {
         } catch (IOException | ClassNotFoundException | SQLException ex) {
             LOGGER.log(Level.SEVERE, ex.getLocalizedMessage(), ex);
         }
+    }
 
-        return result;
+    @FunctionalInterface
+    private interface RowConsumer {
+
+        public void add(final String[] row) throws InterruptedException;
     }
 }
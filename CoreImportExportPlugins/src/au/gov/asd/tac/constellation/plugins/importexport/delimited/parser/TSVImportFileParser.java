@@ -56,6 +56,21 @@ public class TSVImportFileParser extends ImportFileParser {
         return result;
     }
 
+    @Override
+    public void parse(final InputSource input, final PluginParameters parameters, final int chunkSize, final ChunkHandler handler) throws IOException, InterruptedException {
+        final RowChunker chunker = new RowChunker(chunkSize, handler, input);
+        try (InputStream in = input.getInputStream()) {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8.name()));
+
+            String line = reader.readLine();
+            while (line != null) {
+                chunker.add(line.split(SeparatorConstants.TAB, -1));
+                line = reader.readLine();
+            }
+        }
+        chunker.flush();
+    }
+
     @Override
     public List<String[]> preview(final InputSource input, final PluginParameters parameters, final int limit) throws IOException {
         final List<String[]> result = new ArrayList<>();
@@ -187,6 +187,18 @@ public abstract class AttributeTranslator implements Comparable<AttributeTransla
      */
     public abstract String translate(final String value, final PluginParameters parameters);
 
+    /**
+     * Returns true if {@link #translate(String, PluginParameters)} can safely
+     * be called by several threads at once. The delimited importer translates
+     * rows in parallel only when every translator in use is thread safe. The
+     * default implementation returns false.
+     *
+     * @return true if this AttributeTranslator is thread safe.
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * Gets the current values of this AttributeTranslator's parameters as a
      * String.
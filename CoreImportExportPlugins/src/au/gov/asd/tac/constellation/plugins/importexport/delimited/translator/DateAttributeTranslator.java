@@ -87,6 +87,11 @@ public class DateAttributeTranslator extends AttributeTranslator {
         return parameters;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public String translate(final String value, final PluginParameters parameters) {
 
@@ -95,6 +95,11 @@ public class DatetimeAttributeTranslator extends AttributeTranslator {
         return parameters;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public String translate(final String value, final PluginParameters parameters) {
 
@@ -31,6 +31,11 @@ public class DefaultAttributeTranslator extends AttributeTranslator {
         super("None", Integer.MIN_VALUE);
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public String translate(final String value, final PluginParameters parameters) {
         return value;
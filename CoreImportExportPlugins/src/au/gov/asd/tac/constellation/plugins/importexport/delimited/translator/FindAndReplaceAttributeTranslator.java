@@ -59,6 +59,11 @@ public class FindAndReplaceAttributeTranslator extends AttributeTranslator {
         return parameters;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public String translate(final String value, final PluginParameters parameters) {
 
@@ -56,6 +56,11 @@ public class SubstringAttributeTranslator extends AttributeTranslator {
         return parameters;
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public String translate(final String value, final PluginParameters parameters) {
 
@@ -19,8 +19,10 @@ import au.gov.asd.tac.constellation.plugins.importexport.delimited.parser.CSVImp
 import au.gov.asd.tac.constellation.plugins.importexport.delimited.parser.InputSource;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
@@ -62,4 +64,30 @@ public class CSVImportNGTest {
         }
 
     }
+
+    @Test
+    public void checkCSVChunkedLoadTest() throws InterruptedException {
+        final CSVImportFileParser parser = new CSVImportFileParser();
+        final File file = new File(this.getClass().getResource("./resources/large.csv").getFile());
+        try {
+            final List<String[]> data = parser.parse(new InputSource(file), null);
+            final List<String[]> chunkedData = new ArrayList<>();
+            final double[] lastProgress = {0};
+            parser.parse(new InputSource(file), null, 5000, (rows, firstRow, progress) -> {
+                assertTrue(rows.size() <= 5000);
+                assertEquals(firstRow, chunkedData.size());
+                assertTrue(progress >= lastProgress[0] && progress <= 1.0);
+                lastProgress[0] = progress;
+                chunkedData.addAll(rows);
+            });
+            assertEquals(lastProgress[0], 1.0);
+
+            assertEquals(chunkedData.size(), data.size());
+            for (int i = 0; i < data.size(); i++) {
+                assertEquals(chunkedData.get(i), data.get(i));
+            }
+        } catch (IOException ex) {
+            fail("IO Exception : " + ex.getLocalizedMessage());
+        }
+    }
 }
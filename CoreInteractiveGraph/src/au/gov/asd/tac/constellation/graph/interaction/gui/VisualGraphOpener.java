@@ -111,10 +111,10 @@ public final class VisualGraphOpener extends GraphOpener {
                     final NotifyDescriptor nd = new NotifyDescriptor(msg, "Open autosaved file?", NotifyDescriptor.YES_NO_OPTION, NotifyDescriptor.QUESTION_MESSAGE, null, null);
                     if (DialogDisplayer.getDefault().notify(nd) == NotifyDescriptor.YES_OPTION) {
                         // The user wants the more recent autosaved version.
-                        // Rename the actual file (to .bak), copy the autosaved version to the actual name, and delete the bak file.
+                        // Rename the actual file (to .bak), copy the autosaved version (merged with its delta) to the actual name, and delete the bak file.
                         final File autosaved = new File(AutosaveUtilities.getAutosaveDir(), props.getProperty(AutosaveUtilities.ID) + GraphDataObject.FILE_EXTENSION);
                         try {
-                            AutosaveUtilities.copyFile(autosaved, f);
+                            AutosaveUtilities.copyAutosave(autosaved, f);
                         } catch (IOException ex) {
                             LOGGER.log(Level.WARNING, "Copying autosaved file", ex);
                         }
@@ -176,7 +176,9 @@ public final class VisualGraphOpener extends GraphOpener {
             if (graph == null) {
                 try {
                     final long t0 = System.currentTimeMillis();
-                    graph = new GraphJsonReader().readGraphZip(graphFile, new HandleIoProgress(String.format("Reading %s...", graphFile.getName())));
+                    final GraphJsonReader reader = new GraphJsonReader();
+                    reader.setLazy(true);
+                    graph = reader.readGraphZip(graphFile, new HandleIoProgress(String.format("Reading %s...", graphFile.getName())));
                     time = System.currentTimeMillis() - t0;
                 } catch (GraphParseException | IOException | RuntimeException ex) {
                     gex = ex;
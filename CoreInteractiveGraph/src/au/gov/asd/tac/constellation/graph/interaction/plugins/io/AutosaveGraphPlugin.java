@@ -19,6 +19,8 @@ import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.ReadableGraph;
 import au.gov.asd.tac.constellation.graph.file.GraphDataObject;
+import au.gov.asd.tac.constellation.graph.file.io.GraphCheckpoint;
+import au.gov.asd.tac.constellation.graph.file.io.GraphDelta;
 import au.gov.asd.tac.constellation.graph.file.io.GraphJsonWriter;
 import au.gov.asd.tac.constellation.graph.file.save.AutosaveUtilities;
 import au.gov.asd.tac.constellation.graph.node.GraphNode;
@@ -40,8 +42,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.time.ZonedDateTime;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.openide.awt.StatusDisplayer;
@@ -52,6 +57,13 @@ import org.openide.util.lookup.ServiceProvider;
  * Autosave a single graph.
  * <p>
  * The caller has to go through the graphs and pass them one by one.
+ * <p>
+ * The first autosave of a graph writes the whole graph as a checkpoint. While
+ * the vertices, transactions and attributes of the graph stay the same, later
+ * autosaves only write the attributes whose values have changed since the
+ * checkpoint, as a delta alongside the checkpoint file, so they don't need to
+ * copy the graph. The whole graph is written again when its structure changes,
+ * or when the delta has grown too large compared to the checkpoint.
  *
  * @author algol
  */
@@ -62,6 +74,12 @@ public final class AutosaveGraphPlugin extends SimplePlugin {
 
     private static final Logger LOGGER = Logger.getLogger(AutosaveGraphPlugin.class.getName());
 
+    // The last checkpoint written for each graph, keyed by graph id.
+    private static final Map<String, GraphCheckpoint> CHECKPOINTS = new ConcurrentHashMap<>();
+
+    // A delta larger than this fraction of its checkpoint is compacted into a new checkpoint.
+    private static final double COMPACTION_RATIO = 0.5;
+
     @Override
     public void execute(final PluginGraphs graphs, final PluginInteraction interaction, final PluginParameters parameters) throws InterruptedException, PluginException {
         final Graph graph = graphs.getGraph();
@@ -73,32 +91,64 @@ public final class AutosaveGraphPlugin extends SimplePlugin {
 
             interaction.setProgress(-1, -1, "Autosaving: " + graphId, true);
 
+            final File saveDir = AutosaveUtilities.getAutosaveDir();
+            final String gname = graph.getId() + GraphDataObject.FILE_EXTENSION;
+            final File saveFile = new File(saveDir, gname);
+            final File deltaFile = AutosaveUtilities.getDeltaFile(saveFile);
+            final GraphJsonWriter writer = new GraphJsonWriter();
+
             // We don't want to hold the user up while we're reading from a graph they might be using.
-            // Make a copy of the graph so that we can release the read lock as soon as possible.
-            GraphReadMethods copy;
+            // Encode the changes since the last checkpoint, or failing that make a copy of the graph,
+            // so that we can release the read lock as soon as possible.
+            GraphDelta delta;
+            GraphReadMethods copy = null;
             ReadableGraph rg = graph.getReadableGraph();
             try {
-                copy = rg.copy();
+                delta = createDelta(writer, rg, graphId, saveFile);
+                if (delta == null) {
+                    copy = rg.copy();
+                }
             } finally {
                 rg.release();
             }
 
             interaction.setProgress(1, 0, "Finished", true);
 
-            final File saveDir = AutosaveUtilities.getAutosaveDir();
-
             try {
-                final String gname = graph.getId() + GraphDataObject.FILE_EXTENSION;
                 StatusDisplayer.getDefault().setStatusText(String.format("Auto saving %s as %s at %s...", graphId, gname, new Date()));
-                final File saveFile = new File(saveDir, gname);
-                new GraphJsonWriter().writeGraphToZip(copy, saveFile.getPath(), new HandleIoProgress("Autosaving..."));
+                if (delta != null) {
+                    writer.writeDeltaToZip(delta, deltaFile.getPath());
+
+                    // The next autosave writes the whole graph again.
+                    if (deltaFile.length() > delta.getCheckpoint().getSize() * COMPACTION_RATIO) {
+                        CHECKPOINTS.remove(graphId);
+                    }
 
-                ConstellationLoggerHelper.exportPropertyBuilder(
-                        this,
-                        GraphRecordStoreUtilities.getVertices(copy, false, false, false).getAll(GraphRecordStoreUtilities.SOURCE + VisualConcept.VertexAttribute.LABEL),
-                        saveFile,
-                        ConstellationLoggerHelper.SUCCESS
-                );
+                    // The vertices were logged when the checkpoint was written.
+                    ConstellationLoggerHelper.exportPropertyBuilder(this, Collections.emptyList(), deltaFile, ConstellationLoggerHelper.SUCCESS);
+                } else {
+                    final GraphCheckpoint checkpoint = writer.writeCheckpointToZip(copy, saveFile.getPath(), new HandleIoProgress("Autosaving..."));
+                    if (checkpoint != null) {
+                        CHECKPOINTS.put(graphId, checkpoint);
+                    } else {
+                        CHECKPOINTS.remove(graphId);
+                    }
+
+                    // Any delta belonged to the previous checkpoint.
+                    if (deltaFile.exists()) {
+                        final boolean deltaIsDeleted = deltaFile.delete();
+                        if (!deltaIsDeleted) {
+                            LOGGER.log(Level.WARNING, "Unable to delete autosave delta {0}", deltaFile);
+                        }
+                    }
+
+                    ConstellationLoggerHelper.exportPropertyBuilder(
+                            this,
+                            GraphRecordStoreUtilities.getVertices(copy, false, false, false).getAll(GraphRecordStoreUtilities.SOURCE + VisualConcept.VertexAttribute.LABEL),
+                            saveFile,
+                            ConstellationLoggerHelper.SUCCESS
+                    );
+                }
 
                 final Properties p = new Properties();
                 p.setProperty(AutosaveUtilities.ID, graph.getId());
@@ -110,8 +160,34 @@ public final class AutosaveGraphPlugin extends SimplePlugin {
                     p.store(s, null);
                 }
             } catch (IOException ex) {
+                CHECKPOINTS.remove(graphId);
                 LOGGER.log(Level.SEVERE, ex.getLocalizedMessage(), ex);
             }
         }
     }
+
+    /**
+     * Encode the changes to a graph since its last checkpoint.
+     *
+     * @param writer The writer that will write the delta.
+     * @param rg The graph, which must be locked.
+     * @param graphId The id of the graph.
+     * @param saveFile The autosaved checkpoint file.
+     *
+     * @return The changes since the last checkpoint, or null if the whole graph
+     * must be written.
+     */
+    private static GraphDelta createDelta(final GraphJsonWriter writer, final ReadableGraph rg, final String graphId, final File saveFile) {
+        final GraphCheckpoint checkpoint = CHECKPOINTS.get(graphId);
+        if (checkpoint == null || !saveFile.exists() || !checkpoint.canWriteDelta(rg)) {
+            return null;
+        }
+
+        try {
+            return writer.createDelta(rg, checkpoint);
+        } catch (final IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to create autosave delta, writing the whole graph", ex);
+            return null;
+        }
+    }
 }
@@ -87,7 +87,8 @@ public final class AutosaveStartup implements Runnable {
                                             // Remove the "_auto" from the end and load the matching graph.
                                             String path = f.getPath();
                                             path = path.substring(0, path.length() - 5);
-                                            final Graph g = new GraphJsonReader().readGraphZip(new File(path), new HandleIoProgress(loading));
+                                            final File graphFile = new File(path);
+                                            final Graph g = new GraphJsonReader().readGraphZip(graphFile, AutosaveUtilities.getDeltaFile(graphFile), new HandleIoProgress(loading));
                                             GraphOpener.getDefault().openGraph(g, name, false);
 
                                             AutosaveUtilities.deleteAutosave(f);
@@ -21,6 +21,7 @@ import au.gov.asd.tac.constellation.utilities.memory.MemoryManagerListener;
 import au.gov.asd.tac.constellation.utilities.text.SeparatorConstants;
 import java.util.Map;
 import java.util.Map.Entry;
+import javax.swing.SwingUtilities;
 import org.netbeans.api.settings.ConvertAsProperties;
 import org.openide.awt.ActionID;
 import org.openide.awt.ActionReference;
@@ -125,6 +126,11 @@ public final class MemoryManagerTopComponent extends TopComponent implements Mem
         updateObjectCounts();
     }
 
+    @Override
+    public void usageChanged(final String name) {
+        SwingUtilities.invokeLater(this::updateObjectCounts);
+    }
+
     private void updateObjectCounts() {
 
         StringBuilder result = new StringBuilder();
@@ -143,6 +149,14 @@ public final class MemoryManagerTopComponent extends TopComponent implements Mem
             result.append(SeparatorConstants.NEWLINE);
         }
 
+        Map<String, Long> usage = MemoryManager.getUsage();
+        for (Entry<String, Long> e : usage.entrySet()) {
+            result.append(e.getKey());
+            result.append(": ");
+            result.append(e.getValue());
+            result.append(SeparatorConstants.NEWLINE);
+        }
+
         objectCountsTextArea.setText(result.toString());
     }
 }
@@ -25,6 +25,10 @@ import java.util.Map;
  * instances of participating classes. This is mainly of use to developers
  * interested in detecting memory leaks. It is up to a specific class to send
  * new and finalize information to the MemoryManager.
+ * <p>
+ * The MemoryManager also records named usage figures, such as the number of
+ * bytes held by a cache, which participating classes keep up to date by
+ * reporting changes with {@link #addUsage(String, long)}.
  *
  * @author sirius
  */
@@ -51,6 +55,8 @@ public class MemoryManager {
 
     private static final Map<Class<?>, ClassStats> OBJECT_COUNTS = new HashMap<>();
 
+    private static final Map<String, Long> USAGE = new HashMap<>();
+
     // The listeners currently registered
     private static final List<MemoryManagerListener> LISTENERS = new ArrayList<>();
 
@@ -111,6 +117,38 @@ public class MemoryManager {
         }
     }
 
+    /**
+     * Adds an amount to a named usage figure.
+     *
+     * @param name the name of the usage figure.
+     * @param amount the amount to add, which is negative if usage has fallen.
+     */
+    public static void addUsage(final String name, final long amount) {
+        synchronized (USAGE) {
+            USAGE.merge(name, amount, Long::sum);
+        }
+
+        // notify a copy so that listeners are not called with LISTENERS locked
+        final List<MemoryManagerListener> listeners;
+        synchronized (LISTENERS) {
+            listeners = new ArrayList<>(LISTENERS);
+        }
+        listeners.forEach(listener -> listener.usageChanged(name));
+    }
+
+    /**
+     * Returns the current value of every named usage figure. The returned Map
+     * is a copy meaning that it can be mutated as required with out effecting
+     * the MemoryManager.
+     *
+     * @return the current value of every named usage figure.
+     */
+    public static Map<String, Long> getUsage() {
+        synchronized (USAGE) {
+            return new HashMap<>(USAGE);
+        }
+    }
+
     /**
      * Adds a new listener to this MemoryManager.
      *
@@ -41,4 +41,13 @@ public interface MemoryManagerListener {
      */
     public void finalizeObject(Class<?> c);
 
+    /**
+     * Called by the {@link MemoryManager} when a named usage figure changes.
+     * This may be called from any thread.
+     *
+     * @param name the name of the usage figure that has changed.
+     */
+    public default void usageChanged(final String name) {
+    }
+
 }
@@ -39,6 +39,7 @@ import au.gov.asd.tac.constellation.utilities.visual.VisualChangeBuilder;
 import au.gov.asd.tac.constellation.utilities.visual.VisualProperty;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +57,11 @@ import java.util.Objects;
  * the mod counts are updated and a list of visual changes corresponding to
  * those attributes with altered mod counts is returned.
  * <p>
+ * For properties of individual vertices and connections, such as colour and
+ * selection, a {@link VisualPropertySnapshot} of the values last reported is
+ * kept so that each change lists only the elements whose value differs,
+ * rather than every element in the graph.
+ * <p>
  * The handling of certain properties like label text, are a little more tricky,
  * but the aforementioned basic principles still apply in theory.
  *
@@ -144,8 +150,34 @@ public final class GraphVisualAccess implements VisualAccess {
     private int[] connectionElementIds = new int[0];
     private int[] linkStartingPositions = new int[0];
 
+    // The values last reported for each per-element property, used to report only the elements that changed
+    private final Map<VisualProperty, VisualPropertySnapshot> vertexSnapshots = new EnumMap<>(VisualProperty.class);
+    private final Map<VisualProperty, VisualPropertySnapshot> connectionSnapshots = new EnumMap<>(VisualProperty.class);
+
     public GraphVisualAccess(final Graph graph) {
         this.graph = graph;
+
+        vertexSnapshots.put(VisualProperty.VERTEX_X, VisualPropertySnapshot.ofPrimitive(vertex -> Float.floatToIntBits(getX(vertex))));
+        vertexSnapshots.put(VisualProperty.VERTEX_Y, VisualPropertySnapshot.ofPrimitive(vertex -> Float.floatToIntBits(getY(vertex))));
+        vertexSnapshots.put(VisualProperty.VERTEX_Z, VisualPropertySnapshot.ofPrimitive(vertex -> Float.floatToIntBits(getZ(vertex))));
+        vertexSnapshots.put(VisualProperty.VERTEX_X2, VisualPropertySnapshot.ofPrimitive(vertex -> Float.floatToIntBits(getX2(vertex))));
+        vertexSnapshots.put(VisualProperty.VERTEX_Y2, VisualPropertySnapshot.ofPrimitive(vertex -> Float.floatToIntBits(getY2(vertex))));
+        vertexSnapshots.put(VisualProperty.VERTEX_Z2, VisualPropertySnapshot.ofPrimitive(vertex -> Float.floatToIntBits(getZ2(vertex))));
+        vertexSnapshots.put(VisualProperty.VERTEX_COLOR, VisualPropertySnapshot.ofObject(this::getVertexColor));
+        vertexSnapshots.put(VisualProperty.VERTEX_BACKGROUND_ICON, VisualPropertySnapshot.ofObject(this::getBackgroundIcon));
+        vertexSnapshots.put(VisualProperty.VERTEX_FOREGROUND_ICON, VisualPropertySnapshot.ofObject(this::getForegroundIcon));
+        vertexSnapshots.put(VisualProperty.VERTEX_SELECTED, VisualPropertySnapshot.ofPrimitive(vertex -> getVertexSelected(vertex) ? 1 : 0));
+        vertexSnapshots.put(VisualProperty.VERTEX_VISIBILITY, VisualPropertySnapshot.ofPrimitive(vertex -> Float.floatToIntBits(getVertexVisibility(vertex))));
+        vertexSnapshots.put(VisualProperty.VERTEX_DIM, VisualPropertySnapshot.ofPrimitive(vertex -> getVertexDimmed(vertex) ? 1 : 0));
+        vertexSnapshots.put(VisualProperty.VERTEX_RADIUS, VisualPropertySnapshot.ofPrimitive(vertex -> Float.floatToIntBits(getRadius(vertex))));
+
+        connectionSnapshots.put(VisualProperty.CONNECTION_COLOR, VisualPropertySnapshot.ofObject(this::getConnectionColor));
+        connectionSnapshots.put(VisualProperty.CONNECTION_SELECTED, VisualPropertySnapshot.ofPrimitive(connection -> getConnectionSelected(connection) ? 1 : 0));
+        connectionSnapshots.put(VisualProperty.CONNECTION_DIRECTED, VisualPropertySnapshot.ofPrimitive(connection -> getConnectionDirected(connection) ? 1 : 0));
+        connectionSnapshots.put(VisualProperty.CONNECTION_VISIBILITY, VisualPropertySnapshot.ofPrimitive(connection -> Float.floatToIntBits(getConnectionVisibility(connection))));
+        connectionSnapshots.put(VisualProperty.CONNECTION_DIM, VisualPropertySnapshot.ofPrimitive(connection -> getConnectionDimmed(connection) ? 1 : 0));
+        connectionSnapshots.put(VisualProperty.CONNECTION_LINESTYLE, VisualPropertySnapshot.ofObject(this::getConnectionLineStyle));
+        connectionSnapshots.put(VisualProperty.CONNECTION_WIDTH, VisualPropertySnapshot.ofPrimitive(connection -> Float.floatToIntBits(getConnectionWidth(connection))));
     }
 
     @Override
@@ -401,7 +433,7 @@ public final class GraphVisualAccess implements VisualAccess {
             if (recordChanges) {
                 count = vertexColor == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexColor);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.COLOR, count)) || vertexColorChanged) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_COLOR).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_COLOR, verticesRebuilding);
                 }
             }
 
@@ -421,7 +453,7 @@ public final class GraphVisualAccess implements VisualAccess {
             if (recordChanges) {
                 count = transactionColor == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(transactionColor);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.TransactionAttribute.COLOR, count)) || transactionColorChanged) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.CONNECTION_COLOR).forItems(connectionElementTypes.length).build());
+                    addConnectionChange(changes, VisualProperty.CONNECTION_COLOR, connectionsRebuilding);
                 }
             }
 
@@ -468,7 +500,7 @@ public final class GraphVisualAccess implements VisualAccess {
                 }
                 count = graphMixColor == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(graphMixColor);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.GraphAttribute.MIX_COLOR, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.CONNECTION_COLOR).forItems(connectionElementTypes.length).build());
+                    addConnectionChange(changes, VisualProperty.CONNECTION_COLOR, connectionsRebuilding);
                 }
                 count = graphVisibleAboveThreshold == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(graphVisibleAboveThreshold);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.GraphAttribute.VISIBLE_ABOVE_THRESHOLD, count))) {
@@ -482,55 +514,55 @@ public final class GraphVisualAccess implements VisualAccess {
                 // Handle stand-alone changes to vertex visual attributes
                 count = vertexX == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexX);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.X, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_X).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_X, verticesRebuilding);
                 }
                 count = vertexY == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexY);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.Y, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_Y).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_Y, verticesRebuilding);
                 }
                 count = vertexZ == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexZ);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.Z, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_Z).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_Z, verticesRebuilding);
                 }
                 count = vertexX2 == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexX2);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.X2, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_X2).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_X2, verticesRebuilding);
                 }
                 count = vertexY2 == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexY2);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.Y2, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_Y2).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_Y2, verticesRebuilding);
                 }
                 count = vertexZ2 == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexZ2);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.Z2, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_Z2).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_Z2, verticesRebuilding);
                 }
                 count = vertexBackgroundIcon == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexBackgroundIcon);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.BACKGROUND_ICON, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_BACKGROUND_ICON).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_BACKGROUND_ICON, verticesRebuilding);
                 }
                 count = vertexForegroundIcon == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexForegroundIcon);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.FOREGROUND_ICON, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_FOREGROUND_ICON).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_FOREGROUND_ICON, verticesRebuilding);
                 }
                 count = vertexSelected == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexSelected);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.SELECTED, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_SELECTED).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_SELECTED, verticesRebuilding);
                 }
                 count = vertexVisibility == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexVisibility);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.VISIBILITY, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_VISIBILITY).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_VISIBILITY, verticesRebuilding);
                 }
                 count = vertexLayerVisibility == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexLayerVisibility);
                 if (!Objects.equals(count, modCounts.put(LayersConcept.VertexAttribute.LAYER_VISIBILITY, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_VISIBILITY).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_VISIBILITY, verticesRebuilding);
                 }
                 count = vertexDimmed == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexDimmed);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.DIMMED, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_DIM).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_DIM, verticesRebuilding);
                 }
                 count = vertexRadius == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexRadius);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.NODE_RADIUS, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.VERTEX_RADIUS).forItems(accessGraph.getVertexCount()).build());
+                    addVertexChange(changes, VisualProperty.VERTEX_RADIUS, verticesRebuilding);
                 }
                 count = vertexBlaze == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(vertexBlaze);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.VertexAttribute.BLAZE, count))) {
@@ -542,37 +574,65 @@ public final class GraphVisualAccess implements VisualAccess {
                 // Handle stand-alone changes to transaction visual attributes
                 count = transactionSelected == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(transactionSelected);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.TransactionAttribute.SELECTED, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.CONNECTION_SELECTED).forItems(connectionElementTypes.length).build());
+                    addConnectionChange(changes, VisualProperty.CONNECTION_SELECTED, connectionsRebuilding);
                 }
                 count = transactionDirected == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(transactionDirected);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.TransactionAttribute.DIRECTED, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.CONNECTION_DIRECTED).forItems(connectionElementTypes.length).build());
+                    addConnectionChange(changes, VisualProperty.CONNECTION_DIRECTED, connectionsRebuilding);
                 }
                 count = transactionVisibility == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(transactionVisibility);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.TransactionAttribute.VISIBILITY, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.CONNECTION_VISIBILITY).forItems(connectionElementTypes.length).build());
+                    addConnectionChange(changes, VisualProperty.CONNECTION_VISIBILITY, connectionsRebuilding);
                 }
                 count = transactionLayerVisibility == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(transactionLayerVisibility);
                 if (!Objects.equals(count, modCounts.put(LayersConcept.TransactionAttribute.LAYER_VISIBILITY, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.CONNECTION_VISIBILITY).forItems(connectionElementTypes.length).build());
+                    addConnectionChange(changes, VisualProperty.CONNECTION_VISIBILITY, connectionsRebuilding);
                 }
                 count = transactionDimmed == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(transactionDimmed);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.TransactionAttribute.DIMMED, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.CONNECTION_DIM).forItems(connectionElementTypes.length).build());
+                    addConnectionChange(changes, VisualProperty.CONNECTION_DIM, connectionsRebuilding);
                 }
                 count = transactionLineStyle == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(transactionLineStyle);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.TransactionAttribute.LINE_STYLE, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.CONNECTION_LINESTYLE).forItems(connectionElementTypes.length).build());
+                    addConnectionChange(changes, VisualProperty.CONNECTION_LINESTYLE, connectionsRebuilding);
                 }
                 count = transactionWidth == Graph.NOT_FOUND ? -1 : accessGraph.getValueModificationCounter(transactionWidth);
                 if (!Objects.equals(count, modCounts.put(VisualConcept.TransactionAttribute.WIDTH, count))) {
-                    changes.add(new VisualChangeBuilder(VisualProperty.CONNECTION_WIDTH).forItems(connectionElementTypes.length).build());
+                    addConnectionChange(changes, VisualProperty.CONNECTION_WIDTH, connectionsRebuilding);
                 }
             }
         }
         return changes;
     }
 
+    private void addVertexChange(final List<VisualChange> changes, final VisualProperty property, final boolean verticesRebuilding) {
+        addChange(changes, property, vertexSnapshots.get(property), accessGraph.getVertexCount(), verticesRebuilding);
+    }
+
+    private void addConnectionChange(final List<VisualChange> changes, final VisualProperty property, final boolean connectionsRebuilding) {
+        addChange(changes, property, connectionSnapshots.get(property), connectionElementTypes.length, connectionsRebuilding);
+    }
+
+    /**
+     * Adds a change to a per-element property, restricted to the elements
+     * whose value differs from the snapshot. While the structure is being
+     * rebuilt element positions may move, so every element is reported and
+     * the snapshot is discarded.
+     */
+    private static void addChange(final List<VisualChange> changes, final VisualProperty property, final VisualPropertySnapshot snapshot, final int count, final boolean rebuilding) {
+        if (rebuilding) {
+            snapshot.invalidate();
+            changes.add(new VisualChangeBuilder(property).forItems(count).build());
+            return;
+        }
+        final int[] changed = snapshot.update(count);
+        if (changed == null) {
+            changes.add(new VisualChangeBuilder(property).forItems(count).build());
+        } else if (changed.length > 0) {
+            changes.add(new VisualChangeBuilder(property).forItems(changed).build());
+        }
+    }
+
     private void recalculateVisualAttributes(final GraphReadMethods rg) {
         graphBackgroundColor = VisualConcept.GraphAttribute.BACKGROUND_COLOR.get(rg);
         graphHighlightColor = VisualConcept.GraphAttribute.HIGHLIGHT_COLOR.get(rg);
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.visual.framework;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The values of a single per-element visual property as they were when the
+ * property was last reported as changed by a {@link GraphVisualAccess}.
+ * <p>
+ * When an attribute's modification counter changes, comparing the current
+ * values against the snapshot gives the positions of just those elements that
+ * a {@link au.gov.asd.tac.constellation.utilities.visual.VisualProcessor}
+ * needs to buffer again. Primitive values are held as int bits and all other
+ * values as references, so a snapshot costs one int or reference per element.
+ * Snapshots are only taken once a property first changes.
+ *
+ * @author antares
+ */
+final class VisualPropertySnapshot {
+
+    // When more than this fraction of elements change, report every element
+    private static final int FULL_CHANGE_DIVISOR = 2;
+
+    private static final int[] NO_CHANGES = new int[0];
+
+    private final IntUnaryOperator primitiveGetter;
+    private final IntFunction<Object> objectGetter;
+
+    private int[] primitives = null;
+    private Object[] objects = null;
+    private int size = -1;
+
+    private VisualPropertySnapshot(final IntUnaryOperator primitiveGetter, final IntFunction<Object> objectGetter) {
+        this.primitiveGetter = primitiveGetter;
+        this.objectGetter = objectGetter;
+    }
+
+    /**
+     * Creates a snapshot of a primitive property.
+     *
+     * @param getter returns the value at a position encoded as int bits.
+     * @return a new, empty snapshot.
+     */
+    static VisualPropertySnapshot ofPrimitive(final IntUnaryOperator getter) {
+        return new VisualPropertySnapshot(getter, null);
+    }
+
+    /**
+     * Creates a snapshot of an object property, compared using equals.
+     *
+     * @param getter returns the value at a position.
+     * @return a new, empty snapshot.
+     */
+    static VisualPropertySnapshot ofObject(final IntFunction<Object> getter) {
+        return new VisualPropertySnapshot(null, getter);
+    }
+
+    /**
+     * Discards the snapshot, so that the next update reports every element as
+     * changed. This must be called whenever element positions may have moved.
+     */
+    void invalidate() {
+        primitives = null;
+        objects = null;
+        size = -1;
+    }
+
+    /**
+     * Compares the current values against the snapshot and records the
+     * current values.
+     *
+     * @param count the current number of elements.
+     * @return the ascending positions of the elements whose value changed, or
+     * null if every element should be treated as changed.
+     */
+    int[] update(final int count) {
+        if (count != size) {
+            capture(count);
+            return null;
+        }
+
+        int[] changed = NO_CHANGES;
+        int changedCount = 0;
+        for (int position = 0; position < count; position++) {
+            final boolean differs;
+            if (primitives != null) {
+                final int value = primitiveGetter.applyAsInt(position);
+                differs = value != primitives[position];
+                primitives[position] = value;
+            } else {
+                final Object value = objectGetter.apply(position);
+                differs = !Objects.equals(value, objects[position]);
+                objects[position] = value;
+            }
+            if (differs) {
+                if (changedCount == changed.length) {
+                    changed = Arrays.copyOf(changed, Math.max(16, changedCount * 2));
+                }
+                changed[changedCount++] = position;
+            }
+        }
+
+        return changedCount > count / FULL_CHANGE_DIVISOR ? null : Arrays.copyOf(changed, changedCount);
+    }
+
+    private void capture(final int count) {
+        size = count;
+        if (primitiveGetter != null) {
+            primitives = new int[count];
+            Arrays.setAll(primitives, primitiveGetter::applyAsInt);
+        } else {
+            objects = new Object[count];
+            Arrays.setAll(objects, objectGetter);
+        }
+    }
+}
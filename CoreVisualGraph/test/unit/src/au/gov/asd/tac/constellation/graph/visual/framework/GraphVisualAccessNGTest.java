@@ -0,0 +1,174 @@
+/*
+ * Copyright 2010-2020 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.visual.framework;
+
+import au.gov.asd.tac.constellation.graph.WritableGraph;
+import au.gov.asd.tac.constellation.graph.locking.DualGraph;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.utilities.color.ConstellationColor;
+import au.gov.asd.tac.constellation.utilities.visual.VisualChange;
+import au.gov.asd.tac.constellation.utilities.visual.VisualProperty;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Graph Visual Access Test.
+ * <p>
+ * Counts the elements each reported {@link VisualChange} would cause a
+ * visual processor to buffer, without needing a GL context.
+ *
+ * @author antares
+ */
+public class GraphVisualAccessNGTest {
+
+    private static final int VERTICES = 100;
+
+    private DualGraph graph;
+    private GraphVisualAccess access;
+    private int vertexSelected;
+    private int transactionColor;
+    private int[] vertices;
+    private int[] transactions;
+
+    @BeforeMethod
+    public void setUpMethod() throws InterruptedException {
+        graph = new DualGraph(null);
+        vertices = new int[VERTICES];
+        transactions = new int[VERTICES - 1];
+
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            vertexSelected = VisualConcept.VertexAttribute.SELECTED.ensure(wg);
+            transactionColor = VisualConcept.TransactionAttribute.COLOR.ensure(wg);
+            for (int i = 0; i < VERTICES; i++) {
+                vertices[i] = wg.addVertex();
+            }
+            for (int i = 0; i < VERTICES - 1; i++) {
+                transactions[i] = wg.addTransaction(vertices[i], vertices[i + 1], true);
+            }
+        } finally {
+            wg.commit();
+        }
+
+        access = new GraphVisualAccess(graph);
+        getBufferedElements();
+    }
+
+    /**
+     * Collects the changes reported by the access and counts the elements
+     * that would be buffered for each property.
+     */
+    private Map<VisualProperty, Integer> getBufferedElements() {
+        final Map<VisualProperty, Integer> counts = new EnumMap<>(VisualProperty.class);
+        for (final VisualChange change : getChanges()) {
+            counts.merge(change.property, change.getSize(), Integer::sum);
+        }
+        return counts;
+    }
+
+    private List<VisualChange> getChanges() {
+        access.beginUpdate();
+        try {
+            return new ArrayList<>(access.getIndigenousChanges());
+        } finally {
+            access.endUpdate();
+        }
+    }
+
+    private void setSelected(final int vertex, final boolean selected) throws InterruptedException {
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            wg.setBooleanValue(vertexSelected, vertex, selected);
+        } finally {
+            wg.commit();
+        }
+    }
+
+    @Test
+    public void selectingOneVertexBuffersOneVertex() throws InterruptedException {
+
+        // The first change to a property reports every vertex
+        setSelected(vertices[0], true);
+        assertEquals(getBufferedElements().get(VisualProperty.VERTEX_SELECTED), Integer.valueOf(VERTICES));
+
+        setSelected(vertices[42], true);
+        final List<VisualChange> changes = getChanges();
+        assertEquals(changes.size(), 1);
+        final VisualChange change = changes.get(0);
+        assertEquals(change.property, VisualProperty.VERTEX_SELECTED);
+        assertEquals(change.getSize(), 1);
+        assertEquals(change.getElement(0), 42);
+    }
+
+    @Test
+    public void colouringOneTransactionBuffersOneConnection() throws InterruptedException {
+        WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            wg.setObjectValue(transactionColor, transactions[0], ConstellationColor.BLUE);
+        } finally {
+            wg.commit();
+        }
+        getBufferedElements();
+
+        wg = graph.getWritableGraph("", true);
+        try {
+            wg.setObjectValue(transactionColor, transactions[10], ConstellationColor.RED);
+        } finally {
+            wg.commit();
+        }
+        assertEquals(getBufferedElements().get(VisualProperty.CONNECTION_COLOR), Integer.valueOf(1));
+    }
+
+    @Test
+    public void unchangedValueBuffersNothing() throws InterruptedException {
+        setSelected(vertices[0], true);
+        getBufferedElements();
+
+        setSelected(vertices[0], false);
+        setSelected(vertices[0], true);
+        assertFalse(getBufferedElements().containsKey(VisualProperty.VERTEX_SELECTED));
+    }
+
+    @Test
+    public void structuralChangeBuffersEveryVertex() throws InterruptedException {
+        setSelected(vertices[0], true);
+        getBufferedElements();
+
+        final WritableGraph wg = graph.getWritableGraph("", true);
+        try {
+            final int vertex = wg.addVertex();
+            wg.setBooleanValue(vertexSelected, vertex, true);
+        } finally {
+            wg.commit();
+        }
+        final Map<VisualProperty, Integer> counts = getBufferedElements();
+        assertTrue(counts.containsKey(VisualProperty.VERTICES_REBUILD));
+        assertEquals(counts.get(VisualProperty.VERTEX_SELECTED), Integer.valueOf(VERTICES + 1));
+
+        // Once rebuilt, changes are restricted again
+        setSelected(vertices[1], true);
+        getBufferedElements();
+        setSelected(vertices[2], true);
+        assertEquals(getBufferedElements().get(VisualProperty.VERTEX_SELECTED), Integer.valueOf(1));
+    }
+}